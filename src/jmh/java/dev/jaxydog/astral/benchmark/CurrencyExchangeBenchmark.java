@@ -0,0 +1,232 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.benchmark;
+
+import dev.jaxydog.astral.utility.CurrencyHelper;
+import dev.jaxydog.astral.utility.CurrencyHelper.ExchangeGraph;
+import dev.jaxydog.astral.utility.CurrencyHelper.ExchangePlan;
+import dev.jaxydog.astral.utility.CurrencyHelper.Reward;
+import dev.jaxydog.astral.utility.CurrencyHelper.SkeletonSolver;
+import dev.jaxydog.astral.utility.CurrencyHelper.Unit;
+import net.minecraft.inventory.SimpleInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.random.Random;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the planning and application of currency exchanges over synthetic 41-slot inventories.
+ * <p>
+ * Applying an exchange mutates its inventory, so {@link #exchange(Blackhole)} restores the inventory from a template
+ * first; {@link #copyInventory()} measures that restoration alone so that it may be subtracted.
+ * <p>
+ * Run with {@code ./gradlew jmh}, which also reports allocation rates through the {@code gc} profiler.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CurrencyExchangeBenchmark {
+
+    /**
+     * The reward chance used when planning unit exchanges.
+     *
+     * @since 2.3.0
+     */
+    private static final double REWARD_CHANCE = 0.25D;
+
+    /**
+     * The number of configured units.
+     *
+     * @since 2.3.0
+     */
+    @Param({ "1", "10", "50", "200" })
+    public int units;
+    /**
+     * The number of unit namespaces.
+     *
+     * @since 2.3.0
+     */
+    @Param({ "1", "4" })
+    public int namespaces;
+    /**
+     * The number of rewards required by each skeleton.
+     *
+     * @since 2.3.0
+     */
+    @Param({ "2", "16" })
+    public int depth;
+
+    /**
+     * The random number generator.
+     *
+     * @since 2.3.0
+     */
+    private final Random random = Random.create(0L);
+    /**
+     * The reusable exchange plan.
+     *
+     * @since 2.3.0
+     */
+    private final ExchangePlan plan = new ExchangePlan();
+
+    /**
+     * The template inventory.
+     *
+     * @since 2.3.0
+     */
+    private SimpleInventory template;
+    /**
+     * The inventory that is mutated by each exchange.
+     *
+     * @since 2.3.0
+     */
+    private SimpleInventory inventory;
+    /**
+     * The unit counts of the template inventory.
+     *
+     * @since 2.3.0
+     */
+    private int[] unitCounts;
+    /**
+     * The reward counts of the template inventory.
+     *
+     * @since 2.3.0
+     */
+    private int[] rewardCounts;
+
+    /**
+     * Loads the synthetic currency configuration and inventories.
+     *
+     * @since 2.3.0
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        CurrencyFixtures.bootstrap();
+        CurrencyFixtures.load(this.units, this.namespaces, 32, 16, this.depth);
+
+        this.template = CurrencyFixtures.createInventory(this.random);
+        this.inventory = new SimpleInventory(CurrencyFixtures.INVENTORY_SIZE);
+
+        final ExchangeGraph graph = ExchangeGraph.get();
+        final SkeletonSolver solver = SkeletonSolver.get();
+
+        this.unitCounts = new int[graph.size()];
+        this.rewardCounts = new int[solver.getRewardCount()];
+
+        for (int slot = 0; slot < this.template.size(); slot += 1) {
+            final ItemStack stack = this.template.getStack(slot);
+
+            if (stack.isEmpty()) continue;
+
+            Unit.UNITS.find(stack).map(graph::indexOf).filter(i -> i >= 0).ifPresent(i -> {
+                this.unitCounts[i] += stack.getCount();
+            });
+            Reward.REWARDS.find(stack).map(solver::indexOf).filter(i -> i >= 0).ifPresent(i -> {
+                this.rewardCounts[i] += stack.getCount();
+            });
+        }
+    }
+
+    /**
+     * Measures restoring the mutable inventory from its template.
+     *
+     * @return The restored inventory.
+     *
+     * @since 2.3.0
+     */
+    @Benchmark
+    public SimpleInventory copyInventory() {
+        CurrencyFixtures.copyInventory(this.template, this.inventory);
+
+        return this.inventory;
+    }
+
+    /**
+     * Measures counting and planning every exchange within an inventory, without applying it.
+     *
+     * @return Whether any exchanges were planned.
+     *
+     * @since 2.3.0
+     */
+    @Benchmark
+    public boolean planExchange() {
+        final boolean planned = CurrencyHelper.planExchange(this.plan, this.template, this.random, REWARD_CHANCE);
+
+        this.plan.clear();
+
+        return planned;
+    }
+
+    /**
+     * Measures planning unit exchanges from pre-computed counts, as done by {@code tryExchangeUnits}.
+     *
+     * @return Whether any exchanges were planned.
+     *
+     * @since 2.3.0
+     */
+    @Benchmark
+    public boolean planUnits() {
+        final boolean planned = CurrencyHelper.planUnits(
+            this.plan,
+            ExchangeGraph.get(),
+            this.unitCounts,
+            this.random,
+            REWARD_CHANCE
+        );
+
+        this.plan.clear();
+
+        return planned;
+    }
+
+    /**
+     * Measures planning skeleton crafting from pre-computed counts, as done by {@code tryExchangeRewards}.
+     *
+     * @return Whether any exchanges were planned.
+     *
+     * @since 2.3.0
+     */
+    @Benchmark
+    public boolean planRewards() {
+        final boolean planned = CurrencyHelper.planRewards(this.plan, SkeletonSolver.get(), this.rewardCounts);
+
+        this.plan.clear();
+
+        return planned;
+    }
+
+    /**
+     * Measures a complete exchange, including restoring the inventory from its template.
+     *
+     * @param blackhole Consumes overflowing item stacks.
+     *
+     * @return The number of modified slots.
+     *
+     * @since 2.3.0
+     */
+    @Benchmark
+    public int exchange(Blackhole blackhole) {
+        CurrencyFixtures.copyInventory(this.template, this.inventory);
+        CurrencyHelper.planExchange(this.plan, this.inventory, this.random, REWARD_CHANCE);
+
+        return this.plan.apply(this.inventory, CurrencyFixtures.MAIN_SIZE, blackhole::consume);
+    }
+
+}
@@ -0,0 +1,228 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.benchmark;
+
+import dev.jaxydog.astral.utility.CurrencyHelper;
+import dev.jaxydog.astral.utility.CurrencyHelper.CurrencySnapshot;
+import dev.jaxydog.astral.utility.CurrencyHelper.Reward;
+import dev.jaxydog.astral.utility.CurrencyHelper.Skeleton;
+import dev.jaxydog.astral.utility.CurrencyHelper.Unit;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.inventory.SimpleInventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.random.Random;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds synthetic currency configurations and inventories for benchmarking.
+ * <p>
+ * Every currency type is backed by a distinct vanilla item, so only the vanilla registries need to be bootstrapped.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+public final class CurrencyFixtures {
+
+    /**
+     * The number of slots within a player's inventory.
+     *
+     * @since 2.3.0
+     */
+    public static final int INVENTORY_SIZE = 41;
+    /**
+     * The number of slots within a player's main inventory.
+     *
+     * @since 2.3.0
+     */
+    public static final int MAIN_SIZE = 36;
+    /**
+     * The number of items reserved for unrelated, non-currency stacks.
+     *
+     * @since 2.3.0
+     */
+    private static final int RESERVED_ITEMS = 16;
+
+    /**
+     * Vanilla items that may be used to represent synthetic currency, in registry order.
+     *
+     * @since 2.3.0
+     */
+    private static List<Item> items;
+
+    /**
+     * Prevents this class from being instantiated.
+     *
+     * @since 2.3.0
+     */
+    private CurrencyFixtures() { }
+
+    /**
+     * Bootstraps the vanilla registries, if they have not been already.
+     *
+     * @since 2.3.0
+     */
+    public static synchronized void bootstrap() {
+        if (items != null) return;
+
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        items = Registries.ITEM.stream().filter(item -> item != Items.AIR && item.getMaxCount() == 64).toList();
+    }
+
+    /**
+     * Loads a synthetic currency configuration and compiles it.
+     * <p>
+     * Units are split evenly across the given number of namespaces. Within each namespace, unit values count upwards
+     * from one, so every unit exchanges into the unit worth twice as much, and every other namespace is exchangeable
+     * at a fixed rate. Every skeleton requires {@code depth} rewards, overlapping with the requirements of its
+     * neighbours.
+     *
+     * @param units The number of units.
+     * @param namespaces The number of unit namespaces.
+     * @param rewards The number of rewards.
+     * @param skeletons The number of skeletons.
+     * @param depth The number of rewards required by each skeleton.
+     *
+     * @since 2.3.0
+     */
+    public static void load(int units, int namespaces, int rewards, int skeletons, int depth) {
+        if (units + rewards + skeletons > items.size() - RESERVED_ITEMS) {
+            throw new IllegalArgumentException("Not enough items to represent %d currency types".formatted(
+                units + rewards + skeletons));
+        }
+
+        int item = 0;
+
+        final Map<Identifier, Unit> unitMap = new Object2ObjectOpenHashMap<>(units);
+
+        for (int index = 0; index < units; index += 1) {
+            final int namespace = index % namespaces;
+            final Map<String, Integer> exchanges = new Object2IntOpenHashMap<>(namespaces);
+
+            for (int other = 0; other < namespaces; other += 1) {
+                if (other != namespace) exchanges.put("bench_" + other, 3);
+            }
+
+            final Identifier id = new Identifier("bench_" + namespace, "unit_" + index);
+            final int value = index / namespaces + 1;
+
+            unitMap.put(id, new Unit(getItemId(item++), value, index % 4 == 0, exchanges));
+        }
+
+        final Map<Identifier, Reward> rewardMap = new Object2ObjectOpenHashMap<>(rewards);
+        final List<Identifier> rewardIds = new ObjectArrayList<>(rewards);
+
+        for (int index = 0; index < rewards; index += 1) {
+            final Identifier id = new Identifier("bench", "reward_" + index);
+
+            rewardMap.put(id, new Reward(getItemId(item++), index + 1));
+            rewardIds.add(id);
+        }
+
+        final Map<Identifier, Skeleton> skeletonMap = new Object2ObjectOpenHashMap<>(skeletons);
+
+        for (int index = 0; index < skeletons; index += 1) {
+            final List<Identifier> requires = new ObjectArrayList<>(depth);
+
+            for (int requirement = 0; requirement < depth && rewards > 0; requirement += 1) {
+                requires.add(rewardIds.get((index + requirement) % rewards));
+            }
+
+            skeletonMap.put(new Identifier("bench", "skeleton_" + index), new Skeleton(getItemId(item++), requires));
+        }
+
+        CurrencySnapshot.load(CurrencySnapshot.compile(unitMap, rewardMap, skeletonMap));
+    }
+
+    /**
+     * Creates a synthetic player-sized inventory.
+     * <p>
+     * Roughly half of the main inventory is filled with exchangeable currency, a quarter with unrelated items, and the
+     * remainder is left empty. The armor and offhand slots always contain unrelated items.
+     *
+     * @param random The random number generator.
+     *
+     * @return A new inventory.
+     *
+     * @since 2.3.0
+     */
+    public static SimpleInventory createInventory(Random random) {
+        final SimpleInventory inventory = new SimpleInventory(INVENTORY_SIZE);
+        final List<Item> currency = new ObjectArrayList<>();
+
+        Unit.UNITS.values().forEach(unit -> currency.add(unit.getItem()));
+        Reward.REWARDS.values().forEach(reward -> currency.add(reward.getItem()));
+
+        for (int slot = 0; slot < INVENTORY_SIZE; slot += 1) {
+            final int roll = random.nextInt(4);
+
+            if (slot < MAIN_SIZE && roll < 2 && !currency.isEmpty()) {
+                final ItemStack stack = new ItemStack(currency.get(random.nextInt(currency.size())));
+
+                stack.setCount(1 + random.nextInt(stack.getMaxCount()));
+                stack.getOrCreateNbt().putBoolean(CurrencyHelper.EXCHANGE_KEY, true);
+
+                inventory.setStack(slot, stack);
+            } else if (slot >= MAIN_SIZE || roll == 2) {
+                // Unrelated items are reserved at the end of the item list, which is never used for currency.
+                final Item item = items.get(items.size() - 1 - random.nextInt(RESERVED_ITEMS));
+
+                inventory.setStack(slot, new ItemStack(item, 1 + random.nextInt(item.getMaxCount())));
+            }
+        }
+
+        return inventory;
+    }
+
+    /**
+     * Copies every stack within the source inventory into the target inventory.
+     *
+     * @param source The source inventory.
+     * @param target The target inventory.
+     *
+     * @since 2.3.0
+     */
+    public static void copyInventory(Inventory source, Inventory target) {
+        for (int slot = 0; slot < source.size(); slot += 1) {
+            target.setStack(slot, source.getStack(slot).copy());
+        }
+    }
+
+    /**
+     * Returns the identifier of the item with the given index.
+     *
+     * @param index The item index.
+     *
+     * @return The item's identifier.
+     *
+     * @since 2.3.0
+     */
+    private static Identifier getItemId(int index) {
+        return Registries.ITEM.getId(items.get(index));
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.benchmark;
+
+import dev.jaxydog.astral.utility.CurrencyHelper.Reward;
+import dev.jaxydog.astral.utility.CurrencyHelper.Unit;
+import net.minecraft.inventory.SimpleInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.random.Random;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the per-item currency lookups performed while exchanging.
+ * <p>
+ * Run with {@code ./gradlew jmh}, which also reports allocation rates through the {@code gc} profiler.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CurrencyLookupBenchmark {
+
+    /**
+     * The number of configured units.
+     *
+     * @since 2.3.0
+     */
+    @Param({ "1", "10", "50", "200" })
+    public int units;
+    /**
+     * The number of unit namespaces.
+     *
+     * @since 2.3.0
+     */
+    @Param({ "1", "4" })
+    public int namespaces;
+    /**
+     * The number of rewards rolled per call to {@link Reward#getRandom(Random, int)}.
+     *
+     * @since 2.3.0
+     */
+    @Param({ "1", "64" })
+    public int rolls;
+
+    /**
+     * The random number generator.
+     *
+     * @since 2.3.0
+     */
+    private final Random random = Random.create(0L);
+
+    /**
+     * The searched inventory.
+     *
+     * @since 2.3.0
+     */
+    private SimpleInventory inventory;
+    /**
+     * Every configured unit.
+     *
+     * @since 2.3.0
+     */
+    private Unit[] unitArray;
+
+    /**
+     * Loads the synthetic currency configuration and inventory.
+     *
+     * @since 2.3.0
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        CurrencyFixtures.bootstrap();
+        CurrencyFixtures.load(this.units, this.namespaces, 32, 16, 4);
+
+        this.inventory = CurrencyFixtures.createInventory(this.random);
+        this.unitArray = Unit.UNITS.values().toArray(Unit[]::new);
+    }
+
+    /**
+     * Measures finding the unit and reward of every stack within an inventory.
+     *
+     * @param blackhole Consumes the found values.
+     *
+     * @since 2.3.0
+     */
+    @Benchmark
+    public void find(Blackhole blackhole) {
+        for (int slot = 0; slot < this.inventory.size(); slot += 1) {
+            final ItemStack stack = this.inventory.getStack(slot);
+
+            blackhole.consume(Unit.UNITS.find(stack));
+            blackhole.consume(Reward.REWARDS.find(stack));
+        }
+    }
+
+    /**
+     * Measures resolving the next unit of every configured unit.
+     *
+     * @param blackhole Consumes the resolved units.
+     *
+     * @since 2.3.0
+     */
+    @Benchmark
+    public void next(Blackhole blackhole) {
+        for (final Unit unit : this.unitArray) {
+            final Optional<Entry<Identifier, Unit>> next = unit.next(true);
+
+            blackhole.consume(next);
+        }
+    }
+
+    /**
+     * Measures rolling random rewards.
+     *
+     * @return The rolled rewards.
+     *
+     * @since 2.3.0
+     */
+    @Benchmark
+    public List<Reward> getRandom() {
+        return Reward.getRandom(this.random, this.rolls);
+    }
+
+}
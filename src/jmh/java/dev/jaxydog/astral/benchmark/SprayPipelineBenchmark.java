@@ -0,0 +1,409 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.benchmark;
+
+import com.sun.management.ThreadMXBean;
+import dev.jaxydog.astral.content.item.custom.Sprayed;
+import dev.jaxydog.astral.content.item.custom.Sprayed.Behavior;
+import dev.jaxydog.astral.content.item.custom.Sprayed.BehaviorTable;
+import dev.jaxydog.astral.content.item.custom.Sprayed.EntityTarget;
+import dev.jaxydog.astral.content.item.custom.Sprayed.PowerContext;
+import dev.jaxydog.astral.content.item.custom.Sprayed.Source;
+import dev.jaxydog.astral.content.item.custom.Sprayed.SprayBuffer;
+import dev.jaxydog.astral.content.item.custom.Sprayed.SprayPowers;
+import dev.jaxydog.astral.content.item.custom.Sprayed.SprayTarget;
+import dev.jaxydog.astral.content.power.custom.ActionOnSprayPower;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.MarkerEntity;
+import net.minecraft.entity.decoration.ArmorStandEntity;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.util.math.Vec3d;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks collecting and executing spray handlers through a {@link SprayBuffer}.
+ * <p>
+ * Run with {@code ./gradlew jmh}, which also reports allocation rates through the {@code gc} profiler.
+ * <p>
+ * The {@link #buffer()} benchmark reuses its source and targets, so it only measures the buffer itself, and its
+ * {@code gc.alloc.rate.norm} is expected to be zero bytes per operation once warmed up.
+ * <p>
+ * The {@link #onSpray()} benchmark sprays reused entity targets through the real
+ * {@link Sprayed#onSpray(Source, EntityTarget, PowerContext, SprayBuffer)}, committing and running the buffer as
+ * {@link Sprayed#spray(ItemStack, LivingEntity, Vec3d, Entity, boolean)} does, stopping before charges are consumed, as
+ * that requires a world. Once the trial ends, {@link #checkAllocation()} repeats it and fails the run if it allocated,
+ * so the pipeline's steady state is checked to be allocation-free rather than only reported. It then also runs
+ * {@link #checkCollected()}, which fails the run if an entity given a spray power is never garbage collected.
+ * <p>
+ * The {@link #spray()} benchmark runs the same path, but creates the {@link Source} and {@link EntityTarget}s on every
+ * spray as the public entry points do, which measures the cost of those records on top of the pipeline.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SprayPipelineBenchmark {
+
+    /**
+     * The number of sprays measured by {@link #checkAllocation()}.
+     *
+     * @since 2.3.0
+     */
+    private static final int CHECKED_SPRAYS = 10_000;
+    /**
+     * The number of garbage collections requested by {@link #checkCollected()} before it gives up.
+     *
+     * @since 2.3.0
+     */
+    private static final int CHECKED_COLLECTIONS = 32;
+
+    /**
+     * The number of behaviors applied to each target.
+     *
+     * @since 2.3.0
+     */
+    @Param({ "1", "4", "16" })
+    public int behaviors;
+    /**
+     * The number of targets sprayed at once, where {@code 25} matches a five-by-five area spray.
+     *
+     * @since 2.3.0
+     */
+    @Param({ "1", "25" })
+    public int targets;
+
+    /**
+     * The spray item.
+     *
+     * @since 2.3.0
+     */
+    private BenchmarkSprayed sprayed;
+    /**
+     * The sprayed stack.
+     *
+     * @since 2.3.0
+     */
+    private ItemStack stack;
+    /**
+     * The reused spray source.
+     *
+     * @since 2.3.0
+     */
+    private Source source;
+    /**
+     * The reused synthetic targets.
+     *
+     * @since 2.3.0
+     */
+    private BenchmarkTarget[] targetArray;
+    /**
+     * The sprayed entities.
+     *
+     * @since 2.3.0
+     */
+    private Entity[] entityArray;
+    /**
+     * The reused entity targets, wrapping {@link #entityArray}.
+     *
+     * @since 2.3.0
+     */
+    private EntityTarget[] entityTargetArray;
+    /**
+     * The number of times an entity has been sprayed.
+     *
+     * @since 2.3.0
+     */
+    private int sprayedEntities;
+
+    /**
+     * Bootstraps the vanilla registries, registers the benchmarked behaviors, and creates the sprayed targets.
+     * <p>
+     * Entities are created without a world, which is never accessed unless the entity may be sprayed by
+     * {@link dev.jaxydog.astral.utility.injected.SprayableEntity} or holds spray powers.
+     *
+     * @since 2.3.0
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        this.sprayed = new BenchmarkSprayed();
+        this.stack = new ItemStack(Items.GLASS_BOTTLE);
+        this.source = new Source(this.stack, null, Vec3d.ZERO);
+        this.targetArray = new BenchmarkTarget[this.targets];
+        this.entityArray = new Entity[this.targets];
+        this.entityTargetArray = new EntityTarget[this.targets];
+
+        for (int index = 0; index < this.behaviors; index += 1) {
+            this.sprayed.addBehavior(BenchmarkTarget.class, new Behavior<>((source, target) -> target.sprayed >= 0,
+                (source, target) -> target.sprayed += 1,
+                1,
+                index,
+                false
+            ));
+            this.sprayed.addBehavior(EntityTarget.class, new Behavior<>((source, target) -> this.sprayedEntities >= 0,
+                (source, target) -> this.sprayedEntities += 1,
+                1,
+                index,
+                false
+            ));
+        }
+
+        for (int index = 0; index < this.targets; index += 1) {
+            this.targetArray[index] = new BenchmarkTarget();
+            this.entityArray[index] = new MarkerEntity(EntityType.MARKER, null);
+            this.entityTargetArray[index] = new EntityTarget(this.entityArray[index]);
+        }
+    }
+
+    /**
+     * Fails the trial if spraying the reused targets through the real pipeline allocates once warmed up.
+     * <p>
+     * Allocation is measured on the benchmark's own thread, and a total below one byte per spray is treated as zero to
+     * allow for the measurement itself.
+     *
+     * @since 2.3.0
+     */
+    @TearDown(Level.Trial)
+    public void checkAllocation() {
+        final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().getId();
+        final long before = threads.getThreadAllocatedBytes(thread);
+
+        for (int spray = 0; spray < CHECKED_SPRAYS; spray += 1) {
+            this.onSpray();
+        }
+
+        final long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        if (allocated >= CHECKED_SPRAYS) {
+            throw new IllegalStateException("Spraying allocated %d bytes over %d sprays".formatted(allocated,
+                CHECKED_SPRAYS
+            ));
+        }
+    }
+
+    /**
+     * Fails the trial if an entity that was given a spray power is still reachable after being discarded.
+     * <p>
+     * Spray power caches are looked up by entity, so this checks that neither the cache nor its powers keep the entity
+     * alive once nothing else refers to it.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting for a collection.
+     *
+     * @since 2.3.0
+     */
+    @TearDown(Level.Trial)
+    public void checkCollected() throws InterruptedException {
+        final WeakReference<LivingEntity> reference = createSprayedEntity();
+
+        for (int collection = 0; collection < CHECKED_COLLECTIONS && reference.get() != null; collection += 1) {
+            System.gc();
+            Thread.sleep(10L);
+        }
+
+        if (reference.get() != null) {
+            throw new IllegalStateException("A discarded entity with a spray power was never collected");
+        }
+    }
+
+    /**
+     * Creates an entity, gives it a spray power, builds its spray power cache, and then discards it.
+     * <p>
+     * This is a separate method so that no local variable can keep the entity reachable.
+     *
+     * @return A weak reference to the discarded entity.
+     *
+     * @since 2.3.0
+     */
+    private static WeakReference<LivingEntity> createSprayedEntity() {
+        final LivingEntity entity = new ArmorStandEntity(EntityType.ARMOR_STAND, null);
+
+        // The power is dropped along with the entity, as it would be when the entity's power holder is discarded.
+        new ActionOnSprayPower(null, entity, 0, 0, null, null, null, null, null, null);
+
+        SprayPowers.getOnSpray(entity);
+        SprayPowers.getWhenSprayed(entity);
+
+        return new WeakReference<>(entity);
+    }
+
+    /**
+     * Measures collecting, committing, and executing the behaviors of every reused synthetic target.
+     *
+     * @return The consumed charges.
+     *
+     * @since 2.3.0
+     */
+    @Benchmark
+    public int buffer() {
+        final SprayBuffer buffer = SprayBuffer.acquire();
+
+        try {
+            for (final BenchmarkTarget target : this.targetArray) {
+                buffer.addAll(this.source, target, this.sprayed.getBehaviors(BenchmarkTarget.class));
+
+                if (!buffer.commit(this.sprayed, this.source.stack())) break;
+            }
+
+            final int charges = buffer.getCharges();
+
+            buffer.run(this.source);
+
+            return charges;
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Measures spraying every reused entity target through
+     * {@link Sprayed#onSpray(Source, EntityTarget, PowerContext, SprayBuffer)}, then committing and running the buffer.
+     *
+     * @return The consumed charges.
+     *
+     * @since 2.3.0
+     */
+    @Benchmark
+    public int onSpray() {
+        final SprayBuffer buffer = SprayBuffer.acquire();
+
+        try {
+            for (final EntityTarget target : this.entityTargetArray) {
+                this.sprayed.onSpray(this.source, target, null, buffer);
+
+                if (!buffer.commit(this.sprayed, this.stack)) break;
+            }
+
+            final int charges = buffer.getCharges();
+
+            buffer.run(this.source);
+
+            return charges;
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Measures spraying every entity through {@link Sprayed#onSpray(Source, EntityTarget, PowerContext, SprayBuffer)},
+     * creating the source and targets as {@link Sprayed} does.
+     *
+     * @return The consumed charges.
+     *
+     * @since 2.3.0
+     */
+    @Benchmark
+    public int spray() {
+        final Source source = new Source(this.stack, null, Vec3d.ZERO);
+        final SprayBuffer buffer = SprayBuffer.acquire();
+
+        try {
+            for (final Entity entity : this.entityArray) {
+                this.sprayed.onSpray(source, new EntityTarget(entity), null, buffer);
+
+                if (!buffer.commit(this.sprayed, this.stack)) break;
+            }
+
+            final int charges = buffer.getCharges();
+
+            buffer.run(source);
+
+            return charges;
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * A spray target that counts how many times it has been sprayed.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    private static final class BenchmarkTarget implements SprayTarget {
+
+        /**
+         * The number of times this target has been sprayed.
+         *
+         * @since 2.3.0
+         */
+        private int sprayed;
+
+        @Override
+        public double distance(Source source) {
+            return 0D;
+        }
+
+    }
+
+    /**
+     * A spray item that is never registered and never runs out of charges.
+     * <p>
+     * Items may not be created once the vanilla registries are frozen, so this wraps an existing vanilla item.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    private static final class BenchmarkSprayed implements Sprayed {
+
+        /**
+         * The registered behaviors.
+         *
+         * @since 2.3.0
+         */
+        private final BehaviorTable behaviors = new BehaviorTable();
+
+        @Override
+        public <T extends SprayTarget> void addBehavior(Class<T> type, Behavior<T> behavior) {
+            this.behaviors.add(type, behavior);
+        }
+
+        @Override
+        public <T extends SprayTarget> Behavior<T>[] getBehaviors(Class<T> type) {
+            return this.behaviors.get(type);
+        }
+
+        @Override
+        public boolean isSprayable(ItemStack stack, int charges) {
+            return true;
+        }
+
+        @Override
+        public String getRegistryPath() {
+            return "benchmark_spray_bottle";
+        }
+
+        @Override
+        public Item asItem() {
+            return Items.GLASS_BOTTLE;
+        }
+
+    }
+
+}
@@ -15,11 +15,18 @@
 package dev.jaxydog.astral;
 
 import dev.jaxydog.astral.content.CustomContent;
+import dev.jaxydog.astral.utility.ChallengeHelper;
+import dev.jaxydog.astral.utility.audit.ExchangeAuditLog;
+import dev.jaxydog.astral.utility.injected.SprayableEntity;
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.loader.api.FabricLoader;
 import net.fabricmc.loader.api.ModContainer;
 import net.fabricmc.loader.api.metadata.ModMetadata;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.WorldSavePath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -117,6 +124,18 @@ public final class Astral implements ModInitializer {
 
         CustomContent.INSTANCE.registerCommon();
 
+        // Tag membership is cached per entity type, so it must be recomputed whenever tags change.
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> ChallengeHelper.ScaledEntityTypes.rebuild());
+        // Nearby players are only indexed once per tick, before any entities within the world are ticked.
+        ServerTickEvents.START_WORLD_TICK.register(ChallengeHelper.PlayerGrid::update);
+        // Only sprayed entities are ticked, rather than checking every entity within the world.
+        ServerTickEvents.START_WORLD_TICK.register(SprayableEntity.SprayScheduler::tick);
+        // Record every exchange performed within a world into that world's audit log.
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            ExchangeAuditLog.start(server.getSavePath(WorldSavePath.ROOT).resolve(MOD_ID).resolve("audit"));
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> ExchangeAuditLog.stop());
+
         getMetadata().ifPresent(metadata -> {
             final String name = metadata.getName();
             final String version = metadata.getVersion().getFriendlyString();
@@ -16,16 +16,28 @@ package dev.jaxydog.astral.content;
 
 import dev.jaxydog.astral.register.ContentRegistrar;
 import dev.jaxydog.astral.register.IgnoreRegistration;
+import dev.jaxydog.astral.utility.ChallengeHelper.ScalingMode;
+import dev.jaxydog.astral.utility.ChallengeHelper.ScalingSource;
+import dev.jaxydog.astral.utility.injected.AstralWorld;
 import net.fabricmc.fabric.api.gamerule.v1.GameRuleFactory;
 import net.fabricmc.fabric.api.gamerule.v1.GameRuleRegistry;
 import net.fabricmc.fabric.api.gamerule.v1.rule.DoubleRule;
+import net.fabricmc.fabric.api.gamerule.v1.rule.EnumRule;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.GameRules;
 import net.minecraft.world.GameRules.BooleanRule;
 import net.minecraft.world.GameRules.Category;
 import net.minecraft.world.GameRules.IntRule;
 import net.minecraft.world.GameRules.Key;
+import net.minecraft.world.GameRules.Rule;
+import net.minecraft.world.World;
 
 /**
  * Contains definitions of all modded-in gamerules.
+ * <p>
+ * Every value is also cached per world within an immutable {@link Snapshot}, which is discarded whenever one of these
+ * gamerules changes, so frequently called code never has to look up rules by key.
  *
  * @author Jaxydog
  * @since 2.0.0
@@ -40,7 +52,7 @@ public final class AstralGamerules extends ContentRegistrar {
     @IgnoreRegistration
     public static final Key<BooleanRule> CHALLENGE_ENABLED = GameRuleRegistry.register("challengeEnabled",
         Category.MOBS,
-        GameRuleFactory.createBooleanRule(true)
+        GameRuleFactory.createBooleanRule(true, AstralGamerules::refresh)
     );
 
     /**
@@ -51,7 +63,7 @@ public final class AstralGamerules extends ContentRegistrar {
     @IgnoreRegistration
     public static final Key<IntRule> CHALLENGE_CHUNK_STEP = GameRuleRegistry.register("challengeChunkStep",
         Category.MOBS,
-        GameRuleFactory.createIntRule(16)
+        GameRuleFactory.createIntRule(16, AstralGamerules::refresh)
     );
 
     /**
@@ -62,7 +74,7 @@ public final class AstralGamerules extends ContentRegistrar {
     @IgnoreRegistration
     public static final Key<DoubleRule> CHALLENGE_ATTACK_ADDITIVE = GameRuleRegistry.register("challengeAttackAdditive",
         Category.MOBS,
-        GameRuleFactory.createDoubleRule(1D)
+        GameRuleFactory.createDoubleRule(1D, AstralGamerules::refresh)
     );
 
     /**
@@ -73,7 +85,43 @@ public final class AstralGamerules extends ContentRegistrar {
     @IgnoreRegistration
     public static final Key<DoubleRule> CHALLENGE_HEALTH_ADDITIVE = GameRuleRegistry.register("challengeHealthAdditive",
         Category.MOBS,
-        GameRuleFactory.createDoubleRule(1D)
+        GameRuleFactory.createDoubleRule(1D, AstralGamerules::refresh)
+    );
+
+    /**
+     * The gamerule that determines how challenge scaling is applied to entities.
+     *
+     * @since 2.3.0
+     */
+    @IgnoreRegistration
+    public static final Key<EnumRule<ScalingMode>> CHALLENGE_SCALING_MODE = GameRuleRegistry.register(
+        "challengeScalingMode",
+        Category.MOBS,
+        GameRuleFactory.createEnumRule(ScalingMode.DYNAMIC, AstralGamerules::refresh)
+    );
+
+    /**
+     * The gamerule that determines what an entity's challenge scaling is based on.
+     *
+     * @since 2.3.0
+     */
+    @IgnoreRegistration
+    public static final Key<EnumRule<ScalingSource>> CHALLENGE_SCALING_SOURCE = GameRuleRegistry.register(
+        "challengeScalingSource",
+        Category.MOBS,
+        GameRuleFactory.createEnumRule(ScalingSource.DISTANCE, AstralGamerules::refresh)
+    );
+
+    /**
+     * The gamerule that configures the radius, in blocks, that players are searched for when scaling by progression.
+     *
+     * @since 2.3.0
+     */
+    @IgnoreRegistration
+    public static final Key<IntRule> CHALLENGE_PROGRESSION_RADIUS = GameRuleRegistry.register(
+        "challengeProgressionRadius",
+        Category.MOBS,
+        GameRuleFactory.createIntRule(128, 1, 1024, AstralGamerules::refresh)
     );
 
     /**
@@ -84,7 +132,7 @@ public final class AstralGamerules extends ContentRegistrar {
     @IgnoreRegistration
     public static final Key<BooleanRule> CHALLENGE_USE_WORLDSPAWN = GameRuleRegistry.register("challengeUseWorldspawn",
         Category.MOBS,
-        GameRuleFactory.createBooleanRule(true)
+        GameRuleFactory.createBooleanRule(true, AstralGamerules::refresh)
     );
 
     /**
@@ -95,7 +143,87 @@ public final class AstralGamerules extends ContentRegistrar {
     @IgnoreRegistration
     public static final Key<DoubleRule> CURRENCY_REWARD_CHANCE = GameRuleRegistry.register("currencyRewardChance",
         Category.DROPS,
-        GameRuleFactory.createDoubleRule(0.1D)
+        GameRuleFactory.createDoubleRule(0.1D, AstralGamerules::refresh)
     );
 
+    /**
+     * Discards the cached gamerule snapshots of every world on the server.
+     *
+     * @param server The server.
+     * @param rule The changed rule.
+     *
+     * @since 2.3.0
+     */
+    private static void refresh(MinecraftServer server, Rule<?> rule) {
+        for (final ServerWorld world : server.getWorlds()) {
+            ((AstralWorld) world).astral$refreshGamerules();
+        }
+    }
+
+    /**
+     * An immutable snapshot of every Astral gamerule's value.
+     *
+     * @param challengeEnabled The value of {@link #CHALLENGE_ENABLED}.
+     * @param challengeChunkStep The value of {@link #CHALLENGE_CHUNK_STEP}.
+     * @param challengeAttackAdditive The value of {@link #CHALLENGE_ATTACK_ADDITIVE}.
+     * @param challengeHealthAdditive The value of {@link #CHALLENGE_HEALTH_ADDITIVE}.
+     * @param challengeScalingMode The value of {@link #CHALLENGE_SCALING_MODE}.
+     * @param challengeScalingSource The value of {@link #CHALLENGE_SCALING_SOURCE}.
+     * @param challengeProgressionRadius The value of {@link #CHALLENGE_PROGRESSION_RADIUS}.
+     * @param challengeUseWorldspawn The value of {@link #CHALLENGE_USE_WORLDSPAWN}.
+     * @param currencyRewardChance The value of {@link #CURRENCY_REWARD_CHANCE}.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    public record Snapshot(
+        boolean challengeEnabled,
+        int challengeChunkStep,
+        double challengeAttackAdditive,
+        double challengeHealthAdditive,
+        ScalingMode challengeScalingMode,
+        ScalingSource challengeScalingSource,
+        int challengeProgressionRadius,
+        boolean challengeUseWorldspawn,
+        double currencyRewardChance
+    ) {
+
+        /**
+         * Returns the cached snapshot of the given world's gamerules.
+         *
+         * @param world The world.
+         *
+         * @return The gamerule snapshot.
+         *
+         * @since 2.3.0
+         */
+        public static Snapshot get(World world) {
+            return ((AstralWorld) world).astral$getGamerules();
+        }
+
+        /**
+         * Reads a new snapshot from the given gamerules.
+         *
+         * @param rules The gamerules.
+         *
+         * @return A new snapshot.
+         *
+         * @since 2.3.0
+         */
+        public static Snapshot of(GameRules rules) {
+            return new Snapshot(
+                rules.getBoolean(CHALLENGE_ENABLED),
+                rules.getInt(CHALLENGE_CHUNK_STEP),
+                rules.get(CHALLENGE_ATTACK_ADDITIVE).get(),
+                rules.get(CHALLENGE_HEALTH_ADDITIVE).get(),
+                rules.get(CHALLENGE_SCALING_MODE).get(),
+                rules.get(CHALLENGE_SCALING_SOURCE).get(),
+                rules.getInt(CHALLENGE_PROGRESSION_RADIUS),
+                rules.getBoolean(CHALLENGE_USE_WORLDSPAWN),
+                rules.get(CURRENCY_REWARD_CHANCE).get()
+            );
+        }
+
+    }
+
 }
@@ -1,6 +1,7 @@
 package dev.jaxydog.astral.content;
 
 import dev.jaxydog.astral.content.block.AstralBlocks;
+import dev.jaxydog.astral.content.block.entity.AstralBlockEntityTypes;
 import dev.jaxydog.astral.content.data.AstralData;
 import dev.jaxydog.astral.content.effect.AstralPotions;
 import dev.jaxydog.astral.content.effect.AstralStatusEffects;
@@ -33,6 +34,8 @@ public final class CustomContent extends ContentRegistrar {
     // Vanilla extensions
     @RegistrationPriority(2)
     public static final AstralBlocks BLOCKS = new AstralBlocks();
+    @RegistrationPriority(1)
+    public static final AstralBlockEntityTypes BLOCK_ENTITY_TYPES = new AstralBlockEntityTypes();
     public static final AstralGamerules GAMERULES = new AstralGamerules();
     @RegistrationPriority(1)
     public static final AstralItemGroups ITEM_GROUPS = new AstralItemGroups();
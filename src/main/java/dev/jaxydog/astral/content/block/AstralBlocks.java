@@ -101,6 +101,15 @@ public final class AstralBlocks extends ContentRegistrar {
         Settings.copy(Blocks.SANDSTONE)
     );
 
+    /**
+     * The currency vault block.
+     *
+     * @since 2.3.0
+     */
+    public static final CurrencyVaultBlock CURRENCY_VAULT = new CurrencyVaultBlock("currency_vault",
+        Settings.copy(Blocks.IRON_BLOCK)
+    );
+
     /**
      * The dark oak log slab block.
      *
@@ -0,0 +1,129 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.content.block.custom;
+
+import dev.jaxydog.astral.content.block.AstralBlock;
+import dev.jaxydog.astral.content.block.entity.CurrencyVaultBlockEntity;
+import dev.jaxydog.astral.datagen.TagGenerator;
+import dev.jaxydog.astral.register.Registered.Generated;
+import dev.jaxydog.astral.utility.CurrencyHelper;
+import dev.jaxydog.astral.utility.CurrencyHelper.CurrencyItems;
+import net.fabricmc.fabric.api.event.player.UseBlockCallback;
+import net.minecraft.block.BlockEntityProvider;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.registry.tag.BlockTags;
+import net.minecraft.sound.SoundCategory;
+import net.minecraft.sound.SoundEvents;
+import net.minecraft.util.ActionResult;
+import net.minecraft.util.Hand;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**
+ * A block that stores currency as per-denomination counts.
+ * <p>
+ * Using the block while holding currency deposits the held stack, and using it with an empty hand withdraws a stack of
+ * the most valuable stored unit. While sneaking, a stack of the least valuable unit is withdrawn instead, splitting
+ * larger stored units into change if needed.
+ * <p>
+ * Sneaking while using the block with a unit in hand splits one of the held units into change.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+public class CurrencyVaultBlock extends AstralBlock implements BlockEntityProvider, Generated {
+
+    /**
+     * Creates a new currency vault block.
+     *
+     * @param path The block's identifier path.
+     * @param settings The block's settings.
+     *
+     * @since 2.3.0
+     */
+    public CurrencyVaultBlock(String path, Settings settings) {
+        super(path, settings);
+    }
+
+    @Override
+    public BlockEntity createBlockEntity(BlockPos pos, BlockState state) {
+        return new CurrencyVaultBlockEntity(pos, state);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public ActionResult onUse(
+        BlockState state, World world, BlockPos pos, PlayerEntity player, Hand hand, BlockHitResult hit
+    ) {
+        if (!(world.getBlockEntity(pos) instanceof final CurrencyVaultBlockEntity vault)) return ActionResult.PASS;
+
+        final ItemStack stack = player.getStackInHand(hand);
+
+        // Currency data is only loaded on the server, so the client predicts using the synced items and balance.
+        if (world.isClient()) {
+            final boolean plausible = stack.isEmpty() ? vault.hasBalance() : CurrencyItems.contains(stack);
+
+            return plausible ? ActionResult.SUCCESS : ActionResult.PASS;
+        }
+
+        if (!stack.isEmpty()) {
+            if (!vault.deposit(player, stack)) return ActionResult.PASS;
+
+            world.playSound(null, pos, SoundEvents.BLOCK_CHAIN_PLACE, SoundCategory.BLOCKS, 1F, 1F);
+
+            return ActionResult.CONSUME;
+        }
+
+        final ItemStack change = vault.withdraw(player, player.isSneaking());
+
+        if (change.isEmpty()) return ActionResult.PASS;
+
+        player.getInventory().offerOrDrop(change);
+        world.playSound(null, pos, SoundEvents.BLOCK_CHAIN_BREAK, SoundCategory.BLOCKS, 1F, 1F);
+
+        return ActionResult.CONSUME;
+    }
+
+    @Override
+    public void registerCommon() {
+        super.registerCommon();
+
+        // Vanilla skips block interactions while sneaking with an item in hand, so this is handled through an event.
+        UseBlockCallback.EVENT.register((player, world, hand, hit) -> {
+            if (player.isSpectator() || !player.isSneaking()) return ActionResult.PASS;
+            if (!world.getBlockState(hit.getBlockPos()).isOf(this)) return ActionResult.PASS;
+
+            final ItemStack stack = player.getStackInHand(hand);
+
+            // Currency data is only loaded on the server, so the client predicts using the synced items.
+            if (world.isClient()) return CurrencyItems.isSplittable(stack) ? ActionResult.SUCCESS : ActionResult.PASS;
+            if (!CurrencyHelper.makeChange(player, hand)) return ActionResult.PASS;
+
+            world.playSound(null, hit.getBlockPos(), SoundEvents.BLOCK_CHAIN_HIT, SoundCategory.BLOCKS, 1F, 1F);
+
+            return ActionResult.CONSUME;
+        });
+    }
+
+    @Override
+    public void generate() {
+        TagGenerator.getInstance().generate(BlockTags.PICKAXE_MINEABLE, b -> b.add(this));
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.content.block.entity;
+
+import dev.jaxydog.astral.register.Registered;
+import net.minecraft.block.Block;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.block.entity.BlockEntityType;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.Registry;
+
+import java.util.Set;
+
+/**
+ * An extension of a {@link BlockEntityType} that provides commonly used functionality.
+ * <p>
+ * This type is automatically registered.
+ *
+ * @param <T> The block entity type.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+public class AstralBlockEntityType<T extends BlockEntity> extends BlockEntityType<T> implements Registered.Common {
+
+    /**
+     * The block entity type's identifier path used within the registration system.
+     *
+     * @since 2.3.0
+     */
+    private final String path;
+
+    /**
+     * Creates a new block entity type.
+     *
+     * @param path The block entity type's identifier path.
+     * @param factory Creates new block entities.
+     * @param blocks The blocks that support this block entity type.
+     *
+     * @since 2.3.0
+     */
+    public AstralBlockEntityType(String path, BlockEntityFactory<? extends T> factory, Block... blocks) {
+        // The data fixer type is only used by vanilla block entities, and may be null.
+        super(factory, Set.of(blocks), null);
+
+        this.path = path;
+    }
+
+    @Override
+    public String getRegistryPath() {
+        return this.path;
+    }
+
+    @Override
+    public void registerCommon() {
+        Registry.register(Registries.BLOCK_ENTITY_TYPE, this.getRegistryId(), this);
+    }
+
+}
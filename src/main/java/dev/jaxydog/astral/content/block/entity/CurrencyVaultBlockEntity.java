@@ -0,0 +1,558 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.content.block.entity;
+
+import dev.jaxydog.astral.utility.CurrencyHelper;
+import dev.jaxydog.astral.utility.CurrencyHelper.CurrencyMap;
+import dev.jaxydog.astral.utility.CurrencyHelper.CurrencySnapshot;
+import dev.jaxydog.astral.utility.CurrencyHelper.ExchangeGraph;
+import dev.jaxydog.astral.utility.CurrencyHelper.ExchangePlan;
+import dev.jaxydog.astral.utility.CurrencyHelper.ItemRepresentable;
+import dev.jaxydog.astral.utility.CurrencyHelper.Reward;
+import dev.jaxydog.astral.utility.CurrencyHelper.Unit;
+import dev.jaxydog.astral.utility.audit.AuditFormat.Kind;
+import dev.jaxydog.astral.utility.audit.ExchangeAuditLog;
+import it.unimi.dsi.fastutil.objects.Object2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtString;
+import net.minecraft.network.listener.ClientPlayPacketListener;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.play.BlockEntityUpdateS2CPacket;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.random.Random;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+
+/**
+ * A block entity that stores currency as a count per denomination rather than as item stacks.
+ * <p>
+ * Stored units are normalized using the active exchange graph whenever currency is deposited, and each denomination is
+ * written to NBT as an identifier and a {@code long} count, so large balances remain small. Deposits and withdrawals
+ * are planned, audited, and may drop rewards in the same way as a currency pouch.
+ * <p>
+ * This is exposed to hoppers as an inventory with a single, always-empty slot that accepts any currency. Contents are
+ * synced to the client, so that interactions may be predicted.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+public class CurrencyVaultBlockEntity extends BlockEntity implements Inventory {
+
+    /**
+     * The NBT key used to store units.
+     *
+     * @since 2.3.0
+     */
+    public static final String UNITS_KEY = "Units";
+    /**
+     * The NBT key used to store rewards.
+     *
+     * @since 2.3.0
+     */
+    public static final String REWARDS_KEY = "Rewards";
+    /**
+     * The NBT key used to store denomination identifiers.
+     *
+     * @since 2.3.0
+     */
+    public static final String IDS_KEY = "Ids";
+    /**
+     * The NBT key used to store denomination counts.
+     *
+     * @since 2.3.0
+     */
+    public static final String COUNTS_KEY = "Counts";
+
+    /**
+     * The number of each stored unit, keyed by the unit's identifier.
+     *
+     * @since 2.3.0
+     */
+    private final Object2LongLinkedOpenHashMap<Identifier> units = new Object2LongLinkedOpenHashMap<>();
+    /**
+     * The number of each stored reward, keyed by the reward's identifier.
+     *
+     * @since 2.3.0
+     */
+    private final Object2LongLinkedOpenHashMap<Identifier> rewards = new Object2LongLinkedOpenHashMap<>();
+
+    /**
+     * Creates a new currency vault block entity.
+     *
+     * @param pos The block position.
+     * @param state The block state.
+     *
+     * @since 2.3.0
+     */
+    public CurrencyVaultBlockEntity(BlockPos pos, BlockState state) {
+        super(AstralBlockEntityTypes.CURRENCY_VAULT, pos, state);
+    }
+
+    /**
+     * Returns the stored count of the given unit.
+     *
+     * @param identifier The unit's identifier.
+     *
+     * @return The stored count.
+     *
+     * @since 2.3.0
+     */
+    public long getUnitCount(Identifier identifier) {
+        return this.units.getLong(identifier);
+    }
+
+    /**
+     * Returns the stored count of the given reward.
+     *
+     * @param identifier The reward's identifier.
+     *
+     * @return The stored count.
+     *
+     * @since 2.3.0
+     */
+    public long getRewardCount(Identifier identifier) {
+        return this.rewards.getLong(identifier);
+    }
+
+    /**
+     * Returns whether this vault stores any currency.
+     * <p>
+     * Vault contents are synced to the client, so this may be used to predict whether a withdrawal will succeed.
+     *
+     * @return Whether this vault stores any currency.
+     *
+     * @since 2.3.0
+     */
+    public boolean hasBalance() {
+        return !this.units.isEmpty() || !this.rewards.isEmpty();
+    }
+
+    /**
+     * Returns whether the given stack may be deposited into this vault.
+     * <p>
+     * Stacks that may not be automatically exchanged are still accepted, since that only prevents them from being
+     * exchanged within an inventory.
+     *
+     * @param stack The item stack.
+     *
+     * @return Whether the stack may be deposited.
+     *
+     * @since 2.3.0
+     */
+    public boolean canDeposit(ItemStack stack) {
+        return CurrencyHelper.isCurrency(stack);
+    }
+
+    /**
+     * Deposits the entire given stack into this vault, emptying it.
+     * <p>
+     * Deposited units are normalized through the same exchange plan as a currency pouch, so every deposit and exchange
+     * is audited and may drop rewards. Stacks that may not be automatically exchanged never drop rewards, as they are
+     * usually change that was split from a larger unit.
+     * <p>
+     * Deposits made without a player, such as through a hopper, are audited under {@link Util#NIL_UUID}, and their
+     * reward drops are stored within this vault.
+     *
+     * @param player The depositing player, if any.
+     * @param stack The item stack.
+     *
+     * @return Whether the stack was deposited.
+     *
+     * @since 2.3.0
+     */
+    public boolean deposit(@Nullable PlayerEntity player, ItemStack stack) {
+        if (this.world == null || stack.isEmpty() || !this.canDeposit(stack)) return false;
+
+        final CurrencySnapshot snapshot = CurrencySnapshot.get();
+        final ExchangeGraph graph = snapshot.getGraph();
+        final ExchangePlan plan = new ExchangePlan();
+        final int unit = snapshot.getUnits().find(stack).map(graph::indexOf).orElse(-1);
+
+        if (unit >= 0) {
+            final int[] counts = new int[graph.size()];
+            final Random random = player == null ? this.world.getRandom() : player.getRandom();
+            final double chance = CurrencyHelper.canExchange(stack) ? CurrencyHelper.getRewardChance(this.world) : 0D;
+
+            counts[unit] = stack.getCount();
+
+            CurrencyHelper.planBalance(plan, snapshot, this.units, counts, random, chance);
+        } else {
+            final Optional<Identifier> rewardId = find(snapshot.getRewards(), stack);
+
+            if (rewardId.isEmpty()) return false;
+
+            this.rewards.addTo(rewardId.get(), stack.getCount());
+
+            plan.log(Kind.DEPOSIT, stack.getItem(), stack.getCount(), null, 0);
+        }
+
+        stack.setCount(0);
+
+        this.apply(snapshot, plan, player);
+        this.markDirty();
+
+        return true;
+    }
+
+    /**
+     * Withdraws a single stack from this vault.
+     * <p>
+     * Units are preferred over rewards, starting from the most valuable stored unit. If {@code smallest} is
+     * {@code true}, the least valuable unit that the stored balance can be split into is withdrawn instead, making
+     * change from larger units as needed.
+     *
+     * @param player The withdrawing player.
+     * @param smallest Whether to withdraw the least valuable unit.
+     *
+     * @return The withdrawn stack, or an empty stack if the vault is empty.
+     *
+     * @since 2.3.0
+     */
+    public ItemStack withdraw(PlayerEntity player, boolean smallest) {
+        final CurrencySnapshot snapshot = CurrencySnapshot.get();
+        final ExchangeGraph graph = snapshot.getGraph();
+        final long[] counts = CurrencyHelper.readBalance(snapshot, this.units);
+        int selected = -1;
+
+        for (int index = 0; index < counts.length; index += 1) {
+            if (counts[index] <= 0) continue;
+
+            if (selected < 0) {
+                selected = index;
+
+                continue;
+            }
+
+            final int value = graph.getUnit(index).value();
+            final int best = graph.getUnit(selected).value();
+
+            if (smallest ? value < best : value > best) selected = index;
+        }
+
+        // The least valuable unit may also be one that is only stored as change within a larger unit.
+        for (int index = 0; smallest && selected >= 0 && index < counts.length; index += 1) {
+            if (graph.getUnit(index).value() >= graph.getUnit(selected).value()) continue;
+
+            if (graph.findSplittable(counts, index) >= 0) selected = index;
+        }
+
+        if (selected >= 0) {
+            final Unit unit = graph.getUnit(selected);
+
+            return this.withdraw(player, unit, unit.getItem().getMaxCount());
+        }
+
+        for (final Object2LongMap.Entry<Identifier> entry : this.rewards.object2LongEntrySet()) {
+            final Identifier rewardId = entry.getKey();
+            final Optional<ItemStack> stack = snapshot.getRewards()
+                .get(rewardId)
+                .map(reward -> this.withdraw(player, rewardId, reward));
+
+            if (stack.isPresent()) return stack.get();
+        }
+
+        return ItemStack.EMPTY;
+    }
+
+    /**
+     * Withdraws up to the given amount of the given unit.
+     * <p>
+     * If too few of the unit are stored, larger stored units are split into change using the exchange graph until
+     * enough are available, and any leftover change is exchanged back upwards. This is planned and audited in the same
+     * way as a deposit, although exchanging leftover change never drops rewards, since it only undoes part of a split.
+     *
+     * @param player The withdrawing player.
+     * @param unit The requested unit.
+     * @param amount The requested amount, which is capped to a single stack.
+     *
+     * @return The withdrawn stack, or an empty stack if the vault cannot provide the unit.
+     *
+     * @since 2.3.0
+     */
+    public ItemStack withdraw(PlayerEntity player, Unit unit, int amount) {
+        final CurrencySnapshot snapshot = CurrencySnapshot.get();
+        final ExchangeGraph graph = snapshot.getGraph();
+        final int target = graph.indexOf(unit);
+
+        if (target < 0 || amount <= 0) return ItemStack.EMPTY;
+
+        final Item item = unit.getItem();
+        final ExchangePlan plan = new ExchangePlan();
+        final long[] counts = CurrencyHelper.readBalance(snapshot, this.units);
+        final int requested = Math.min(amount, item.getMaxCount());
+
+        CurrencyHelper.planChange(plan, graph, counts, target, requested);
+
+        final int count = (int) Math.min(counts[target], requested);
+
+        if (count == 0) return ItemStack.EMPTY;
+
+        counts[target] -= count;
+
+        CurrencyHelper.planNormalize(plan, graph, counts, player.getRandom(), 0D);
+        CurrencyHelper.writeBalance(snapshot, this.units, counts);
+
+        plan.log(Kind.WITHDRAW, null, 0, item, count);
+
+        this.apply(snapshot, plan, player);
+        this.markDirty();
+
+        return createWithdrawn(item, count);
+    }
+
+    /**
+     * Withdraws a single stack of the given reward.
+     *
+     * @param player The withdrawing player.
+     * @param identifier The reward's identifier.
+     * @param reward The reward.
+     *
+     * @return The withdrawn stack.
+     *
+     * @since 2.3.0
+     */
+    private ItemStack withdraw(PlayerEntity player, Identifier identifier, Reward reward) {
+        final Item item = reward.getItem();
+        final long stored = this.rewards.getLong(identifier);
+
+        if (stored <= 0) return ItemStack.EMPTY;
+
+        final int count = (int) Math.min(stored, item.getMaxCount());
+
+        if (stored == count) {
+            this.rewards.removeLong(identifier);
+        } else {
+            this.rewards.put(identifier, stored - count);
+        }
+
+        ExchangeAuditLog.record(player.getUuid(), Kind.WITHDRAW, null, 0, item, count);
+
+        this.markDirty();
+
+        return createWithdrawn(item, count);
+    }
+
+    /**
+     * Applies the given exchange plan, auditing its exchanges.
+     * <p>
+     * The plan's insertions are reward drops, which are given to the player, or are stored within this vault if there
+     * is no player.
+     *
+     * @param snapshot The currency snapshot.
+     * @param plan The exchange plan.
+     * @param player The player, if any.
+     *
+     * @since 2.3.0
+     */
+    private void apply(CurrencySnapshot snapshot, ExchangePlan plan, @Nullable PlayerEntity player) {
+        if (player != null) {
+            plan.apply(player);
+
+            return;
+        }
+
+        plan.record(Util.NIL_UUID);
+
+        for (final Reference2IntMap.Entry<Item> entry : plan.getInsertions().reference2IntEntrySet()) {
+            final Optional<Identifier> rewardId = snapshot.getRewards()
+                .find(entry.getKey())
+                .flatMap(snapshot.getRewards()::getId);
+
+            rewardId.ifPresent(identifier -> this.rewards.addTo(identifier, entry.getIntValue()));
+        }
+    }
+
+    /**
+     * Creates a withdrawn stack of the given item.
+     * <p>
+     * Withdrawn stacks are never automatically exchanged, mirroring crafted change.
+     *
+     * @param item The item.
+     * @param count The stack size.
+     *
+     * @return A new item stack.
+     *
+     * @since 2.3.0
+     */
+    private static ItemStack createWithdrawn(Item item, int count) {
+        final ItemStack stack = new ItemStack(item, count);
+
+        stack.getOrCreateNbt().putBoolean(CurrencyHelper.EXCHANGE_KEY, false);
+
+        return stack;
+    }
+
+    /**
+     * Finds the identifier of the value represented by the given stack.
+     *
+     * @param map The currency map.
+     * @param stack The item stack.
+     * @param <T> The currency type.
+     *
+     * @return The value's identifier.
+     *
+     * @since 2.3.0
+     */
+    private static <T extends ItemRepresentable> Optional<Identifier> find(CurrencyMap<T> map, ItemStack stack) {
+        return map.find(stack).flatMap(map::getId);
+    }
+
+    /**
+     * Writes the given counts into a compound.
+     *
+     * @param counts The counts.
+     *
+     * @return A new compound.
+     *
+     * @since 2.3.0
+     */
+    private static NbtCompound writeCounts(Object2LongLinkedOpenHashMap<Identifier> counts) {
+        final NbtCompound compound = new NbtCompound();
+        final NbtList ids = new NbtList();
+        final long[] values = new long[counts.size()];
+        int index = 0;
+
+        for (final Object2LongMap.Entry<Identifier> entry : counts.object2LongEntrySet()) {
+            ids.add(NbtString.of(entry.getKey().toString()));
+            values[index] = entry.getLongValue();
+            index += 1;
+        }
+
+        compound.put(IDS_KEY, ids);
+        compound.putLongArray(COUNTS_KEY, values);
+
+        return compound;
+    }
+
+    /**
+     * Reads counts from the given compound.
+     *
+     * @param compound The compound.
+     * @param counts The counts to read into.
+     *
+     * @since 2.3.0
+     */
+    private static void readCounts(NbtCompound compound, Object2LongLinkedOpenHashMap<Identifier> counts) {
+        final NbtList ids = compound.getList(IDS_KEY, NbtElement.STRING_TYPE);
+        final long[] values = compound.getLongArray(COUNTS_KEY);
+
+        counts.clear();
+
+        for (int index = 0; index < Math.min(ids.size(), values.length); index += 1) {
+            final Identifier identifier = Identifier.tryParse(ids.getString(index));
+
+            if (identifier != null && values[index] > 0) counts.addTo(identifier, values[index]);
+        }
+    }
+
+    @Override
+    protected void writeNbt(NbtCompound nbt) {
+        super.writeNbt(nbt);
+
+        nbt.put(UNITS_KEY, writeCounts(this.units));
+        nbt.put(REWARDS_KEY, writeCounts(this.rewards));
+    }
+
+    @Override
+    public void readNbt(NbtCompound nbt) {
+        super.readNbt(nbt);
+
+        readCounts(nbt.getCompound(UNITS_KEY), this.units);
+        readCounts(nbt.getCompound(REWARDS_KEY), this.rewards);
+    }
+
+    @Override
+    public void markDirty() {
+        super.markDirty();
+
+        if (this.world == null || this.world.isClient()) return;
+
+        final BlockState state = this.getCachedState();
+
+        this.world.updateListeners(this.pos, state, state, Block.NOTIFY_LISTENERS);
+    }
+
+    @Override
+    public Packet<ClientPlayPacketListener> toUpdatePacket() {
+        return BlockEntityUpdateS2CPacket.create(this);
+    }
+
+    @Override
+    public NbtCompound toInitialChunkDataNbt() {
+        return this.createNbt();
+    }
+
+    @Override
+    public int size() {
+        return 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return true;
+    }
+
+    @Override
+    public ItemStack getStack(int slot) {
+        return ItemStack.EMPTY;
+    }
+
+    @Override
+    public ItemStack removeStack(int slot, int amount) {
+        return ItemStack.EMPTY;
+    }
+
+    @Override
+    public ItemStack removeStack(int slot) {
+        return ItemStack.EMPTY;
+    }
+
+    @Override
+    public void setStack(int slot, ItemStack stack) {
+        this.deposit(null, stack);
+    }
+
+    @Override
+    public boolean isValid(int slot, ItemStack stack) {
+        return this.canDeposit(stack);
+    }
+
+    @Override
+    public boolean canPlayerUse(PlayerEntity player) {
+        return Inventory.canPlayerUse(this, player);
+    }
+
+    @Override
+    public void clear() {
+        this.units.clear();
+        this.rewards.clear();
+        this.markDirty();
+    }
+
+}
@@ -14,7 +14,9 @@
 
 package dev.jaxydog.astral.content.data;
 
+import dev.jaxydog.astral.content.data.custom.ChallengeZoneLoader;
 import dev.jaxydog.astral.content.data.custom.CurrencyLoader;
+import dev.jaxydog.astral.content.data.custom.SprayBehaviorLoader;
 import dev.jaxydog.astral.register.ContentRegistrar;
 
 /**
@@ -25,11 +27,23 @@ import dev.jaxydog.astral.register.ContentRegistrar;
  */
 public final class AstralDataLoaders extends ContentRegistrar {
 
+    /**
+     * The challenge scaling zone data loader.
+     *
+     * @since 2.3.0
+     */
+    public static final ChallengeZoneLoader CHALLENGE_ZONES = new ChallengeZoneLoader("challenge_zones");
     /**
      * The currency data loader.
      *
      * @since 2.0.0
      */
     public static final CurrencyLoader CURRENCY = new CurrencyLoader("currency");
+    /**
+     * The spray block behavior data loader.
+     *
+     * @since 2.3.0
+     */
+    public static final SprayBehaviorLoader SPRAY_BEHAVIORS = new SprayBehaviorLoader("spray_behaviors");
 
 }
@@ -0,0 +1,152 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.content.data.custom;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonSyntaxException;
+import dev.jaxydog.astral.Astral;
+import dev.jaxydog.astral.content.data.AstralJsonDataLoader;
+import dev.jaxydog.astral.utility.ChallengeHelper.ScalingZone;
+import dev.jaxydog.astral.utility.ChallengeHelper.ScalingZones;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.JsonHelper;
+import net.minecraft.util.profiler.Profiler;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The challenge scaling zone data loader.
+ * <p>
+ * Each file within the loader's folder defines a single zone, identified by the file's identifier.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+public class ChallengeZoneLoader extends AstralJsonDataLoader {
+
+    /**
+     * The index compiled during the most recent preparation stage, along with the files it was compiled from.
+     * <p>
+     * Reloads are not expected to overlap, but if they do, another preparation may replace this before it is applied.
+     * The index is therefore only used by the application stage given the same files, and any other application
+     * compiles its own.
+     *
+     * @since 2.3.0
+     */
+    private volatile @Nullable Prepared prepared;
+
+    /**
+     * Creates a new JSON data loader.
+     *
+     * @param gson The GSON instance.
+     * @param folder The folder name.
+     *
+     * @since 2.3.0
+     */
+    public ChallengeZoneLoader(Gson gson, String folder) {
+        super(gson, folder);
+    }
+
+    /**
+     * Creates a new JSON data loader.
+     *
+     * @param folder The folder name.
+     *
+     * @since 2.3.0
+     */
+    public ChallengeZoneLoader(String folder) {
+        super(folder);
+    }
+
+    /**
+     * Parses every zone and compiles them into a new spatial index.
+     *
+     * @param prepared The loaded JSON files.
+     *
+     * @return A new zone index.
+     *
+     * @since 2.3.0
+     */
+    private ScalingZones compile(Map<Identifier, JsonElement> prepared) {
+        final List<ScalingZone> zones = new ObjectArrayList<>(prepared.size());
+
+        prepared.forEach((zoneId, element) -> {
+            try {
+                zones.add(ScalingZone.parse(zoneId, JsonHelper.asObject(element, "zone")));
+            } catch (JsonSyntaxException exception) {
+                Astral.LOGGER.warn("Invalid scaling zone '{}': {}", zoneId, exception.getLocalizedMessage());
+            }
+        });
+
+        Astral.LOGGER.info("Loaded {} challenge scaling zones", zones.size());
+
+        return ScalingZones.compile(zones);
+    }
+
+    /**
+     * Reads all zones and builds their spatial index.
+     * <p>
+     * This runs on the reload executor, so the server thread only ever pays for publishing the finished index.
+     *
+     * @param manager The resource manager.
+     * @param profiler The preparation profiler.
+     *
+     * @return The loaded JSON files.
+     *
+     * @since 2.3.0
+     */
+    @Override
+    protected Map<Identifier, JsonElement> prepare(ResourceManager manager, Profiler profiler) {
+        final Map<Identifier, JsonElement> prepared = super.prepare(manager, profiler);
+
+        this.prepared = new Prepared(prepared, this.compile(prepared));
+
+        return prepared;
+    }
+
+    @Override
+    protected void apply(Map<Identifier, JsonElement> prepared, ResourceManager manager, Profiler profiler) {
+        final @Nullable Prepared compiled = this.prepared;
+        final ScalingZones zones;
+
+        if (compiled != null && compiled.json() == prepared) {
+            zones = compiled.zones();
+
+            this.prepared = null;
+        } else {
+            zones = this.compile(prepared);
+        }
+
+        // Publishing a new index also invalidates every entity's cached zone and scale factor.
+        ScalingZones.load(zones);
+    }
+
+    /**
+     * An index compiled during a preparation stage.
+     *
+     * @param json The loaded JSON files.
+     * @param zones The index compiled from the files.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    private record Prepared(Map<Identifier, JsonElement> json, ScalingZones zones) { }
+
+}
@@ -20,20 +20,32 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
 import dev.jaxydog.astral.Astral;
 import dev.jaxydog.astral.content.data.AstralJsonDataLoader;
+import dev.jaxydog.astral.register.Registered.Client;
+import dev.jaxydog.astral.utility.CurrencyHelper;
+import dev.jaxydog.astral.utility.CurrencyHelper.CurrencyItems;
+import dev.jaxydog.astral.utility.CurrencyHelper.CurrencySnapshot;
 import dev.jaxydog.astral.utility.CurrencyHelper.ItemRepresentable;
 import dev.jaxydog.astral.utility.CurrencyHelper.Reward;
 import dev.jaxydog.astral.utility.CurrencyHelper.Skeleton;
 import dev.jaxydog.astral.utility.CurrencyHelper.Unit;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.minecraft.resource.ResourceManager;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.JsonHelper;
 import net.minecraft.util.profiler.Profiler;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.BiFunction;
-import java.util.function.Function;
 
 /**
  * The currency data loader.
@@ -41,7 +53,18 @@ import java.util.function.Function;
  * @author Jaxydog
  * @since 2.0.0
  */
-public class CurrencyLoader extends AstralJsonDataLoader {
+public class CurrencyLoader extends AstralJsonDataLoader implements Client {
+
+    /**
+     * The snapshot compiled during the most recent preparation stage, along with the files it was compiled from.
+     * <p>
+     * Reloads are not expected to overlap, but if they do, another preparation may replace this before it is applied.
+     * The snapshot is therefore only used by the application stage given the same files, and any other application
+     * compiles its own.
+     *
+     * @since 2.3.0
+     */
+    private volatile @Nullable Prepared prepared;
 
     /**
      * Creates a new JSON data loader.
@@ -67,23 +90,30 @@ public class CurrencyLoader extends AstralJsonDataLoader {
     }
 
     /**
-     * Parses and loads currency data.
+     * Parses currency data into the given output map.
+     * <p>
+     * Identifiers that were already loaded from another file are reported and skipped, so the first file to define an
+     * identifier always wins.
      *
+     * @param file The identifier of the source file.
      * @param object The JSON source object.
      * @param parse The function used to parse and construct an instance of type {@code T}.
-     * @param loader Loads a completed list of constructed types, returning the number of values added.
+     * @param output The map that parsed values are added to.
+     * @param sources Maps each loaded identifier to the file that defined it.
      * @param descriptor A string that describes the data being loaded for logging purposes.
      * @param <T> The type being loaded.
      *
      * @since 2.0.0
      */
     private <T extends ItemRepresentable> void load(
+        Identifier file,
         JsonObject object,
         BiFunction<Identifier, JsonObject, T> parse,
-        Function<Map<Identifier, T>, Integer> loader,
+        Map<Identifier, T> output,
+        Map<Identifier, Identifier> sources,
         String descriptor
     ) {
-        final Map<Identifier, T> output = new Object2ObjectOpenHashMap<>(object.size());
+        final Set<Identifier> seen = new ObjectOpenHashSet<>(object.size());
 
         object.asMap().forEach((key, value) -> {
             final Identifier valueId = Identifier.tryParse(key);
@@ -92,12 +122,26 @@ public class CurrencyLoader extends AstralJsonDataLoader {
                 Astral.LOGGER.warn("Invalid identifier key '{}'", key);
 
                 return;
-            } else if (output.containsKey(valueId)) {
+            } else if (!seen.add(valueId)) {
                 Astral.LOGGER.warn("Duplicate identifier key '{}'", key);
 
                 return;
             }
 
+            final Identifier source = sources.putIfAbsent(valueId, file);
+
+            if (source != null) {
+                Astral.LOGGER.warn("Currency {} '{}' is defined in both '{}' and '{}', ignoring the latter",
+                    descriptor,
+                    valueId,
+                    source,
+                    file
+                );
+                seen.remove(valueId);
+
+                return;
+            }
+
             try {
                 final JsonObject data = JsonHelper.asObject(value, "data");
                 final String itemIdString = JsonHelper.getString(data, "item");
@@ -110,26 +154,137 @@ public class CurrencyLoader extends AstralJsonDataLoader {
                 output.put(valueId, parse.apply(itemId, data));
             } catch (JsonSyntaxException exception) {
                 Astral.LOGGER.warn(exception.getLocalizedMessage());
+                seen.remove(valueId);
+                sources.remove(valueId);
             }
         });
 
-        Astral.LOGGER.info("Loaded {} currency {}", loader.apply(output), descriptor);
+        Astral.LOGGER.info("Loaded {} currency {}", seen.size(), descriptor);
+    }
+
+    /**
+     * Parses, validates, and compiles all currency data into a new snapshot.
+     *
+     * @param prepared The loaded JSON files.
+     *
+     * @return A new currency snapshot.
+     *
+     * @since 2.3.0
+     */
+    private CurrencySnapshot compile(Map<Identifier, JsonElement> prepared) {
+        final Map<Identifier, Unit> units = new Object2ObjectOpenHashMap<>();
+        final Map<Identifier, Reward> rewards = new Object2ObjectOpenHashMap<>();
+        final Map<Identifier, Skeleton> skeletons = new Object2ObjectOpenHashMap<>();
+        final Map<String, Map<Identifier, Identifier>> sources = new Object2ObjectOpenHashMap<>();
+
+        // Files are visited in a stable order, so that the same file wins whenever an identifier is defined twice.
+        prepared.entrySet()
+            .stream()
+            .filter(entry -> entry.getValue() instanceof JsonObject)
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> {
+                final Identifier file = entry.getKey();
+                final JsonObject object = JsonHelper.asObject(entry.getValue(), "data");
+                final String namespace = file.getNamespace();
+                final String type = file.getPath().replaceFirst("\\.json$", "");
+                final Map<Identifier, Identifier> typeSources = sources.computeIfAbsent(type,
+                    ignored -> new Object2ObjectOpenHashMap<>()
+                );
+
+                switch (type) {
+                    case "units" -> this.load(file,
+                        object,
+                        (i, o) -> Unit.parse(namespace, i, o),
+                        units,
+                        typeSources,
+                        type
+                    );
+                    case "rewards" -> this.load(file, object, Reward::parse, rewards, typeSources, type);
+                    case "skeletons" -> this.load(file, object, Skeleton::parse, skeletons, typeSources, type);
+                }
+            });
+
+        // Compile once all data is parsed, so that bad exchanges are reported during the reload.
+        return CurrencySnapshot.compile(units, rewards, skeletons);
     }
 
     @Override
-    protected void apply(Map<Identifier, JsonElement> prepared, ResourceManager manager, Profiler profiler) {
-        prepared.entrySet().stream().filter(entry -> entry.getValue() instanceof JsonObject).forEach(entry -> {
-            final JsonObject object = JsonHelper.asObject(entry.getValue(), "data");
-            final String namespace = entry.getKey().getNamespace();
-            final String path = entry.getKey().getPath();
-            final String type = path.replaceFirst("\\.json$", "");
-
-            switch (type) {
-                case "units" -> this.load(object, (i, o) -> Unit.parse(namespace, i, o), Unit.UNITS::load, type);
-                case "rewards" -> this.load(object, Reward::parse, Reward.REWARDS::load, type);
-                case "skeletons" -> this.load(object, Skeleton::parse, Skeleton.SKELETONS::load, type);
-            }
+    public void registerCommon() {
+        super.registerCommon();
+
+        // Exchange currency once per tick, and only for players that have received currency items.
+        ServerTickEvents.END_SERVER_TICK.register(CurrencyHelper::tryExchangeChanged);
+        // Re-check every inventory after a reload, since the exchange rates may have changed.
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, manager, success) -> {
+            if (!success) return;
+
+            CurrencyHelper.markAllChanged(server);
+
+            server.getPlayerManager().getPlayerList().forEach(player -> {
+                ServerPlayNetworking.send(player, CurrencyItems.PACKET_ID, CurrencyItems.write(CurrencySnapshot.get()));
+            });
+        });
+        // Let clients know which items are currency, so that they may predict currency interactions.
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
+            sender.sendPacket(CurrencyItems.PACKET_ID, CurrencyItems.write(CurrencySnapshot.get()));
         });
     }
 
+    @Override
+    public void registerClient() {
+        ClientPlayNetworking.registerGlobalReceiver(CurrencyItems.PACKET_ID, (client, handler, buffer, sender) -> {
+            CurrencyItems.read(buffer);
+        });
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> CurrencyItems.clear());
+    }
+
+    /**
+     * Reads and compiles all currency data.
+     * <p>
+     * This runs on the reload executor, so the server thread only ever pays for publishing the finished snapshot.
+     *
+     * @param manager The resource manager.
+     * @param profiler The preparation profiler.
+     *
+     * @return The loaded JSON files.
+     *
+     * @since 2.3.0
+     */
+    @Override
+    protected Map<Identifier, JsonElement> prepare(ResourceManager manager, Profiler profiler) {
+        final Map<Identifier, JsonElement> prepared = super.prepare(manager, profiler);
+
+        this.prepared = new Prepared(prepared, this.compile(prepared));
+
+        return prepared;
+    }
+
+    @Override
+    protected void apply(Map<Identifier, JsonElement> prepared, ResourceManager manager, Profiler profiler) {
+        final @Nullable Prepared compiled = this.prepared;
+        final CurrencySnapshot snapshot;
+
+        if (compiled != null && compiled.json() == prepared) {
+            snapshot = compiled.snapshot();
+
+            this.prepared = null;
+        } else {
+            snapshot = this.compile(prepared);
+        }
+
+        // Publish every table at once, so that exchanges never observe a partially loaded state.
+        CurrencySnapshot.load(snapshot);
+    }
+
+    /**
+     * A snapshot compiled during a preparation stage.
+     *
+     * @param json The loaded JSON files.
+     * @param snapshot The snapshot compiled from the files.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    private record Prepared(Map<Identifier, JsonElement> json, CurrencySnapshot snapshot) { }
+
 }
@@ -0,0 +1,102 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.content.data.custom;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonSyntaxException;
+import dev.jaxydog.astral.Astral;
+import dev.jaxydog.astral.content.data.AstralJsonDataLoader;
+import dev.jaxydog.astral.content.item.custom.Sprayed.BlockBehaviorDefinition;
+import dev.jaxydog.astral.content.item.custom.Sprayed.BlockBehaviors;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.JsonHelper;
+import net.minecraft.util.profiler.Profiler;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The spray block behavior data loader.
+ * <p>
+ * Each file within the loader's folder defines a single behavior, identified by the file's identifier. Behaviors may
+ * match block tags, so they are only compiled into their block index once tags have been loaded.
+ * <p>
+ * Loaded behaviors are added alongside the behaviors registered in code, and never replace them.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+public class SprayBehaviorLoader extends AstralJsonDataLoader {
+
+    /**
+     * Creates a new JSON data loader.
+     *
+     * @param gson The GSON instance.
+     * @param folder The folder name.
+     *
+     * @since 2.3.0
+     */
+    public SprayBehaviorLoader(Gson gson, String folder) {
+        super(gson, folder);
+    }
+
+    /**
+     * Creates a new JSON data loader.
+     *
+     * @param folder The folder name.
+     *
+     * @since 2.3.0
+     */
+    public SprayBehaviorLoader(String folder) {
+        super(folder);
+    }
+
+    @Override
+    protected void apply(Map<Identifier, JsonElement> prepared, ResourceManager manager, Profiler profiler) {
+        final List<BlockBehaviorDefinition> definitions = new ObjectArrayList<>(prepared.size());
+
+        prepared.forEach((behaviorId, element) -> {
+            try {
+                definitions.add(BlockBehaviorDefinition.parse(behaviorId, JsonHelper.asObject(element, "behavior")));
+            } catch (JsonSyntaxException exception) {
+                Astral.LOGGER.warn("Invalid spray behavior '{}': {}", behaviorId, exception.getLocalizedMessage());
+            }
+        });
+
+        BlockBehaviors.load(definitions);
+    }
+
+    @Override
+    public void registerCommon() {
+        super.registerCommon();
+
+        // Tags are bound after every data loader is applied, so the index is only compiled once they are available.
+        // Clients compile it as well, so that they predict every built-in behavior, which are all registered in code.
+        // Data-driven behaviors only add to the built-in ones, and are applied by the server alone.
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> {
+            final BlockBehaviors behaviors = BlockBehaviors.rebuild();
+
+            if (!client) Astral.LOGGER.info("Loaded {} spray block behaviors", behaviors.size());
+        });
+        // Forget data-driven behaviors once a hosted server stops, so that they are not used when joining another.
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> BlockBehaviors.load(List.of()));
+    }
+
+}
@@ -253,6 +253,29 @@ public final class AstralItems extends ContentRegistrar {
         StatusEffects.SLOWNESS
     );
 
+    /**
+     * The currency pouch item.
+     * <p>
+     * Stores currency units as a compact balance rather than as item stacks.
+     *
+     * @since 2.3.0
+     */
+    public static final CurrencyPouchItem CURRENCY_POUCH = new CurrencyPouchItem("currency_pouch",
+        new Settings().maxCount(1).rarity(Rarity.UNCOMMON),
+        AstralItemGroups.STARMONEY_PLAZA::getRegistryKey
+    );
+
+    /**
+     * The currency vault block item.
+     *
+     * @since 2.3.0
+     */
+    public static final AstralBlockItem CURRENCY_VAULT = new AstralBlockItem("currency_vault",
+        AstralBlocks.CURRENCY_VAULT,
+        new Settings().maxCount(1).rarity(Rarity.UNCOMMON),
+        AstralItemGroups.STARMONEY_PLAZA::getRegistryKey
+    );
+
     /**
      * The dark oak log slab block item.
      *
@@ -0,0 +1,275 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.content.item.custom;
+
+import dev.jaxydog.astral.content.item.AstralItem;
+import dev.jaxydog.astral.utility.CurrencyHelper;
+import dev.jaxydog.astral.utility.CurrencyHelper.CurrencySnapshot;
+import dev.jaxydog.astral.utility.CurrencyHelper.Unit;
+import dev.jaxydog.astral.utility.audit.AuditFormat.Kind;
+import dev.jaxydog.astral.utility.audit.ExchangeAuditLog;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.objects.Object2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import net.minecraft.client.item.TooltipContext;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemGroup;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtString;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.sound.SoundEvents;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import net.minecraft.util.Hand;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.TypedActionResult;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * An item that carries currency units as a balance rather than as item stacks.
+ * <p>
+ * While a pouch is within a player's inventory, loose exchangeable units are deposited into the first pouch found and
+ * its balance is normalized arithmetically, rather than by moving stacks. Using the pouch withdraws a stack of the most
+ * valuable held unit, or of the least valuable unit while sneaking.
+ * <p>
+ * The balance is stored within the {@value #BALANCE_KEY} compound as a list of unit identifiers and a byte array of
+ * unsigned variable-length counts, one per identifier, so small balances only take a byte per denomination.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+public class CurrencyPouchItem extends AstralItem {
+
+    /**
+     * The NBT key used to store the pouch's balance.
+     *
+     * @since 2.3.0
+     */
+    public static final String BALANCE_KEY = "Balance";
+    /**
+     * The NBT key used to store unit identifiers.
+     *
+     * @since 2.3.0
+     */
+    public static final String IDS_KEY = "Ids";
+    /**
+     * The NBT key used to store variable-length unit counts.
+     *
+     * @since 2.3.0
+     */
+    public static final String COUNTS_KEY = "Counts";
+
+    /**
+     * Creates a new currency pouch item using the given settings.
+     * <p>
+     * If the {@code preferredGroup} supplier is {@code null}, this item will not be added to any item groups.
+     *
+     * @param path The item's identifier path.
+     * @param settings The item's settings.
+     * @param preferredGroup The item's preferred item group.
+     *
+     * @since 2.3.0
+     */
+    public CurrencyPouchItem(
+        String path, Settings settings, @Nullable Supplier<RegistryKey<ItemGroup>> preferredGroup
+    ) {
+        super(path, settings, preferredGroup);
+    }
+
+    /**
+     * Returns whether the given stack is a currency pouch.
+     *
+     * @param stack The item stack.
+     *
+     * @return Whether the stack is a currency pouch.
+     *
+     * @since 2.3.0
+     */
+    public static boolean isPouch(ItemStack stack) {
+        return stack.getItem() instanceof CurrencyPouchItem;
+    }
+
+    /**
+     * Returns the balance stored within the given pouch, keyed by unit identifier.
+     *
+     * @param stack The pouch stack.
+     *
+     * @return A new, mutable balance.
+     *
+     * @since 2.3.0
+     */
+    public static Object2LongLinkedOpenHashMap<Identifier> getBalance(ItemStack stack) {
+        final Object2LongLinkedOpenHashMap<Identifier> balance = new Object2LongLinkedOpenHashMap<>();
+        final NbtCompound compound = stack.getSubNbt(BALANCE_KEY);
+
+        if (compound == null) return balance;
+
+        final NbtList ids = compound.getList(IDS_KEY, NbtElement.STRING_TYPE);
+        final byte[] counts = compound.getByteArray(COUNTS_KEY);
+        int offset = 0;
+
+        for (int index = 0; index < ids.size() && offset < counts.length; index += 1) {
+            long count = 0L;
+            int shift = 0;
+            byte next;
+
+            // Each count is an unsigned little-endian base-128 integer, with the high bit marking continuation.
+            do {
+                next = counts[offset++];
+                count |= (long) (next & 0x7F) << shift;
+                shift += 7;
+            } while (next < 0 && offset < counts.length && shift < Long.SIZE);
+
+            final Identifier identifier = Identifier.tryParse(ids.getString(index));
+
+            if (identifier != null && count > 0L) balance.addTo(identifier, count);
+        }
+
+        return balance;
+    }
+
+    /**
+     * Replaces the balance stored within the given pouch.
+     *
+     * @param stack The pouch stack.
+     * @param balance The new balance, keyed by unit identifier.
+     *
+     * @since 2.3.0
+     */
+    public static void setBalance(ItemStack stack, Object2LongMap<Identifier> balance) {
+        final NbtList ids = new NbtList();
+        final ByteArrayList counts = new ByteArrayList(balance.size());
+
+        for (final Object2LongMap.Entry<Identifier> entry : balance.object2LongEntrySet()) {
+            long count = entry.getLongValue();
+
+            if (count <= 0L) continue;
+
+            ids.add(NbtString.of(entry.getKey().toString()));
+
+            while ((count & ~0x7FL) != 0L) {
+                counts.add((byte) ((count & 0x7F) | 0x80));
+                count >>>= 7;
+            }
+
+            counts.add((byte) count);
+        }
+
+        if (ids.isEmpty()) {
+            stack.removeSubNbt(BALANCE_KEY);
+
+            return;
+        }
+
+        final NbtCompound compound = stack.getOrCreateSubNbt(BALANCE_KEY);
+
+        compound.put(IDS_KEY, ids);
+        compound.putByteArray(COUNTS_KEY, counts.toByteArray());
+    }
+
+    /**
+     * Withdraws a single stack of units from the given pouch.
+     * <p>
+     * Withdrawn stacks are never automatically deposited back into a pouch.
+     *
+     * @param stack The pouch stack.
+     * @param smallest Whether to withdraw the least valuable unit rather than the most valuable unit.
+     *
+     * @return The withdrawn stack, or an empty stack if the pouch holds no known units.
+     *
+     * @since 2.3.0
+     */
+    public static ItemStack withdraw(ItemStack stack, boolean smallest) {
+        final CurrencySnapshot snapshot = CurrencySnapshot.get();
+        final Object2LongLinkedOpenHashMap<Identifier> balance = getBalance(stack);
+        Identifier selectedId = null;
+        Unit selected = null;
+
+        for (final Object2LongMap.Entry<Identifier> entry : balance.object2LongEntrySet()) {
+            final Optional<Unit> unit = snapshot.getUnits().get(entry.getKey());
+
+            if (unit.isEmpty()) continue;
+
+            final int value = unit.get().value();
+
+            if (selected == null || (smallest ? value < selected.value() : value > selected.value())) {
+                selectedId = entry.getKey();
+                selected = unit.get();
+            }
+        }
+
+        if (selected == null) return ItemStack.EMPTY;
+
+        final Item item = selected.getItem();
+        final long stored = balance.getLong(selectedId);
+        final ItemStack withdrawn = new ItemStack(item, (int) Math.min(stored, item.getMaxCount()));
+
+        balance.put(selectedId, stored - withdrawn.getCount());
+        setBalance(stack, balance);
+
+        // Mirror crafted change, which is never automatically exchanged back.
+        withdrawn.getOrCreateNbt().putBoolean(CurrencyHelper.EXCHANGE_KEY, false);
+
+        return withdrawn;
+    }
+
+    @Override
+    public TypedActionResult<ItemStack> use(World world, PlayerEntity player, Hand hand) {
+        final ItemStack stack = player.getStackInHand(hand);
+
+        if (stack.getSubNbt(BALANCE_KEY) == null) return TypedActionResult.pass(stack);
+        // Currency data is only loaded on the server, so the client cannot predict the result.
+        if (world.isClient()) return TypedActionResult.success(stack);
+
+        final ItemStack withdrawn = withdraw(stack, player.isSneaking());
+
+        if (withdrawn.isEmpty()) return TypedActionResult.pass(stack);
+
+        ExchangeAuditLog.record(player.getUuid(), Kind.WITHDRAW, null, 0, withdrawn.getItem(), withdrawn.getCount());
+
+        player.getInventory().offerOrDrop(withdrawn);
+        player.playSound(SoundEvents.ITEM_BUNDLE_REMOVE_ONE, 0.8F, 0.8F + world.getRandom().nextFloat() * 0.4F);
+
+        return TypedActionResult.consume(stack);
+    }
+
+    @Override
+    public void appendTooltip(ItemStack stack, @Nullable World world, List<Text> tooltip, TooltipContext context) {
+        super.appendTooltip(stack, world, tooltip, context);
+
+        final CurrencySnapshot snapshot = CurrencySnapshot.get();
+
+        for (final Object2LongMap.Entry<Identifier> entry : getBalance(stack).object2LongEntrySet()) {
+            // Currency data is only loaded on the server, so remote clients fall back to the unit's identifier.
+            final Text name = snapshot.getUnits()
+                .get(entry.getKey())
+                .map(unit -> unit.getItem().getName())
+                .orElseGet(() -> Text.literal(entry.getKey().toString()));
+
+            tooltip.add(Text.translatable(this.getTranslationKey() + ".balance", entry.getLongValue(), name)
+                .formatted(Formatting.GRAY));
+        }
+    }
+
+}
@@ -16,8 +16,6 @@ package dev.jaxydog.astral.content.item.custom;
 
 import dev.jaxydog.astral.content.item.AstralItem;
 import dev.jaxydog.astral.content.sound.SoundContext;
-import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
-import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.minecraft.advancement.criterion.Criteria;
 import net.minecraft.block.*;
 import net.minecraft.block.cauldron.CauldronBehavior;
@@ -25,10 +23,12 @@ import net.minecraft.block.dispenser.FallibleItemDispenserBehavior;
 import net.minecraft.client.item.TooltipContext;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.projectile.ProjectileUtil;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemGroup;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.ItemUsageContext;
+import net.minecraft.nbt.NbtCompound;
 import net.minecraft.predicate.entity.EntityPredicates;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.registry.tag.FluidTags;
@@ -41,6 +41,7 @@ import net.minecraft.text.Text;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.Hand;
+import net.minecraft.util.StringIdentifiable;
 import net.minecraft.util.TypedActionResult;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.hit.HitResult.Type;
@@ -52,8 +53,6 @@ import net.minecraft.world.event.GameEvent.Emitter;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
 import java.util.function.Supplier;
 
 /**
@@ -71,6 +70,31 @@ public class SprayBottleItem extends AstralItem implements Sprayed {
      * @since 1.6.0
      */
     public static final int MAX_USES = 48;
+    /**
+     * The number of blocks that the area nozzle extends in each direction.
+     *
+     * @since 2.3.0
+     */
+    public static final int AREA_RADIUS = 2;
+    /**
+     * The length of the cone nozzle's spray.
+     *
+     * @since 2.3.0
+     */
+    public static final double CONE_RANGE = 5D;
+    /**
+     * The angle between the cone nozzle's axis and its sides, in degrees.
+     *
+     * @since 2.3.0
+     */
+    public static final float CONE_ANGLE = 30F;
+
+    /**
+     * The NBT key used to store the bottle's nozzle mode.
+     *
+     * @since 2.3.0
+     */
+    public static final String NOZZLE_KEY = "Nozzle";
 
     /**
      * The sound played when extinguishing a block.
@@ -108,7 +132,7 @@ public class SprayBottleItem extends AstralItem implements Sprayed {
      *
      * @since 2.0.0
      */
-    private final Map<Class<? extends SprayTarget>, List<Behavior<? extends SprayTarget>>> behaviors = new Object2ObjectArrayMap<>();
+    private final BehaviorTable behaviors = new BehaviorTable();
 
     /**
      * Creates a new item using the given settings.
@@ -141,16 +165,56 @@ public class SprayBottleItem extends AstralItem implements Sprayed {
 
     @Override
     public <T extends SprayTarget> void addBehavior(Class<T> type, Behavior<T> behavior) {
-        this.behaviors.putIfAbsent(type, new ObjectArrayList<>(1));
-        this.behaviors.get(type).add(behavior);
+        this.behaviors.add(type, behavior);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
-    public <T extends SprayTarget> List<Behavior<T>> getBehaviors(Class<T> type) {
-        if (!this.behaviors.containsKey(type)) return List.of();
+    public <T extends SprayTarget> Behavior<T>[] getBehaviors(Class<T> type) {
+        return this.behaviors.get(type);
+    }
 
-        return this.behaviors.get(type).stream().map(b -> (Behavior<T>) b).toList();
+    /**
+     * Returns the given stack's nozzle mode.
+     *
+     * @param stack The item stack.
+     *
+     * @return The nozzle mode.
+     *
+     * @since 2.3.0
+     */
+    public NozzleMode getNozzle(ItemStack stack) {
+        final NbtCompound compound = stack.getNbt();
+
+        if (compound == null || !compound.contains(NOZZLE_KEY)) return NozzleMode.SINGLE;
+
+        return NozzleMode.get(compound.getString(NOZZLE_KEY));
+    }
+
+    /**
+     * Sets the given stack's nozzle mode.
+     *
+     * @param stack The item stack.
+     * @param mode The nozzle mode.
+     *
+     * @since 2.3.0
+     */
+    public void setNozzle(ItemStack stack, NozzleMode mode) {
+        stack.getOrCreateNbt().putString(NOZZLE_KEY, mode.asString());
+    }
+
+    /**
+     * Returns the text describing the given nozzle mode.
+     *
+     * @param mode The nozzle mode.
+     *
+     * @return The nozzle text.
+     *
+     * @since 2.3.0
+     */
+    protected Text getNozzleText(NozzleMode mode) {
+        final String key = this.getTranslationKey() + ".nozzle";
+
+        return Text.translatable(key, Text.translatable(key + "." + mode.asString())).formatted(Formatting.GRAY);
     }
 
     @Override
@@ -161,6 +225,8 @@ public class SprayBottleItem extends AstralItem implements Sprayed {
             tooltip.add(Text.translatable(key).formatted(Formatting.GRAY));
         }
 
+        tooltip.add(this.getNozzleText(this.getNozzle(stack)));
+
         super.appendTooltip(stack, world, tooltip, context);
     }
 
@@ -168,32 +234,82 @@ public class SprayBottleItem extends AstralItem implements Sprayed {
     public TypedActionResult<ItemStack> use(World world, PlayerEntity player, Hand hand) {
         final ItemStack stack = player.getStackInHand(hand);
 
-        if (this.isFilled(stack)) return TypedActionResult.pass(stack);
+        if (!this.isFilled(stack)) {
+            // Attempt to ray-cast for a water source.
+            final BlockHitResult result = raycast(world, player, FluidHandling.SOURCE_ONLY);
+            final BlockPos pos = result.getBlockPos();
+
+            // Attempt to refill using the detected water source.
+            if (result.getType() == Type.BLOCK
+                && world.canPlayerModifyAt(player, pos)
+                && world.getFluidState(pos).isIn(FluidTags.WATER)) {
+                final int charges = this.getMaxCharges(stack) - this.getCharges(stack);
+                final RefillContext context = new RefillContext(world, pos, charges);
+                final Source source = new Source(stack, player, player.getPos());
+
+                this.refill(source, context);
 
-        // Attempt to ray-cast for a water source.
-        final BlockHitResult result = raycast(world, player, FluidHandling.SOURCE_ONLY);
-        final BlockPos pos = result.getBlockPos();
+                return TypedActionResult.success(stack, world.isClient());
+            }
+        }
 
-        if (result.getType() != Type.BLOCK) return TypedActionResult.pass(stack);
+        // Sneaking while not aiming at anything cycles the nozzle.
+        if (!player.isSneaking() || !isAimingAtNothing(player)) return TypedActionResult.pass(stack);
 
-        // Attempt to refill using the detected water source.
-        if (world.canPlayerModifyAt(player, pos) && world.getFluidState(pos).isIn(FluidTags.WATER)) {
-            final int charges = this.getMaxCharges(stack) - this.getCharges(stack);
-            final RefillContext context = new RefillContext(world, pos, charges);
-            final Source source = new Source(stack, player, player.getPos());
+        final NozzleMode mode = this.getNozzle(stack).next();
 
-            this.refill(source, context);
+        this.setNozzle(stack, mode);
 
-            return TypedActionResult.success(stack, world.isClient());
-        } else {
-            return TypedActionResult.pass(stack);
-        }
+        if (!world.isClient()) player.sendMessage(this.getNozzleText(mode), true);
+
+        return TypedActionResult.success(stack, world.isClient());
+    }
+
+    /**
+     * Returns whether the given player's crosshair would miss every block and entity within reach.
+     * <p>
+     * This mirrors the client's crosshair target, so both sides agree on whether the nozzle should be cycled.
+     *
+     * @param player The player entity.
+     *
+     * @return Whether the player is not aiming at anything.
+     *
+     * @since 2.3.0
+     */
+    private static boolean isAimingAtNothing(PlayerEntity player) {
+        final double blockReach = player.isCreative() ? 5D : 4.5D;
+
+        if (player.raycast(blockReach, 1F, false).getType() != Type.MISS) return false;
+
+        final double entityReach = player.isCreative() ? 6D : 3D;
+        final Vec3d start = player.getEyePos();
+        final Vec3d offset = player.getRotationVec(1F).multiply(entityReach);
+        final Box bounds = player.getBoundingBox().stretch(offset).expand(1D);
+
+        return ProjectileUtil.raycast(player,
+            start,
+            start.add(offset),
+            bounds,
+            entity -> !entity.isSpectator() && entity.canHit(),
+            entityReach * entityReach
+        ) == null;
     }
 
     @Override
     public ActionResult useOnEntity(ItemStack stack, PlayerEntity player, LivingEntity entity, Hand hand) {
         if (this.isEmpty(stack)) return ActionResult.PASS;
-        if (!this.spray(stack, player, player.getPos(), entity, false)) return ActionResult.PASS;
+
+        final Vec3d center = entity.getBoundingBox().getCenter();
+        final BlockPos pos = entity.getBlockPos();
+        final SprayArea area = this.getNozzle(stack).getArea(player.getEyePos(), center, pos, Direction.UP);
+
+        if (area != null) {
+            if (!this.sprayArea(stack, player, player.getPos(), player.getWorld(), area, Direction.UP, false)) {
+                return ActionResult.PASS;
+            }
+        } else if (!this.spray(stack, player, player.getPos(), entity, false)) {
+            return ActionResult.PASS;
+        }
 
         if (player instanceof final ServerPlayerEntity serverPlayer) {
             Criteria.PLAYER_INTERACTED_WITH_ENTITY.trigger(serverPlayer, stack, entity);
@@ -222,6 +338,20 @@ public class SprayBottleItem extends AstralItem implements Sprayed {
             position = player.getPos();
         }
 
+        final Vec3d origin = player == null ? position : player.getEyePos();
+        final SprayArea area = this.getNozzle(stack).getArea(origin, context.getHitPos(), pos, side);
+
+        if (area != null) {
+            if (!this.sprayArea(stack, player, position, world, area, side, false)) return ActionResult.PASS;
+
+            if (player instanceof final ServerPlayerEntity serverPlayer) {
+                Criteria.ITEM_USED_ON_BLOCK.trigger(serverPlayer, pos, stack);
+            }
+
+            // Block changes and their game events are handled by the area spray's batch.
+            return ActionResult.success(player != null && world.isClient());
+        }
+
         if (!this.spray(stack, player, position, world, pos, side, false)) return ActionResult.PASS;
 
         final BlockState newState = world.getBlockState(pos);
@@ -258,77 +388,58 @@ public class SprayBottleItem extends AstralItem implements Sprayed {
         ));
 
         // Block oxidization.
-        this.addBehavior(BlockTarget.class, new Behavior<>((source, target) -> {
-            final Block block = target.state().getBlock();
-
-            return block instanceof Oxidizable oxidizable && Oxidizable.getIncreasedOxidationBlock(block).isPresent();
-        }, (source, target) -> {
-            final Block block = target.state().getBlock();
-            final Optional<Block> increased = Oxidizable.getIncreasedOxidationBlock(block);
-
-            increased.ifPresent(value -> {
-                final BlockState state = value.getStateWithProperties(target.state());
-
-                target.world().setBlockState(target.pos(), state);
-            });
-        }, 1, 100));
+        BlockBehaviors.register(this, block -> block instanceof Oxidizable, new BlockBehavior(
+            this.getRegistryId().withSuffixedPath("/oxidize"),
+            (source, target, state) -> Oxidizable.getIncreasedOxidationBlock(state.getBlock())
+                .map(block -> block.getStateWithProperties(state))
+                .orElse(null),
+            1,
+            100,
+            false,
+            null
+        ));
 
         // Farmland moisturization.
-        this.addBehavior(BlockTarget.class, new Behavior<>((source, target) -> {
-            final BlockState state = target.state();
-            final Block block = state.getBlock();
-
-            return block instanceof FarmlandBlock && state.get(FarmlandBlock.MOISTURE) < FarmlandBlock.MAX_MOISTURE;
-        }, (source, target) -> {
-            final BlockState state = target.state();
-
-            target.world().setBlockState(target.pos(), state.with(FarmlandBlock.MOISTURE, FarmlandBlock.MAX_MOISTURE));
-        }, 4));
+        BlockBehaviors.register(this, block -> block instanceof FarmlandBlock, new BlockBehavior(
+            this.getRegistryId().withSuffixedPath("/moisten_farmland"),
+            (source, target, state) -> state.get(FarmlandBlock.MOISTURE) < FarmlandBlock.MAX_MOISTURE
+                ? state.with(FarmlandBlock.MOISTURE, FarmlandBlock.MAX_MOISTURE)
+                : null,
+            4,
+            0,
+            false,
+            null
+        ));
 
         // Fire extinguishing.
-        this.addBehavior(BlockTarget.class, new Behavior<>((source, target) -> {
-            final BlockState state = target.state();
-            final Block block = state.getBlock();
-
-            return block instanceof AbstractFireBlock;
-        }, (source, target) -> {
-            final BlockState state = target.state();
-
-            if (source.actor() == null) {
-                target.world().breakBlock(target.pos(), false);
-            } else {
-                target.world().breakBlock(target.pos(), false, source.actor());
-            }
-
-            EXTINGUISH_BLOCK_SOUND.play(target.world(), target.pos(), false);
-        }, 2));
+        BlockBehaviors.register(this, block -> block instanceof AbstractFireBlock, new BlockBehavior(
+            this.getRegistryId().withSuffixedPath("/extinguish_fire"),
+            (source, target, state) -> Blocks.AIR.getDefaultState(),
+            2,
+            0,
+            false,
+            EXTINGUISH_BLOCK_SOUND
+        ));
 
         // Campfire extinguishing.
-        this.addBehavior(BlockTarget.class, new Behavior<>((source, target) -> {
-            final BlockState state = target.state();
-            final Block block = state.getBlock();
-
-            return block instanceof CampfireBlock && state.get(CampfireBlock.LIT);
-        }, (source, target) -> {
-            final BlockState state = target.state();
-
-            target.world().setBlockState(target.pos(), state.with(CampfireBlock.LIT, false));
-
-            EXTINGUISH_BLOCK_SOUND.play(target.world(), target.pos(), false);
-        }, 2));
+        BlockBehaviors.register(this, block -> block instanceof CampfireBlock, new BlockBehavior(
+            this.getRegistryId().withSuffixedPath("/extinguish_campfire"),
+            (source, target, state) -> state.get(CampfireBlock.LIT) ? state.with(CampfireBlock.LIT, false) : null,
+            2,
+            0,
+            false,
+            EXTINGUISH_BLOCK_SOUND
+        ));
 
         // Sponge drying.
-        this.addBehavior(BlockTarget.class, new Behavior<>((source, target) -> {
-            final BlockState state = target.state();
-
-            return state.isOf(Blocks.SPONGE);
-        }, (source, target) -> {
-            final BlockState state = Blocks.WET_SPONGE.getStateWithProperties(target.state());
-
-            target.world().setBlockState(target.pos(), state);
-
-            SPONGE_SQUISH_SOUND.play(target.world(), target.pos(), false);
-        }, 4));
+        BlockBehaviors.register(this, block -> block == Blocks.SPONGE, new BlockBehavior(
+            this.getRegistryId().withSuffixedPath("/soak_sponge"),
+            (source, target, state) -> Blocks.WET_SPONGE.getStateWithProperties(state),
+            4,
+            0,
+            false,
+            SPONGE_SQUISH_SOUND
+        ));
 
         super.registerCommon();
 
@@ -370,6 +481,17 @@ public class SprayBottleItem extends AstralItem implements Sprayed {
                 final Vec3d position = pointer.getPos().toCenterPos();
                 final Direction side = direction.getOpposite();
                 final BlockState blockState = world.getBlockState(pos);
+                final SprayArea area = item.getNozzle(stack).getArea(position, pos.toCenterPos(), pos, side);
+
+                if (area != null) {
+                    if (item.sprayArea(stack, null, position, world, area, side, true)) {
+                        this.setSuccess(true);
+
+                        SPRAY_SOUND.play(world, position);
+                    }
+
+                    return stack;
+                }
 
                 boolean sprayed = false;
 
@@ -403,4 +525,104 @@ public class SprayBottleItem extends AstralItem implements Sprayed {
         });
     }
 
+    /**
+     * The spray pattern of a spray bottle's nozzle.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    public enum NozzleMode implements StringIdentifiable {
+
+        /**
+         * Sprays a single target.
+         *
+         * @since 2.3.0
+         */
+        SINGLE("single"),
+        /**
+         * Sprays every target within a cone in front of the sprayer.
+         *
+         * @since 2.3.0
+         */
+        CONE("cone"),
+        /**
+         * Sprays every target within a flat area around the sprayed block.
+         *
+         * @since 2.3.0
+         */
+        AREA("area");
+
+        /**
+         * The name of the mode.
+         *
+         * @since 2.3.0
+         */
+        private final String name;
+
+        /**
+         * Creates a new nozzle mode.
+         *
+         * @param name The name of the mode.
+         *
+         * @since 2.3.0
+         */
+        NozzleMode(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the mode associated with the given name, or {@link #SINGLE} if the given name is invalid.
+         *
+         * @param name The name of the mode.
+         *
+         * @return The nozzle mode.
+         *
+         * @since 2.3.0
+         */
+        public static NozzleMode get(String name) {
+            for (final NozzleMode mode : values()) {
+                if (mode.asString().equals(name)) return mode;
+            }
+
+            return SINGLE;
+        }
+
+        /**
+         * Returns the mode that follows this mode when cycling the nozzle.
+         *
+         * @return The next nozzle mode.
+         *
+         * @since 2.3.0
+         */
+        public NozzleMode next() {
+            return values()[(this.ordinal() + 1) % values().length];
+        }
+
+        /**
+         * Returns the area sprayed by this mode, or {@code null} if only a single target is sprayed.
+         *
+         * @param origin The position that the spray originates from.
+         * @param towards The position that is being sprayed.
+         * @param pos The sprayed block's position.
+         * @param side The sprayed side.
+         *
+         * @return The sprayed area.
+         *
+         * @since 2.3.0
+         */
+        public @Nullable SprayArea getArea(Vec3d origin, Vec3d towards, BlockPos pos, Direction side) {
+            return switch (this) {
+                case SINGLE -> null;
+                case CONE -> ConeArea.of(origin, towards, CONE_RANGE, CONE_ANGLE);
+                case AREA -> BoxArea.of(pos, side, AREA_RADIUS);
+            };
+        }
+
+        @Override
+        public String asString() {
+            return this.name;
+        }
+
+    }
+
 }
@@ -2,8 +2,6 @@ package dev.jaxydog.astral.content.item.custom;
 
 import dev.jaxydog.astral.content.item.AstralItems;
 import dev.jaxydog.astral.content.item.AstralPotionItem;
-import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
-import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.fabricmc.fabric.api.client.rendering.v1.ColorProviderRegistry;
 import net.minecraft.advancement.criterion.Criteria;
 import net.minecraft.block.BlockState;
@@ -35,7 +33,6 @@ import net.minecraft.world.event.GameEvent.Emitter;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
-import java.util.Map;
 import java.util.function.Supplier;
 
 /**
@@ -64,7 +61,7 @@ public class SprayPotionItem extends AstralPotionItem implements Sprayed {
      *
      * @since 2.0.0
      */
-    private final Map<Class<? extends SprayTarget>, List<Behavior<? extends SprayTarget>>> behaviors = new Object2ObjectArrayMap<>();
+    private final BehaviorTable behaviors = new BehaviorTable();
 
     /**
      * Creates a new item using the given settings.
@@ -132,16 +129,12 @@ public class SprayPotionItem extends AstralPotionItem implements Sprayed {
 
     @Override
     public <T extends SprayTarget> void addBehavior(Class<T> type, Behavior<T> behavior) {
-        this.behaviors.putIfAbsent(type, new ObjectArrayList<>(1));
-        this.behaviors.get(type).add(behavior);
+        this.behaviors.add(type, behavior);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
-    public <T extends SprayTarget> List<Behavior<T>> getBehaviors(Class<T> type) {
-        if (!this.behaviors.containsKey(type)) return List.of();
-
-        return this.behaviors.get(type).stream().map(b -> (Behavior<T>) b).toList();
+    public <T extends SprayTarget> Behavior<T>[] getBehaviors(Class<T> type) {
+        return this.behaviors.get(type);
     }
 
     @Override
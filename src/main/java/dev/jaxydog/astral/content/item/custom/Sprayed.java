@@ -14,6 +14,10 @@
 
 package dev.jaxydog.astral.content.item.custom;
 
+import com.google.common.collect.MapMaker;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
 import dev.jaxydog.astral.Astral;
 import dev.jaxydog.astral.content.item.Custom;
 import dev.jaxydog.astral.content.power.custom.ActionOnSprayPower;
@@ -23,32 +27,51 @@ import dev.jaxydog.astral.content.sound.SoundContext;
 import dev.jaxydog.astral.register.Registered.Client;
 import dev.jaxydog.astral.utility.injected.SprayableEntity;
 import io.github.apace100.apoli.component.PowerHolderComponent;
+import io.github.apace100.apoli.power.Power;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
+import net.minecraft.block.pattern.CachedBlockPosition;
 import net.minecraft.client.item.ModelPredicateProviderRegistry;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemConvertible;
 import net.minecraft.item.ItemStack;
+import net.minecraft.predicate.entity.EntityPredicates;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.tag.TagKey;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
+import net.minecraft.state.property.Property;
 import net.minecraft.stat.Stats;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.JsonHelper;
+import net.minecraft.util.Pair;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import net.minecraft.world.event.GameEvent;
 import net.minecraft.world.event.GameEvent.Emitter;
+import org.apache.commons.lang3.tuple.Triple;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 
 /**
  * Provides common functionality for spray items.
@@ -83,6 +106,19 @@ public interface Sprayed extends Client, Custom {
      */
     SoundContext REFILL_SOUND = new SoundContext(SoundEvents.ITEM_BOTTLE_FILL, SoundCategory.NEUTRAL);
 
+    /**
+     * The handler that sprays {@link SprayableEntity} instances, using the duration of the sprayed stack.
+     * <p>
+     * The handler's argument is the sprayable entity, as returned by {@link SprayableEntity#of(Entity)}.
+     *
+     * @since 2.3.0
+     */
+    SprayHandler<EntityTarget> SPRAYABLE_HANDLER = (source, target, argument) -> {
+        final int duration = ((Sprayed) source.stack().getItem()).getDuration(source.stack());
+
+        ((SprayableEntity) Objects.requireNonNull(argument)).astral$setSprayed(source.actor(), duration);
+    };
+
     /**
      * Adds a new behavior to this spray item.
      *
@@ -95,16 +131,18 @@ public interface Sprayed extends Client, Custom {
     <T extends SprayTarget> void addBehavior(Class<T> type, Behavior<T> behavior);
 
     /**
-     * Returns a list of behaviors for this spray item.
+     * Returns the behaviors for this spray item, sorted by priority in descending order.
+     * <p>
+     * The returned array is shared, and must not be modified.
      *
      * @param type The class of the behavior's expected target type.
      * @param <T> The behavior's expected target type.
      *
-     * @return A list of behaviors.
+     * @return An array of behaviors.
      *
      * @since 2.0.0
      */
-    <T extends SprayTarget> List<Behavior<T>> getBehaviors(Class<T> type);
+    <T extends SprayTarget> Behavior<T>[] getBehaviors(Class<T> type);
 
     /**
      * Returns the data used within a spray item's model in order to determine its current texture.
@@ -326,28 +364,51 @@ public interface Sprayed extends Client, Custom {
      * @since 2.0.0
      */
     default boolean canSpray(Source source, EntityTarget target, int charges) {
+        return this.canSpray(source, target, null, charges);
+    }
+
+    /**
+     * Returns whether the given item stack may spray the target entity and consume the given charge count.
+     * <p>
+     * Passing the same context into {@link #onSpray(Source, EntityTarget, PowerContext, SprayBuffer)} allows the check
+     * and the collected power actions to share it.
+     *
+     * @param source The spray source.
+     * @param target The spray target.
+     * @param context The power context for this target, or {@code null} to only create one if any powers are present.
+     * @param charges The number of charges.
+     *
+     * @return Whether the target may be sprayed.
+     *
+     * @since 2.3.0
+     */
+    default boolean canSpray(Source source, EntityTarget target, @Nullable PowerContext context, int charges) {
         if (!this.isSprayable(source.stack(), charges)) return false;
 
         // Return true if the stack has any valid behaviors.
-        if (this.getBehaviors(EntityTarget.class).stream().anyMatch(b -> b.predicate().test(source, target))) {
-            return true;
+        for (final Behavior<EntityTarget> behavior : this.getBehaviors(EntityTarget.class)) {
+            if (behavior.predicate().test(source, target)) return true;
         }
 
-        // Return true if the target has any valid `astral:action_when_sprayed` powers.
-        if (PowerHolderComponent.getPowers(target.target(), ActionWhenSprayedPower.class)
-            .stream()
-            .anyMatch(p -> p.canSpray(source.actor(), source.stack()))) {
-            return true;
-        }
+        final ActionWhenSprayedPower[] targetPowers = SprayPowers.getWhenSprayed(target.target());
+        final ActionOnSprayPower[] actorPowers = SprayPowers.getOnSpray(source.actor());
 
-        // Return true if the entity has any valid `astral:action_on_sprayed` powers.
-        if (PowerHolderComponent.getPowers(source.actor(), ActionOnSprayPower.class)
-            .stream()
-            .anyMatch(p -> p.canSpray(target.target(), source.stack()))) {
-            return true;
+        if (targetPowers.length > 0 || actorPowers.length > 0) {
+            // Every power condition is tested against the same context.
+            final PowerContext shared = context != null ? context : PowerContext.of(source, target);
+
+            // Return true if the target has any valid `astral:action_when_sprayed` powers.
+            for (final ActionWhenSprayedPower power : targetPowers) {
+                if (power.isActive() && power.canSpray(shared.entities(), source.stack())) return true;
+            }
+
+            // Return true if the entity has any valid `astral:action_on_sprayed` powers.
+            for (final ActionOnSprayPower power : actorPowers) {
+                if (power.isActive() && power.canSpray(shared.entities(), source.stack())) return true;
+            }
         }
 
-        return target.target() instanceof SprayableEntity && this.getDuration(source.stack()) > 0;
+        return SprayableEntity.of(target.target()) != null && this.getDuration(source.stack()) > 0;
     }
 
     /**
@@ -362,146 +423,159 @@ public interface Sprayed extends Client, Custom {
      * @since 2.0.0
      */
     default boolean canSpray(Source source, BlockTarget target, int charges) {
+        return this.canSpray(source, target, null, charges);
+    }
+
+    /**
+     * Returns whether the given item stack may spray the target block and consume the given charge count.
+     * <p>
+     * Passing the same context into {@link #onSpray(Source, BlockTarget, PowerContext, SprayBuffer)} allows the check
+     * and the collected power actions to share it.
+     *
+     * @param source The spray source.
+     * @param target The spray target.
+     * @param context The power context for this target, or {@code null} to only create one if any powers are present.
+     * @param charges The number of charges.
+     *
+     * @return Whether the block may be sprayed.
+     *
+     * @since 2.3.0
+     */
+    default boolean canSpray(Source source, BlockTarget target, @Nullable PowerContext context, int charges) {
         if (!this.isSprayable(source.stack(), charges)) return false;
 
-        // Return true if the entity has any valid `astral:action_on_sprayed` powers.
-        if (PowerHolderComponent.getPowers(source.actor(), ActionOnSprayPower.class)
-            .stream()
-            .anyMatch(p -> p.canSpray(target.world(), target.pos(), source.stack()))) {
-            return true;
+        final ActionOnSprayPower[] actorPowers = SprayPowers.getOnSpray(source.actor());
+
+        if (actorPowers.length > 0) {
+            // Every power condition is tested against the same context.
+            final PowerContext shared = context != null ? context : PowerContext.of(source, target);
+
+            // Return true if the entity has any valid `astral:action_on_sprayed` powers.
+            for (final ActionOnSprayPower power : actorPowers) {
+                if (power.isActive() && power.canSpray(shared.cachedBlock(), source.stack())) return true;
+            }
+        }
+
+        final BlockState state = target.state();
+
+        // Return true if the sprayed block has any applicable behaviors.
+        for (final BlockBehavior behavior : BlockBehaviors.get().get(this.asItem(), state.getBlock())) {
+            if (behavior.transform().apply(source, target, state) != null) return true;
         }
 
         // Return true if the stack has any valid behaviors.
-        return this.getBehaviors(BlockTarget.class).stream().anyMatch(b -> b.predicate().test(source, target));
+        for (final Behavior<BlockTarget> behavior : this.getBehaviors(BlockTarget.class)) {
+            if (behavior.predicate().test(source, target)) return true;
+        }
+
+        return false;
     }
 
     /**
-     * Runs actions on a sprayed target, returning a result.
+     * Collects the handlers that should run on a sprayed target into the given buffer.
+     * <p>
+     * Handlers are only collected, and will be executed once the target is committed and the buffer is sprayed.
      *
      * @param source The spray source.
      * @param target The spray target.
-     * @param silent Whether the spray sound should be skipped.
-     *
-     * @return The spray result.
+     * @param context The power context shared with {@link #canSpray(Source, EntityTarget, PowerContext, int)}, or
+     * {@code null} to only create one if any powers are present.
+     * @param buffer The spray buffer.
      *
      * @since 2.0.0
      */
-    default SprayResult onSpray(Source source, EntityTarget target, boolean silent) {
-        final List<Runnable> actions = new ObjectArrayList<>();
-        int charges = 0;
-
-        // Sort by behavior priority in descending order.
-        final List<Behavior<EntityTarget>> behaviors = this.getBehaviors(EntityTarget.class)
-            .stream()
-            .sorted(Comparator.comparingInt(Behavior<EntityTarget>::priority).reversed())
-            .toList();
+    default void onSpray(Source source, EntityTarget target, @Nullable PowerContext context, SprayBuffer buffer) {
+        // Behaviors are already sorted by priority in descending order.
+        buffer.addAll(source, target, this.getBehaviors(EntityTarget.class));
 
-        for (final Behavior<EntityTarget> behavior : behaviors.stream()
-            .sorted(Comparator.comparingInt(Behavior<EntityTarget>::priority).reversed())
-            .toList()) {
-            if (!behavior.predicate().test(source, target)) continue;
+        // Powers are cached per entity, already sorted by priority in descending order.
+        final ActionWhenSprayedPower[] targetPowers = SprayPowers.getWhenSprayed(target.target());
+        final ActionOnSprayPower[] actorPowers = SprayPowers.getOnSpray(source.actor());
 
-            actions.add(() -> behavior.action().accept(source, target));
-            charges = Math.max(charges, behavior.charges());
+        if (targetPowers.length > 0 || actorPowers.length > 0) {
+            // Every power condition and action shares the same context for this target.
+            final PowerContext shared = context != null ? context : PowerContext.of(source, target);
 
-            if (behavior.cancelling()) break;
-        }
+            for (final ActionWhenSprayedPower power : targetPowers) {
+                if (!power.isActive() || !power.canSpray(shared.entities(), source.stack())) continue;
 
-        // Sort by power priority in descending order.
-        final List<ActionWhenSprayedPower> targetPowers = PowerHolderComponent.getPowers(target.target(),
-                ActionWhenSprayedPower.class
-            )
-            .stream()
-            .sorted(Comparator.comparingInt(ActionWhenSprayedPower::getPriority).reversed())
-            .toList();
+                buffer.add(power, target, shared, power.getCharges());
+            }
 
-        for (final ActionWhenSprayedPower power : targetPowers) {
-            if (!power.canSpray(source.actor(), source.stack())) continue;
+            for (final ActionOnSprayPower power : actorPowers) {
+                if (!power.isActive() || !power.canSpray(shared.entities(), source.stack())) continue;
 
-            actions.add(() -> power.onSpray(source.actor(), source.stack()));
-            charges = Math.max(charges, power.getCharges());
+                buffer.add(power, target, shared, power.getCharges());
+            }
         }
 
-        // Sort by power priority in descending order.
-        final List<ActionOnSprayPower> actorPowers = PowerHolderComponent.getPowers(source.actor(),
-                ActionOnSprayPower.class
-            )
-            .stream()
-            .sorted(Comparator.comparingInt(ActionOnSprayPower::getPriority).reversed())
-            .toList();
-
-        for (final ActionOnSprayPower power : actorPowers) {
-            if (!power.canSpray(target.target(), source.stack())) continue;
-
-            actions.add(() -> power.onSpray(target.target(), source.stack()));
-            charges = Math.max(charges, power.getCharges());
-        }
+        final SprayableEntity sprayable = SprayableEntity.of(target.target());
 
-        if (target.target() instanceof final SprayableEntity sprayable) {
+        if (sprayable != null) {
             final int duration = this.getDuration(source.stack());
 
             // Only spray on the server-side. This avoids weird behaviors when called on the client.
             if (duration > 0 && sprayable.astral$canSpray() && !target.target().getWorld().isClient()) {
-                actions.add(() -> sprayable.astral$setSprayed(source.actor(), duration));
-
-                charges = Math.max(charges, sprayable.astral$getSprayCharges());
+                buffer.add(SPRAYABLE_HANDLER, target, sprayable, sprayable.astral$getSprayCharges());
             }
         }
-
-        return new SprayResult(charges, source.position(), actions, silent);
     }
 
     /**
-     * Runs actions on a sprayed block, returning a result.
+     * Collects the handlers that should run on a sprayed block into the given buffer.
+     * <p>
+     * Handlers are only collected, and will be executed once the target is committed and the buffer is sprayed.
      *
      * @param source The spray source.
      * @param target The spray target.
-     * @param silent Whether the spray sound should be skipped.
-     *
-     * @return The spray result.
+     * @param context The power context shared with {@link #canSpray(Source, BlockTarget, PowerContext, int)}, or
+     * {@code null} to only create one if any powers are present.
+     * @param buffer The spray buffer.
      *
      * @since 2.0.0
      */
-    default SprayResult onSpray(Source source, BlockTarget target, boolean silent) {
-        final List<Runnable> actions = new ObjectArrayList<>();
-        int charges = 0;
+    default void onSpray(Source source, BlockTarget target, @Nullable PowerContext context, SprayBuffer buffer) {
+        final BlockState state = target.state();
+        boolean cancelled = false;
+
+        // Only the behaviors registered for the sprayed block are checked, already sorted by priority.
+        for (final BlockBehavior behavior : BlockBehaviors.get().get(this.asItem(), state.getBlock())) {
+            final BlockState result = behavior.transform().apply(source, target, state);
 
-        // Sort by behavior priority in descending order.
-        final List<Behavior<BlockTarget>> behaviors = this.getBehaviors(BlockTarget.class)
-            .stream()
-            .sorted(Comparator.comparingInt(Behavior<BlockTarget>::priority).reversed())
-            .toList();
+            if (result == null) continue;
 
-        for (final Behavior<BlockTarget> behavior : behaviors) {
-            if (!behavior.predicate().test(source, target)) continue;
+            buffer.add(behavior, target, result, behavior.charges());
 
-            actions.add(() -> behavior.action().accept(source, target));
-            charges = Math.max(charges, behavior.charges());
+            if (behavior.cancelling()) {
+                cancelled = true;
 
-            if (behavior.cancelling()) break;
+                break;
+            }
         }
 
-        // Sort by power priority in descending order.
-        final List<ActionOnSprayPower> powers = PowerHolderComponent.getPowers(source.actor(), ActionOnSprayPower.class)
-            .stream()
-            .sorted(Comparator.comparingInt(ActionOnSprayPower::getPriority).reversed())
-            .toList();
+        // Behaviors are already sorted by priority in descending order.
+        if (!cancelled) buffer.addAll(source, target, this.getBehaviors(BlockTarget.class));
 
-        for (final ActionOnSprayPower power : powers) {
-            if (!power.canSpray(target.world(), target.pos(), source.stack())) continue;
+        // Powers are cached per entity, already sorted by priority in descending order.
+        final ActionOnSprayPower[] powers = SprayPowers.getOnSpray(source.actor());
 
-            actions.add(() -> power.onSpray(target.world(), target.pos(), target.side(), source.stack()));
-            charges = Math.max(charges, power.getCharges());
-        }
+        if (powers.length > 0) {
+            // Every power condition and action shares the same context for this target.
+            final PowerContext shared = context != null ? context : PowerContext.of(source, target);
 
-        return new SprayResult(charges, source.position(), actions, silent);
+            for (final ActionOnSprayPower power : powers) {
+                if (!power.isActive() || !power.canSpray(shared.cachedBlock(), source.stack())) continue;
+
+                buffer.add(power, target, shared, power.getCharges());
+            }
+        }
     }
 
     /**
      * Sprays a target entity.
      * <p>
      * This method should not be overwritten directly, instead you should prefer overwriting
-     * {@link Sprayed#onSpray(Source, EntityTarget, boolean)}.
+     * {@link Sprayed#onSpray(Source, EntityTarget, PowerContext, SprayBuffer)}.
      *
      * @param stack The item stack.
      * @param actor The actor entity.
@@ -517,16 +591,23 @@ public interface Sprayed extends Client, Custom {
         if (!(stack.getItem() instanceof Sprayed)) return false;
 
         final Source source = new Source(stack, actor, from);
-        final EntityTarget sprayTarget = new EntityTarget(target);
+        final SprayBuffer buffer = SprayBuffer.acquire();
+
+        try {
+            this.onSpray(source, new EntityTarget(target), null, buffer);
+            buffer.commit(this, stack);
 
-        return this.spray(source, target.getWorld(), this.onSpray(source, sprayTarget, silent));
+            return this.spray(source, target.getWorld(), buffer, silent);
+        } finally {
+            buffer.release();
+        }
     }
 
     /**
      * Sprays a block.
      * <p>
      * This method should not be overwritten directly, instead you should prefer overwriting
-     * {@link Sprayed#onSpray(Source, BlockTarget, boolean)}.
+     * {@link Sprayed#onSpray(Source, BlockTarget, PowerContext, SprayBuffer)}.
      *
      * @param stack The item stack.
      * @param actor The actor entity.
@@ -552,40 +633,126 @@ public interface Sprayed extends Client, Custom {
         if (!(stack.getItem() instanceof Sprayed)) return false;
 
         final Source source = new Source(stack, actor, from);
-        final BlockTarget target = new BlockTarget(world, pos, side);
+        final SprayBuffer buffer = SprayBuffer.acquire();
+
+        try {
+            this.onSpray(source, new BlockTarget(world, pos, side), null, buffer);
+            buffer.commit(this, stack);
+
+            return this.spray(source, world, buffer, silent);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Sprays every entity and block within an area.
+     * <p>
+     * Entities are collected using a single query over the area's bounds, and blocks are visited in a single sweep of
+     * those bounds. Each target is collected through the usual {@code onSpray} methods into one buffer, so the spray
+     * sound, cooldown, and statistics are only applied once. Block changes made by {@link BlockBehavior}s are batched,
+     * playing each distinct sound and emitting a game event once per spray.
+     * <p>
+     * Targets are sprayed until the stack no longer has enough charges for the next target.
+     *
+     * @param stack The item stack.
+     * @param actor The actor entity.
+     * @param from The source position.
+     * @param world The current world.
+     * @param area The sprayed area.
+     * @param side The sprayed side of each block.
+     * @param silent Whether the spray sound should be skipped.
+     *
+     * @return Whether any target was sprayed.
+     *
+     * @since 2.3.0
+     */
+    default boolean sprayArea(
+        ItemStack stack,
+        @Nullable LivingEntity actor,
+        Vec3d from,
+        World world,
+        SprayArea area,
+        Direction side,
+        boolean silent
+    ) {
+        if (!(stack.getItem() instanceof Sprayed)) return false;
+
+        final Source source = new Source(stack, actor, from);
+        final SprayBatch batch = SprayBatch.acquire();
+        final SprayBuffer buffer = SprayBuffer.acquire();
+        final Box bounds = area.bounds();
+
+        try {
+            for (final Entity entity : world.getOtherEntities(actor, bounds, EntityPredicates.EXCEPT_SPECTATOR)) {
+                if (!area.contains(entity.getBoundingBox().getCenter())) continue;
+
+                this.onSpray(source, new EntityTarget(entity), null, buffer);
+
+                if (!buffer.commit(this, stack)) break;
+            }
 
-        return this.spray(source, world, this.onSpray(source, target, silent));
+            final BlockBehaviors index = BlockBehaviors.get();
+            // Blocks without indexed behaviors can only be sprayed by generic behaviors or powers.
+            final boolean generic = this.getBehaviors(BlockTarget.class).length > 0
+                || SprayPowers.getOnSpray(actor).length > 0;
+            final BlockPos min = BlockPos.ofFloored(bounds.minX, bounds.minY, bounds.minZ);
+            final BlockPos max = BlockPos.ofFloored(bounds.maxX, bounds.maxY, bounds.maxZ);
+
+            for (final BlockPos pos : BlockPos.iterate(min, max)) {
+                if (!area.contains(pos.toCenterPos())) continue;
+                if (actor instanceof final PlayerEntity player && !world.canPlayerModifyAt(player, pos)) continue;
+                if (!generic && index.get(this.asItem(), world.getBlockState(pos).getBlock()).length == 0) continue;
+
+                this.onSpray(source, new BlockTarget(world, pos.toImmutable(), side, batch), null, buffer);
+
+                if (!buffer.commit(this, stack)) break;
+            }
+
+            if (!this.spray(source, world, buffer, silent)) return false;
+
+            batch.flush(world, actor);
+
+            return true;
+        } finally {
+            buffer.release();
+            batch.release();
+        }
     }
 
     /**
-     * Sprays the item.
+     * Sprays the item, executing every committed handler within the given buffer.
      * <p>
      * This should never be called directly. Instead, you want either
      * {@link Sprayed#spray(ItemStack, LivingEntity, Vec3d, Entity, boolean)} or
      * {@link Sprayed#spray(ItemStack, LivingEntity, Vec3d, World, BlockPos, Direction, boolean)}.
      *
      * @param source The spray source.
-     * @param result The result of another spray method.
+     * @param world The current world.
+     * @param buffer The spray buffer.
+     * @param silent Whether the spray sound should be skipped.
      *
-     * @return Whether the result was acted upon.
+     * @return Whether any handlers were executed.
      *
-     * @since 2.0.0
+     * @since 2.3.0
      */
-    default boolean spray(Source source, World world, SprayResult result) {
-        if (result.charges() == 0 || result.actions().isEmpty()) return false;
-        if (!this.isSprayable(source.stack(), result.charges())) return false;
+    default boolean spray(Source source, World world, SprayBuffer buffer, boolean silent) {
+        if (buffer.isEmpty()) return false;
 
-        // Execute the result's stored actions.
-        result.accept(source.stack(), (s, charges) -> {
-            // Don't consume if the actor is in creative mode.
-            if (source.actor() instanceof final PlayerEntity player && player.isCreative()) return;
+        final int charges = buffer.getCharges();
 
+        buffer.run(source);
+
+        final boolean creative = source.actor() instanceof final PlayerEntity player && player.isCreative();
+
+        // Don't consume if the actor is in creative mode.
+        if (!creative) {
             if (source.actor() instanceof final ServerPlayerEntity player) {
                 source.stack().damage(charges, world.getRandom(), player);
             } else {
                 source.stack().damage(charges, world.getRandom(), null);
             }
-        });
+        }
 
         if (source.actor() instanceof final PlayerEntity player) {
             player.incrementStat(Stats.USED.getOrCreateStat(source.stack().getItem()));
@@ -593,7 +760,7 @@ public interface Sprayed extends Client, Custom {
             player.getItemCooldownManager().set(source.stack().getItem(), this.getCooldown(source.stack()));
         }
 
-        if (result.silent()) return true;
+        if (silent) return true;
 
         if (source.actor() == null) {
             SPRAY_SOUND.play(world, source.position());
@@ -711,11 +878,25 @@ public interface Sprayed extends Client, Custom {
      * @param world The current world.
      * @param pos The block position.
      * @param side The sprayed side.
+     * @param batch The batch that block changes are deferred to, or {@code null} if they apply immediately.
      *
      * @author Jaxydog
      * @since 2.0.0
      */
-    record BlockTarget(World world, BlockPos pos, Direction side) implements SprayTarget {
+    record BlockTarget(World world, BlockPos pos, Direction side, @Nullable SprayBatch batch) implements SprayTarget {
+
+        /**
+         * Describes the target block of a spray invocation.
+         *
+         * @param world The current world.
+         * @param pos The block position.
+         * @param side The sprayed side.
+         *
+         * @since 2.0.0
+         */
+        public BlockTarget(World world, BlockPos pos, Direction side) {
+            this(world, pos, side, null);
+        }
 
         /**
          * Returns the block target's block state.
@@ -750,7 +931,7 @@ public interface Sprayed extends Client, Custom {
      */
     record Behavior<T extends SprayTarget>(
         BiPredicate<Source, T> predicate, BiConsumer<Source, T> action, int charges, int priority, boolean cancelling
-    ) {
+    ) implements SprayHandler<T> {
 
         /**
          * Describes and implements a behavior when spraying an object.
@@ -781,35 +962,1487 @@ public interface Sprayed extends Client, Custom {
             this(predicate, action, charges, 0);
         }
 
+
+        @Override
+        public void handle(Source source, T target, @Nullable Object argument) {
+            this.action().accept(source, target);
+        }
+
+    }
+
+    /**
+     * Stores the behaviors registered to a spray item, keyed by their target type.
+     * <p>
+     * Each target type maps to an array that is kept sorted by priority in descending order, with behaviors of equal
+     * priority kept in registration order. Behaviors are only registered during initialization, so the array is
+     * replaced whenever a behavior is added rather than being sorted whenever the item is sprayed.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class BehaviorTable {
+
+        /**
+         * An empty behavior array.
+         *
+         * @since 2.3.0
+         */
+        private static final Behavior<?>[] EMPTY = new Behavior<?>[0];
+
+        /**
+         * The sorted behaviors, keyed by their target type.
+         *
+         * @since 2.3.0
+         */
+        private final Map<Class<? extends SprayTarget>, Behavior<?>[]> behaviors = new Object2ObjectArrayMap<>();
+
+        /**
+         * Adds a behavior to this table.
+         *
+         * @param type The class of the behavior's target type.
+         * @param behavior The behavior.
+         * @param <T> The behavior's target type.
+         *
+         * @since 2.3.0
+         */
+        public <T extends SprayTarget> void add(Class<T> type, Behavior<T> behavior) {
+            final Behavior<?>[] current = this.behaviors.getOrDefault(type, EMPTY);
+            final Behavior<?>[] sorted = new Behavior<?>[current.length + 1];
+            int index = 0;
+
+            // Insert after every behavior with an equal or higher priority, to keep the sort stable.
+            while (index < current.length && current[index].priority() >= behavior.priority()) index += 1;
+
+            System.arraycopy(current, 0, sorted, 0, index);
+            System.arraycopy(current, index, sorted, index + 1, current.length - index);
+
+            sorted[index] = behavior;
+
+            this.behaviors.put(type, sorted);
+        }
+
+        /**
+         * Returns the behaviors of the given target type, sorted by priority in descending order.
+         * <p>
+         * The returned array is shared, and must not be modified.
+         *
+         * @param type The class of the behavior's target type.
+         * @param <T> The behavior's target type.
+         *
+         * @return An array of behaviors.
+         *
+         * @since 2.3.0
+         */
+        @SuppressWarnings("unchecked")
+        public <T extends SprayTarget> Behavior<T>[] get(Class<T> type) {
+            return (Behavior<T>[]) this.behaviors.getOrDefault(type, EMPTY);
+        }
+
     }
 
     /**
-     * The result of spraying an object.
+     * Computes the result of spraying a block.
      * <p>
-     * If the result is valid, the {@link SprayResult#accept(ItemStack, BiConsumer)} method should be invoked.
+     * The computed state is passed directly to {@link BlockBehavior#apply(Source, BlockTarget, BlockState)}, so any
+     * lookups needed to determine whether a behavior applies are never repeated when it is executed.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    @FunctionalInterface
+    interface BlockTransform {
+
+        /**
+         * Returns the state that the sprayed block should be replaced with.
+         * <p>
+         * Returning an air state breaks the block, and returning {@code null} means that the behavior does not apply.
+         *
+         * @param source The spray source.
+         * @param target The spray target.
+         * @param state The sprayed block's current state.
+         *
+         * @return The new block state, or {@code null} if the behavior does not apply.
+         *
+         * @since 2.3.0
+         */
+        @Nullable BlockState apply(Source source, BlockTarget target, BlockState state);
+
+    }
+
+    /**
+     * Describes and implements a behavior when spraying a specific block.
      *
-     * @param charges The charges that should be consumed.
-     * @param position The position that the bottle was sprayed from.
-     * @param actions The actions that should be executed.
-     * @param silent Whether to skip playing the spray sound.
+     * @param id The behavior's identifier.
+     * @param transform The behavior's state transform.
+     * @param charges The charges to consume when the behavior is executed.
+     * @param priority The priority of the behavior's execution.
+     * @param cancelling Whether subsequent behaviors should be cancelled.
+     * @param sound The sound played when the behavior is executed, if any.
      *
      * @author Jaxydog
-     * @since 2.0.0
+     * @since 2.3.0
      */
-    record SprayResult(int charges, Vec3d position, List<Runnable> actions, boolean silent) {
+    record BlockBehavior(
+        Identifier id,
+        BlockTransform transform,
+        int charges,
+        int priority,
+        boolean cancelling,
+        @Nullable SoundContext sound
+    ) implements SprayHandler<BlockTarget> {
 
         /**
-         * Executes the result's stored actions, consuming charges from the given stack.
+         * Orders behaviors by their priority in descending order.
          *
-         * @param stack The item stack.
-         * @param consume The charge consumption method.
+         * @since 2.3.0
+         */
+        public static final Comparator<BlockBehavior> ORDER = Comparator.comparingInt(BlockBehavior::priority)
+            .reversed()
+            .thenComparing(BlockBehavior::id);
+
+        /**
+         * Replaces the sprayed block with the given state computed by this behavior's transform.
+         * <p>
+         * If the target belongs to a batch, the behavior's sound and game event are deferred to the batch, so removed
+         * blocks are replaced with air directly rather than broken, which would emit a game event per block.
+         *
+         * @param source The spray source.
+         * @param target The spray target.
+         * @param result The new block state.
+         *
+         * @since 2.3.0
+         */
+        public void apply(Source source, BlockTarget target, BlockState result) {
+            if (!result.isAir() || target.batch() != null) {
+                target.world().setBlockState(target.pos(), result);
+            } else if (source.actor() == null) {
+                target.world().breakBlock(target.pos(), false);
+            } else {
+                target.world().breakBlock(target.pos(), false, source.actor());
+            }
+
+            if (target.batch() != null) {
+                target.batch().add(target.pos(), result.isAir(), this.sound());
+            } else if (this.sound() != null) {
+                this.sound().play(target.world(), target.pos(), false);
+            }
+        }
+
+        /**
+         * Replaces the sprayed block with the state computed when this behavior was collected.
+         *
+         * @param source The spray source.
+         * @param target The spray target.
+         * @param argument The new block state.
+         *
+         * @since 2.3.0
+         */
+        @Override
+        public void handle(Source source, BlockTarget target, @Nullable Object argument) {
+            this.apply(source, target, (BlockState) argument);
+        }
+
+    }
+
+    /**
+     * A block property and one of its values.
+     *
+     * @param property The block property.
+     * @param value The property's value.
+     * @param <T> The property's value type.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    record PropertyValue<T extends Comparable<T>>(Property<T> property, T value) {
+
+        /**
+         * Resolves the given property names and values against the given block.
+         *
+         * @param block The block.
+         * @param values The property names and values.
+         *
+         * @return The resolved properties, or {@code null} if the block lacks a property or a value is invalid.
+         *
+         * @since 2.3.0
+         */
+        public static PropertyValue<?> @Nullable [] resolve(Block block, Map<String, String> values) {
+            final PropertyValue<?>[] resolved = new PropertyValue<?>[values.size()];
+            int index = 0;
+
+            for (final Map.Entry<String, String> entry : values.entrySet()) {
+                final Property<?> property = block.getStateManager().getProperty(entry.getKey());
+
+                if (property == null) return null;
+
+                final PropertyValue<?> value = of(property, entry.getValue());
+
+                if (value == null) return null;
+
+                resolved[index] = value;
+                index += 1;
+            }
+
+            return resolved;
+        }
+
+        /**
+         * Parses the given value of the given property.
+         *
+         * @param property The block property.
+         * @param value The property's value.
+         * @param <T> The property's value type.
+         *
+         * @return The property value, or {@code null} if the value is invalid.
+         *
+         * @since 2.3.0
+         */
+        private static <T extends Comparable<T>> @Nullable PropertyValue<T> of(Property<T> property, String value) {
+            return property.parse(value).map(parsed -> new PropertyValue<>(property, parsed)).orElse(null);
+        }
+
+        /**
+         * Returns whether the given state has this property value.
+         *
+         * @param state The block state.
+         *
+         * @return Whether the state matches.
+         *
+         * @since 2.3.0
+         */
+        public boolean test(BlockState state) {
+            return state.get(this.property()).equals(this.value());
+        }
+
+        /**
+         * Returns the given state with this property value.
+         *
+         * @param state The block state.
+         *
+         * @return The updated state.
+         *
+         * @since 2.3.0
+         */
+        public BlockState apply(BlockState state) {
+            return state.with(this.property(), this.value());
+        }
+
+    }
+
+    /**
+     * A data-driven block behavior, before being compiled for each of its matched blocks.
+     *
+     * @param id The behavior's identifier.
+     * @param items The identifiers of the spray items that use this behavior.
+     * @param blocks The identifiers of the matched blocks.
+     * @param tags The tags of the matched blocks.
+     * @param properties The property values that a matched state must have.
+     * @param resultBlock The identifier of the block that a matched block is replaced with, or {@code null} to keep the
+     * * matched block.
+     * @param resultProperties The property values set on the resulting state.
+     * @param charges The charges to consume when the behavior is executed.
+     * @param priority The priority of the behavior's execution.
+     * @param cancelling Whether subsequent behaviors should be cancelled.
+     * @param sound The sound played when the behavior is executed, if any.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    record BlockBehaviorDefinition(
+        Identifier id,
+        List<Identifier> items,
+        List<Identifier> blocks,
+        List<TagKey<Block>> tags,
+        Map<String, String> properties,
+        @Nullable Identifier resultBlock,
+        Map<String, String> resultProperties,
+        int charges,
+        int priority,
+        boolean cancelling,
+        @Nullable SoundContext sound
+    ) {
+
+        /**
+         * Parses a JSON object and creates a new {@link BlockBehaviorDefinition} from the resolved data.
+         * <p>
+         * Entries within the {@code blocks} array that start with {@code #} are treated as block tags.
+         *
+         * @param id The behavior's identifier.
+         * @param object The JSON object.
+         *
+         * @return A new behavior definition.
+         *
+         * @throws JsonSyntaxException If a field is invalid or missing from the given object.
+         * @since 2.3.0
          */
-        public void accept(ItemStack stack, BiConsumer<ItemStack, Integer> consume) {
-            if (!(stack.getItem() instanceof Sprayed)) return;
+        public static BlockBehaviorDefinition parse(Identifier id, JsonObject object) throws JsonSyntaxException {
+            final List<Identifier> items = new ObjectArrayList<>();
+            final List<Identifier> blocks = new ObjectArrayList<>();
+            final List<TagKey<Block>> tags = new ObjectArrayList<>();
 
-            this.actions().forEach(Runnable::run);
+            for (final JsonElement element : JsonHelper.getArray(object, "items")) {
+                items.add(parseId(JsonHelper.asString(element, "item")));
+            }
+            for (final JsonElement element : JsonHelper.getArray(object, "blocks")) {
+                final String string = JsonHelper.asString(element, "block");
+
+                if (string.startsWith("#")) {
+                    tags.add(TagKey.of(RegistryKeys.BLOCK, parseId(string.substring(1))));
+                } else {
+                    blocks.add(parseId(string));
+                }
+            }
+
+            final JsonObject result = JsonHelper.getObject(object, "result");
+            final int charges = JsonHelper.getInt(object, "charges", 1);
+
+            if (charges <= 0) throw new JsonSyntaxException("Expected a positive charge count");
+
+            return new BlockBehaviorDefinition(
+                id,
+                items,
+                blocks,
+                tags,
+                parseProperties(JsonHelper.getObject(object, "properties", new JsonObject())),
+                result.has("block") ? parseId(JsonHelper.getString(result, "block")) : null,
+                parseProperties(JsonHelper.getObject(result, "properties", new JsonObject())),
+                charges,
+                JsonHelper.getInt(object, "priority", 0),
+                JsonHelper.getBoolean(object, "cancelling", false),
+                object.has("sound") ? SoundContext.parse(JsonHelper.getObject(object, "sound")) : null
+            );
+        }
+
+        /**
+         * Parses an identifier.
+         *
+         * @param string The identifier string.
+         *
+         * @return The parsed identifier.
+         *
+         * @throws JsonSyntaxException If the identifier is invalid.
+         * @since 2.3.0
+         */
+        private static Identifier parseId(String string) throws JsonSyntaxException {
+            final Identifier identifier = Identifier.tryParse(string);
+
+            if (identifier == null) throw new JsonSyntaxException("Invalid identifier '%s'".formatted(string));
+
+            return identifier;
+        }
+
+        /**
+         * Parses a JSON object of property names and values.
+         *
+         * @param object The JSON object.
+         *
+         * @return The property names and values.
+         *
+         * @throws JsonSyntaxException If a value is not a string.
+         * @since 2.3.0
+         */
+        private static Map<String, String> parseProperties(JsonObject object) throws JsonSyntaxException {
+            final Map<String, String> properties = new Object2ObjectArrayMap<>(object.size());
+
+            for (final String key : object.keySet()) {
+                properties.put(key, JsonHelper.getString(object, key));
+            }
+
+            return properties;
+        }
+
+        /**
+         * Returns every block matched by this behavior.
+         * <p>
+         * This must only be called once tags have been loaded.
+         *
+         * @return The matched blocks.
+         *
+         * @since 2.3.0
+         */
+        public Set<Block> resolveBlocks() {
+            final Set<Block> resolved = new ReferenceLinkedOpenHashSet<>();
+
+            for (final Identifier blockId : this.blocks()) {
+                Registries.BLOCK.getOrEmpty(blockId).ifPresent(resolved::add);
+            }
+            for (final TagKey<Block> tag : this.tags()) {
+                Registries.BLOCK.iterateEntries(tag).forEach(entry -> resolved.add(entry.value()));
+            }
+
+            return resolved;
+        }
+
+        /**
+         * Compiles this behavior for the given matched block.
+         * <p>
+         * Property names are resolved once here, so that executing the behavior only compares and sets values.
+         *
+         * @param block The matched block.
+         *
+         * @return The compiled behavior, or {@code null} if the block lacks any of the behavior's properties or the
+         * result block does not exist.
+         *
+         * @since 2.3.0
+         */
+        public @Nullable BlockBehavior compile(Block block) {
+            // The block registry defaults to air, which would otherwise silently break blocks for a mistyped result.
+            if (this.resultBlock() != null && !Registries.BLOCK.containsId(this.resultBlock())) return null;
+
+            final Block result = this.resultBlock() == null ? block : Registries.BLOCK.get(this.resultBlock());
+            final PropertyValue<?>[] required = PropertyValue.resolve(block, this.properties());
+            final PropertyValue<?>[] replaced = PropertyValue.resolve(result, this.resultProperties());
+
+            if (required == null || replaced == null) return null;
+
+            return new BlockBehavior(this.id(), (source, target, state) -> {
+                for (final PropertyValue<?> value : required) {
+                    if (!value.test(state)) return null;
+                }
+
+                BlockState replacement = result == block ? state : result.getStateWithProperties(state);
+
+                for (final PropertyValue<?> value : replaced) {
+                    replacement = value.apply(replacement);
+                }
+
+                // A behavior that would not change the block does not apply, such as moistening wet farmland.
+                return replacement == state ? null : replacement;
+            }, this.charges(), this.priority(), this.cancelling(), this.sound());
+        }
+
+    }
+
+    /**
+     * An index of every block behavior, keyed by spray item and then by block.
+     * <p>
+     * Behaviors are either registered in code using
+     * {@link #register(ItemConvertible, Predicate, BlockBehavior)} or loaded from data packs, and are compiled into
+     * presorted arrays whenever tags are loaded, so finding the behaviors for a sprayed block is a constant-time
+     * lookup.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class BlockBehaviors {
+
+        /**
+         * An empty behavior array.
+         *
+         * @since 2.3.0
+         */
+        private static final BlockBehavior[] EMPTY = new BlockBehavior[0];
+        /**
+         * The behaviors registered in code.
+         *
+         * @since 2.3.0
+         */
+        private static final List<Builtin> BUILTIN = new ObjectArrayList<>();
+
+        /**
+         * The behaviors loaded from data packs.
+         *
+         * @since 2.3.0
+         */
+        private static volatile List<BlockBehaviorDefinition> definitions = List.of();
+        /**
+         * The currently active index.
+         *
+         * @since 2.3.0
+         */
+        private static volatile BlockBehaviors current = new BlockBehaviors(Map.of(), 0);
+
+        /**
+         * The presorted behaviors, keyed by spray item and then by block.
+         *
+         * @since 2.3.0
+         */
+        private final Map<Item, Map<Block, BlockBehavior[]>> behaviors;
+        /**
+         * The total number of compiled behaviors.
+         *
+         * @since 2.3.0
+         */
+        private final int size;
+
+        /**
+         * Creates a new index.
+         *
+         * @param behaviors The presorted behaviors.
+         * @param size The total number of compiled behaviors.
+         *
+         * @since 2.3.0
+         */
+        private BlockBehaviors(Map<Item, Map<Block, BlockBehavior[]>> behaviors, int size) {
+            this.behaviors = behaviors;
+            this.size = size;
+        }
+
+        /**
+         * Returns the currently active index.
+         *
+         * @return The active index.
+         *
+         * @since 2.3.0
+         */
+        public static BlockBehaviors get() {
+            return current;
+        }
+
+        /**
+         * Registers a block behavior in code.
+         * <p>
+         * This should only be called during initialization, and only takes effect once tags are next loaded.
+         *
+         * @param item The spray item.
+         * @param blocks A predicate that tests which blocks the behavior applies to.
+         * @param behavior The block behavior.
+         *
+         * @since 2.3.0
+         */
+        public static void register(ItemConvertible item, Predicate<Block> blocks, BlockBehavior behavior) {
+            BUILTIN.add(new Builtin(item.asItem(), blocks, behavior));
+        }
+
+        /**
+         * Replaces every data-driven behavior, which takes effect once tags are next loaded.
+         *
+         * @param definitions The behavior definitions.
+         *
+         * @since 2.3.0
+         */
+        public static void load(List<BlockBehaviorDefinition> definitions) {
+            BlockBehaviors.definitions = List.copyOf(definitions);
+        }
+
+        /**
+         * Compiles and publishes a new index from every registered and loaded behavior.
+         * <p>
+         * This must only be called once tags have been loaded.
+         *
+         * @return The new index.
+         *
+         * @since 2.3.0
+         */
+        public static BlockBehaviors rebuild() {
+            final Map<Item, Map<Block, List<BlockBehavior>>> lists = new Reference2ObjectOpenHashMap<>();
+
+            for (final Builtin builtin : BUILTIN) {
+                for (final Block block : Registries.BLOCK) {
+                    if (builtin.blocks().test(block)) add(lists, builtin.item(), block, builtin.behavior());
+                }
+            }
+
+            for (final BlockBehaviorDefinition definition : definitions) {
+                final Identifier resultId = definition.resultBlock();
+
+                if (resultId != null && !Registries.BLOCK.containsId(resultId)) {
+                    Astral.LOGGER.warn("Unknown result block '{}' in spray behavior '{}'", resultId, definition.id());
+
+                    continue;
+                }
+
+                final List<Item> items = new ObjectArrayList<>(definition.items().size());
+
+                for (final Identifier itemId : definition.items()) {
+                    final Optional<Item> item = Registries.ITEM.getOrEmpty(itemId);
+
+                    if (item.isPresent() && item.get() instanceof Sprayed) {
+                        items.add(item.get());
+                    } else {
+                        Astral.LOGGER.warn("Unknown spray item '{}' in spray behavior '{}'", itemId, definition.id());
+                    }
+                }
+
+                for (final Block block : definition.resolveBlocks()) {
+                    final BlockBehavior behavior = definition.compile(block);
+
+                    if (behavior == null) continue;
+
+                    for (final Item item : items) add(lists, item, block, behavior);
+                }
+            }
+
+            final Map<Item, Map<Block, BlockBehavior[]>> behaviors = new Reference2ObjectOpenHashMap<>(lists.size());
+            int size = 0;
+
+            for (final Map.Entry<Item, Map<Block, List<BlockBehavior>>> entry : lists.entrySet()) {
+                final Map<Block, BlockBehavior[]> blocks = new Reference2ObjectOpenHashMap<>(entry.getValue().size());
+
+                for (final Map.Entry<Block, List<BlockBehavior>> blockEntry : entry.getValue().entrySet()) {
+                    final BlockBehavior[] sorted = blockEntry.getValue().toArray(BlockBehavior[]::new);
+
+                    Arrays.sort(sorted, BlockBehavior.ORDER);
+                    blocks.put(blockEntry.getKey(), sorted);
+
+                    size += sorted.length;
+                }
+
+                behaviors.put(entry.getKey(), blocks);
+            }
+
+            final BlockBehaviors index = new BlockBehaviors(behaviors, size);
+
+            BlockBehaviors.current = index;
+
+            return index;
+        }
+
+        /**
+         * Adds a behavior to the given uncompiled index.
+         *
+         * @param lists The uncompiled index.
+         * @param item The spray item.
+         * @param block The block.
+         * @param behavior The block behavior.
+         *
+         * @since 2.3.0
+         */
+        private static void add(
+            Map<Item, Map<Block, List<BlockBehavior>>> lists, Item item, Block block, BlockBehavior behavior
+        ) {
+            lists.computeIfAbsent(item, ignored -> new Reference2ObjectOpenHashMap<>())
+                .computeIfAbsent(block, ignored -> new ObjectArrayList<>(1))
+                .add(behavior);
+        }
+
+        /**
+         * Returns the behaviors for the given spray item and block, sorted by priority in descending order.
+         * <p>
+         * The returned array is shared, and must not be modified.
+         *
+         * @param item The spray item.
+         * @param block The sprayed block.
+         *
+         * @return An array of behaviors.
+         *
+         * @since 2.3.0
+         */
+        public BlockBehavior[] get(Item item, Block block) {
+            final Map<Block, BlockBehavior[]> blocks = this.behaviors.get(item);
+
+            if (blocks == null) return EMPTY;
+
+            return blocks.getOrDefault(block, EMPTY);
+        }
+
+        /**
+         * Returns the total number of compiled behaviors, counting each matched block separately.
+         *
+         * @return The number of behaviors.
+         *
+         * @since 2.3.0
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * A block behavior registered in code.
+         *
+         * @param item The spray item.
+         * @param blocks A predicate that tests which blocks the behavior applies to.
+         * @param behavior The block behavior.
+         *
+         * @author Jaxydog
+         * @since 2.3.0
+         */
+        private record Builtin(Item item, Predicate<Block> blocks, BlockBehavior behavior) { }
+
+    }
+
+    /**
+     * A cache of an entity's spray powers, sorted by priority in descending order.
+     * <p>
+     * Spray powers add themselves by invalidating this cache when they are created, and the cache is rebuilt whenever
+     * one of its powers is no longer held by the entity's power holder component. This avoids collecting, filtering,
+     * and sorting every held power each time the entity sprays or is sprayed.
+     * <p>
+     * Caches are only allocated for entities that have been given a spray power, so that entities without spray powers
+     * do not store anything. Each cache is kept alive by the spray powers that use it, and the map that finds it holds
+     * both the entity and the cache weakly, so a cache is collected along with its entity. A cache must therefore never
+     * be referenced by anything but its entity's powers.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class SprayPowers {
+
+        /**
+         * An empty array of spray powers.
+         *
+         * @since 2.3.0
+         */
+        private static final ActionOnSprayPower[] NO_ON_SPRAY = new ActionOnSprayPower[0];
+        /**
+         * An empty array of sprayed powers.
+         *
+         * @since 2.3.0
+         */
+        private static final ActionWhenSprayedPower[] NO_WHEN_SPRAYED = new ActionWhenSprayedPower[0];
+        /**
+         * The spray power caches of every entity that has been given a spray power, compared by identity.
+         * <p>
+         * Cached powers refer to their entity, so values are held weakly as well, otherwise each value would keep its
+         * own key reachable.
+         *
+         * @since 2.3.0
+         */
+        private static final Map<LivingEntity, SprayPowers> CACHES = new MapMaker().weakKeys().weakValues().makeMap();
+
+        /**
+         * The cached `astral:action_on_spray` powers, including inactive powers.
+         *
+         * @since 2.3.0
+         */
+        private ActionOnSprayPower[] onSpray = NO_ON_SPRAY;
+        /**
+         * The cached `astral:action_when_sprayed` powers, including inactive powers.
+         *
+         * @since 2.3.0
+         */
+        private ActionWhenSprayedPower[] whenSprayed = NO_WHEN_SPRAYED;
+        /**
+         * Whether the cache must be rebuilt.
+         *
+         * @since 2.3.0
+         */
+        private boolean dirty = true;
+
+        /**
+         * Creates a new spray power cache.
+         *
+         * @since 2.3.0
+         */
+        private SprayPowers() { }
+
+        /**
+         * Returns the given entity's `astral:action_on_spray` powers, sorted by priority in descending order.
+         * <p>
+         * The returned array is shared, must not be modified, and may contain inactive powers.
+         *
+         * @param entity The entity, if any.
+         *
+         * @return An array of powers.
+         *
+         * @since 2.3.0
+         */
+        public static ActionOnSprayPower[] getOnSpray(@Nullable Entity entity) {
+            if (!(entity instanceof final LivingEntity living)) return NO_ON_SPRAY;
+
+            final SprayPowers powers = CACHES.get(living);
+
+            if (powers == null) return NO_ON_SPRAY;
+
+            powers.validate(living);
+
+            return powers.onSpray;
+        }
+
+        /**
+         * Returns the given entity's `astral:action_when_sprayed` powers, sorted by priority in descending order.
+         * <p>
+         * The returned array is shared, must not be modified, and may contain inactive powers.
+         *
+         * @param entity The entity, if any.
+         *
+         * @return An array of powers.
+         *
+         * @since 2.3.0
+         */
+        public static ActionWhenSprayedPower[] getWhenSprayed(@Nullable Entity entity) {
+            if (!(entity instanceof final LivingEntity living)) return NO_WHEN_SPRAYED;
+
+            final SprayPowers powers = CACHES.get(living);
+
+            if (powers == null) return NO_WHEN_SPRAYED;
+
+            powers.validate(living);
+
+            return powers.whenSprayed;
+        }
+
+        /**
+         * Marks the given entity's cache to be rebuilt before it is next used, allocating it if necessary.
+         * <p>
+         * This must be called whenever a spray power is created, as entities without a cache are treated as having no
+         * spray powers. The power must keep the returned cache for as long as it exists, as nothing else keeps it
+         * alive.
+         *
+         * @param entity The entity.
+         *
+         * @return The entity's cache.
+         *
+         * @since 2.3.0
+         */
+        public static SprayPowers invalidate(LivingEntity entity) {
+            final SprayPowers powers = CACHES.computeIfAbsent(entity, ignored -> new SprayPowers());
+
+            powers.dirty = true;
+
+            return powers;
+        }
+
+        /**
+         * Rebuilds this cache if it was invalidated or any of its powers were removed.
+         * <p>
+         * The entity's power holder component is resolved on every call rather than stored, as it refers to the entity.
+         *
+         * @param entity The entity that holds the cached powers.
+         *
+         * @since 2.3.0
+         */
+        private void validate(LivingEntity entity) {
+            final PowerHolderComponent component = PowerHolderComponent.KEY.getNullable(entity);
+
+            if (!this.dirty && this.isHeld(component, this.onSpray) && this.isHeld(component, this.whenSprayed)) return;
+
+            this.dirty = false;
+
+            if (component == null) {
+                this.onSpray = NO_ON_SPRAY;
+                this.whenSprayed = NO_WHEN_SPRAYED;
+
+                return;
+            }
+
+            this.onSpray = component.getPowers(ActionOnSprayPower.class, true).toArray(ActionOnSprayPower[]::new);
+            this.whenSprayed = component.getPowers(ActionWhenSprayedPower.class, true)
+                .toArray(ActionWhenSprayedPower[]::new);
+
+            // The sort is stable, so powers of equal priority keep the component's order.
+            Arrays.sort(this.onSpray, Comparator.comparingInt(ActionOnSprayPower::getPriority).reversed());
+            Arrays.sort(this.whenSprayed, Comparator.comparingInt(ActionWhenSprayedPower::getPriority).reversed());
+        }
+
+        /**
+         * Returns whether every given power is still held by the entity.
+         * <p>
+         * Removing or re-syncing a power replaces its instance, so an identity check is enough to detect removals.
+         *
+         * @param component The entity's power holder component, if any.
+         * @param powers The cached powers.
+         *
+         * @return Whether every power is still held.
+         *
+         * @since 2.3.0
+         */
+        private boolean isHeld(@Nullable PowerHolderComponent component, Power[] powers) {
+            if (powers.length == 0) return true;
+            if (component == null) return false;
+
+            for (final Power power : powers) {
+                if (component.getPower(power.getType()) != power) return false;
+            }
+
+            return true;
+        }
+
+    }
+
+    /**
+     * Describes an area that may be sprayed.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    interface SprayArea {
+
+        /**
+         * Returns the bounds of this area, which every sprayed target must be within.
+         *
+         * @return The area's bounds.
+         *
+         * @since 2.3.0
+         */
+        Box bounds();
+
+        /**
+         * Returns whether the given position is within this area.
+         *
+         * @param position The position.
+         *
+         * @return Whether the position is within the area.
+         *
+         * @since 2.3.0
+         */
+        boolean contains(Vec3d position);
+
+    }
+
+    /**
+     * An axis-aligned spray area.
+     *
+     * @param bounds The area's bounds.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    record BoxArea(Box bounds) implements SprayArea {
+
+        /**
+         * Creates a flat area centered on the given block, extending across the plane of the given side.
+         *
+         * @param pos The center block position.
+         * @param side The sprayed side.
+         * @param radius The number of blocks that the area extends in each direction.
+         *
+         * @return A new area.
+         *
+         * @since 2.3.0
+         */
+        public static BoxArea of(BlockPos pos, Direction side, int radius) {
+            final Direction.Axis axis = side.getAxis();
+
+            return new BoxArea(new Box(pos).expand(
+                axis == Direction.Axis.X ? 0 : radius,
+                axis == Direction.Axis.Y ? 0 : radius,
+                axis == Direction.Axis.Z ? 0 : radius
+            ));
+        }
+
+        @Override
+        public boolean contains(Vec3d position) {
+            return this.bounds().contains(position);
+        }
+
+    }
+
+    /**
+     * A conical spray area.
+     *
+     * @param origin The cone's tip.
+     * @param direction The normalized direction of the cone's axis.
+     * @param range The length of the cone.
+     * @param cosine The cosine of the angle between the cone's axis and its sides.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    record ConeArea(Vec3d origin, Vec3d direction, double range, double cosine) implements SprayArea {
+
+        /**
+         * Creates a cone pointing from the given origin towards the given position.
+         *
+         * @param origin The cone's tip.
+         * @param towards The position that the cone points towards.
+         * @param range The length of the cone.
+         * @param degrees The angle between the cone's axis and its sides, in degrees.
+         *
+         * @return A new area.
+         *
+         * @since 2.3.0
+         */
+        public static ConeArea of(Vec3d origin, Vec3d towards, double range, float degrees) {
+            final Vec3d direction = towards.subtract(origin).normalize();
+
+            return new ConeArea(origin, direction, range, MathHelper.cos(degrees * MathHelper.RADIANS_PER_DEGREE));
+        }
+
+        @Override
+        public Box bounds() {
+            final Vec3d end = this.origin().add(this.direction().multiply(this.range()));
+            final double radius = this.range() * Math.sqrt(1D - this.cosine() * this.cosine()) / this.cosine();
+
+            return new Box(this.origin(), end).expand(radius);
+        }
+
+        @Override
+        public boolean contains(Vec3d position) {
+            final Vec3d offset = position.subtract(this.origin());
+            final double distance = offset.dotProduct(this.direction());
+
+            if (distance <= 0D || distance > this.range()) return false;
+
+            return distance >= this.cosine() * offset.length();
+        }
+
+    }
+
+    /**
+     * Collects the block changes of an area spray, deferring their sounds and game events until every target is
+     * sprayed.
+     * <p>
+     * Each thread reuses a single batch in the same way as a {@link SprayBuffer}, so recording and flushing changes
+     * does not allocate once the batch has grown large enough. A separate batch is created if a handler sprays an area
+     * again while its thread's batch is in use.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class SprayBatch {
+
+        /**
+         * The batch reused by each thread.
+         *
+         * @since 2.3.0
+         */
+        private static final ThreadLocal<SprayBatch> BATCH = ThreadLocal.withInitial(SprayBatch::new);
+
+        /**
+         * The positions of every changed block.
+         *
+         * @since 2.3.0
+         */
+        private final LongSet changed = new LongOpenHashSet();
+        /**
+         * The distinct sounds of every changed block, in the order that they were first recorded.
+         *
+         * @since 2.3.0
+         */
+        private final List<SoundContext> sounds = new ObjectArrayList<>();
+        /**
+         * The summed X coordinates of every changed block.
+         *
+         * @since 2.3.0
+         */
+        private long x;
+        /**
+         * The summed Y coordinates of every changed block.
+         *
+         * @since 2.3.0
+         */
+        private long y;
+        /**
+         * The summed Z coordinates of every changed block.
+         *
+         * @since 2.3.0
+         */
+        private long z;
+        /**
+         * Whether any changed block was removed.
+         *
+         * @since 2.3.0
+         */
+        private boolean removed;
+        /**
+         * Whether this batch is currently in use.
+         *
+         * @since 2.3.0
+         */
+        private boolean acquired;
+
+        /**
+         * Returns an empty batch for use on the current thread.
+         * <p>
+         * The batch must be released using {@link #release()} once the spray has finished.
+         *
+         * @return An empty batch.
+         *
+         * @since 2.3.0
+         */
+        public static SprayBatch acquire() {
+            final SprayBatch batch = BATCH.get();
+            // Handlers may spray an area again while they are executed, which must not merge with the outer spray.
+            final SprayBatch acquired = batch.acquired ? new SprayBatch() : batch;
+
+            acquired.acquired = true;
+
+            return acquired;
+        }
+
+        /**
+         * Records a block change, along with its sound.
+         *
+         * @param pos The changed block's position.
+         * @param removed Whether the block was removed.
+         * @param sound The sound to play, if any.
+         *
+         * @since 2.3.0
+         */
+        public void add(BlockPos pos, boolean removed, @Nullable SoundContext sound) {
+            this.removed |= removed;
+
+            // The center is summed as blocks are added, so flushing never needs to iterate over the changed blocks.
+            if (this.changed.add(pos.asLong())) {
+                this.x += pos.getX();
+                this.y += pos.getY();
+                this.z += pos.getZ();
+            }
+
+            if (sound != null && !this.sounds.contains(sound)) this.sounds.add(sound);
+        }
+
+        /**
+         * Plays each recorded sound and emits a single game event at the center of every changed block.
+         * <p>
+         * The event is {@link GameEvent#BLOCK_DESTROY} if any block was removed, and {@link GameEvent#BLOCK_CHANGE}
+         * otherwise.
+         *
+         * @param world The current world.
+         * @param actor The actor entity.
+         *
+         * @since 2.3.0
+         */
+        public void flush(World world, @Nullable Entity actor) {
+            if (this.changed.isEmpty()) return;
+
+            final double size = this.changed.size();
+            final BlockPos center = BlockPos.ofFloored(this.x / size, this.y / size, this.z / size);
+            final BlockState state = world.getBlockState(center);
+
+            for (int index = 0; index < this.sounds.size(); index += 1) {
+                this.sounds.get(index).play(world, center, false);
+            }
+
+            final GameEvent event = this.removed ? GameEvent.BLOCK_DESTROY : GameEvent.BLOCK_CHANGE;
+
+            world.emitGameEvent(event, center, Emitter.of(actor, state));
+
+            this.clear();
+        }
+
+        /**
+         * Clears this batch and allows it to be acquired again.
+         *
+         * @since 2.3.0
+         */
+        public void release() {
+            this.clear();
+            this.acquired = false;
+        }
+
+        /**
+         * Removes every recorded change and sound, keeping the allocated capacity.
+         *
+         * @since 2.3.0
+         */
+        private void clear() {
+            this.changed.clear();
+            this.sounds.clear();
+            this.x = 0L;
+            this.y = 0L;
+            this.z = 0L;
+            this.removed = false;
+        }
+
+    }
+
+    /**
+     * Executes a collected spray handler on its target.
+     *
+     * @param <T> The expected target type.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    @FunctionalInterface
+    interface SprayHandler<T extends SprayTarget> {
+
+        /**
+         * Executes this handler on the given target.
+         *
+         * @param source The spray source.
+         * @param target The spray target.
+         * @param argument The argument collected alongside this handler, if any.
+         *
+         * @since 2.3.0
+         */
+        void handle(Source source, T target, @Nullable Object argument);
+
+    }
+
+    /**
+     * The context shared by every power condition and action for a single sprayed target.
+     *
+     * @param entities The actor and target entities, or {@code null} if a block was sprayed.
+     * @param block The sprayed world, block position, and side, or {@code null} if an entity was sprayed.
+     * @param cachedBlock The sprayed block tested by power conditions, or {@code null} if an entity was sprayed.
+     * @param item The current world and sprayed stack.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    record PowerContext(
+        @Nullable Pair<Entity, Entity> entities,
+        @Nullable Triple<World, BlockPos, Direction> block,
+        @Nullable CachedBlockPosition cachedBlock,
+        Pair<World, ItemStack> item
+    ) {
+
+        /**
+         * Creates a new context for the given sprayed entity.
+         *
+         * @param source The spray source.
+         * @param target The spray target.
+         *
+         * @return A new power context.
+         *
+         * @since 2.3.0
+         */
+        public static PowerContext of(Source source, EntityTarget target) {
+            final Pair<Entity, Entity> entities = new Pair<>(source.actor(), target.target());
+
+            return new PowerContext(entities, null, null, new Pair<>(target.target().getWorld(), source.stack()));
+        }
+
+        /**
+         * Creates a new context for the given sprayed block.
+         *
+         * @param source The spray source.
+         * @param target The spray target.
+         *
+         * @return A new power context.
+         *
+         * @since 2.3.0
+         */
+        public static PowerContext of(Source source, BlockTarget target) {
+            final Triple<World, BlockPos, Direction> block = Triple.of(target.world(), target.pos(), target.side());
+            final CachedBlockPosition cachedBlock = new CachedBlockPosition(target.world(), target.pos(), true);
+
+            return new PowerContext(null, block, cachedBlock, new Pair<>(target.world(), source.stack()));
+        }
+
+    }
+
+    /**
+     * A reusable buffer of collected spray handlers and their targets.
+     * <p>
+     * Handlers are collected per target, and each target is then either committed, adding its charges to the total
+     * consumed by the spray, or discarded. Committed handlers are executed in the order that they were collected.
+     * <p>
+     * Each thread reuses a single buffer, so collecting, committing, and running the handlers of a target does not
+     * allocate once the buffer has grown large enough. This is checked by the {@code SprayPipelineBenchmark} over the
+     * real {@code onSpray} methods. The source and target records passed to the buffer are created by the caller, and a
+     * {@link PowerContext} is still created for targets with spray powers. A separate buffer is created if a handler
+     * sprays again while its thread's buffer is in use.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class SprayBuffer {
+
+        /**
+         * The initial capacity of each buffer.
+         *
+         * @since 2.3.0
+         */
+        private static final int INITIAL_CAPACITY = 8;
+        /**
+         * The buffer reused by each thread.
+         *
+         * @since 2.3.0
+         */
+        private static final ThreadLocal<SprayBuffer> BUFFER = ThreadLocal.withInitial(SprayBuffer::new);
+
+        /**
+         * The collected handlers.
+         *
+         * @since 2.3.0
+         */
+        private SprayHandler<?>[] handlers = new SprayHandler<?>[INITIAL_CAPACITY];
+        /**
+         * The target of each collected handler.
+         *
+         * @since 2.3.0
+         */
+        private SprayTarget[] targets = new SprayTarget[INITIAL_CAPACITY];
+        /**
+         * The argument of each collected handler.
+         *
+         * @since 2.3.0
+         */
+        private Object[] arguments = new Object[INITIAL_CAPACITY];
+        /**
+         * The number of collected handlers.
+         *
+         * @since 2.3.0
+         */
+        private int size;
+        /**
+         * The number of committed handlers.
+         *
+         * @since 2.3.0
+         */
+        private int committed;
+        /**
+         * The charges required by the uncommitted handlers.
+         *
+         * @since 2.3.0
+         */
+        private int pending;
+        /**
+         * The total charges required by the committed handlers.
+         *
+         * @since 2.3.0
+         */
+        private int charges;
+        /**
+         * Whether this buffer is currently in use.
+         *
+         * @since 2.3.0
+         */
+        private boolean acquired;
+
+        /**
+         * Returns an empty buffer for use on the current thread.
+         * <p>
+         * The buffer must be released using {@link #release()} once the spray has finished.
+         *
+         * @return An empty buffer.
+         *
+         * @since 2.3.0
+         */
+        public static SprayBuffer acquire() {
+            final SprayBuffer buffer = BUFFER.get();
+            // Handlers may spray again while they are being executed, which must not overwrite the outer spray.
+            final SprayBuffer acquired = buffer.acquired ? new SprayBuffer() : buffer;
+
+            acquired.acquired = true;
+
+            return acquired;
+        }
+
+        /**
+         * Adds a handler for the current target.
+         *
+         * @param handler The handler.
+         * @param target The spray target.
+         * @param argument The argument passed to the handler, if any.
+         * @param charges The charges to consume if the handler is executed.
+         * @param <T> The target type.
+         *
+         * @since 2.3.0
+         */
+        public <T extends SprayTarget> void add(
+            SprayHandler<? super T> handler, T target, @Nullable Object argument, int charges
+        ) {
+            if (this.size == this.handlers.length) {
+                final int capacity = this.size * 2;
+
+                this.handlers = Arrays.copyOf(this.handlers, capacity);
+                this.targets = Arrays.copyOf(this.targets, capacity);
+                this.arguments = Arrays.copyOf(this.arguments, capacity);
+            }
+
+            this.handlers[this.size] = handler;
+            this.targets[this.size] = target;
+            this.arguments[this.size] = argument;
+            this.size += 1;
+            this.pending = Math.max(this.pending, charges);
+        }
+
+        /**
+         * Adds every applicable behavior for the current target, stopping after the first cancelling behavior.
+         *
+         * @param source The spray source.
+         * @param target The spray target.
+         * @param behaviors The behaviors, sorted by priority in descending order.
+         * @param <T> The target type.
+         *
+         * @return Whether a behavior cancelled any subsequent behaviors.
+         *
+         * @since 2.3.0
+         */
+        public <T extends SprayTarget> boolean addAll(Source source, T target, Behavior<T>[] behaviors) {
+            for (final Behavior<T> behavior : behaviors) {
+                if (!behavior.predicate().test(source, target)) continue;
+
+                this.add(behavior, target, null, behavior.charges());
+
+                if (behavior.cancelling()) return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Commits the handlers of the current target if the given stack has enough charges to execute them alongside
+         * every previously committed target.
+         * <p>
+         * Targets that do not require any charges are discarded, as are targets that cannot be afforded.
+         *
+         * @param sprayed The spray item.
+         * @param stack The item stack.
+         *
+         * @return Whether the stack had enough charges.
+         *
+         * @since 2.3.0
+         */
+        public boolean commit(Sprayed sprayed, ItemStack stack) {
+            final boolean affordable = sprayed.isSprayable(stack, this.charges + this.pending);
+
+            if (this.pending > 0 && this.size > this.committed && affordable) {
+                this.committed = this.size;
+                this.charges += this.pending;
+            } else {
+                this.truncate(this.committed);
+            }
+
+            this.pending = 0;
+
+            return affordable;
+        }
+
+        /**
+         * Returns whether this buffer has no committed handlers.
+         *
+         * @return Whether the buffer is empty.
+         *
+         * @since 2.3.0
+         */
+        public boolean isEmpty() {
+            return this.committed == 0;
+        }
+
+        /**
+         * Returns the total charges required by the committed handlers.
+         *
+         * @return The number of charges.
+         *
+         * @since 2.3.0
+         */
+        public int getCharges() {
+            return this.charges;
+        }
+
+        /**
+         * Executes every committed handler, then clears this buffer.
+         *
+         * @param source The spray source.
+         *
+         * @since 2.3.0
+         */
+        @SuppressWarnings("unchecked")
+        public void run(Source source) {
+            for (int index = 0; index < this.committed; index += 1) {
+                final SprayHandler<SprayTarget> handler = (SprayHandler<SprayTarget>) this.handlers[index];
+
+                handler.handle(source, this.targets[index], this.arguments[index]);
+            }
+
+            this.truncate(0);
+            this.charges = 0;
+        }
+
+        /**
+         * Clears this buffer and allows it to be acquired again.
+         *
+         * @since 2.3.0
+         */
+        public void release() {
+            this.truncate(0);
+            this.charges = 0;
+            this.pending = 0;
+            this.acquired = false;
+        }
+
+        /**
+         * Removes every handler past the given size.
+         *
+         * @param size The new size.
+         *
+         * @since 2.3.0
+         */
+        private void truncate(int size) {
+            if (size < this.size) {
+                Arrays.fill(this.handlers, size, this.size, null);
+                Arrays.fill(this.targets, size, this.size, null);
+                Arrays.fill(this.arguments, size, this.size, null);
+            }
 
-            consume.accept(stack, this.charges());
+            this.size = size;
+            this.committed = Math.min(this.committed, size);
         }
 
     }
@@ -14,6 +14,11 @@
 
 package dev.jaxydog.astral.content.power.custom;
 
+import dev.jaxydog.astral.content.item.custom.Sprayed.PowerContext;
+import dev.jaxydog.astral.content.item.custom.Sprayed.Source;
+import dev.jaxydog.astral.content.item.custom.Sprayed.SprayHandler;
+import dev.jaxydog.astral.content.item.custom.Sprayed.SprayPowers;
+import dev.jaxydog.astral.content.item.custom.Sprayed.SprayTarget;
 import dev.jaxydog.astral.content.power.AstralPower;
 import dev.jaxydog.astral.content.power.AstralPowerFactory;
 import io.github.apace100.apoli.data.ApoliDataTypes;
@@ -32,6 +37,7 @@ import org.apache.commons.lang3.tuple.ImmutableTriple;
 import org.apache.commons.lang3.tuple.Triple;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -43,7 +49,7 @@ import java.util.function.Predicate;
  * @author Jaxydog
  * @since 1.6.0
  */
-public class ActionOnSprayPower extends AstralPower {
+public class ActionOnSprayPower extends AstralPower implements SprayHandler<SprayTarget> {
 
     /**
      * The power's execution priority; higher means this power is run first.
@@ -95,6 +101,13 @@ public class ActionOnSprayPower extends AstralPower {
      */
     private final @Nullable Predicate<CachedBlockPosition> blockCondition;
 
+    /**
+     * The holding entity's spray power cache, which is only kept alive by the spray powers that use it.
+     *
+     * @since 2.3.0
+     */
+    private final SprayPowers sprayPowers;
+
     /**
      * Creates a new action on sprayed power.
      *
@@ -133,6 +146,10 @@ public class ActionOnSprayPower extends AstralPower {
         this.bientityCondition = bientityCondition;
         this.blockAction = blockAction;
         this.blockCondition = blockCondition;
+
+        // Any cached spray powers must include this power once it has been added.
+        // This also keeps the cache alive for as long as this power is held.
+        this.sprayPowers = SprayPowers.invalidate(entity);
     }
 
     /**
@@ -202,12 +219,28 @@ public class ActionOnSprayPower extends AstralPower {
      * @since 1.6.0
      */
     public boolean canSpray(Entity target, ItemStack stack) {
+        return this.canSpray(new Pair<>(this.entity, target), stack);
+    }
+
+    /**
+     * Returns whether the given entity may be sprayed using the given stack.
+     * <p>
+     * The given pair may be shared between every power tested during a single spray.
+     *
+     * @param entities The holding entity and the target entity.
+     * @param stack The item stack.
+     *
+     * @return Whether the entity may be sprayed.
+     *
+     * @since 2.3.0
+     */
+    public boolean canSpray(Pair<Entity, Entity> entities, ItemStack stack) {
         // Then ensure that there is an action to run.
         return this.bientityAction != null
             // Test the item condition.
             && (this.itemCondition == null || this.itemCondition.test(stack))
             // Then test the bientity condition.
-            && (this.bientityCondition == null || this.bientityCondition.test(new Pair<>(this.entity, target)));
+            && (this.bientityCondition == null || this.bientityCondition.test(entities));
     }
 
     /**
@@ -222,12 +255,28 @@ public class ActionOnSprayPower extends AstralPower {
      * @since 1.6.0
      */
     public boolean canSpray(World world, BlockPos pos, ItemStack stack) {
+        return this.canSpray(new CachedBlockPosition(world, pos, true), stack);
+    }
+
+    /**
+     * Returns whether the given block may be sprayed using the given stack.
+     * <p>
+     * The given block position may be shared between every power tested during a single spray.
+     *
+     * @param block The sprayed block.
+     * @param stack The item stack.
+     *
+     * @return Whether the block may be sprayed.
+     *
+     * @since 2.3.0
+     */
+    public boolean canSpray(CachedBlockPosition block, ItemStack stack) {
         // Then ensure that there is an action to run.
         return this.blockAction != null
             // Test the item condition.
             && (this.itemCondition == null || this.itemCondition.test(stack))
-            // Then test the bientity condition.
-            && (this.blockCondition == null || this.blockCondition.test(new CachedBlockPosition(world, pos, true)));
+            // Then test the block condition.
+            && (this.blockCondition == null || this.blockCondition.test(block));
     }
 
     /**
@@ -239,12 +288,26 @@ public class ActionOnSprayPower extends AstralPower {
      * @since 1.6.0
      */
     public void onSpray(Entity target, ItemStack stack) {
+        this.onSpray(new Pair<>(this.entity, target), new Pair<>(this.entity.getWorld(), stack));
+    }
+
+    /**
+     * Attempts to spray the target entity.
+     * <p>
+     * The given pairs may be shared between every power executed during a single spray.
+     *
+     * @param entities The holding entity and the target entity.
+     * @param item The current world and the item stack.
+     *
+     * @since 2.3.0
+     */
+    public void onSpray(Pair<Entity, Entity> entities, Pair<World, ItemStack> item) {
         if (this.bientityAction == null) return;
 
-        this.bientityAction.accept(new Pair<>(this.entity, target));
+        this.bientityAction.accept(entities);
 
         if (this.itemAction != null) {
-            this.itemAction.accept(new Pair<>(this.entity.getWorld(), stack));
+            this.itemAction.accept(item);
         }
     }
 
@@ -259,12 +322,46 @@ public class ActionOnSprayPower extends AstralPower {
      * @since 1.6.0
      */
     public void onSpray(World world, BlockPos pos, Direction direction, ItemStack stack) {
+        this.onSpray(new ImmutableTriple<>(world, pos, direction), new Pair<>(world, stack));
+    }
+
+    /**
+     * Attempts to spray the target block.
+     * <p>
+     * The given values may be shared between every power executed during a single spray.
+     *
+     * @param block The current world, the block's position, and the side of the block that was sprayed.
+     * @param item The current world and the item stack.
+     *
+     * @since 2.3.0
+     */
+    public void onSpray(Triple<World, BlockPos, Direction> block, Pair<World, ItemStack> item) {
         if (this.blockAction == null) return;
 
-        this.blockAction.accept(new ImmutableTriple<>(world, pos, direction));
+        this.blockAction.accept(block);
 
         if (this.itemAction != null) {
-            this.itemAction.accept(new Pair<>(world, stack));
+            this.itemAction.accept(item);
+        }
+    }
+
+    /**
+     * Attempts to spray the collected target, using the {@link PowerContext} collected alongside this power.
+     *
+     * @param source The spray source.
+     * @param target The spray target.
+     * @param argument The power context.
+     *
+     * @since 2.3.0
+     */
+    @Override
+    public void handle(Source source, SprayTarget target, @Nullable Object argument) {
+        final PowerContext context = (PowerContext) Objects.requireNonNull(argument);
+
+        if (context.block() != null) {
+            this.onSpray(context.block(), context.item());
+        } else if (context.entities() != null) {
+            this.onSpray(context.entities(), context.item());
         }
     }
 
@@ -14,6 +14,11 @@
 
 package dev.jaxydog.astral.content.power.custom;
 
+import dev.jaxydog.astral.content.item.custom.Sprayed.EntityTarget;
+import dev.jaxydog.astral.content.item.custom.Sprayed.PowerContext;
+import dev.jaxydog.astral.content.item.custom.Sprayed.Source;
+import dev.jaxydog.astral.content.item.custom.Sprayed.SprayHandler;
+import dev.jaxydog.astral.content.item.custom.Sprayed.SprayPowers;
 import dev.jaxydog.astral.content.power.AstralPower;
 import dev.jaxydog.astral.content.power.AstralPowerFactory;
 import io.github.apace100.apoli.data.ApoliDataTypes;
@@ -27,6 +32,7 @@ import net.minecraft.util.Pair;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -38,7 +44,7 @@ import java.util.function.Predicate;
  * @author Jaxydog
  * @since 1.7.0
  */
-public class ActionWhenSprayedPower extends AstralPower {
+public class ActionWhenSprayedPower extends AstralPower implements SprayHandler<EntityTarget> {
 
     /**
      * The power's execution priority; higher means this power is run first.
@@ -78,6 +84,13 @@ public class ActionWhenSprayedPower extends AstralPower {
      */
     private final @Nullable Predicate<ItemStack> itemCondition;
 
+    /**
+     * The holding entity's spray power cache, which is only kept alive by the spray powers that use it.
+     *
+     * @since 2.3.0
+     */
+    private final SprayPowers sprayPowers;
+
     /**
      * Creates a new action when sprayed power.
      *
@@ -110,6 +123,10 @@ public class ActionWhenSprayedPower extends AstralPower {
         this.bientityCondition = bientityCondition;
         this.itemAction = itemAction;
         this.itemCondition = itemCondition;
+
+        // Any cached spray powers must include this power once it has been added.
+        // This also keeps the cache alive for as long as this power is held.
+        this.sprayPowers = SprayPowers.invalidate(entity);
     }
 
     /**
@@ -175,10 +192,26 @@ public class ActionWhenSprayedPower extends AstralPower {
      * @since 1.7.0
      */
     public boolean canSpray(Entity actor, ItemStack stack) {
+        return this.canSpray(new Pair<>(actor, this.entity), stack);
+    }
+
+    /**
+     * Returns whether this entity may be sprayed using the given stack and actor entity.
+     * <p>
+     * The given pair may be shared between every power tested during a single spray.
+     *
+     * @param entities The actor entity and the entity that holds this power.
+     * @param stack The item stack.
+     *
+     * @return Whether this entity may be sprayed.
+     *
+     * @since 2.3.0
+     */
+    public boolean canSpray(Pair<Entity, Entity> entities, ItemStack stack) {
         // Test the item condition.
         return (this.itemCondition == null || this.itemCondition.test(stack))
             // Then test the bientity condition.
-            && (this.bientityCondition == null || this.bientityCondition.test(new Pair<>(actor, this.entity)))
+            && (this.bientityCondition == null || this.bientityCondition.test(entities))
             // Then ensure that there is an action to run.
             && (this.bientityAction != null || this.itemAction != null);
     }
@@ -192,12 +225,42 @@ public class ActionWhenSprayedPower extends AstralPower {
      * @since 1.7.0
      */
     public void onSpray(Entity actor, ItemStack stack) {
+        this.onSpray(new Pair<>(actor, this.entity), new Pair<>(this.entity.getWorld(), stack));
+    }
+
+    /**
+     * Attempts to spray the entity that holds this power.
+     * <p>
+     * The given pairs may be shared between every power executed during a single spray.
+     *
+     * @param entities The actor entity and the entity that holds this power.
+     * @param item The current world and the item stack.
+     *
+     * @since 2.3.0
+     */
+    public void onSpray(Pair<Entity, Entity> entities, Pair<World, ItemStack> item) {
         if (this.bientityAction != null) {
-            this.bientityAction.accept(new Pair<>(actor, this.entity));
+            this.bientityAction.accept(entities);
         }
         if (this.itemAction != null) {
-            this.itemAction.accept(new Pair<>(this.entity.getWorld(), stack));
+            this.itemAction.accept(item);
         }
     }
 
+    /**
+     * Attempts to spray the collected target, using the {@link PowerContext} collected alongside this power.
+     *
+     * @param source The spray source.
+     * @param target The spray target.
+     * @param argument The power context.
+     *
+     * @since 2.3.0
+     */
+    @Override
+    public void handle(Source source, EntityTarget target, @Nullable Object argument) {
+        final PowerContext context = (PowerContext) Objects.requireNonNull(argument);
+
+        if (context.entities() != null) this.onSpray(context.entities(), context.item());
+    }
+
 }
@@ -14,15 +14,21 @@
 
 package dev.jaxydog.astral.content.sound;
 
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
 import net.minecraft.entity.Entity;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvent;
 import net.minecraft.sound.SoundEvents;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.JsonHelper;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.random.Random;
 import net.minecraft.world.World;
 
+import java.util.Arrays;
+
 /**
  * A sound context.
  * <p>
@@ -104,6 +110,39 @@ public record SoundContext(SoundEvent event, SoundCategory category, float volum
         this(event, category, 1F);
     }
 
+    /**
+     * Parses a JSON object and creates a new {@link SoundContext} from the resolved data.
+     * <p>
+     * The sound event does not need to be registered, so sounds added by resource packs may also be used.
+     *
+     * @param object The JSON object.
+     *
+     * @return A new sound context.
+     *
+     * @throws JsonSyntaxException If a field is invalid or missing from the given object.
+     * @since 2.3.0
+     */
+    public static SoundContext parse(JsonObject object) throws JsonSyntaxException {
+        final String eventString = JsonHelper.getString(object, "event");
+        final Identifier eventId = Identifier.tryParse(eventString);
+
+        if (eventId == null) throw new JsonSyntaxException("Invalid identifier '%s'".formatted(eventString));
+
+        final String categoryString = JsonHelper.getString(object, "category", SoundCategory.MASTER.getName());
+        final SoundCategory category = Arrays.stream(SoundCategory.values())
+            .filter(value -> value.getName().equals(categoryString))
+            .findFirst()
+            .orElseThrow(() -> new JsonSyntaxException("Unknown sound category '%s'".formatted(categoryString)));
+
+        return new SoundContext(
+            SoundEvent.of(eventId),
+            category,
+            JsonHelper.getFloat(object, "volume", 1F),
+            JsonHelper.getFloat(object, "pitch", 1F),
+            JsonHelper.getFloat(object, "pitch_variance", 0.0625F)
+        );
+    }
+
     /**
      * Returns the sound pitch with a random variance applied.
      *
@@ -15,6 +15,7 @@
 package dev.jaxydog.astral.mixin;
 
 import dev.jaxydog.astral.utility.injected.SprayableEntity;
+import dev.jaxydog.astral.utility.injected.SprayableEntity.SprayState;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.VariantHolder;
@@ -40,20 +41,12 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 public abstract class CatEntityMixin extends TameableEntity implements SprayableEntity, VariantHolder<CatVariant> {
 
     /**
-     * The entity that sprayed this cat.
+     * This cat's spray status, which is only allocated while it is sprayed.
      *
-     * @since 1.6.0
-     */
-    @Unique
-    private @Nullable LivingEntity spraySource;
-
-    /**
-     * The remaining spray duration.
-     *
-     * @since 1.6.0
+     * @since 2.3.0
      */
     @Unique
-    private int sprayDuration = 0;
+    private @Nullable SprayState sprayState;
 
     /**
      * Creates a new instance of this mixin.
@@ -77,8 +70,13 @@ public abstract class CatEntityMixin extends TameableEntity implements Sprayable
     public void astral$setSprayed(@Nullable LivingEntity source, int ticks, boolean initialSpray) {
         if (source == null) return;
 
-        this.spraySource = source;
-        this.sprayDuration = Math.max(0, ticks);
+        if (ticks <= 0) {
+            this.sprayState = null;
+        } else if (this.sprayState == null) {
+            this.sprayState = new SprayState(source, ticks);
+        } else {
+            this.sprayState.set(source, ticks);
+        }
 
         if (initialSpray && this.astral$isSprayed()) {
             this.hiss();
@@ -89,12 +87,12 @@ public abstract class CatEntityMixin extends TameableEntity implements Sprayable
 
     @Override
     public @Nullable LivingEntity astral$getSpraySource() {
-        return this.spraySource;
+        return this.sprayState == null ? null : this.sprayState.getSource();
     }
 
     @Override
     public int astral$getSprayTicks() {
-        return this.sprayDuration;
+        return this.sprayState == null ? 0 : this.sprayState.getTicks();
     }
 
     @Override
@@ -15,6 +15,7 @@
 package dev.jaxydog.astral.mixin;
 
 import dev.jaxydog.astral.utility.injected.SprayableEntity;
+import dev.jaxydog.astral.utility.injected.SprayableEntity.SprayState;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.VariantHolder;
@@ -54,20 +55,12 @@ public abstract class FoxEntityMixin extends AnimalEntity implements SprayableEn
     private static TrackedData<Optional<UUID>> OWNER;
 
     /**
-     * The entity that sprayed this fox.
+     * This fox's spray status, which is only allocated while it is sprayed.
      *
-     * @since 1.6.0
-     */
-    @Unique
-    private @Nullable LivingEntity spraySource;
-
-    /**
-     * The remaining time that this entity is 'sprayed' for.
-     *
-     * @since 1.6.0
+     * @since 2.3.0
      */
     @Unique
-    private int sprayDuration = 0;
+    private @Nullable SprayState sprayState;
 
     /**
      * Creates a new instance of this mixin.
@@ -95,8 +88,13 @@ public abstract class FoxEntityMixin extends AnimalEntity implements SprayableEn
     public void astral$setSprayed(LivingEntity source, int ticks, boolean initialSpray) {
         if (source == null) return;
 
-        this.spraySource = source;
-        this.sprayDuration = Math.max(0, ticks);
+        if (ticks <= 0) {
+            this.sprayState = null;
+        } else if (this.sprayState == null) {
+            this.sprayState = new SprayState(source, ticks);
+        } else {
+            this.sprayState.set(source, ticks);
+        }
 
         if (initialSpray && this.astral$isSprayed()) {
             this.playSound(SoundEvents.ENTITY_FOX_SCREECH, 2F, this.getSoundPitch());
@@ -107,12 +105,12 @@ public abstract class FoxEntityMixin extends AnimalEntity implements SprayableEn
 
     @Override
     public @Nullable LivingEntity astral$getSpraySource() {
-        return this.spraySource;
+        return this.sprayState == null ? null : this.sprayState.getSource();
     }
 
     @Override
     public int astral$getSprayTicks() {
-        return this.sprayDuration;
+        return this.sprayState == null ? 0 : this.sprayState.getTicks();
     }
 
     @Override
@@ -22,6 +22,7 @@ import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import net.minecraft.data.client.Model;
 import net.minecraft.data.client.TextureKey;
 import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -46,12 +47,12 @@ import java.util.Set;
 public abstract class ModelMixin implements AstralModel {
 
     /**
-     * A map of custom JSON key-value pairs.
+     * A map of custom JSON key-value pairs, which is only allocated once custom JSON is added.
      *
      * @since 1.7.0
      */
     @Unique
-    private final Map<String, JsonElement> customJson = new Object2ObjectOpenHashMap<>();
+    private @Nullable Map<String, JsonElement> customJson;
 
     /**
      * The parent model.
@@ -97,17 +98,31 @@ public abstract class ModelMixin implements AstralModel {
         CallbackInfoReturnable<JsonObject> callbackInfo,
         @Local(ordinal = 0) JsonObject jsonObject
     ) {
-        this.customJson.forEach(jsonObject::add);
+        if (this.customJson != null) this.customJson.forEach(jsonObject::add);
     }
 
     @Override
     public void astral$addCustomJson(String key, JsonElement element) {
-        this.customJson.put(key, element);
+        this.getCustomJson().put(key, element);
     }
 
     @Override
     public void astral$addCustomJson(Map<String, JsonElement> map) {
-        this.customJson.putAll(map);
+        if (!map.isEmpty()) this.getCustomJson().putAll(map);
+    }
+
+    /**
+     * Returns this model's custom JSON map, allocating it if necessary.
+     *
+     * @return The custom JSON map.
+     *
+     * @since 2.3.0
+     */
+    @Unique
+    private Map<String, JsonElement> getCustomJson() {
+        if (this.customJson == null) this.customJson = new Object2ObjectOpenHashMap<>();
+
+        return this.customJson;
     }
 
     @SuppressWarnings("RedundantCast")
@@ -116,7 +131,7 @@ public abstract class ModelMixin implements AstralModel {
         final TextureKey[] textures = this.requiredTextures.toArray(new TextureKey[0]);
         final Model model = new Model(this.parent, this.variant, textures);
 
-        ((AstralModel) model).astral$addCustomJson(this.customJson);
+        if (this.customJson != null) ((AstralModel) model).astral$addCustomJson(this.customJson);
 
         return model;
     }
@@ -14,26 +14,31 @@
 
 package dev.jaxydog.astral.mixin;
 
+import dev.jaxydog.astral.content.item.custom.CurrencyPouchItem;
 import dev.jaxydog.astral.utility.CurrencyHelper;
+import dev.jaxydog.astral.utility.injected.AstralPlayerInventory;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.PlayerInventory;
 import net.minecraft.inventory.Inventory;
+import net.minecraft.item.ItemStack;
 import net.minecraft.util.Nameable;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 /**
- * Attempts to automatically combine currency items within the player's inventory.
+ * Tracks when currency items enter the player's inventory so that they may be automatically combined.
  *
  * @author Jaxydog
  * @since 1.2.0
  */
 @Mixin(PlayerInventory.class)
-public abstract class PlayerInventoryMixin implements Inventory, Nameable {
+public abstract class PlayerInventoryMixin implements Inventory, Nameable, AstralPlayerInventory {
 
     /**
      * The player instance.
@@ -45,15 +50,56 @@ public abstract class PlayerInventoryMixin implements Inventory, Nameable {
     public PlayerEntity player;
 
     /**
-     * Automatically combines currency items within this inventory once per tick.
+     * Whether a currency item has entered this inventory since the last exchange.
+     * <p>
+     * This starts as {@code true} so that freshly loaded inventories are exchanged once.
      *
+     * @since 2.3.0
+     */
+    @Unique
+    private boolean currencyChanged = true;
+
+    @Override
+    public void astral$markCurrencyChanged() {
+        this.currencyChanged = true;
+    }
+
+    @Override
+    public boolean astral$consumeCurrencyChanged() {
+        final boolean changed = this.currencyChanged;
+
+        this.currencyChanged = false;
+
+        return changed;
+    }
+
+    /**
+     * Marks this inventory as changed if a currency item is placed into a slot.
+     *
+     * @param slot The slot index.
+     * @param stack The placed item stack.
      * @param callbackInfo The injection callback information.
      *
-     * @since 1.2.0
+     * @since 2.3.0
+     */
+    @Inject(method = "setStack", at = @At("TAIL"))
+    private void setStackInject(int slot, ItemStack stack, CallbackInfo callbackInfo) {
+        if (CurrencyHelper.isCurrency(stack) || CurrencyPouchItem.isPouch(stack)) this.astral$markCurrencyChanged();
+    }
+
+    /**
+     * Marks this inventory as changed if a currency item is inserted, such as when picking up items.
+     *
+     * @param slot The slot index, or {@code -1} to find a slot.
+     * @param stack The inserted item stack.
+     * @param callbackInfo The injection callback information.
+     *
+     * @since 2.3.0
      */
-    @Inject(method = "updateItems", at = @At("TAIL"))
-    private void updateItemsInject(CallbackInfo callbackInfo) {
-        CurrencyHelper.tryExchange(this.player);
+    @Inject(method = "insertStack(ILnet/minecraft/item/ItemStack;)Z", at = @At("HEAD"))
+    private void insertStackInject(int slot, ItemStack stack, CallbackInfoReturnable<Boolean> callbackInfo) {
+        // This is checked at the head, since the stack is emptied as it is inserted.
+        if (CurrencyHelper.isCurrency(stack) || CurrencyPouchItem.isPouch(stack)) this.astral$markCurrencyChanged();
     }
 
 }
@@ -16,9 +16,6 @@ package dev.jaxydog.astral.mixin;
 
 import com.llamalad7.mixinextras.injector.ModifyReturnValue;
 import dev.jaxydog.astral.utility.CurrencyHelper;
-import dev.jaxydog.astral.utility.CurrencyHelper.Reward;
-import dev.jaxydog.astral.utility.CurrencyHelper.Unit;
-import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.recipe.ShapelessRecipe;
 import org.spongepowered.asm.mixin.Mixin;
@@ -47,9 +44,7 @@ public abstract class ShapelessRecipeMixin {
         at = @At("RETURN")
     )
     private ItemStack preventExchange(ItemStack stack) {
-        final Item item = stack.getItem();
-
-        if (Unit.UNITS.find(item).isPresent() || Reward.REWARDS.find(item).isPresent()) {
+        if (CurrencyHelper.isCurrency(stack)) {
             stack.getOrCreateNbt().putBoolean(CurrencyHelper.EXCHANGE_KEY, false);
         }
 
@@ -0,0 +1,74 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.mixin;
+
+import dev.jaxydog.astral.utility.CurrencyHelper;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.screen.slot.Slot;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Tracks currency items that are moved into a player's inventory through a screen handler.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+@Mixin(Slot.class)
+public abstract class SlotMixin {
+
+    /**
+     * The slot's backing inventory.
+     *
+     * @since 2.3.0
+     */
+    @Shadow
+    @Final
+    public Inventory inventory;
+
+    /**
+     * Returns the slot's current item stack.
+     *
+     * @return The slot's current item stack.
+     *
+     * @since 2.3.0
+     */
+    @Shadow
+    public abstract ItemStack getStack();
+
+    /**
+     * Marks the player's inventory as changed if this slot now contains a currency item.
+     * <p>
+     * Container transfers grow existing stacks in-place and then call this method, bypassing
+     * {@link PlayerInventory#setStack(int, ItemStack)}.
+     *
+     * @param callbackInfo The injection callback information.
+     *
+     * @since 2.3.0
+     */
+    @Inject(method = "markDirty", at = @At("HEAD"))
+    private void markDirtyInject(CallbackInfo callbackInfo) {
+        if (!(this.inventory instanceof final PlayerInventory inventory)) return;
+
+        if (CurrencyHelper.isCurrency(this.getStack())) inventory.astral$markCurrencyChanged();
+    }
+
+}
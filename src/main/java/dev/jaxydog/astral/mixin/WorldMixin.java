@@ -0,0 +1,86 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.mixin;
+
+import dev.jaxydog.astral.content.AstralGamerules;
+import dev.jaxydog.astral.utility.ChallengeHelper.PlayerGrid;
+import dev.jaxydog.astral.utility.injected.AstralWorld;
+import dev.jaxydog.astral.utility.injected.SprayableEntity.SprayScheduler;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldAccess;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+/**
+ * Caches a snapshot of each world's Astral gamerules, and stores each world's player grid and spray scheduler.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+@Mixin(World.class)
+public abstract class WorldMixin implements WorldAccess, AutoCloseable, AstralWorld {
+
+    /**
+     * The cached gamerule snapshot, or {@code null} if it must be re-read.
+     *
+     * @since 2.3.0
+     */
+    @Unique
+    private @Nullable AstralGamerules.Snapshot gamerules;
+    /**
+     * The world's player grid.
+     *
+     * @since 2.3.0
+     */
+    @Unique
+    private final PlayerGrid playerGrid = new PlayerGrid();
+    /**
+     * The world's spray scheduler.
+     *
+     * @since 2.3.0
+     */
+    @Unique
+    private final SprayScheduler sprayScheduler = new SprayScheduler();
+
+    @Override
+    public AstralGamerules.Snapshot astral$getGamerules() {
+        AstralGamerules.Snapshot gamerules = this.gamerules;
+
+        if (gamerules == null) {
+            gamerules = AstralGamerules.Snapshot.of(((World) (Object) this).getGameRules());
+
+            this.gamerules = gamerules;
+        }
+
+        return gamerules;
+    }
+
+    @Override
+    public void astral$refreshGamerules() {
+        this.gamerules = null;
+    }
+
+    @Override
+    public PlayerGrid astral$getPlayerGrid() {
+        return this.playerGrid;
+    }
+
+    @Override
+    public SprayScheduler astral$getSprayScheduler() {
+        return this.sprayScheduler;
+    }
+
+}
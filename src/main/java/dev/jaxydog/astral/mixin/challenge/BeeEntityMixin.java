@@ -61,7 +61,7 @@ public abstract class BeeEntityMixin extends AnimalEntity implements Angerable,
     ), index = 1
     )
     private float tryAttackArgsInject(float damage) {
-        return ChallengeHelper.getScaledAttack(this, damage);
+        return ChallengeHelper.getScaledAttributeAttack(this, damage);
     }
 
 }
@@ -59,7 +59,7 @@ public abstract class DolphinEntityMixin extends WaterCreatureEntity {
     ), index = 1
     )
     private float tryAttackInject(float damage) {
-        return ChallengeHelper.getScaledAttack(this, damage);
+        return ChallengeHelper.getScaledAttributeAttack(this, damage);
     }
 
 }
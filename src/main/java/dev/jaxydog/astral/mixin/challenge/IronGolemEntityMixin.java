@@ -60,7 +60,7 @@ public abstract class IronGolemEntityMixin extends GolemEntity implements Angera
     ), index = 1
     )
     private float tryAttackArgsInject(float damage) {
-        return ChallengeHelper.getScaledAttack(this, damage);
+        return ChallengeHelper.getScaledAttributeAttack(this, damage);
     }
 
 }
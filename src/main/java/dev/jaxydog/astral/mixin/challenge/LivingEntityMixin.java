@@ -15,16 +15,25 @@
 package dev.jaxydog.astral.mixin.challenge;
 
 import com.llamalad7.mixinextras.injector.ModifyReturnValue;
+import dev.jaxydog.astral.content.AstralGamerules;
 import dev.jaxydog.astral.utility.ChallengeHelper;
+import dev.jaxydog.astral.utility.ChallengeHelper.ChallengeState;
+import dev.jaxydog.astral.utility.ChallengeHelper.ScalingZone;
 import dev.jaxydog.astral.utility.injected.AstralLivingEntity;
 import net.minecraft.entity.Attackable;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.attribute.EntityAttribute;
+import net.minecraft.entity.attribute.EntityAttributeInstance;
+import net.minecraft.entity.attribute.EntityAttributeModifier;
+import net.minecraft.entity.attribute.EntityAttributeModifier.Operation;
+import net.minecraft.entity.attribute.EntityAttributes;
 import net.minecraft.entity.data.TrackedData;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
 import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -33,6 +42,8 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
+import java.util.UUID;
+
 /**
  * Implements the mob challenge system's health changes.
  *
@@ -52,50 +63,50 @@ public abstract class LivingEntityMixin extends Entity implements Attackable, As
     private static TrackedData<Float> HEALTH;
 
     /**
-     * If true, the mob will *always* scale.
+     * The challenge flag set if the mob will *always* scale.
      *
-     * @since 1.5.0
+     * @since 2.3.0
      */
     @Unique
-    private boolean forceChallengeScaling = false;
-
+    private static final byte FORCE_FLAG = 1;
     /**
-     * Stores whether this entity ignores challenge scaling rules.
+     * The challenge flag set if this entity ignores challenge scaling rules.
      *
-     * @since 1.1.1
+     * @since 2.3.0
      */
     @Unique
-    private boolean ignoreChallengeScaling = false;
+    private static final byte IGNORE_FLAG = 1 << 1;
     /**
-     * Stores whether the entity needs to reset its health.
+     * The challenge flag set if the entity needs to reset its health.
      * <p>
-     * This should only be true if the gamerules are updated or when the entity is first spawned.
+     * This should only be set if the gamerules are updated or when the entity is first spawned.
      *
-     * @since 1.1.1
+     * @since 2.3.0
      */
     @Unique
-    private boolean shouldResetHealth = true;
+    private static final byte RESET_HEALTH_FLAG = 1 << 2;
     /**
-     * Stores whether mob challenge was previously enabled to determine whether the entity's health should be updated.
+     * The challenge flag set once an unscaled entity has been checked for stale attribute modifiers.
      *
-     * @since 1.1.1
+     * @since 2.3.0
      */
     @Unique
-    private boolean lastEnableState = ChallengeHelper.isEnabled(this.self().getWorld());
+    private static final byte MODIFIERS_CHECKED_FLAG = 1 << 3;
+
     /**
-     * Stores the previously used health additive value to check whether the entity's health should be updated.
+     * This entity's challenge flags, packed into a single byte.
      *
-     * @since 1.1.1
+     * @since 2.3.0
      */
     @Unique
-    private double lastHealthAdditive = ChallengeHelper.getHealthAdditive(this.self().getWorld());
+    private byte challengeFlags = RESET_HEALTH_FLAG;
     /**
-     * Stores the previously used chunk step value to check whether the entity's health should be updated.
+     * This entity's challenge scaling state, which is only allocated once the entity is actually scaled.
      *
-     * @since 1.1.1
+     * @since 2.3.0
      */
     @Unique
-    private double lastChunkStep = ChallengeHelper.getChunkStep(this.self().getWorld());
+    private @Nullable ChallengeState challengeState;
 
     /**
      * Creates a new instance of this mixin.
@@ -111,12 +122,63 @@ public abstract class LivingEntityMixin extends Entity implements Attackable, As
 
     @Override
     public boolean astral$ignoresChallengeScaling() {
-        return this.ignoreChallengeScaling;
+        return this.hasChallengeFlag(IGNORE_FLAG);
     }
 
     @Override
     public boolean astral$forcesChallengeScaling() {
-        return this.forceChallengeScaling;
+        return this.hasChallengeFlag(FORCE_FLAG);
+    }
+
+    @Override
+    public double astral$getChallengeScale() {
+        return this.getChallengeState().getScale(this);
+    }
+
+    @Override
+    public @Nullable ScalingZone astral$getChallengeZone() {
+        return this.getChallengeState().getZone(this);
+    }
+
+    /**
+     * Returns this entity's challenge scaling state, allocating it if necessary.
+     *
+     * @return The challenge scaling state.
+     *
+     * @since 2.3.0
+     */
+    @Unique
+    private ChallengeState getChallengeState() {
+        if (this.challengeState == null) this.challengeState = new ChallengeState();
+
+        return this.challengeState;
+    }
+
+    /**
+     * Returns whether the given challenge flag is set.
+     *
+     * @param flag The flag.
+     *
+     * @return Whether the flag is set.
+     *
+     * @since 2.3.0
+     */
+    @Unique
+    private boolean hasChallengeFlag(byte flag) {
+        return (this.challengeFlags & flag) != 0;
+    }
+
+    /**
+     * Sets or clears the given challenge flag.
+     *
+     * @param flag The flag.
+     * @param value Whether the flag should be set.
+     *
+     * @since 2.3.0
+     */
+    @Unique
+    private void setChallengeFlag(byte flag, boolean value) {
+        this.challengeFlags = (byte) (value ? this.challengeFlags | flag : this.challengeFlags & ~flag);
     }
 
     /**
@@ -130,24 +192,16 @@ public abstract class LivingEntityMixin extends Entity implements Attackable, As
      */
     @ModifyReturnValue(method = "getMaxHealth", at = @At("RETURN"))
     private float scaleHealth(float health) {
-        if (!ChallengeHelper.shouldApplyScaling(this) || this.getWorld().isClient()) return health;
+        if (this.getWorld().isClient() || !ChallengeHelper.shouldApplyScaling(this)) return health;
 
-        final World world = this.getWorld();
-        final double additive = ChallengeHelper.getHealthAdditive(world);
+        final AstralGamerules.Snapshot gamerules = AstralGamerules.Snapshot.get(this.getWorld());
 
-        if (this.lastHealthAdditive != additive) {
-            this.lastHealthAdditive = additive;
-            this.shouldResetHealth = true;
-        }
+        // The health attribute already includes the scaled additive.
+        if (gamerules.challengeScalingMode().usesAttributes()) return health;
 
-        final int chunkStep = ChallengeHelper.getChunkStep(world);
+        this.checkGamerules(gamerules);
 
-        if (this.lastChunkStep != chunkStep) {
-            this.shouldResetHealth = true;
-            this.lastChunkStep = chunkStep;
-        }
-
-        return health + (float) ChallengeHelper.getScaledAdditive(this, additive);
+        return health + (float) ChallengeHelper.getScaledAdditive(this, ChallengeHelper.getHealthAdditive(this));
     }
 
     /**
@@ -163,7 +217,7 @@ public abstract class LivingEntityMixin extends Entity implements Attackable, As
     }
 
     /**
-     * Automatically updates an entity's maximum health if necessary.
+     * Automatically updates an entity's maximum health or challenge attribute modifiers if necessary.
      *
      * @param callbackInfo The injection callback information.
      *
@@ -171,22 +225,139 @@ public abstract class LivingEntityMixin extends Entity implements Attackable, As
      */
     @Inject(method = "tick", at = @At("TAIL"))
     private void tickInject(CallbackInfo callbackInfo) {
-        if (!ChallengeHelper.shouldApplyScaling(this) || this.getWorld().isClient()) return;
+        if (this.getWorld().isClient()) return;
+
+        final boolean scaled = ChallengeHelper.shouldApplyScaling(this);
+
+        if (this.challengeState == null && !scaled) {
+            // Unscaled entities never allocate any state, but may have been saved with modifiers while still scaled.
+            if (!this.hasChallengeFlag(MODIFIERS_CHECKED_FLAG)) {
+                this.applyChallengeModifiers(0D, 0D);
+                this.setChallengeFlag(MODIFIERS_CHECKED_FLAG, true);
+            }
+
+            return;
+        }
 
-        final boolean enabled = ChallengeHelper.isEnabled(this.getWorld());
-        final float maxHealth = this.self().getMaxHealth();
+        final ChallengeState state = this.getChallengeState();
+        final AstralGamerules.Snapshot gamerules = AstralGamerules.Snapshot.get(this.getWorld());
+        final boolean attribute = gamerules.challengeScalingMode().usesAttributes();
 
-        if (this.lastEnableState != enabled) {
-            this.lastEnableState = enabled;
-            this.shouldResetHealth = true;
+        // Stale modifiers are also removed here, if scaling stops applying or the mode is changed.
+        if ((attribute || state.hasModifiers()) && state.shouldUpdateModifiers(gamerules, scaled)) {
+            this.updateChallengeModifiers(state, gamerules, scaled, attribute && scaled);
         }
 
-        if (this.shouldResetHealth) {
-            this.setHealthData(maxHealth);
-            this.shouldResetHealth = false;
+        if (!scaled) return;
+
+        this.checkGamerules(gamerules);
+
+        if (attribute) {
+            // Updating the modifiers already keeps the entity's health in proportion.
+            this.setChallengeFlag(RESET_HEALTH_FLAG, false);
+        } else if (this.hasChallengeFlag(RESET_HEALTH_FLAG)) {
+            this.setHealthData(this.self().getMaxHealth());
+            this.setChallengeFlag(RESET_HEALTH_FLAG, false);
+        }
+    }
+
+    /**
+     * Updates this entity's challenge attribute modifiers, if their scaled values have changed.
+     * <p>
+     * The scale factor is cached per block column, so this only touches the entity's attributes when it crosses into
+     * a new column, the gamerules change, or scaling zones are reloaded.
+     *
+     * @param state The entity's challenge scaling state.
+     * @param gamerules The current gamerule snapshot.
+     * @param scaled Whether the entity is scaled.
+     * @param apply Whether modifiers should be applied, otherwise any modifiers are removed.
+     *
+     * @since 2.3.0
+     */
+    @Unique
+    private void updateChallengeModifiers(
+        ChallengeState state, AstralGamerules.Snapshot gamerules, boolean scaled, boolean apply
+    ) {
+        final double health = apply
+            ? ChallengeHelper.getScaledAdditive(this, ChallengeHelper.getHealthAdditive(this))
+            : 0D;
+        final double attack = apply
+            ? ChallengeHelper.getScaledAdditive(this, ChallengeHelper.getAttackAdditive(this))
+            : 0D;
+
+        if (state.differsFrom(health, attack)) this.applyChallengeModifiers(health, attack);
+
+        state.setModifiers(gamerules, scaled, health, attack);
+    }
+
+    /**
+     * Replaces this entity's challenge attribute modifiers, keeping its health at the same fraction of its maximum
+     * health.
+     *
+     * @param health The maximum health additive, or zero to remove its modifier.
+     * @param attack The attack damage additive, or zero to remove its modifier.
+     *
+     * @since 2.3.0
+     */
+    @Unique
+    private void applyChallengeModifiers(double health, double attack) {
+        final LivingEntity self = this.self();
+        final float maxHealth = self.getMaxHealth();
+        final float ratio = maxHealth > 0F ? self.getHealth() / maxHealth : 1F;
+
+        setChallengeModifier(self, EntityAttributes.GENERIC_MAX_HEALTH, ChallengeHelper.HEALTH_MODIFIER_ID, health);
+        setChallengeModifier(self, EntityAttributes.GENERIC_ATTACK_DAMAGE, ChallengeHelper.ATTACK_MODIFIER_ID, attack);
+
+        final float newMaxHealth = self.getMaxHealth();
+
+        if (newMaxHealth != maxHealth && !self.isDead()) self.setHealth(ratio * newMaxHealth);
+    }
+
+    /**
+     * Replaces the given entity's challenge modifier on the given attribute.
+     * <p>
+     * Modifiers are persistent, so that they are saved with the entity and its health is never clamped when loaded.
+     *
+     * @param entity The entity.
+     * @param attribute The modified attribute.
+     * @param id The modifier's identifier.
+     * @param amount The modifier's amount, or zero to remove it.
+     *
+     * @since 2.3.0
+     */
+    @Unique
+    private static void setChallengeModifier(LivingEntity entity, EntityAttribute attribute, UUID id, double amount) {
+        final EntityAttributeInstance instance = entity.getAttributeInstance(attribute);
+
+        if (instance == null) return;
+
+        final EntityAttributeModifier modifier = instance.getModifier(id);
+
+        if (modifier != null && modifier.getValue() == amount) return;
+        if (modifier != null) instance.removeModifier(id);
+
+        if (amount != 0D) {
+            instance.addPersistentModifier(new EntityAttributeModifier(
+                id,
+                ChallengeHelper.MODIFIER_NAME,
+                amount,
+                Operation.ADDITION
+            ));
         }
     }
 
+    /**
+     * Marks the entity's health for a reset if any gamerule that affects it has changed since it was last checked.
+     *
+     * @param gamerules The current gamerule snapshot.
+     *
+     * @since 2.3.0
+     */
+    @Unique
+    private void checkGamerules(AstralGamerules.Snapshot gamerules) {
+        if (this.getChallengeState().checkGamerules(gamerules)) this.setChallengeFlag(RESET_HEALTH_FLAG, true);
+    }
+
     /**
      * Convenience method to set the entity's current health to the given value without calling
      * {@link LivingEntity#getMaxHealth()}.
@@ -201,7 +372,7 @@ public abstract class LivingEntityMixin extends Entity implements Attackable, As
     }
 
     /**
-     * Deserializes the `ignoreChallengeScaling` field.
+     * Deserializes the challenge scaling fields.
      *
      * @param nbt The NBT compound.
      * @param callbackInfo The injection callback information.
@@ -211,15 +382,18 @@ public abstract class LivingEntityMixin extends Entity implements Attackable, As
     @Inject(method = "readCustomDataFromNbt", at = @At("TAIL"))
     private void readCustomDataFromNbtInject(NbtCompound nbt, CallbackInfo callbackInfo) {
         if (nbt.contains(ChallengeHelper.IGNORE_KEY, NbtElement.BYTE_TYPE)) {
-            this.ignoreChallengeScaling = nbt.getBoolean(ChallengeHelper.IGNORE_KEY);
+            this.setChallengeFlag(IGNORE_FLAG, nbt.getBoolean(ChallengeHelper.IGNORE_KEY));
         }
         if (nbt.contains(ChallengeHelper.FORCE_KEY, NbtElement.BYTE_TYPE)) {
-            this.forceChallengeScaling = nbt.getBoolean(ChallengeHelper.IGNORE_KEY);
+            this.setChallengeFlag(FORCE_FLAG, nbt.getBoolean(ChallengeHelper.IGNORE_KEY));
+        }
+        if (nbt.contains(ChallengeHelper.SCALE_KEY, NbtElement.FLOAT_TYPE)) {
+            this.getChallengeState().setSpawnScale(nbt.getFloat(ChallengeHelper.SCALE_KEY));
         }
     }
 
     /**
-     * Serializes the `ignoreChallengeScaling` field.
+     * Serializes the challenge scaling fields.
      *
      * @param nbt The NBT compound.
      * @param callbackInfo The injection callback information.
@@ -228,12 +402,15 @@ public abstract class LivingEntityMixin extends Entity implements Attackable, As
      */
     @Inject(method = "writeCustomDataToNbt", at = @At("TAIL"))
     private void writeCustomDataToNbtInject(NbtCompound nbt, CallbackInfo callbackInfo) {
-        if (this.ignoreChallengeScaling) {
+        if (this.hasChallengeFlag(IGNORE_FLAG)) {
             nbt.putBoolean(ChallengeHelper.IGNORE_KEY, true);
         }
-        if (this.forceChallengeScaling) {
+        if (this.hasChallengeFlag(FORCE_FLAG)) {
             nbt.putBoolean(ChallengeHelper.IGNORE_KEY, true);
         }
+        if (this.challengeState != null && !Float.isNaN(this.challengeState.getSpawnScale())) {
+            nbt.putFloat(ChallengeHelper.SCALE_KEY, this.challengeState.getSpawnScale());
+        }
     }
 
 }
@@ -69,7 +69,7 @@ public abstract class RamImpactTaskMixin extends MultiTickTask<GoatEntity> {
         )
     )
     private float keepRunningArgsInject(float damage, @Local(argsOnly = true) GoatEntity entity) {
-        return ChallengeHelper.getScaledAttack(entity, damage);
+        return ChallengeHelper.getScaledAttributeAttack(entity, damage);
     }
 
 }
@@ -14,18 +14,43 @@
 
 package dev.jaxydog.astral.utility;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
 import dev.jaxydog.astral.Astral;
 import dev.jaxydog.astral.content.AstralGamerules;
 import dev.jaxydog.astral.utility.injected.AstralLivingEntity;
+import dev.jaxydog.astral.utility.injected.AstralWorld;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2FloatOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.advancement.Advancement;
+import net.minecraft.advancement.PlayerAdvancementTracker;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.passive.TameableEntity;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKey;
 import net.minecraft.registry.RegistryKeys;
 import net.minecraft.registry.tag.TagKey;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.stat.Stats;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.JsonHelper;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldProperties;
 import org.jetbrains.annotations.ApiStatus.NonExtendable;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
 
 /**
  * Provides commonly used fields and methods for mob challenge scaling.
@@ -61,6 +86,32 @@ public interface ChallengeHelper {
      * @since 1.1.0
      */
     String FORCE_KEY = "ForceChallengeScaling";
+    /**
+     * An NBT key that stores an entity's challenge scale factor, as computed when it spawned.
+     * <p>
+     * This is only set and used if the world's scaling mode is {@link ScalingMode#SPAWN}.
+     *
+     * @since 2.3.0
+     */
+    String SCALE_KEY = "ChallengeScale";
+    /**
+     * The name given to challenge scaling attribute modifiers.
+     *
+     * @since 2.3.0
+     */
+    String MODIFIER_NAME = "Astral challenge scaling";
+    /**
+     * The identifier of the maximum health modifier used when scaling through attributes.
+     *
+     * @since 2.3.0
+     */
+    UUID HEALTH_MODIFIER_ID = UUID.fromString("9fd59658-d96b-489d-aa8f-a06f810ab0e7");
+    /**
+     * The identifier of the attack damage modifier used when scaling through attributes.
+     *
+     * @since 2.3.0
+     */
+    UUID ATTACK_MODIFIER_ID = UUID.fromString("c305c067-563c-4876-b0e5-a92f35d94688");
 
     /**
      * A tag that determines which entities are scaled.
@@ -89,7 +140,7 @@ public interface ChallengeHelper {
             // Check if scaling is enabled.
             || (isEnabled(living.getWorld())
             // Check if the entity is also in the scaling tag.
-            && living.getType().isIn(SCALED_ENTITIES)
+            && ScaledEntityTypes.contains(living.getType())
             // Check that the entity doesn't ignore scaling.
             && !((AstralLivingEntity) living).astral$ignoresChallengeScaling()
             // Check that the entity isn't tamed.
@@ -106,7 +157,7 @@ public interface ChallengeHelper {
      * @since 1.1.0
      */
     static boolean isEnabled(World world) {
-        return world.getGameRules().getBoolean(AstralGamerules.CHALLENGE_ENABLED);
+        return AstralGamerules.Snapshot.get(world).challengeEnabled();
     }
 
     /**
@@ -119,7 +170,7 @@ public interface ChallengeHelper {
      * @since 2.0.0
      */
     static boolean useWorldSpawn(World world) {
-        return world.getGameRules().getBoolean(AstralGamerules.CHALLENGE_USE_WORLDSPAWN);
+        return AstralGamerules.Snapshot.get(world).challengeUseWorldspawn();
     }
 
     /**
@@ -134,7 +185,7 @@ public interface ChallengeHelper {
      * @since 1.1.0
      */
     static double getAttackAdditive(World world) {
-        return world.getGameRules().get(AstralGamerules.CHALLENGE_ATTACK_ADDITIVE).get();
+        return AstralGamerules.Snapshot.get(world).challengeAttackAdditive();
     }
 
     /**
@@ -149,7 +200,59 @@ public interface ChallengeHelper {
      * @since 1.1.0
      */
     static double getHealthAdditive(World world) {
-        return world.getGameRules().get(AstralGamerules.CHALLENGE_HEALTH_ADDITIVE).get();
+        return AstralGamerules.Snapshot.get(world).challengeHealthAdditive();
+    }
+
+    /**
+     * Returns the given entity's attack additive value, which may be overridden by the entity's scaling zone.
+     *
+     * @param entity The target entity.
+     *
+     * @return The entity's attack additive.
+     *
+     * @since 2.3.0
+     */
+    static double getAttackAdditive(Entity entity) {
+        final ScalingZone zone = getZone(entity);
+
+        if (zone != null && !Double.isNaN(zone.attackAdditive())) return zone.attackAdditive();
+
+        return getAttackAdditive(entity.getWorld());
+    }
+
+    /**
+     * Returns the given entity's health additive value, which may be overridden by the entity's scaling zone.
+     *
+     * @param entity The target entity.
+     *
+     * @return The entity's health additive.
+     *
+     * @since 2.3.0
+     */
+    static double getHealthAdditive(Entity entity) {
+        final ScalingZone zone = getZone(entity);
+
+        if (zone != null && !Double.isNaN(zone.healthAdditive())) return zone.healthAdditive();
+
+        return getHealthAdditive(entity.getWorld());
+    }
+
+    /**
+     * Returns the scaling zone that contains the given entity, if any.
+     *
+     * @param entity The target entity.
+     *
+     * @return The containing zone, or {@code null} if the entity is not within any zone.
+     *
+     * @since 2.3.0
+     */
+    static @Nullable ScalingZone getZone(Entity entity) {
+        if (entity == null || entity.getWorld() == null) return null;
+
+        // Living entities cache their zone alongside their scale factor.
+        if (entity instanceof final LivingEntity living) return living.astral$getChallengeZone();
+
+        return ScalingZones.get().find(entity.getWorld(), entity.getBlockX(), entity.getBlockZ());
     }
 
     /**
@@ -165,17 +268,66 @@ public interface ChallengeHelper {
     static double getScaledAdditive(Entity entity, double additive) {
         if (entity == null || entity.getWorld() == null) return additive;
 
-        final int step = getChunkStep(entity.getWorld());
+        // Living entities cache their scale factor, since this is called many times per tick.
+        final double scale = entity instanceof final LivingEntity living
+            ? living.astral$getChallengeScale()
+            : getScaleFactor(entity);
 
-        if (step == 0) return 0; // Prevent divisions by zero.
+        return Math.max(0D, additive) * scale;
+    }
+
+    /**
+     * Returns the factor that statistic additives are multiplied by for the given entity.
+     * <p>
+     * This depends only on the entity's horizontal block position, its world, that world's gamerules, and the loaded
+     * scaling zones.
+     *
+     * @param entity The target entity.
+     *
+     * @return The scale factor.
+     *
+     * @since 2.3.0
+     */
+    static double getScaleFactor(Entity entity) {
+        final ScalingZone zone = ScalingZones.get().find(entity.getWorld(), entity.getBlockX(), entity.getBlockZ());
+
+        return getScaleFactor(entity, zone);
+    }
+
+    /**
+     * Returns the factor that statistic additives are multiplied by for the given entity within the given zone.
+     * <p>
+     * If the entity is not within a zone, it is scaled by its distance from the world's configured origin.
+     *
+     * @param entity The target entity.
+     * @param zone The entity's scaling zone, if any.
+     *
+     * @return The scale factor.
+     *
+     * @since 2.3.0
+     */
+    static double getScaleFactor(Entity entity, @Nullable ScalingZone zone) {
+        final World world = entity.getWorld();
+        final AstralGamerules.Snapshot gamerules = AstralGamerules.Snapshot.get(world);
+
+        if (gamerules.challengeScalingSource() != ScalingSource.DISTANCE) {
+            final int step = zone != null ? zone.getChunkStep(world) : getChunkStep(world);
+            final int radius = gamerules.challengeProgressionRadius();
+            // Search from the center of the entity's block column, since scale factors are cached per column.
+            final double x = entity.getBlockX() + 0.5D;
+            final double z = entity.getBlockZ() + 0.5D;
+
+            return PlayerGrid.get(world).getNearestScore(x, z, radius) / step;
+        }
+
+        if (zone != null) return zone.getScaleFactor(world, entity.getBlockX(), entity.getBlockZ());
 
         final double distance = getSpawnDistance(entity);
         // Scales by chunks, not blocks.
-        final double modifier = Math.max(0D, additive) * ((distance / 16D) / step);
-        final boolean overworld = entity.getWorld().getRegistryKey().equals(World.OVERWORLD);
+        final double factor = (distance / 16D) / getChunkStep(world);
 
         // Halve the scaling rate outside the overworld.
-        return overworld ? modifier : modifier / 2D;
+        return world.getRegistryKey().equals(World.OVERWORLD) ? factor : factor / 2D;
     }
 
     /**
@@ -190,7 +342,7 @@ public interface ChallengeHelper {
      * @since 1.1.0
      */
     static int getChunkStep(World world) {
-        return Math.max(world.getGameRules().getInt(AstralGamerules.CHALLENGE_CHUNK_STEP), 1);
+        return Math.max(AstralGamerules.Snapshot.get(world).challengeChunkStep(), 1);
     }
 
     /**
@@ -229,11 +381,44 @@ public interface ChallengeHelper {
     static float getScaledAttack(Entity entity, float attack) {
         if (!shouldApplyScaling(entity)) return attack;
 
-        final double additive = getAttackAdditive(entity.getWorld());
+        final double additive = getAttackAdditive(entity);
 
         return attack + (float) getScaledAdditive(entity, additive);
     }
 
+    /**
+     * Returns the given entity's scaled attack damage, where the original damage was read from its attack damage
+     * attribute.
+     * <p>
+     * When scaling is applied through attribute modifiers, the attribute already includes the scaled additive, so the
+     * damage is returned as-is.
+     *
+     * @param entity The source entity.
+     * @param attack The original attack damage.
+     *
+     * @return The scaled attack damage.
+     *
+     * @since 2.3.0
+     */
+    static float getScaledAttributeAttack(Entity entity, float attack) {
+        if (entity != null && getScalingMode(entity.getWorld()).usesAttributes()) return attack;
+
+        return getScaledAttack(entity, attack);
+    }
+
+    /**
+     * Returns the world's configured scaling mode.
+     *
+     * @param world The current world.
+     *
+     * @return The world's scaling mode.
+     *
+     * @since 2.3.0
+     */
+    static ScalingMode getScalingMode(World world) {
+        return AstralGamerules.Snapshot.get(world).challengeScalingMode();
+    }
+
     /**
      * Returns the given entity's scaled explosion power.
      *
@@ -248,10 +433,1398 @@ public interface ChallengeHelper {
     static float getScaledExplosion(Entity entity, float max, float power) {
         if (!shouldApplyScaling(entity)) return power;
 
-        final double additive = getAttackAdditive(entity.getWorld());
+        final double additive = getAttackAdditive(entity);
         final double scaled = getScaledAdditive(entity, additive);
 
         return Math.min(power + (float) (scaled / 10D), max);
     }
 
+    /**
+     * The ways in which challenge scaling may be applied to an entity.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    enum ScalingMode {
+
+        /**
+         * Scaling is added to an entity's maximum health and attack damage whenever they are read, and the entity's
+         * health is reset whenever its scaling changes.
+         *
+         * @since 2.3.0
+         */
+        DYNAMIC,
+        /**
+         * Scaling is applied as attribute modifiers, which are only updated when the entity's scaling changes.
+         *
+         * @since 2.3.0
+         */
+        ATTRIBUTE,
+        /**
+         * Scaling is computed once, when an entity spawns or is first loaded, and is stored within the entity's NBT.
+         * <p>
+         * The stored scale factor is applied as attribute modifiers, which are only updated when the gamerules change.
+         *
+         * @since 2.3.0
+         */
+        SPAWN;
+
+        /**
+         * Returns whether this mode applies scaling through attribute modifiers.
+         *
+         * @return Whether attribute modifiers are used.
+         *
+         * @since 2.3.0
+         */
+        public boolean usesAttributes() {
+            return this != DYNAMIC;
+        }
+
+    }
+
+    /**
+     * The challenge scaling state of a single living entity.
+     * <p>
+     * This is allocated lazily, the first time that an entity is actually scaled, so that the many entities that are
+     * never scaled (such as players and armor stands) do not carry any of these fields.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class ChallengeState {
+
+        /**
+         * The cached scale factor.
+         *
+         * @since 2.3.0
+         */
+        private double scale;
+        /**
+         * The cached scaling zone that contains the entity, if any.
+         *
+         * @since 2.3.0
+         */
+        private @Nullable ScalingZone zone;
+        /**
+         * The gamerule snapshot that the scale factor was computed with, or {@code null} if it must be computed.
+         *
+         * @since 2.3.0
+         */
+        private @Nullable AstralGamerules.Snapshot scaleGamerules;
+        /**
+         * The scaling zone index that the zone was found within.
+         *
+         * @since 2.3.0
+         */
+        private @Nullable ScalingZones scaleZones;
+        /**
+         * The player grid version that the scale factor was computed with, if scaling by progression.
+         *
+         * @since 2.3.0
+         */
+        private long scaleGridVersion;
+        /**
+         * The block X position that the scale factor was computed at.
+         *
+         * @since 2.3.0
+         */
+        private int scaleX;
+        /**
+         * The block Z position that the scale factor was computed at.
+         *
+         * @since 2.3.0
+         */
+        private int scaleZ;
+        /**
+         * The world spawn X position that the scale factor was computed with.
+         *
+         * @since 2.3.0
+         */
+        private int scaleSpawnX;
+        /**
+         * The world spawn Z position that the scale factor was computed with.
+         *
+         * @since 2.3.0
+         */
+        private int scaleSpawnZ;
+        /**
+         * The scale factor computed when the entity spawned, or {@code NaN} if it has not been computed yet.
+         * <p>
+         * This is only used if the world's scaling mode is {@link ScalingMode#SPAWN}, and is persisted within NBT.
+         *
+         * @since 2.3.0
+         */
+        private float spawnScale = Float.NaN;
+
+        /**
+         * The previously used gamerule snapshot, used to check whether the entity's health should be reset.
+         *
+         * @since 2.3.0
+         */
+        private @Nullable AstralGamerules.Snapshot lastGamerules;
+
+        /**
+         * The maximum health additive currently applied as an attribute modifier.
+         * <p>
+         * This starts as {@code NaN}, since a modifier may have been loaded from NBT, and is otherwise zero if no
+         * modifier is applied.
+         *
+         * @since 2.3.0
+         */
+        private double healthModifier = Double.NaN;
+        /**
+         * The attack damage additive currently applied as an attribute modifier.
+         * <p>
+         * This starts as {@code NaN}, since a modifier may have been loaded from NBT, and is otherwise zero if no
+         * modifier is applied.
+         *
+         * @since 2.3.0
+         */
+        private double attackModifier = Double.NaN;
+        /**
+         * The gamerule snapshot that the attribute modifiers were last updated with.
+         *
+         * @since 2.3.0
+         */
+        private @Nullable AstralGamerules.Snapshot modifierGamerules;
+        /**
+         * Whether the entity was scaled when its attribute modifiers were last updated.
+         *
+         * @since 2.3.0
+         */
+        private boolean modifierScaled;
+
+        /**
+         * Returns the given entity's scale factor, re-computing it only if it may have changed.
+         *
+         * @param entity The entity.
+         *
+         * @return The scale factor.
+         *
+         * @since 2.3.0
+         */
+        public double getScale(Entity entity) {
+            if (AstralGamerules.Snapshot.get(entity.getWorld()).challengeScalingMode() == ScalingMode.SPAWN) {
+                // Computed wherever the entity is when first scaled, and then kept for the rest of its lifetime.
+                if (Float.isNaN(this.spawnScale)) {
+                    this.update(entity);
+                    this.spawnScale = (float) this.scale;
+                }
+
+                return this.spawnScale;
+            }
+
+            this.update(entity);
+
+            return this.scale;
+        }
+
+        /**
+         * Returns the scaling zone that contains the given entity, re-computing it only if it may have changed.
+         *
+         * @param entity The entity.
+         *
+         * @return The containing zone, or {@code null} if the entity is not within any zone.
+         *
+         * @since 2.3.0
+         */
+        public @Nullable ScalingZone getZone(Entity entity) {
+            this.update(entity);
+
+            return this.zone;
+        }
+
+        /**
+         * Re-computes the cached scale factor and zone if they may have changed.
+         *
+         * @param entity The entity.
+         *
+         * @since 2.3.0
+         */
+        private void update(Entity entity) {
+            final World world = entity.getWorld();
+            final AstralGamerules.Snapshot gamerules = AstralGamerules.Snapshot.get(world);
+            final ScalingZones zones = ScalingZones.get();
+            // Progression depends on nearby players, who may move every tick, so it is only cached for a single tick.
+            final long gridVersion = gamerules.challengeScalingSource() == ScalingSource.DISTANCE
+                ? 0L
+                : PlayerGrid.get(world).getVersion();
+            final WorldProperties properties = world.getLevelProperties();
+            // The spawn is only read from the world's properties here, since `getSpawnPos` allocates.
+            final boolean spawnMoved = properties.getSpawnX() != this.scaleSpawnX
+                || properties.getSpawnZ() != this.scaleSpawnZ;
+
+            // Only horizontal distance is considered, so vertical movement never invalidates the cache.
+            if (gamerules != this.scaleGamerules
+                || zones != this.scaleZones
+                || gridVersion != this.scaleGridVersion
+                || entity.getBlockX() != this.scaleX
+                || entity.getBlockZ() != this.scaleZ
+                || (spawnMoved && gamerules.challengeUseWorldspawn())) {
+                this.zone = zones.find(world, entity.getBlockX(), entity.getBlockZ());
+                this.scale = getScaleFactor(entity, this.zone);
+                this.scaleGamerules = gamerules;
+                this.scaleZones = zones;
+                this.scaleGridVersion = gridVersion;
+                this.scaleX = entity.getBlockX();
+                this.scaleZ = entity.getBlockZ();
+                this.scaleSpawnX = properties.getSpawnX();
+                this.scaleSpawnZ = properties.getSpawnZ();
+            }
+        }
+
+        /**
+         * Returns the scale factor computed when the entity spawned, or {@code NaN} if it has not been computed yet.
+         *
+         * @return The spawn-time scale factor.
+         *
+         * @since 2.3.0
+         */
+        public float getSpawnScale() {
+            return this.spawnScale;
+        }
+
+        /**
+         * Sets the scale factor computed when the entity spawned.
+         *
+         * @param spawnScale The spawn-time scale factor.
+         *
+         * @since 2.3.0
+         */
+        public void setSpawnScale(float spawnScale) {
+            this.spawnScale = spawnScale;
+        }
+
+        /**
+         * Returns whether any gamerule that affects the entity's health has changed since it was last checked.
+         *
+         * @param gamerules The current gamerule snapshot.
+         *
+         * @return Whether the entity's health should be reset.
+         *
+         * @since 2.3.0
+         */
+        public boolean checkGamerules(AstralGamerules.Snapshot gamerules) {
+            final AstralGamerules.Snapshot last = this.lastGamerules;
+
+            // Snapshots are only replaced when a gamerule changes, so the values only need comparing when this differs.
+            if (last == gamerules) return false;
+
+            this.lastGamerules = gamerules;
+
+            if (last == null) return false;
+
+            return last.challengeEnabled() != gamerules.challengeEnabled()
+                || last.challengeScalingMode() != gamerules.challengeScalingMode()
+                || last.challengeHealthAdditive() != gamerules.challengeHealthAdditive()
+                || Math.max(last.challengeChunkStep(), 1) != Math.max(gamerules.challengeChunkStep(), 1);
+        }
+
+        /**
+         * Returns whether attribute modifiers may currently be applied to the entity.
+         *
+         * @return Whether modifiers may be applied.
+         *
+         * @since 2.3.0
+         */
+        public boolean hasModifiers() {
+            // `NaN` never equals zero, so entities that have not been checked yet are also included.
+            return this.healthModifier != 0D || this.attackModifier != 0D;
+        }
+
+        /**
+         * Returns whether the attribute modifiers must be updated.
+         *
+         * @param gamerules The current gamerule snapshot.
+         * @param scaled Whether the entity is scaled.
+         *
+         * @return Whether the modifiers must be updated.
+         *
+         * @since 2.3.0
+         */
+        public boolean shouldUpdateModifiers(AstralGamerules.Snapshot gamerules, boolean scaled) {
+            // Spawn-time scaling ignores position, so only a change in gamerules or scaling requires an update.
+            return gamerules.challengeScalingMode() != ScalingMode.SPAWN
+                || gamerules != this.modifierGamerules
+                || scaled != this.modifierScaled;
+        }
+
+        /**
+         * Returns whether the given modifier amounts differ from those that are currently applied.
+         *
+         * @param health The maximum health additive.
+         * @param attack The attack damage additive.
+         *
+         * @return Whether the modifiers differ.
+         *
+         * @since 2.3.0
+         */
+        public boolean differsFrom(double health, double attack) {
+            return health != this.healthModifier || attack != this.attackModifier;
+        }
+
+        /**
+         * Records the attribute modifiers that were applied to the entity.
+         *
+         * @param gamerules The current gamerule snapshot.
+         * @param scaled Whether the entity is scaled.
+         * @param health The applied maximum health additive.
+         * @param attack The applied attack damage additive.
+         *
+         * @since 2.3.0
+         */
+        public void setModifiers(AstralGamerules.Snapshot gamerules, boolean scaled, double health, double attack) {
+            this.modifierGamerules = gamerules;
+            this.modifierScaled = scaled;
+            this.healthModifier = health;
+            this.attackModifier = attack;
+        }
+
+    }
+
+    /**
+     * The values that an entity's challenge scaling may be based on.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    enum ScalingSource {
+
+        /**
+         * Scaling is based on the entity's distance from the world's origin, or its scaling zone's origin.
+         *
+         * @since 2.3.0
+         */
+        DISTANCE,
+        /**
+         * Scaling is based on the number of advancements completed by the nearest player.
+         *
+         * @since 2.3.0
+         */
+        ADVANCEMENTS,
+        /**
+         * Scaling is based on the number of hours played by the nearest player.
+         *
+         * @since 2.3.0
+         */
+        PLAYTIME;
+
+        /**
+         * Returns the given player's progression score, which is divided by the chunk step to get a scale factor.
+         * <p>
+         * This may be expensive, so scores are cached by each world's {@link PlayerGrid}.
+         *
+         * @param player The player.
+         *
+         * @return The player's score.
+         *
+         * @since 2.3.0
+         */
+        public float getScore(ServerPlayerEntity player) {
+            return switch (this) {
+                case DISTANCE -> 0F;
+                case ADVANCEMENTS -> {
+                    final PlayerAdvancementTracker tracker = player.getAdvancementTracker();
+                    int count = 0;
+
+                    for (final Advancement advancement : player.server.getAdvancementLoader().getAdvancements()) {
+                        // Recipe unlocks are also advancements, but are hidden and should not be counted.
+                        if (advancement.getDisplay() != null && tracker.getProgress(advancement).isDone()) count += 1;
+                    }
+
+                    yield count;
+                }
+                case PLAYTIME -> {
+                    final int ticks = player.getStatHandler().getStat(Stats.CUSTOM.getOrCreateStat(Stats.PLAY_TIME));
+
+                    yield ticks / 72_000F;
+                }
+            };
+        }
+
+    }
+
+    /**
+     * A spatial hash of the players within a world, used to find the nearest player when scaling by progression.
+     * <p>
+     * The grid is rebuilt once per world tick, and each player's score is cached and only re-computed periodically.
+     * Players are stored within flat arrays and chained per cell, so rebuilding and searching never allocate.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class PlayerGrid {
+
+        /**
+         * The number of ticks between re-computing each player's score.
+         *
+         * @since 2.3.0
+         */
+        private static final int REFRESH_INTERVAL = 1200;
+
+        /**
+         * The index of the first player within each cell, keyed by packed cell position.
+         *
+         * @since 2.3.0
+         */
+        private final Long2IntOpenHashMap heads = new Long2IntOpenHashMap();
+        /**
+         * The cached score of each player.
+         *
+         * @since 2.3.0
+         */
+        private final Object2FloatOpenHashMap<UUID> scores = new Object2FloatOpenHashMap<>();
+
+        /**
+         * The index of the next player within the same cell, or {@code -1}.
+         *
+         * @since 2.3.0
+         */
+        private int[] next = new int[0];
+        /**
+         * The X position of each player.
+         *
+         * @since 2.3.0
+         */
+        private double[] xs = new double[0];
+        /**
+         * The Z position of each player.
+         *
+         * @since 2.3.0
+         */
+        private double[] zs = new double[0];
+        /**
+         * The score of each player.
+         *
+         * @since 2.3.0
+         */
+        private float[] values = new float[0];
+        /**
+         * The number of players within the grid.
+         *
+         * @since 2.3.0
+         */
+        private int size;
+        /**
+         * The bit shift of the grid's cell size.
+         *
+         * @since 2.3.0
+         */
+        private int shift;
+        /**
+         * The source that the cached scores were computed for.
+         *
+         * @since 2.3.0
+         */
+        private ScalingSource source = ScalingSource.DISTANCE;
+        /**
+         * The number of times that this grid has been rebuilt.
+         *
+         * @since 2.3.0
+         */
+        private long version;
+
+        /**
+         * Creates a new empty grid.
+         *
+         * @since 2.3.0
+         */
+        public PlayerGrid() {
+            this.heads.defaultReturnValue(-1);
+            this.scores.defaultReturnValue(Float.NaN);
+        }
+
+        /**
+         * Returns the given world's player grid.
+         *
+         * @param world The world.
+         *
+         * @return The player grid.
+         *
+         * @since 2.3.0
+         */
+        public static PlayerGrid get(World world) {
+            return ((AstralWorld) world).astral$getPlayerGrid();
+        }
+
+        /**
+         * Rebuilds the given world's player grid, if the world scales by progression.
+         *
+         * @param world The world.
+         *
+         * @since 2.3.0
+         */
+        public static void update(ServerWorld world) {
+            final AstralGamerules.Snapshot gamerules = AstralGamerules.Snapshot.get(world);
+            final PlayerGrid grid = get(world);
+
+            if (gamerules.challengeScalingSource() != ScalingSource.DISTANCE) {
+                grid.rebuild(world, gamerules);
+            } else if (grid.size > 0 || !grid.scores.isEmpty()) {
+                grid.clear();
+            }
+        }
+
+        /**
+         * Returns the number of times that this grid has been rebuilt.
+         * <p>
+         * Scale factors derived from this grid remain valid for as long as this value is unchanged.
+         *
+         * @return The grid's version.
+         *
+         * @since 2.3.0
+         */
+        public long getVersion() {
+            return this.version;
+        }
+
+        /**
+         * Returns the score of the nearest player within the given radius of a position.
+         *
+         * @param x The X position.
+         * @param z The Z position.
+         * @param radius The search radius.
+         *
+         * @return The nearest player's score, or zero if no players are within range.
+         *
+         * @since 2.3.0
+         */
+        public float getNearestScore(double x, double z, int radius) {
+            if (this.size == 0) return 0F;
+
+            final int minCellX = MathHelper.floor(x - radius) >> this.shift;
+            final int minCellZ = MathHelper.floor(z - radius) >> this.shift;
+            final int maxCellX = MathHelper.floor(x + radius) >> this.shift;
+            final int maxCellZ = MathHelper.floor(z + radius) >> this.shift;
+            double nearest = (double) radius * radius;
+            float score = 0F;
+
+            for (int cellX = minCellX; cellX <= maxCellX; cellX += 1) {
+                for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ += 1) {
+                    int index = this.heads.get(ChunkPos.toLong(cellX, cellZ));
+
+                    for (; index >= 0; index = this.next[index]) {
+                        final double deltaX = this.xs[index] - x;
+                        final double deltaZ = this.zs[index] - z;
+                        final double distance = deltaX * deltaX + deltaZ * deltaZ;
+
+                        if (distance <= nearest) {
+                            nearest = distance;
+                            score = this.values[index];
+                        }
+                    }
+                }
+            }
+
+            return score;
+        }
+
+        /**
+         * Rebuilds this grid from the given world's players.
+         *
+         * @param world The world.
+         * @param gamerules The world's gamerules.
+         *
+         * @since 2.3.0
+         */
+        private void rebuild(ServerWorld world, AstralGamerules.Snapshot gamerules) {
+            final List<ServerPlayerEntity> players = world.getPlayers();
+            final ScalingSource source = gamerules.challengeScalingSource();
+            final long time = world.getTime();
+
+            if (source != this.source) {
+                this.scores.clear();
+                this.source = source;
+            }
+            // Forget players that have left this world, so that the cache cannot grow unbounded.
+            if (time % REFRESH_INTERVAL == 0) {
+                this.scores.keySet().removeIf(id -> world.getPlayerByUuid(id) == null);
+            }
+
+            this.heads.clear();
+            this.size = 0;
+            // Cells are at least as large as the search radius, so a search visits at most three cells per axis.
+            this.shift = Math.max(4, MathHelper.ceilLog2(Math.max(1, gamerules.challengeProgressionRadius())));
+
+            if (this.next.length < players.size()) this.grow(players.size());
+
+            for (final ServerPlayerEntity player : players) {
+                if (player.isSpectator()) continue;
+
+                float score = this.scores.getFloat(player.getUuid());
+
+                // Refreshes are staggered by entity identifier, so that players are not all re-computed at once.
+                if (Float.isNaN(score) || (time + player.getId()) % REFRESH_INTERVAL == 0) {
+                    score = source.getScore(player);
+
+                    this.scores.put(player.getUuid(), score);
+                }
+
+                final int index = this.size;
+                final long key = ChunkPos.toLong(player.getBlockX() >> this.shift, player.getBlockZ() >> this.shift);
+
+                this.xs[index] = player.getX();
+                this.zs[index] = player.getZ();
+                this.values[index] = score;
+                this.next[index] = this.heads.put(key, index);
+                this.size += 1;
+            }
+
+            this.version += 1;
+        }
+
+        /**
+         * Grows this grid's arrays to hold at least the given number of players.
+         *
+         * @param capacity The required capacity.
+         *
+         * @since 2.3.0
+         */
+        private void grow(int capacity) {
+            final int length = Math.max(capacity, this.next.length * 2);
+
+            this.next = Arrays.copyOf(this.next, length);
+            this.xs = Arrays.copyOf(this.xs, length);
+            this.zs = Arrays.copyOf(this.zs, length);
+            this.values = Arrays.copyOf(this.values, length);
+        }
+
+        /**
+         * Removes every player and cached score from this grid.
+         *
+         * @since 2.3.0
+         */
+        private void clear() {
+            this.heads.clear();
+            this.scores.clear();
+            this.size = 0;
+            this.version += 1;
+        }
+
+    }
+
+    /**
+     * A data-driven area of a dimension that is scaled from its own origin, rather than the world's.
+     * <p>
+     * Zones may override the world's chunk step and additives. Where zones overlap, the zone with the highest priority
+     * is used, with ties broken by identifier.
+     *
+     * @param id The zone's identifier.
+     * @param dimension The dimension that contains the zone.
+     * @param shape The zone's shape.
+     * @param priority The zone's priority.
+     * @param originX The X position that distance is measured from.
+     * @param originZ The Z position that distance is measured from.
+     * @param chunkStep The zone's chunk step, or zero to use the world's configured chunk step.
+     * @param attackAdditive The zone's attack additive, or {@code NaN} to use the world's configured additive.
+     * @param healthAdditive The zone's health additive, or {@code NaN} to use the world's configured additive.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    record ScalingZone(
+        Identifier id,
+        RegistryKey<World> dimension,
+        Shape shape,
+        int priority,
+        double originX,
+        double originZ,
+        int chunkStep,
+        double attackAdditive,
+        double healthAdditive
+    ) {
+
+        /**
+         * Orders zones from most to least preferred.
+         *
+         * @since 2.3.0
+         */
+        public static final Comparator<ScalingZone> ORDER = Comparator.comparingInt(ScalingZone::priority)
+            .reversed()
+            .thenComparing(ScalingZone::id);
+
+        /**
+         * Parses a JSON object and creates a new {@link ScalingZone} from the resolved data.
+         *
+         * @param id The zone's identifier.
+         * @param object The JSON object.
+         *
+         * @return A new zone.
+         *
+         * @throws JsonSyntaxException If a field is invalid or missing from the given object.
+         * @since 2.3.0
+         */
+        public static ScalingZone parse(Identifier id, JsonObject object) throws JsonSyntaxException {
+            final String dimensionString = JsonHelper.getString(object, "dimension", "minecraft:overworld");
+            final Identifier dimensionId = Identifier.tryParse(dimensionString);
+
+            if (dimensionId == null) {
+                throw new JsonSyntaxException("Invalid identifier '%s'".formatted(dimensionString));
+            }
+
+            final Shape shape = Shape.parse(JsonHelper.getObject(object, "shape"));
+            final double[] origin = object.has("origin")
+                ? Shape.parsePoint(object.get("origin"), "origin")
+                : new double[] { shape.centerX(), shape.centerZ() };
+            final int chunkStep = JsonHelper.getInt(object, "chunk_step", 0);
+
+            if (chunkStep < 0) throw new JsonSyntaxException("Expected a positive chunk step");
+
+            return new ScalingZone(
+                id,
+                RegistryKey.of(RegistryKeys.WORLD, dimensionId),
+                shape,
+                JsonHelper.getInt(object, "priority", 0),
+                origin[0],
+                origin[1],
+                chunkStep,
+                JsonHelper.getDouble(object, "attack_additive", Double.NaN),
+                JsonHelper.getDouble(object, "health_additive", Double.NaN)
+            );
+        }
+
+        /**
+         * Returns this zone's chunk step, falling back to the given world's configured chunk step.
+         *
+         * @param world The current world.
+         *
+         * @return The chunk step.
+         *
+         * @since 2.3.0
+         */
+        public int getChunkStep(World world) {
+            return this.chunkStep > 0 ? this.chunkStep : ChallengeHelper.getChunkStep(world);
+        }
+
+        /**
+         * Returns the scale factor for a block column within this zone.
+         *
+         * @param world The current world.
+         * @param x The block X position.
+         * @param z The block Z position.
+         *
+         * @return The scale factor.
+         *
+         * @since 2.3.0
+         */
+        public double getScaleFactor(World world, int x, int z) {
+            final double deltaX = x - this.originX;
+            final double deltaZ = z - this.originZ;
+
+            // Zones are defined per dimension, so they are never halved outside the overworld.
+            return (Math.sqrt(deltaX * deltaX + deltaZ * deltaZ) / 16D) / this.getChunkStep(world);
+        }
+
+        /**
+         * The area covered by a scaling zone.
+         *
+         * @author Jaxydog
+         * @since 2.3.0
+         */
+        public sealed interface Shape permits Circle, Box, Polygon {
+
+            /**
+             * Parses a JSON object and creates a new {@link Shape} from the resolved data.
+             *
+             * @param object The JSON object.
+             *
+             * @return A new shape.
+             *
+             * @throws JsonSyntaxException If a field is invalid or missing from the given object.
+             * @since 2.3.0
+             */
+            static Shape parse(JsonObject object) throws JsonSyntaxException {
+                final String type = JsonHelper.getString(object, "type");
+
+                return switch (type) {
+                    case "circle" -> {
+                        final double[] center = parsePoint(JsonHelper.getElement(object, "center"), "center");
+                        final double radius = JsonHelper.getDouble(object, "radius");
+
+                        if (radius <= 0D) throw new JsonSyntaxException("Expected a positive non-zero radius");
+
+                        yield new Circle(center[0], center[1], radius);
+                    }
+                    case "box" -> {
+                        final double[] from = parsePoint(JsonHelper.getElement(object, "from"), "from");
+                        final double[] to = parsePoint(JsonHelper.getElement(object, "to"), "to");
+
+                        yield new Box(
+                            Math.min(from[0], to[0]),
+                            Math.min(from[1], to[1]),
+                            Math.max(from[0], to[0]),
+                            Math.max(from[1], to[1])
+                        );
+                    }
+                    case "polygon" -> {
+                        final JsonArray points = JsonHelper.getArray(object, "points");
+
+                        if (points.size() < 3) throw new JsonSyntaxException("Expected at least three points");
+
+                        final double[] xs = new double[points.size()];
+                        final double[] zs = new double[points.size()];
+
+                        for (int index = 0; index < points.size(); index += 1) {
+                            final double[] point = parsePoint(points.get(index), "points");
+
+                            xs[index] = point[0];
+                            zs[index] = point[1];
+                        }
+
+                        yield Polygon.of(xs, zs);
+                    }
+                    default -> throw new JsonSyntaxException("Unknown shape type '%s'".formatted(type));
+                };
+            }
+
+            /**
+             * Parses a JSON array containing an X and Z position.
+             *
+             * @param element The JSON element.
+             * @param name The element's name, used within error messages.
+             *
+             * @return The parsed position, as an X and Z pair.
+             *
+             * @throws JsonSyntaxException If the element is not an array of two numbers.
+             * @since 2.3.0
+             */
+            static double[] parsePoint(JsonElement element, String name) throws JsonSyntaxException {
+                final JsonArray array = JsonHelper.asArray(element, name);
+
+                if (array.size() != 2) {
+                    throw new JsonSyntaxException("Expected %s to be an [x, z] pair".formatted(name));
+                }
+
+                final double x = JsonHelper.asDouble(array.get(0), name);
+                final double z = JsonHelper.asDouble(array.get(1), name);
+
+                return new double[] { x, z };
+            }
+
+            /**
+             * Returns whether this shape contains the given position.
+             *
+             * @param x The X position.
+             * @param z The Z position.
+             *
+             * @return Whether the position is contained.
+             *
+             * @since 2.3.0
+             */
+            boolean contains(double x, double z);
+
+            /**
+             * Returns the smallest X position of this shape's bounding box.
+             *
+             * @return The minimum X position.
+             *
+             * @since 2.3.0
+             */
+            double minX();
+
+            /**
+             * Returns the smallest Z position of this shape's bounding box.
+             *
+             * @return The minimum Z position.
+             *
+             * @since 2.3.0
+             */
+            double minZ();
+
+            /**
+             * Returns the largest X position of this shape's bounding box.
+             *
+             * @return The maximum X position.
+             *
+             * @since 2.3.0
+             */
+            double maxX();
+
+            /**
+             * Returns the largest Z position of this shape's bounding box.
+             *
+             * @return The maximum Z position.
+             *
+             * @since 2.3.0
+             */
+            double maxZ();
+
+            /**
+             * Returns the X position of the center of this shape's bounding box.
+             *
+             * @return The center X position.
+             *
+             * @since 2.3.0
+             */
+            default double centerX() {
+                return (this.minX() + this.maxX()) / 2D;
+            }
+
+            /**
+             * Returns the Z position of the center of this shape's bounding box.
+             *
+             * @return The center Z position.
+             *
+             * @since 2.3.0
+             */
+            default double centerZ() {
+                return (this.minZ() + this.maxZ()) / 2D;
+            }
+
+        }
+
+        /**
+         * A circular zone shape.
+         *
+         * @param x The center X position.
+         * @param z The center Z position.
+         * @param radius The circle's radius.
+         *
+         * @author Jaxydog
+         * @since 2.3.0
+         */
+        public record Circle(double x, double z, double radius) implements Shape {
+
+            @Override
+            public boolean contains(double x, double z) {
+                final double deltaX = x - this.x;
+                final double deltaZ = z - this.z;
+
+                return deltaX * deltaX + deltaZ * deltaZ <= this.radius * this.radius;
+            }
+
+            @Override
+            public double minX() {
+                return this.x - this.radius;
+            }
+
+            @Override
+            public double minZ() {
+                return this.z - this.radius;
+            }
+
+            @Override
+            public double maxX() {
+                return this.x + this.radius;
+            }
+
+            @Override
+            public double maxZ() {
+                return this.z + this.radius;
+            }
+
+        }
+
+        /**
+         * An axis-aligned rectangular zone shape.
+         *
+         * @param minX The minimum X position.
+         * @param minZ The minimum Z position.
+         * @param maxX The maximum X position.
+         * @param maxZ The maximum Z position.
+         *
+         * @author Jaxydog
+         * @since 2.3.0
+         */
+        public record Box(double minX, double minZ, double maxX, double maxZ) implements Shape {
+
+            @Override
+            public boolean contains(double x, double z) {
+                return x >= this.minX && x <= this.maxX && z >= this.minZ && z <= this.maxZ;
+            }
+
+        }
+
+        /**
+         * A simple polygonal zone shape, whose bounding box is pre-computed.
+         *
+         * @param xs The X position of each vertex.
+         * @param zs The Z position of each vertex.
+         * @param minX The minimum X position.
+         * @param minZ The minimum Z position.
+         * @param maxX The maximum X position.
+         * @param maxZ The maximum Z position.
+         *
+         * @author Jaxydog
+         * @since 2.3.0
+         */
+        public record Polygon(
+            double[] xs, double[] zs, double minX, double minZ, double maxX, double maxZ
+        ) implements Shape {
+
+            /**
+             * Creates a new polygon from the given vertices.
+             *
+             * @param xs The X position of each vertex.
+             * @param zs The Z position of each vertex.
+             *
+             * @return A new polygon.
+             *
+             * @since 2.3.0
+             */
+            public static Polygon of(double[] xs, double[] zs) {
+                double minX = Double.POSITIVE_INFINITY;
+                double minZ = Double.POSITIVE_INFINITY;
+                double maxX = Double.NEGATIVE_INFINITY;
+                double maxZ = Double.NEGATIVE_INFINITY;
+
+                for (int index = 0; index < xs.length; index += 1) {
+                    minX = Math.min(minX, xs[index]);
+                    minZ = Math.min(minZ, zs[index]);
+                    maxX = Math.max(maxX, xs[index]);
+                    maxZ = Math.max(maxZ, zs[index]);
+                }
+
+                return new Polygon(xs, zs, minX, minZ, maxX, maxZ);
+            }
+
+            @Override
+            public boolean contains(double x, double z) {
+                if (x < this.minX || x > this.maxX || z < this.minZ || z > this.maxZ) return false;
+
+                boolean inside = false;
+
+                // Counts the edges crossed by a ray cast along the X axis, using the even-odd rule.
+                for (int index = 0, last = this.xs.length - 1; index < this.xs.length; last = index, index += 1) {
+                    final double z1 = this.zs[index];
+                    final double z2 = this.zs[last];
+
+                    if ((z1 > z) == (z2 > z)) continue;
+
+                    final double x1 = this.xs[index];
+                    final double x2 = this.xs[last];
+
+                    if (x < (x2 - x1) * (z - z1) / (z2 - z1) + x1) inside = !inside;
+                }
+
+                return inside;
+            }
+
+        }
+
+    }
+
+    /**
+     * An immutable spatial index of every loaded {@link ScalingZone}, built once per reload.
+     * <p>
+     * Each dimension's zones are stored within a hierarchical grid. Every zone is placed within the finest level whose
+     * cells are large enough that the zone's bounding box overlaps at most two cells along each axis, so a lookup only
+     * needs one hash lookup per non-empty level and a scan of that cell's few overlapping zones.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class ScalingZones {
+
+        /**
+         * An index containing no zones.
+         *
+         * @since 2.3.0
+         */
+        public static final ScalingZones EMPTY = new ScalingZones(Map.of(), 0);
+
+        /**
+         * The bit shift of the finest level's cell size, which is 256 blocks.
+         *
+         * @since 2.3.0
+         */
+        private static final int MIN_SHIFT = 8;
+        /**
+         * The bit shift of the coarsest level's cell size, which spans the entire world in two cells per axis.
+         *
+         * @since 2.3.0
+         */
+        private static final int MAX_SHIFT = 26;
+        /**
+         * The increase in bit shift between each level, making each level eight times coarser than the last.
+         *
+         * @since 2.3.0
+         */
+        private static final int SHIFT_STEP = 3;
+        /**
+         * The furthest horizontal position that zones are indexed up to.
+         *
+         * @since 2.3.0
+         */
+        private static final int WORLD_LIMIT = 30_000_000;
+
+        /**
+         * The currently active index.
+         *
+         * @since 2.3.0
+         */
+        private static volatile ScalingZones current = EMPTY;
+
+        /**
+         * The grid levels of each dimension, from finest to coarsest, containing only non-empty levels.
+         *
+         * @since 2.3.0
+         */
+        private final Map<RegistryKey<World>, Level[]> dimensions;
+        /**
+         * The total number of indexed zones.
+         *
+         * @since 2.3.0
+         */
+        private final int size;
+
+        /**
+         * Creates a new index.
+         *
+         * @param dimensions The grid levels of each dimension.
+         * @param size The total number of indexed zones.
+         *
+         * @since 2.3.0
+         */
+        private ScalingZones(Map<RegistryKey<World>, Level[]> dimensions, int size) {
+            this.dimensions = dimensions;
+            this.size = size;
+        }
+
+        /**
+         * Returns the currently active index.
+         *
+         * @return The currently active index.
+         *
+         * @since 2.3.0
+         */
+        public static ScalingZones get() {
+            return current;
+        }
+
+        /**
+         * Sets the currently active index.
+         *
+         * @param index The new index.
+         *
+         * @since 2.3.0
+         */
+        public static void load(ScalingZones index) {
+            current = index;
+        }
+
+        /**
+         * Builds a new index from the given zones.
+         *
+         * @param zones The zones.
+         *
+         * @return A new index.
+         *
+         * @since 2.3.0
+         */
+        public static ScalingZones compile(Collection<ScalingZone> zones) {
+            final Map<RegistryKey<World>, List<Long2ObjectOpenHashMap<List<ScalingZone>>>> cells;
+
+            cells = new Object2ObjectOpenHashMap<>();
+
+            for (final ScalingZone zone : zones) {
+                final ScalingZone.Shape shape = zone.shape();
+                final int minX = clamp(Math.floor(shape.minX()));
+                final int minZ = clamp(Math.floor(shape.minZ()));
+                final int maxX = clamp(Math.ceil(shape.maxX()));
+                final int maxZ = clamp(Math.ceil(shape.maxZ()));
+                int shift = MIN_SHIFT;
+
+                while (shift < MAX_SHIFT && ((maxX >> shift) - (minX >> shift) > 1
+                    || (maxZ >> shift) - (minZ >> shift) > 1)) {
+                    shift += SHIFT_STEP;
+                }
+
+                final List<Long2ObjectOpenHashMap<List<ScalingZone>>> levels = cells.computeIfAbsent(
+                    zone.dimension(),
+                    key -> new ObjectArrayList<>()
+                );
+                final int level = (shift - MIN_SHIFT) / SHIFT_STEP;
+
+                while (levels.size() <= level) levels.add(new Long2ObjectOpenHashMap<>());
+
+                for (int cellX = minX >> shift; cellX <= maxX >> shift; cellX += 1) {
+                    for (int cellZ = minZ >> shift; cellZ <= maxZ >> shift; cellZ += 1) {
+                        levels.get(level)
+                            .computeIfAbsent(ChunkPos.toLong(cellX, cellZ), key -> new ObjectArrayList<>())
+                            .add(zone);
+                    }
+                }
+            }
+
+            final Map<RegistryKey<World>, Level[]> dimensions = new Object2ObjectOpenHashMap<>(cells.size());
+
+            cells.forEach((dimension, levels) -> {
+                final List<Level> compiled = new ObjectArrayList<>(levels.size());
+
+                for (int level = 0; level < levels.size(); level += 1) {
+                    if (levels.get(level).isEmpty()) continue;
+
+                    final Long2ObjectOpenHashMap<ScalingZone[]> compiledCells = new Long2ObjectOpenHashMap<>();
+
+                    // Sort each cell by preference, so that lookups may stop at the first matching zone.
+                    levels.get(level).long2ObjectEntrySet().forEach(entry -> {
+                        final ScalingZone[] sorted = entry.getValue().toArray(ScalingZone[]::new);
+
+                        Arrays.sort(sorted, ScalingZone.ORDER);
+                        compiledCells.put(entry.getLongKey(), sorted);
+                    });
+
+                    compiledCells.trim();
+                    compiled.add(new Level(MIN_SHIFT + level * SHIFT_STEP, compiledCells));
+                }
+
+                dimensions.put(dimension, compiled.toArray(Level[]::new));
+            });
+
+            return new ScalingZones(dimensions, zones.size());
+        }
+
+        /**
+         * Clamps the given position to the indexed area.
+         *
+         * @param position The position.
+         *
+         * @return The clamped position.
+         *
+         * @since 2.3.0
+         */
+        private static int clamp(double position) {
+            return (int) Math.max(-WORLD_LIMIT, Math.min(WORLD_LIMIT, position));
+        }
+
+        /**
+         * Returns the total number of indexed zones.
+         *
+         * @return The number of zones.
+         *
+         * @since 2.3.0
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Returns the most preferred zone that contains the given block column, if any.
+         *
+         * @param world The current world.
+         * @param x The block X position.
+         * @param z The block Z position.
+         *
+         * @return The containing zone, or {@code null} if the column is not within any zone.
+         *
+         * @since 2.3.0
+         */
+        public @Nullable ScalingZone find(World world, int x, int z) {
+            if (this.size == 0) return null;
+
+            final Level[] levels = this.dimensions.get(world.getRegistryKey());
+
+            if (levels == null) return null;
+
+            final int clampedX = clamp(x);
+            final int clampedZ = clamp(z);
+            // Test against the center of the block column.
+            final double centerX = x + 0.5D;
+            final double centerZ = z + 0.5D;
+            ScalingZone found = null;
+
+            for (final Level level : levels) {
+                final ScalingZone[] cell = level.cells().get(ChunkPos.toLong(
+                    clampedX >> level.shift(),
+                    clampedZ >> level.shift()
+                ));
+
+                if (cell == null) continue;
+
+                for (final ScalingZone zone : cell) {
+                    // Cells are sorted, so no later zone within this cell may be preferred.
+                    if (found != null && ScalingZone.ORDER.compare(zone, found) >= 0) break;
+
+                    if (zone.shape().contains(centerX, centerZ)) {
+                        found = zone;
+
+                        break;
+                    }
+                }
+            }
+
+            return found;
+        }
+
+        /**
+         * A single level of a dimension's grid.
+         *
+         * @param shift The bit shift of this level's cell size.
+         * @param cells The zones overlapping each cell, keyed by packed cell position and sorted by preference.
+         *
+         * @author Jaxydog
+         * @since 2.3.0
+         */
+        private record Level(int shift, Long2ObjectOpenHashMap<ScalingZone[]> cells) { }
+
+    }
+
+    /**
+     * A pre-computed table of which entity types are within the {@link #SCALED_ENTITIES} tag.
+     * <p>
+     * The table is indexed by each type's raw identifier, and is rebuilt whenever tags are reloaded.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class ScaledEntityTypes {
+
+        /**
+         * Whether each entity type is scaled, indexed by raw identifier, or {@code null} if it must be rebuilt.
+         *
+         * @since 2.3.0
+         */
+        private static volatile boolean @Nullable [] table;
+
+        /**
+         * Prevents this class from being instantiated.
+         *
+         * @since 2.3.0
+         */
+        private ScaledEntityTypes() { }
+
+        /**
+         * Returns whether the given entity type is within the {@link #SCALED_ENTITIES} tag.
+         *
+         * @param type The entity type.
+         *
+         * @return Whether the entity type is scaled.
+         *
+         * @since 2.3.0
+         */
+        public static boolean contains(EntityType<?> type) {
+            boolean[] table = ScaledEntityTypes.table;
+
+            if (table == null) table = rebuild();
+
+            final int index = Registries.ENTITY_TYPE.getRawId(type);
+
+            // Fall back to the tag itself for any type that was registered after the table was built.
+            return index >= 0 && index < table.length ? table[index] : type.isIn(SCALED_ENTITIES);
+        }
+
+        /**
+         * Rebuilds the table from the current contents of the {@link #SCALED_ENTITIES} tag.
+         *
+         * @return The rebuilt table.
+         *
+         * @since 2.3.0
+         */
+        public static boolean[] rebuild() {
+            final boolean[] table = new boolean[Registries.ENTITY_TYPE.size()];
+
+            for (final EntityType<?> type : Registries.ENTITY_TYPE) {
+                final int index = Registries.ENTITY_TYPE.getRawId(type);
+
+                if (index >= 0 && index < table.length) table[index] = type.isIn(SCALED_ENTITIES);
+            }
+
+            ScaledEntityTypes.table = table;
+
+            return table;
+        }
+
+    }
+
 }
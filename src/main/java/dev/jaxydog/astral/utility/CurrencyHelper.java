@@ -20,26 +20,47 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
 import dev.jaxydog.astral.Astral;
 import dev.jaxydog.astral.content.AstralGamerules;
+import dev.jaxydog.astral.content.item.custom.CurrencyPouchItem;
+import dev.jaxydog.astral.utility.audit.AuditFormat.Kind;
+import dev.jaxydog.astral.utility.audit.ExchangeAuditLog;
+import it.unimi.dsi.fastutil.ints.Int2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMaps;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.inventory.Inventory;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.registry.Registries;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Hand;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.JsonHelper;
 import net.minecraft.util.Pair;
-import net.minecraft.util.collection.WeightedList;
 import net.minecraft.util.math.random.Random;
+import net.minecraft.world.World;
 import org.jetbrains.annotations.ApiStatus.NonExtendable;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.stream.Stream;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Provides types, fields, and methods for the mod's currency system.
@@ -77,6 +98,23 @@ public interface CurrencyHelper {
         return !compound.contains(EXCHANGE_KEY) || compound.getBoolean(EXCHANGE_KEY);
     }
 
+    /**
+     * Returns whether the given item stack is a currency unit or reward.
+     *
+     * @param stack The item stack.
+     *
+     * @return Whether the given item stack is a currency unit or reward.
+     *
+     * @since 2.3.0
+     */
+    static boolean isCurrency(ItemStack stack) {
+        if (stack.isEmpty()) return false;
+
+        final Item item = stack.getItem();
+
+        return Unit.UNITS.find(item).isPresent() || Reward.REWARDS.find(item).isPresent();
+    }
+
     /**
      * Drops rewards to the provided player entity.
      *
@@ -86,27 +124,74 @@ public interface CurrencyHelper {
      * @since 2.0.0
      */
     static void dropRewards(PlayerEntity player, int rolls) {
-        if (Reward.REWARDS.isEmpty()) return;
+        final ExchangePlan plan = new ExchangePlan();
 
-        final Random random = player.getRandom();
-        final double chance = player.getWorld().getGameRules().get(AstralGamerules.CURRENCY_REWARD_CHANCE).get();
+        planRewardDrops(plan, player.getRandom(), getRewardChance(player), rolls);
 
-        int count = 0;
+        plan.apply(player);
+    }
 
-        for (int iteration = 0; iteration < rolls; iteration += 1) {
-            if (random.nextDouble() <= chance) count += 1;
-        }
+    /**
+     * Returns the chance of receiving a reward from currency conversions within the player's world.
+     *
+     * @param player The target player entity.
+     *
+     * @return The chance of receiving a reward.
+     *
+     * @since 2.3.0
+     */
+    static double getRewardChance(PlayerEntity player) {
+        return getRewardChance(player.getWorld());
+    }
+
+    /**
+     * Returns the chance of receiving a reward from currency conversions within the given world.
+     *
+     * @param world The current world.
+     *
+     * @return The chance of receiving a reward.
+     *
+     * @since 2.3.0
+     */
+    static double getRewardChance(World world) {
+        return AstralGamerules.Snapshot.get(world).currencyRewardChance();
+    }
 
-        final List<Reward> rewards = Reward.getRandom(count);
-        final PlayerInventory inventory = player.getInventory();
+    /**
+     * Automatically exchanges currency items within the inventories of every player whose inventory has received
+     * currency items since the last exchange.
+     * <p>
+     * This is expected to be called once at the end of every server tick.
+     *
+     * @param server The current server.
+     *
+     * @since 2.3.0
+     */
+    static void tryExchangeChanged(MinecraftServer server) {
+        for (final ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+            if (player.getInventory().astral$consumeCurrencyChanged()) tryExchange(player);
+        }
+    }
 
-        for (final Reward reward : rewards) {
-            inventory.offerOrDrop(reward.getItem().getDefaultStack());
+    /**
+     * Marks the inventories of every player on the server as changed, causing them to be exchanged at the end of the
+     * current tick.
+     *
+     * @param server The current server.
+     *
+     * @since 2.3.0
+     */
+    static void markAllChanged(MinecraftServer server) {
+        for (final ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+            player.getInventory().astral$markCurrencyChanged();
         }
     }
 
     /**
      * Automatically exchanges currency items within a player's inventory.
+     * <p>
+     * The inventory is counted once, every exchange is planned against those counts, and the resulting plan is then
+     * applied in a single pass.
      *
      * @param player The target player entity.
      *
@@ -115,38 +200,58 @@ public interface CurrencyHelper {
     static void tryExchange(PlayerEntity player) {
         if (player.getWorld().isClient()) return;
 
-        // Collect a list of stacks within the inventory.
-        final PlayerInventory inventory = player.getInventory();
-        final List<ItemStack> stacks = new ObjectArrayList<>();
+        final ExchangePlan plan = new ExchangePlan();
+
+        planExchange(plan, player.getInventory(), player.getRandom(), getRewardChance(player));
+
+        plan.apply(player);
+    }
 
+    /**
+     * Plans the exchange of every currency item within the given inventory.
+     * <p>
+     * If the inventory contains a currency pouch, units are deposited into the first pouch found rather than being
+     * exchanged as stacks.
+     *
+     * @param plan The exchange plan.
+     * @param inventory The inventory.
+     * @param random The random number generator used for reward drops.
+     * @param rewardChance The chance of receiving a reward for each crafted unit.
+     *
+     * @return Whether any exchanges were planned.
+     *
+     * @since 2.3.0
+     */
+    static boolean planExchange(ExchangePlan plan, Inventory inventory, Random random, double rewardChance) {
+        // Read every structure from the same snapshot, in case a reload is published mid-exchange.
+        final CurrencySnapshot snapshot = CurrencySnapshot.get();
+        final ExchangeGraph graph = snapshot.getGraph();
+        final SkeletonSolver solver = snapshot.getSolver();
+        final int[] units = new int[graph.size()];
+        final int[] rewards = new int[solver.getRewardCount()];
+        ItemStack pouch = null;
+
+        // Count all units and rewards, ignoring stacks that cannot be exchanged.
         for (int slot = 0; slot < inventory.size(); slot += 1) {
             final ItemStack stack = inventory.getStack(slot);
 
-            if (!stack.isEmpty()) stacks.add(stack);
-        }
+            if (pouch == null && CurrencyPouchItem.isPouch(stack)) pouch = stack;
+            if (stack.isEmpty() || !canExchange(stack)) continue;
 
-        // Find all stacks associated with currency units.
-        final List<Pair<ItemStack, Unit>> units = stacks.stream()
-            .flatMap(s -> Unit.UNITS.find(s).stream().map(u -> new Pair<>(s, u)))
-            .toList();
+            final int unit = snapshot.getUnits().find(stack).map(graph::indexOf).orElse(-1);
 
-        // Re-compute the stack array if the inventory was changed.
-        if (tryExchangeUnits(player, units)) {
-            stacks.clear();
+            if (unit >= 0) units[unit] += stack.getCount();
 
-            for (int slot = 0; slot < inventory.size(); slot += 1) {
-                final ItemStack stack = inventory.getStack(slot);
+            final int reward = snapshot.getRewards().find(stack).map(solver::indexOf).orElse(-1);
 
-                if (!stack.isEmpty()) stacks.add(stack);
-            }
+            if (reward >= 0) rewards[reward] += stack.getCount();
         }
 
-        // Find all stacks associated with currency units.
-        final List<Pair<ItemStack, Reward>> rewards = stacks.stream()
-            .flatMap(s -> Reward.REWARDS.find(s).stream().map(r -> new Pair<>(s, r)))
-            .toList();
+        final boolean plannedUnits = pouch == null
+            ? planUnits(plan, graph, units, random, rewardChance)
+            : planDeposit(plan, snapshot, pouch, units, random, rewardChance);
 
-        tryExchangeRewards(player, rewards);
+        return planRewards(plan, solver, rewards) || plannedUnits;
     }
 
     /**
@@ -160,363 +265,2811 @@ public interface CurrencyHelper {
      * @since 2.0.0
      */
     static boolean tryExchangeUnits(PlayerEntity player, List<Pair<ItemStack, Unit>> pairs) {
-        final Map<Unit, Integer> counts = new Object2IntOpenHashMap<>(pairs.size());
+        final ExchangeGraph graph = ExchangeGraph.get();
+        final int[] counts = new int[graph.size()];
 
         // Count all units, ignoring stacks that cannot be exchanged.
         for (final Pair<ItemStack, Unit> pair : pairs) {
-            final ItemStack stack = pair.getLeft();
-            final Unit unit = pair.getRight();
+            final int index = graph.indexOf(pair.getRight());
+
+            if (index >= 0 && canExchange(pair.getLeft())) counts[index] += pair.getLeft().getCount();
+        }
+
+        final ExchangePlan plan = new ExchangePlan();
+
+        planUnits(plan, graph, counts, player.getRandom(), getRewardChance(player));
+
+        return plan.apply(player);
+    }
+
+    /**
+     * Automatically exchanges currency rewards within a player's inventory.
+     *
+     * @param player The target player entity.
+     * @param pairs Pairs of item stacks, and their associated rewards.
+     *
+     * @return Whether the player's inventory was modified.
+     *
+     * @since 2.0.0
+     */
+    static boolean tryExchangeRewards(PlayerEntity player, List<Pair<ItemStack, Reward>> pairs) {
+        final SkeletonSolver solver = SkeletonSolver.get();
+        final int[] counts = new int[solver.getRewardCount()];
+
+        // Count all required rewards, ignoring stacks that cannot be exchanged.
+        for (final Pair<ItemStack, Reward> pair : pairs) {
+            final int index = solver.indexOf(pair.getRight());
+
+            if (index >= 0 && canExchange(pair.getLeft())) counts[index] += pair.getLeft().getCount();
+        }
+
+        final ExchangePlan plan = new ExchangePlan();
+
+        planRewards(plan, solver, counts);
+
+        return plan.apply(player);
+    }
+
+    /**
+     * Splits one of the currency units held within the given hand into the fewest lower denominations.
+     * <p>
+     * The change of every unit is solved when currency data is loaded, so this only requires a table lookup.
+     *
+     * @param player The target player entity.
+     * @param hand The hand holding the unit.
+     *
+     * @return Whether the unit was split.
+     *
+     * @since 2.3.0
+     */
+    static boolean makeChange(PlayerEntity player, Hand hand) {
+        final ItemStack stack = player.getStackInHand(hand);
+
+        if (stack.isEmpty()) return false;
+
+        final CurrencySnapshot snapshot = CurrencySnapshot.get();
+        final ExchangeGraph graph = snapshot.getGraph();
+        final int index = snapshot.getUnits().find(stack).map(graph::indexOf).orElse(-1);
+
+        if (index < 0 || graph.getChangeSize(index) == 0) return false;
+
+        final Item unit = stack.getItem();
+
+        stack.decrement(1);
+
+        for (int entry = 0; entry < graph.getChangeSize(index); entry += 1) {
+            final Item item = graph.getUnit(graph.getChangeUnit(index, entry)).getItem();
+            int remaining = graph.getChangeCount(index, entry);
+
+            ExchangeAuditLog.record(player.getUuid(), Kind.CHANGE, unit, 1, item, remaining);
+
+            while (remaining > 0) {
+                final ItemStack change = new ItemStack(item, Math.min(remaining, item.getMaxCount()));
+
+                // Mirror crafted change, which is never automatically exchanged back.
+                change.getOrCreateNbt().putBoolean(EXCHANGE_KEY, false);
+                remaining -= change.getCount();
+
+                player.getInventory().offerOrDrop(change);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Plans the exchange of the given unit counts.
+     *
+     * @param plan The exchange plan.
+     * @param graph The exchange graph.
+     * @param counts The held unit counts, indexed by their dense identifier within the graph.
+     * @param random The random number generator used for reward drops.
+     * @param rewardChance The chance of receiving a reward for each crafted unit.
+     *
+     * @return Whether any exchanges were planned.
+     *
+     * @since 2.3.0
+     */
+    static boolean planUnits(ExchangePlan plan, ExchangeGraph graph, int[] counts, Random random, double rewardChance) {
+        boolean planned = false;
+
+        for (int index = 0; index < counts.length; index += 1) {
+            // The price is zero if this unit cannot be exchanged.
+            final int price = graph.getPrice(index);
+
+            if (counts[index] == 0 || price == 0) continue;
+
+            final int total = counts[index] / price;
+
+            if (total == 0) continue;
+
+            final Item item = graph.getUnit(index).getItem();
+            final Unit next = graph.getUnit(graph.getNext(index, true));
+
+            plan.remove(item, total * price);
+            plan.insert(next.getItem(), total);
+            plan.log(Kind.EXCHANGE, item, total * price, next.getItem(), total);
+
+            if (next.dropRewards()) planRewardDrops(plan, random, rewardChance, total);
+
+            planned = true;
+        }
+
+        return planned;
+    }
+
+    /**
+     * Plans the deposit of the given unit counts into a currency pouch, normalizing the pouch's balance.
+     * <p>
+     * Units that are no longer configured are kept within the balance as-is, in case they return after a reload.
+     *
+     * @param plan The exchange plan.
+     * @param snapshot The currency snapshot.
+     * @param pouch The pouch stack.
+     * @param counts The held unit counts, indexed by their dense identifier within the snapshot's graph.
+     * @param random The random number generator used for reward drops.
+     * @param rewardChance The chance of receiving a reward for each crafted unit.
+     *
+     * @return Whether any deposits or exchanges were planned.
+     *
+     * @since 2.3.0
+     */
+    static boolean planDeposit(
+        ExchangePlan plan, CurrencySnapshot snapshot, ItemStack pouch, int[] counts, Random random, double rewardChance
+    ) {
+        final ExchangeGraph graph = snapshot.getGraph();
+        final Object2LongLinkedOpenHashMap<Identifier> balance = CurrencyPouchItem.getBalance(pouch);
+
+        if (!planBalance(plan, snapshot, balance, counts, random, rewardChance)) return false;
+
+        // The deposited units are removed from the inventory that holds the pouch.
+        for (int index = 0; index < counts.length; index += 1) {
+            plan.remove(graph.getUnit(index).getItem(), counts[index]);
+        }
+
+        plan.deposit(pouch, balance);
 
-            if (canExchange(stack)) counts.merge(unit, stack.getCount(), Integer::sum);
+        return true;
+    }
+
+    /**
+     * Plans the deposit of the given unit counts into the given balance, normalizing the balance in-place.
+     * <p>
+     * The deposited units are only logged, and must be removed from wherever they are held by the caller. Units that
+     * are no longer configured are kept within the balance as-is, in case they return after a reload.
+     *
+     * @param plan The exchange plan.
+     * @param snapshot The currency snapshot.
+     * @param balance The stored unit counts, keyed by unit identifier.
+     * @param counts The deposited unit counts, indexed by their dense identifier within the snapshot's graph.
+     * @param random The random number generator used for reward drops.
+     * @param rewardChance The chance of receiving a reward for each crafted unit.
+     *
+     * @return Whether any deposits or exchanges were planned.
+     *
+     * @since 2.3.0
+     */
+    static boolean planBalance(
+        ExchangePlan plan,
+        CurrencySnapshot snapshot,
+        Object2LongLinkedOpenHashMap<Identifier> balance,
+        int[] counts,
+        Random random,
+        double rewardChance
+    ) {
+        final ExchangeGraph graph = snapshot.getGraph();
+        final long[] totals = readBalance(snapshot, balance);
+        boolean deposited = false;
+
+        for (int index = 0; index < counts.length; index += 1) {
+            if (counts[index] == 0) continue;
+
+            plan.log(Kind.DEPOSIT, graph.getUnit(index).getItem(), counts[index], null, 0);
+
+            totals[index] += counts[index];
+            deposited = true;
+        }
+
+        // The balance is renormalized even without deposits, since the exchange rates may have been reloaded.
+        if (!planNormalize(plan, graph, totals, random, rewardChance) && !deposited) return false;
+
+        writeBalance(snapshot, balance, totals);
+
+        return true;
+    }
+
+    /**
+     * Plans the normalization of the given unit totals, exchanging them upwards in-place.
+     *
+     * @param plan The exchange plan.
+     * @param graph The exchange graph.
+     * @param totals The unit totals, indexed by their dense identifier within the graph.
+     * @param random The random number generator used for reward drops.
+     * @param rewardChance The chance of receiving a reward for each crafted unit, or {@code 0} to skip reward drops.
+     *
+     * @return Whether any exchanges were planned.
+     *
+     * @since 2.3.0
+     */
+    static boolean planNormalize(
+        ExchangePlan plan, ExchangeGraph graph, long[] totals, Random random, double rewardChance
+    ) {
+        final long[] exchanged = new long[graph.size()];
+
+        if (!graph.normalize(totals, exchanged)) return false;
+
+        for (int index = 0; index < totals.length; index += 1) {
+            if (exchanged[index] == 0L) continue;
+
+            final Unit unit = graph.getUnit(index);
+            final Unit next = graph.getUnit(graph.getNext(index, true));
+            final int total = (int) Math.min(exchanged[index], Integer.MAX_VALUE);
+            final int spent = (int) Math.min((long) total * graph.getPrice(index), Integer.MAX_VALUE);
+
+            plan.log(Kind.EXCHANGE, unit.getItem(), spent, next.getItem(), total);
+
+            if (next.dropRewards() && rewardChance > 0D) planRewardDrops(plan, random, rewardChance, total);
+        }
+
+        return true;
+    }
+
+    /**
+     * Plans splitting the given unit totals into change in-place, until at least {@code requested} of the target unit
+     * are held or no further units can be split into it.
+     * <p>
+     * The least valuable unit that can be split into the target unit is always split first.
+     *
+     * @param plan The exchange plan.
+     * @param graph The exchange graph.
+     * @param totals The unit totals, indexed by their dense identifier within the graph.
+     * @param target The dense identifier of the target unit.
+     * @param requested The requested number of the target unit.
+     *
+     * @since 2.3.0
+     */
+    static void planChange(ExchangePlan plan, ExchangeGraph graph, long[] totals, int target, long requested) {
+        final long[] splits = new long[graph.size()];
+
+        while (totals[target] < requested) {
+            final int split = graph.findSplittable(totals, target);
+
+            if (split < 0) break;
+
+            totals[split] -= 1;
+            splits[split] += 1;
+
+            for (int entry = 0; entry < graph.getChangeSize(split); entry += 1) {
+                totals[graph.getChangeUnit(split, entry)] += graph.getChangeCount(split, entry);
+            }
+        }
+
+        for (int index = 0; index < splits.length; index += 1) {
+            if (splits[index] == 0L) continue;
+
+            final Item item = graph.getUnit(index).getItem();
+            final int count = (int) Math.min(splits[index], Integer.MAX_VALUE);
+
+            for (int entry = 0; entry < graph.getChangeSize(index); entry += 1) {
+                final Item change = graph.getUnit(graph.getChangeUnit(index, entry)).getItem();
+                final long changed = splits[index] * graph.getChangeCount(index, entry);
+
+                plan.log(Kind.CHANGE, item, count, change, (int) Math.min(changed, Integer.MAX_VALUE));
+            }
+        }
+    }
+
+    /**
+     * Returns the stored count of every unit within the given balance, indexed by their dense identifier within the
+     * snapshot's graph.
+     * <p>
+     * Units that are no longer configured are skipped.
+     *
+     * @param snapshot The currency snapshot.
+     * @param balance The stored unit counts, keyed by unit identifier.
+     *
+     * @return The stored unit counts.
+     *
+     * @since 2.3.0
+     */
+    static long[] readBalance(CurrencySnapshot snapshot, Object2LongLinkedOpenHashMap<Identifier> balance) {
+        final ExchangeGraph graph = snapshot.getGraph();
+        final long[] totals = new long[graph.size()];
+
+        for (final Object2LongMap.Entry<Identifier> entry : balance.object2LongEntrySet()) {
+            final int index = snapshot.getUnits().get(entry.getKey()).map(graph::indexOf).orElse(-1);
+
+            if (index >= 0) totals[index] += entry.getLongValue();
+        }
+
+        return totals;
+    }
+
+    /**
+     * Stores the given count of every unit into the given balance, removing units with a count of zero.
+     * <p>
+     * Units that are no longer configured are kept within the balance as-is, in case they return after a reload.
+     *
+     * @param snapshot The currency snapshot.
+     * @param balance The stored unit counts, keyed by unit identifier.
+     * @param totals The unit counts, indexed by their dense identifier within the snapshot's graph.
+     *
+     * @since 2.3.0
+     */
+    static void writeBalance(
+        CurrencySnapshot snapshot, Object2LongLinkedOpenHashMap<Identifier> balance, long[] totals
+    ) {
+        final ExchangeGraph graph = snapshot.getGraph();
+
+        for (int index = 0; index < totals.length; index += 1) {
+            final Optional<Identifier> unitId = snapshot.getUnits().getId(graph.getUnit(index));
+
+            if (unitId.isEmpty()) continue;
+
+            if (totals[index] == 0L) {
+                balance.removeLong(unitId.get());
+            } else {
+                balance.put(unitId.get(), totals[index]);
+            }
+        }
+    }
+
+    /**
+     * Plans the crafting of skeletons from the given reward counts.
+     *
+     * @param plan The exchange plan.
+     * @param solver The skeleton solver.
+     * @param counts The held reward counts, indexed by their dense identifier within the solver.
+     *
+     * @return Whether any exchanges were planned.
+     *
+     * @since 2.3.0
+     */
+    static boolean planRewards(ExchangePlan plan, SkeletonSolver solver, int[] counts) {
+        if (solver.size() == 0) return false;
+
+        final int[] remaining = counts.clone();
+        final int[] crafted = solver.solve(remaining);
+        boolean planned = false;
+
+        // Remove all consumed reward items.
+        for (int index = 0; index < counts.length; index += 1) {
+            if (counts[index] == remaining[index]) continue;
+
+            final Item item = solver.getReward(index).getItem();
+
+            plan.remove(item, counts[index] - remaining[index]);
+            plan.log(Kind.CONSUME, item, counts[index] - remaining[index], null, 0);
+        }
+
+        // Give all produced skeleton items.
+        for (int index = 0; index < crafted.length; index += 1) {
+            if (crafted[index] == 0) continue;
+
+            final Item item = solver.getSkeleton(index).getItem();
+
+            plan.insert(item, crafted[index]);
+            plan.log(Kind.CRAFT, null, 0, item, crafted[index]);
+
+            planned = true;
+        }
+
+        return planned;
+    }
+
+    /**
+     * Plans the given number of reward rolls.
+     *
+     * @param plan The exchange plan.
+     * @param random The random number generator.
+     * @param chance The chance of each roll producing a reward.
+     * @param rolls The attempts at rolling a reward.
+     *
+     * @since 2.3.0
+     */
+    static void planRewardDrops(ExchangePlan plan, Random random, double chance, int rolls) {
+        final RewardSampler sampler = RewardSampler.get();
+
+        if (sampler.size() == 0) return;
+
+        final int count = RewardSampler.sampleBinomial(random, rolls, chance);
+
+        if (count == 0) return;
+
+        final int[] counts = sampler.sampleCounts(random, count);
+
+        for (int index = 0; index < counts.length; index += 1) {
+            if (counts[index] == 0) continue;
+
+            final Item item = sampler.getReward(index).getItem();
+
+            plan.insert(item, counts[index]);
+            plan.log(Kind.DROP, null, 0, item, counts[index]);
         }
+    }
+
+    /**
+     * A planned set of currency item removals and insertions, applied to an inventory all at once.
+     * <p>
+     * Removals only ever consume stacks that {@link #canExchange(ItemStack) may be exchanged}, and insertions always
+     * create default stacks of their item. Each planned exchange may also be logged, which is published to the
+     * {@link ExchangeAuditLog} once the plan is applied to a player.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class ExchangePlan {
+
+        /**
+         * The number of integers used to store each logged exchange.
+         *
+         * @since 2.3.0
+         */
+        private static final int EVENT_WIDTH = 5;
+
+        /**
+         * The number of each item to remove.
+         *
+         * @since 2.3.0
+         */
+        private final Reference2IntLinkedOpenHashMap<Item> removals = new Reference2IntLinkedOpenHashMap<>();
+        /**
+         * The number of each item to insert.
+         *
+         * @since 2.3.0
+         */
+        private final Reference2IntLinkedOpenHashMap<Item> insertions = new Reference2IntLinkedOpenHashMap<>();
+        /**
+         * The logged exchanges, stored as consecutive groups of {@link #EVENT_WIDTH} integers.
+         *
+         * @since 2.3.0
+         */
+        private final IntArrayList events = new IntArrayList();
+
+        /**
+         * The currency pouch whose balance is replaced, if any.
+         *
+         * @since 2.3.0
+         */
+        private @Nullable ItemStack pouch;
+        /**
+         * The pouch's new balance, if any.
+         *
+         * @since 2.3.0
+         */
+        private @Nullable Object2LongLinkedOpenHashMap<Identifier> balance;
+
+        /**
+         * Plans the removal of the given number of items.
+         *
+         * @param item The item.
+         * @param count The number of items.
+         *
+         * @since 2.3.0
+         */
+        public void remove(Item item, int count) {
+            if (count > 0) this.removals.addTo(item, count);
+        }
+
+        /**
+         * Plans the insertion of the given number of items.
+         *
+         * @param item The item.
+         * @param count The number of items.
+         *
+         * @since 2.3.0
+         */
+        public void insert(Item item, int count) {
+            if (count > 0) this.insertions.addTo(item, count);
+        }
+
+        /**
+         * Plans the replacement of the given pouch's balance.
+         *
+         * @param pouch The pouch stack.
+         * @param balance The new balance, keyed by unit identifier.
+         *
+         * @since 2.3.0
+         */
+        public void deposit(ItemStack pouch, Object2LongLinkedOpenHashMap<Identifier> balance) {
+            this.pouch = pouch;
+            this.balance = balance;
+        }
+
+        /**
+         * Logs a planned exchange, to be recorded once this plan is applied to a player.
+         *
+         * @param kind The kind of exchange.
+         * @param from The consumed item, if any.
+         * @param fromCount The consumed item count.
+         * @param to The produced item, if any.
+         * @param toCount The produced item count.
+         *
+         * @since 2.3.0
+         */
+        public void log(Kind kind, @Nullable Item from, int fromCount, @Nullable Item to, int toCount) {
+            this.events.add(kind.ordinal());
+            this.events.add(ExchangeAuditLog.getItemId(from));
+            this.events.add(fromCount);
+            this.events.add(ExchangeAuditLog.getItemId(to));
+            this.events.add(toCount);
+        }
+
+        /**
+         * Returns the planned number of the given item to remove.
+         *
+         * @param item The item.
+         *
+         * @return The planned number of removals.
+         *
+         * @since 2.3.0
+         */
+        public int getRemoval(Item item) {
+            return this.removals.getInt(item);
+        }
+
+        /**
+         * Returns the planned number of the given item to insert.
+         *
+         * @param item The item.
+         *
+         * @return The planned number of insertions.
+         *
+         * @since 2.3.0
+         */
+        public int getInsertion(Item item) {
+            return this.insertions.getInt(item);
+        }
+
+        /**
+         * Returns the planned number of each item to insert, in the order that they were planned.
+         *
+         * @return The planned insertions, which must not be modified.
+         *
+         * @since 2.3.0
+         */
+        public Reference2IntMap<Item> getInsertions() {
+            return this.insertions;
+        }
+
+        /**
+         * Publishes every logged exchange to the {@link ExchangeAuditLog}, attributing them to the given player.
+         *
+         * @param player The player's identifier.
+         *
+         * @since 2.3.0
+         */
+        public void record(UUID player) {
+            for (int index = 0; index < this.events.size(); index += EVENT_WIDTH) {
+                ExchangeAuditLog.record(
+                    player,
+                    Kind.byId(this.events.getInt(index)),
+                    this.events.getInt(index + 1),
+                    this.events.getInt(index + 2),
+                    this.events.getInt(index + 3),
+                    this.events.getInt(index + 4)
+                );
+            }
+        }
+
+        /**
+         * Returns whether this plan does nothing.
+         *
+         * @return Whether this plan is empty.
+         *
+         * @since 2.3.0
+         */
+        public boolean isEmpty() {
+            return this.removals.isEmpty() && this.insertions.isEmpty() && this.pouch == null;
+        }
+
+        /**
+         * Discards every planned removal and insertion.
+         *
+         * @since 2.3.0
+         */
+        public void clear() {
+            this.removals.clear();
+            this.insertions.clear();
+            this.events.clear();
+            this.pouch = null;
+            this.balance = null;
+        }
+
+        /**
+         * Applies this plan to the player's inventory, clearing it.
+         * <p>
+         * The client is synced once afterwards, and insertions that do not fit are dropped at the player's feet.
+         *
+         * @param player The target player entity.
+         *
+         * @return Whether the player's inventory was modified.
+         *
+         * @since 2.3.0
+         */
+        public boolean apply(PlayerEntity player) {
+            final PlayerInventory inventory = player.getInventory();
+
+            this.record(player.getUuid());
+
+            final int changedSlots = this.apply(inventory, inventory.main.size(), s -> player.dropItem(s, false));
+
+            if (changedSlots == 0) return false;
+
+            // A single full sync replaces what would otherwise be a burst of individual slot updates.
+            if (changedSlots > 1) {
+                player.currentScreenHandler.syncState();
+            } else {
+                player.currentScreenHandler.sendContentUpdates();
+            }
+
+            return true;
+        }
+
+        /**
+         * Applies this plan to the given inventory, clearing it.
+         * <p>
+         * Every slot is visited once to perform all removals and to find room for insertions. Insertions are only
+         * placed within the first {@code mainSize} slots, and any that do not fit are passed to {@code overflow}.
+         *
+         * @param inventory The target inventory.
+         * @param mainSize The number of slots that may receive inserted items.
+         * @param overflow Receives inserted item stacks that do not fit within the inventory.
+         *
+         * @return The number of modified slots.
+         *
+         * @since 2.3.0
+         */
+        public int apply(Inventory inventory, int mainSize, Consumer<ItemStack> overflow) {
+            if (this.isEmpty()) return 0;
+
+            final IntArrayList emptySlots = new IntArrayList();
+            final Reference2ObjectOpenHashMap<Item, IntArrayList> partialSlots = new Reference2ObjectOpenHashMap<>();
+            int changedSlots = 0;
+
+            // The pouch is planned and applied within the same tick, so it is still held by the inventory.
+            if (this.pouch != null && this.balance != null) {
+                CurrencyPouchItem.setBalance(this.pouch, this.balance);
+
+                changedSlots += 1;
+            }
+
+            for (int slot = 0; slot < inventory.size(); slot += 1) {
+                final ItemStack stack = inventory.getStack(slot);
+
+                if (!stack.isEmpty()) {
+                    final Item item = stack.getItem();
+                    final int removal = this.removals.getInt(item);
+
+                    if (removal > 0 && canExchange(stack)) {
+                        final int taken = Math.min(removal, stack.getCount());
+
+                        stack.decrement(taken);
+                        this.removals.put(item, removal - taken);
+                        changedSlots += 1;
+
+                        if (stack.isEmpty()) inventory.setStack(slot, ItemStack.EMPTY);
+                    } else if (this.insertions.containsKey(item) && slot < mainSize) {
+                        // Only default stacks may be merged with inserted items.
+                        if (!stack.hasNbt() && stack.getCount() < stack.getMaxCount()) {
+                            partialSlots.computeIfAbsent(item, i -> new IntArrayList()).add(slot);
+                        }
+
+                        continue;
+                    }
+                }
+
+                if (slot < mainSize && inventory.getStack(slot).isEmpty()) emptySlots.add(slot);
+            }
+
+            int nextEmpty = 0;
+
+            for (final Reference2IntMap.Entry<Item> entry : this.insertions.reference2IntEntrySet()) {
+                final Item item = entry.getKey();
+                final int maxCount = item.getMaxCount();
+                int remaining = entry.getIntValue();
+
+                // Top up existing stacks first.
+                final IntArrayList partial = partialSlots.get(item);
+
+                if (partial != null) {
+                    for (int index = 0; index < partial.size() && remaining > 0; index += 1) {
+                        final ItemStack stack = inventory.getStack(partial.getInt(index));
+                        final int added = Math.min(remaining, stack.getMaxCount() - stack.getCount());
+
+                        stack.increment(added);
+                        remaining -= added;
+                        changedSlots += 1;
+                    }
+                }
+
+                // Then fill empty slots.
+                while (remaining > 0 && nextEmpty < emptySlots.size()) {
+                    final ItemStack stack = new ItemStack(item, Math.min(remaining, maxCount));
+
+                    inventory.setStack(emptySlots.getInt(nextEmpty++), stack);
+                    remaining -= stack.getCount();
+                    changedSlots += 1;
+                }
+
+                // Drop anything that did not fit.
+                while (remaining > 0) {
+                    final ItemStack stack = new ItemStack(item, Math.min(remaining, maxCount));
+
+                    overflow.accept(stack);
+                    remaining -= stack.getCount();
+                }
+            }
+
+            this.clear();
+
+            if (changedSlots > 0) inventory.markDirty();
+
+            return changedSlots;
+        }
+
+    }
+
+    /**
+     * A type that has an associated item representation.
+     *
+     * @author Jaxydog
+     * @since 2.0.0
+     */
+    sealed interface ItemRepresentable {
+
+        /**
+         * Returns the given item identifier, or {@code minecraft:air} if the referenced identifier is invalid.
+         *
+         * @param itemId The item identifier.
+         *
+         * @return The given item identifier, or {@code minecraft:air} if the referenced identifier is invalid.
+         *
+         * @since 2.3.0
+         */
+        static Identifier resolveItemId(Identifier itemId) {
+            if (Registries.ITEM.containsId(itemId)) {
+                return itemId;
+            } else {
+                return Registries.ITEM.getDefaultId();
+            }
+        }
+
+        /**
+         * Returns the raw associated item identifier, which may not reference a registered item.
+         *
+         * @return The raw associated item identifier.
+         *
+         * @since 2.3.0
+         */
+        Identifier itemId();
+
+        /**
+         * Returns the associated item identifier, or {@code minecraft:air} if the referenced identifier is invalid.
+         *
+         * @return The associated item identifier, or {@code minecraft:air} if the referenced identifier is invalid.
+         *
+         * @since 2.0.0
+         */
+        default Identifier getItemId() {
+            return Registries.ITEM.getId(this.getItem());
+        }
+
+        /**
+         * Returns the associated item, or {@link net.minecraft.item.Items#AIR} if the referenced item is invalid.
+         *
+         * @return The associated item, or {@link net.minecraft.item.Items#AIR} if the referenced item is invalid.
+         *
+         * @since 2.0.0
+         */
+        default Item getItem() {
+            return Registries.ITEM.get(resolveItemId(this.itemId()));
+        }
+
+    }
+
+    /**
+     * An immutable map containing values of a specified currency type.
+     * <p>
+     * A map is either built directly from its values, or is a view of a map within the currently active
+     * {@link CurrencySnapshot}. Views always read from the snapshot that is active at the time of each call.
+     *
+     * @param <T> The currency type.
+     *
+     * @author Jaxydog
+     * @since 2.0.0
+     */
+    final class CurrencyMap<T extends ItemRepresentable> {
+
+        /**
+         * Resolves the viewed map from the active snapshot, or {@code null} if this map is not a view.
+         *
+         * @since 2.3.0
+         */
+        private final @Nullable Function<CurrencySnapshot, CurrencyMap<T>> view;
+
+        /**
+         * The inner identifier-to-object map.
+         *
+         * @since 2.0.0
+         */
+        private final Map<Identifier, T> inner;
+        /**
+         * An item-to-object index.
+         *
+         * @since 2.3.0
+         */
+        private final Map<Item, T> byItem;
+        /**
+         * An object-to-identifier index.
+         *
+         * @since 2.3.0
+         */
+        private final Map<T, Identifier> byValue;
+        /**
+         * An object-to-item index.
+         * <p>
+         * This caches the result of {@link ItemRepresentable#resolveItemId(Identifier)} for each value.
+         *
+         * @since 2.3.0
+         */
+        private final Map<T, Item> items;
+
+        /**
+         * Creates a new currency map containing the given values.
+         *
+         * @param values The value map.
+         *
+         * @since 2.3.0
+         */
+        public CurrencyMap(Map<Identifier, T> values) {
+            final Reference2ObjectOpenHashMap<Item, T> byItem = new Reference2ObjectOpenHashMap<>(values.size());
+            final Reference2ObjectOpenHashMap<T, Identifier> byValue = new Reference2ObjectOpenHashMap<>(values.size());
+            final Reference2ObjectOpenHashMap<T, Item> items = new Reference2ObjectOpenHashMap<>(values.size());
+
+            this.view = null;
+            this.inner = Collections.unmodifiableMap(new Object2ObjectOpenHashMap<>(values));
+
+            for (final Entry<Identifier, T> entry : this.inner.entrySet()) {
+                final T value = entry.getValue();
+                final Item item = Registries.ITEM.get(ItemRepresentable.resolveItemId(value.itemId()));
+
+                // Keep the first match, mirroring the previous linear search.
+                byItem.putIfAbsent(item, value);
+                byValue.putIfAbsent(value, entry.getKey());
+                items.put(value, item);
+            }
+
+            this.byItem = Reference2ObjectMaps.unmodifiable(byItem);
+            this.byValue = Reference2ObjectMaps.unmodifiable(byValue);
+            this.items = Reference2ObjectMaps.unmodifiable(items);
+        }
+
+        /**
+         * Creates a new view of a map within the active snapshot.
+         *
+         * @param view Resolves the viewed map from a snapshot.
+         *
+         * @since 2.3.0
+         */
+        private CurrencyMap(Function<CurrencySnapshot, CurrencyMap<T>> view) {
+            this.view = view;
+            this.inner = Map.of();
+            this.byItem = Map.of();
+            this.byValue = Map.of();
+            this.items = Map.of();
+        }
+
+        /**
+         * Creates a new view of a map within the currently active snapshot.
+         *
+         * @param view Resolves the viewed map from a snapshot.
+         * @param <T> The currency type.
+         *
+         * @return A new map view.
+         *
+         * @since 2.3.0
+         */
+        public static <T extends ItemRepresentable> CurrencyMap<T> view(
+            Function<CurrencySnapshot, CurrencyMap<T>> view
+        ) {
+            return new CurrencyMap<>(view);
+        }
+
+        /**
+         * Returns the map that should be read from, which is this map unless it is a view.
+         *
+         * @return The resolved map.
+         *
+         * @since 2.3.0
+         */
+        private CurrencyMap<T> resolve() {
+            return this.view == null ? this : this.view.apply(CurrencySnapshot.get());
+        }
+
+        /**
+         * Returns the value with the provided identifier.
+         *
+         * @param identifier The value's identifier.
+         *
+         * @return The value with the provided identifier.
+         *
+         * @since 2.3.0
+         */
+        public Optional<T> get(Identifier identifier) {
+            return Optional.ofNullable(this.resolve().inner.get(identifier));
+        }
+
+        /**
+         * Finds and returns the value associated with the provided item identifier.
+         *
+         * @param identifier The item's identifier.
+         *
+         * @return The value associated with the provided item identifier.
+         *
+         * @since 2.0.0
+         */
+        public Optional<T> find(Identifier identifier) {
+            return Registries.ITEM.getOrEmpty(identifier).flatMap(this::find);
+        }
+
+        /**
+         * Finds and returns the value associated with the provided item.
+         *
+         * @param item The item.
+         *
+         * @return The value associated with the provided item.
+         *
+         * @since 2.0.0
+         */
+        public Optional<T> find(Item item) {
+            return Optional.ofNullable(this.resolve().byItem.get(item));
+        }
+
+        /**
+         * Finds and returns the value associated with the provided item stack.
+         *
+         * @param stack The item stack.
+         *
+         * @return The value associated with the provided item stack.
+         *
+         * @since 2.0.0
+         */
+        public Optional<T> find(ItemStack stack) {
+            return this.find(stack.getItem());
+        }
+
+        /**
+         * Finds and returns the identifier of the provided value.
+         *
+         * @param value The value.
+         *
+         * @return The identifier of the provided value.
+         *
+         * @since 2.0.0
+         */
+        public Optional<Identifier> getId(T value) {
+            return Optional.ofNullable(this.resolve().byValue.get(value));
+        }
+
+        /**
+         * Returns the resolved item of the provided value.
+         * <p>
+         * If the value is not contained within this map, its item is resolved directly from the registry.
+         *
+         * @param value The value.
+         *
+         * @return The resolved item of the provided value.
+         *
+         * @since 2.3.0
+         */
+        public Item getItem(T value) {
+            final Item item = this.resolve().items.get(value);
+
+            if (item != null) return item;
+
+            return Registries.ITEM.get(ItemRepresentable.resolveItemId(value.itemId()));
+        }
+
+        /**
+         * Returns the total number of entries within the map.
+         *
+         * @return The total number of entries within the map.
+         *
+         * @since 2.0.0
+         */
+        public int size() {
+            return this.resolve().inner.size();
+        }
+
+        /**
+         * Returns whether the map is empty.
+         *
+         * @return Whether the map is empty.
+         *
+         * @since 2.0.0
+         */
+        public boolean isEmpty() {
+            return this.resolve().inner.isEmpty();
+        }
+
+        /**
+         * Returns a set containing the registered values and their identifiers.
+         *
+         * @return A set containing the registered values and their identifiers.
+         *
+         * @since 2.0.0
+         */
+        public Set<Entry<Identifier, T>> entrySet() {
+            return this.resolve().inner.entrySet();
+        }
+
+        /**
+         * Returns a set containing the identifiers within this map.
+         *
+         * @return A set containing the identifiers within this map.
+         *
+         * @since 2.0.0
+         */
+        public Set<Identifier> keySet() {
+            return this.resolve().inner.keySet();
+        }
+
+        /**
+         * Returns a collection containing the values within this map.
+         *
+         * @return A collection containing the values within this map.
+         *
+         * @since 2.0.0
+         */
+        public Collection<T> values() {
+            return this.resolve().inner.values();
+        }
+
+    }
+
+    /**
+     * An immutable snapshot of all loaded currency data and its compiled structures.
+     * <p>
+     * Snapshots are built off of the server thread during a reload, and are then published with a single write. Readers
+     * therefore either see the entire previous snapshot or the entire new one, and never a partially loaded table.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class CurrencySnapshot {
+
+        /**
+         * An empty snapshot.
+         *
+         * @since 2.3.0
+         */
+        public static final CurrencySnapshot EMPTY = new CurrencySnapshot(
+            new CurrencyMap<>(Map.of()),
+            new CurrencyMap<>(Map.of()),
+            new CurrencyMap<>(Map.of()),
+            ExchangeGraph.EMPTY,
+            RewardSampler.EMPTY,
+            SkeletonSolver.EMPTY
+        );
+
+        /**
+         * The currently active snapshot.
+         *
+         * @since 2.3.0
+         */
+        private static volatile CurrencySnapshot current = EMPTY;
+
+        /**
+         * The loaded currency units.
+         *
+         * @since 2.3.0
+         */
+        private final CurrencyMap<Unit> units;
+        /**
+         * The loaded currency rewards.
+         *
+         * @since 2.3.0
+         */
+        private final CurrencyMap<Reward> rewards;
+        /**
+         * The loaded currency skeletons.
+         *
+         * @since 2.3.0
+         */
+        private final CurrencyMap<Skeleton> skeletons;
+        /**
+         * The exchange graph compiled from the loaded units.
+         *
+         * @since 2.3.0
+         */
+        private final ExchangeGraph graph;
+        /**
+         * The reward sampler compiled from the loaded rewards.
+         *
+         * @since 2.3.0
+         */
+        private final RewardSampler sampler;
+        /**
+         * The skeleton solver compiled from the loaded skeletons and rewards.
+         *
+         * @since 2.3.0
+         */
+        private final SkeletonSolver solver;
+
+        /**
+         * Creates a new snapshot.
+         *
+         * @param units The loaded currency units.
+         * @param rewards The loaded currency rewards.
+         * @param skeletons The loaded currency skeletons.
+         * @param graph The compiled exchange graph.
+         * @param sampler The compiled reward sampler.
+         * @param solver The compiled skeleton solver.
+         *
+         * @since 2.3.0
+         */
+        private CurrencySnapshot(
+            CurrencyMap<Unit> units,
+            CurrencyMap<Reward> rewards,
+            CurrencyMap<Skeleton> skeletons,
+            ExchangeGraph graph,
+            RewardSampler sampler,
+            SkeletonSolver solver
+        ) {
+            this.units = units;
+            this.rewards = rewards;
+            this.skeletons = skeletons;
+            this.graph = graph;
+            this.sampler = sampler;
+            this.solver = solver;
+        }
+
+        /**
+         * Returns the currently active snapshot.
+         *
+         * @return The currently active snapshot.
+         *
+         * @since 2.3.0
+         */
+        public static CurrencySnapshot get() {
+            return current;
+        }
+
+        /**
+         * Sets the currently active snapshot.
+         *
+         * @param snapshot The new snapshot.
+         *
+         * @since 2.3.0
+         */
+        public static void load(CurrencySnapshot snapshot) {
+            current = snapshot;
+        }
+
+        /**
+         * Indexes and compiles the given currency data into a new snapshot.
+         * <p>
+         * This does not modify the active snapshot, and may be safely called from any thread once the item registry
+         * has been frozen.
+         *
+         * @param units The currency units.
+         * @param rewards The currency rewards.
+         * @param skeletons The currency skeletons.
+         *
+         * @return A new snapshot.
+         *
+         * @since 2.3.0
+         */
+        public static CurrencySnapshot compile(
+            Map<Identifier, Unit> units, Map<Identifier, Reward> rewards, Map<Identifier, Skeleton> skeletons
+        ) {
+            final CurrencyMap<Unit> unitMap = new CurrencyMap<>(units);
+            final CurrencyMap<Reward> rewardMap = new CurrencyMap<>(rewards);
+            final CurrencyMap<Skeleton> skeletonMap = new CurrencyMap<>(skeletons);
+
+            return new CurrencySnapshot(
+                unitMap,
+                rewardMap,
+                skeletonMap,
+                ExchangeGraph.compile(unitMap),
+                RewardSampler.compile(rewardMap),
+                SkeletonSolver.compile(skeletonMap, rewardMap)
+            );
+        }
+
+        /**
+         * Returns the loaded currency units.
+         *
+         * @return The loaded currency units.
+         *
+         * @since 2.3.0
+         */
+        public CurrencyMap<Unit> getUnits() {
+            return this.units;
+        }
+
+        /**
+         * Returns the loaded currency rewards.
+         *
+         * @return The loaded currency rewards.
+         *
+         * @since 2.3.0
+         */
+        public CurrencyMap<Reward> getRewards() {
+            return this.rewards;
+        }
+
+        /**
+         * Returns the loaded currency skeletons.
+         *
+         * @return The loaded currency skeletons.
+         *
+         * @since 2.3.0
+         */
+        public CurrencyMap<Skeleton> getSkeletons() {
+            return this.skeletons;
+        }
+
+        /**
+         * Returns the compiled exchange graph.
+         *
+         * @return The compiled exchange graph.
+         *
+         * @since 2.3.0
+         */
+        public ExchangeGraph getGraph() {
+            return this.graph;
+        }
+
+        /**
+         * Returns the compiled reward sampler.
+         *
+         * @return The compiled reward sampler.
+         *
+         * @since 2.3.0
+         */
+        public RewardSampler getSampler() {
+            return this.sampler;
+        }
+
+        /**
+         * Returns the compiled skeleton solver.
+         *
+         * @return The compiled skeleton solver.
+         *
+         * @since 2.3.0
+         */
+        public SkeletonSolver getSolver() {
+            return this.solver;
+        }
+
+    }
+
+    /**
+     * The items that represent currency, as known by the client.
+     * <p>
+     * Currency data is only loaded on the server, so the represented items are sent to each player whenever they join
+     * or the data is reloaded. This allows the client to predict the result of currency interactions.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class CurrencyItems {
+
+        /**
+         * The identifier of the packet that sends currency items to the client.
+         *
+         * @since 2.3.0
+         */
+        public static final Identifier PACKET_ID = Astral.getId("currency_items");
+
+        /**
+         * The items last received from the server.
+         *
+         * @since 2.3.0
+         */
+        private static volatile Set<Item> items = Set.of();
+        /**
+         * The items of units that can be split into change, last received from the server.
+         *
+         * @since 2.3.0
+         */
+        private static volatile Set<Item> splittable = Set.of();
+
+        /**
+         * Prevents this class from being instantiated.
+         *
+         * @since 2.3.0
+         */
+        private CurrencyItems() {}
+
+        /**
+         * Returns whether the given stack is known to represent currency.
+         *
+         * @param stack The item stack.
+         *
+         * @return Whether the given stack is known to represent currency.
+         *
+         * @since 2.3.0
+         */
+        public static boolean contains(ItemStack stack) {
+            return !stack.isEmpty() && items.contains(stack.getItem());
+        }
+
+        /**
+         * Returns whether the given stack is known to represent a unit that can be split into change.
+         *
+         * @param stack The item stack.
+         *
+         * @return Whether the given stack is known to represent a splittable unit.
+         *
+         * @since 2.3.0
+         */
+        public static boolean isSplittable(ItemStack stack) {
+            return !stack.isEmpty() && splittable.contains(stack.getItem());
+        }
+
+        /**
+         * Writes the items of the given snapshot into a new packet buffer.
+         *
+         * @param snapshot The currency snapshot.
+         *
+         * @return A new packet buffer.
+         *
+         * @since 2.3.0
+         */
+        public static PacketByteBuf write(CurrencySnapshot snapshot) {
+            final ExchangeGraph graph = snapshot.getGraph();
+            final Set<Item> known = new ReferenceOpenHashSet<>();
+            final Set<Item> splittable = new ReferenceOpenHashSet<>();
+            final PacketByteBuf buffer = PacketByteBufs.create();
+
+            snapshot.getUnits().values().forEach(unit -> {
+                final Item item = snapshot.getUnits().getItem(unit);
+                final int index = graph.indexOf(unit);
+
+                known.add(item);
+
+                if (index >= 0 && graph.getChangeSize(index) > 0) splittable.add(item);
+            });
+            snapshot.getRewards().values().forEach(reward -> known.add(snapshot.getRewards().getItem(reward)));
+
+            buffer.writeCollection(known, (b, item) -> b.writeRegistryValue(Registries.ITEM, item));
+            buffer.writeCollection(splittable, (b, item) -> b.writeRegistryValue(Registries.ITEM, item));
+
+            return buffer;
+        }
+
+        /**
+         * Replaces the known items with the items read from the given packet buffer.
+         *
+         * @param buffer The packet buffer.
+         *
+         * @since 2.3.0
+         */
+        public static void read(PacketByteBuf buffer) {
+            items = buffer.readCollection(ReferenceOpenHashSet::new, b -> b.readRegistryValue(Registries.ITEM));
+            splittable = buffer.readCollection(ReferenceOpenHashSet::new, b -> b.readRegistryValue(Registries.ITEM));
+        }
+
+        /**
+         * Forgets all known items.
+         *
+         * @since 2.3.0
+         */
+        public static void clear() {
+            items = Set.of();
+            splittable = Set.of();
+        }
+
+    }
+
+    /**
+     * An immutable, pre-compiled graph of the exchanges between currency units.
+     * <p>
+     * Each unit is assigned a dense integer identifier, and its next unit and exchange price are resolved ahead of time
+     * so that exchanging currency only requires table reads.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class ExchangeGraph {
+
+        /**
+         * An empty exchange graph.
+         *
+         * @since 2.3.0
+         */
+        public static final ExchangeGraph EMPTY = new ExchangeGraph(new Unit[0], new Identifier[0], new int[0], 0);
+        /**
+         * The largest value for which change is solved with the coin-change table.
+         *
+         * @since 2.3.0
+         */
+        private static final int CHANGE_TABLE_LIMIT = 1 << 16;
+
+        /**
+         * The units within this graph, indexed by their dense identifier.
+         *
+         * @since 2.3.0
+         */
+        private final Unit[] units;
+        /**
+         * The unit entries within this graph, indexed by their dense identifier.
+         *
+         * @since 2.3.0
+         */
+        private final List<Entry<Identifier, Unit>> entries;
+        /**
+         * Maps each unit reference to its dense identifier.
+         *
+         * @since 2.3.0
+         */
+        private final Reference2IntOpenHashMap<Unit> indexes;
+        /**
+         * The value of each unit.
+         *
+         * @since 2.3.0
+         */
+        private final int[] values;
+        /**
+         * The namespace index of each unit.
+         *
+         * @since 2.3.0
+         */
+        private final int[] namespaces;
+        /**
+         * The exchange rate from each unit into each namespace, flattened by {@code unit * namespaceCount + namespace}.
+         * <p>
+         * A rate of {@code 0} means that the unit cannot be exchanged into that namespace.
+         *
+         * @since 2.3.0
+         */
+        private final int[] rates;
+        /**
+         * The total number of namespaces.
+         *
+         * @since 2.3.0
+         */
+        private final int namespaceCount;
+        /**
+         * The next unit with a value that is an exact multiple of each unit's value, or {@code -1}.
+         *
+         * @since 2.3.0
+         */
+        private final int[] nextExact;
+        /**
+         * The next unit by value of each unit, or {@code -1}.
+         *
+         * @since 2.3.0
+         */
+        private final int[] nextAny;
+        /**
+         * The number of each unit required to create one of its exact next unit, or {@code 0} if it cannot be
+         * exchanged.
+         *
+         * @since 2.3.0
+         */
+        private final int[] prices;
+        /**
+         * The dense identifiers of the units that make up the change of each unit.
+         *
+         * @since 2.3.0
+         */
+        private final int[][] changeUnits;
+        /**
+         * The number of each unit that makes up the change of each unit, matching {@link #changeUnits}.
+         *
+         * @since 2.3.0
+         */
+        private final int[][] changeCounts;
+        /**
+         * The dense identifiers of every unit that each unit can be split into, either directly or through the change
+         * of any unit that it splits into.
+         *
+         * @since 2.3.0
+         */
+        private final BitSet[] changeReach;
+
+        /**
+         * Creates a new exchange graph.
+         *
+         * @param units The units, indexed by their dense identifier.
+         * @param ids The unit identifiers, indexed by their dense identifier.
+         * @param namespaces The namespace index of each unit.
+         * @param namespaceCount The total number of namespaces.
+         *
+         * @since 2.3.0
+         */
+        private ExchangeGraph(Unit[] units, Identifier[] ids, int[] namespaces, int namespaceCount) {
+            this.units = units;
+            this.namespaces = namespaces;
+            this.namespaceCount = namespaceCount;
+            this.values = new int[units.length];
+            this.rates = new int[units.length * namespaceCount];
+            this.nextExact = new int[units.length];
+            this.nextAny = new int[units.length];
+            this.prices = new int[units.length];
+            this.changeUnits = new int[units.length][];
+            this.changeCounts = new int[units.length][];
+            this.changeReach = new BitSet[units.length];
+            this.indexes = new Reference2IntOpenHashMap<>(units.length);
+            this.indexes.defaultReturnValue(-1);
+
+            final List<Entry<Identifier, Unit>> entries = new ObjectArrayList<>(units.length);
+
+            for (int index = 0; index < units.length; index += 1) {
+                entries.add(Map.entry(ids[index], units[index]));
+
+                this.indexes.put(units[index], index);
+                this.values[index] = units[index].value();
+            }
+
+            this.entries = List.copyOf(entries);
+        }
+
+        /**
+         * Returns the exchange graph of the currently active snapshot.
+         *
+         * @return The currently active exchange graph.
+         *
+         * @since 2.3.0
+         */
+        public static ExchangeGraph get() {
+            return CurrencySnapshot.get().getGraph();
+        }
+
+        /**
+         * Compiles the given units into a new exchange graph.
+         * <p>
+         * Exchange cycles and denominations that can never be created through an exchange are reported here, and any
+         * exchange that is part of a cycle is removed from the graph.
+         *
+         * @param map The unit map.
+         *
+         * @return A new exchange graph.
+         *
+         * @since 2.3.0
+         */
+        public static ExchangeGraph compile(CurrencyMap<Unit> map) {
+            final int size = map.size();
+            final Unit[] units = new Unit[size];
+            final Identifier[] ids = new Identifier[size];
+            final int[] namespaces = new int[size];
+            final Object2IntOpenHashMap<String> namespaceIndexes = new Object2IntOpenHashMap<>();
+
+            namespaceIndexes.defaultReturnValue(-1);
+
+            int index = 0;
+
+            for (final Entry<Identifier, Unit> entry : map.entrySet()) {
+                final String namespace = entry.getKey().getNamespace();
+
+                namespaceIndexes.putIfAbsent(namespace, namespaceIndexes.size());
+
+                units[index] = entry.getValue();
+                ids[index] = entry.getKey();
+                namespaces[index] = namespaceIndexes.getInt(namespace);
+                index += 1;
+            }
+
+            final ExchangeGraph graph = new ExchangeGraph(units, ids, namespaces, namespaceIndexes.size());
+
+            // Flatten each unit's exchange map into the rate table.
+            for (int unit = 0; unit < size; unit += 1) {
+                for (final Entry<String, Integer> entry : units[unit].exchangeMap().entrySet()) {
+                    final int namespace = namespaceIndexes.getInt(entry.getKey());
+
+                    // Ignore rates for namespaces that do not contain any units.
+                    if (namespace < 0 || namespace == namespaces[unit]) continue;
+
+                    graph.rates[unit * graph.namespaceCount + namespace] = Math.max(0, entry.getValue());
+                }
+            }
+
+            for (int unit = 0; unit < size; unit += 1) {
+                graph.compileNext(unit);
+            }
+
+            graph.removeCycles(ids);
+            graph.reportUnreachable(ids);
+
+            for (int namespace = 0; namespace < graph.namespaceCount; namespace += 1) {
+                graph.compileChange(namespace);
+            }
+
+            for (int unit = 0; unit < size; unit += 1) {
+                graph.compileReach(unit);
+            }
+
+            return graph;
+        }
+
+        /**
+         * Returns the effective value of the {@code other} unit within the namespace of the given unit, or {@code -1} if
+         * the units are incompatible.
+         *
+         * @param unit The dense identifier of the unit.
+         * @param other The dense identifier of the other unit.
+         *
+         * @return The effective value of the other unit.
+         *
+         * @since 2.3.0
+         */
+        private long effectiveValue(int unit, int other) {
+            if (this.namespaces[unit] == this.namespaces[other]) return this.values[other];
+
+            final int rate = this.rates[unit * this.namespaceCount + this.namespaces[other]];
+
+            if (rate == 0) return -1;
+
+            return (long) rate * this.values[other];
+        }
+
+        /**
+         * Resolves the next units and exchange price of the given unit.
+         *
+         * @param unit The dense identifier of the unit.
+         *
+         * @since 2.3.0
+         */
+        private void compileNext(int unit) {
+            final int value = this.values[unit];
+            long bestAny = Long.MAX_VALUE;
+            long bestExact = Long.MAX_VALUE;
+
+            this.nextAny[unit] = -1;
+            this.nextExact[unit] = -1;
+
+            for (int other = 0; other < this.units.length; other += 1) {
+                final long effective = this.effectiveValue(unit, other);
+
+                // Ignore values that are not "next", including incompatible currencies.
+                if (effective <= value) continue;
+
+                if (effective < bestAny) {
+                    bestAny = effective;
+                    this.nextAny[unit] = other;
+                }
+                // Ensure the exact entry's value is perfectly divisible.
+                if (effective < bestExact && effective % value == 0) {
+                    bestExact = effective;
+                    this.nextExact[unit] = other;
+                }
+            }
+
+            final int next = this.nextExact[unit];
+
+            if (next < 0) return;
+
+            if (this.namespaces[unit] == this.namespaces[next]) {
+                this.prices[unit] = this.values[next] / value;
+            } else {
+                this.prices[unit] = this.values[next] / this.rates[unit * this.namespaceCount + this.namespaces[next]];
+            }
+        }
+
+        /**
+         * Solves the change of every unit within the given namespace.
+         * <p>
+         * A unit's change is the fewest number of strictly less valuable denominations that add up to its value within
+         * its namespace. Units of other namespaces are denominations wherever their exchange rate into the namespace is
+         * known, and count for that rate. Values up to {@link #CHANGE_TABLE_LIMIT} are solved exactly with a single
+         * coin-change table that is shared by the whole namespace. Larger values, and values that no combination adds
+         * up to, fall back to the inverse of the cheapest exchange into the unit, if there is one.
+         *
+         * @param namespace The namespace index.
+         *
+         * @since 2.3.0
+         */
+        private void compileChange(int namespace) {
+            final IntArrayList members = new IntArrayList();
+            final int[] worth = new int[this.units.length];
+
+            for (int unit = 0; unit < this.units.length; unit += 1) {
+                if (this.namespaces[unit] == namespace) {
+                    worth[unit] = this.values[unit];
+                } else {
+                    worth[unit] = this.rates[unit * this.namespaceCount + namespace];
+                }
+
+                if (worth[unit] > 0) members.add(unit);
+            }
+
+            if (members.isEmpty()) return;
+
+            members.sort((int left, int right) -> Integer.compare(worth[left], worth[right]));
+
+            int highest = 0;
+
+            for (final int unit : members) {
+                if (this.namespaces[unit] == namespace) highest = Math.max(highest, worth[unit]);
+            }
+
+            final int limit = Math.min(highest, CHANGE_TABLE_LIMIT);
+            // The fewest coins needed for each amount, and the last coin used to reach it.
+            final int[] coins = new int[limit + 1];
+            final int[] last = new int[limit + 1];
+
+            Arrays.fill(coins, 1, coins.length, Integer.MAX_VALUE);
+
+            int start = 0;
+
+            while (start < members.size()) {
+                final int value = worth[members.getInt(start)];
+                int end = start;
+
+                // Equal denominations are not change for each other, so solve the whole group before adding any.
+                while (end < members.size() && worth[members.getInt(end)] == value) end += 1;
+
+                for (int index = start; index < end; index += 1) {
+                    final int unit = members.getInt(index);
+
+                    // Units of other namespaces are solved within their own namespace.
+                    if (this.namespaces[unit] != namespace) continue;
+
+                    if (value <= limit && coins[value] != Integer.MAX_VALUE) {
+                        this.readChange(unit, value, coins, last, worth);
+                    } else {
+                        this.inverseChange(unit);
+                    }
+                }
+
+                // Add the group as coins for every amount within the table.
+                for (int amount = value; amount <= limit; amount += 1) {
+                    final int previous = coins[amount - value];
+
+                    if (previous != Integer.MAX_VALUE && previous + 1 < coins[amount]) {
+                        coins[amount] = previous + 1;
+                        last[amount] = members.getInt(start);
+                    }
+                }
+
+                start = end;
+            }
+        }
+
+        /**
+         * Reconstructs the change of the given unit from a solved coin-change table.
+         *
+         * @param unit The dense identifier of the unit.
+         * @param value The value of the unit.
+         * @param coins The fewest coins needed for each amount.
+         * @param last The last coin used to reach each amount.
+         * @param worth The worth of each unit within the table's namespace.
+         *
+         * @since 2.3.0
+         */
+        private void readChange(int unit, int value, int[] coins, int[] last, int[] worth) {
+            final Int2IntLinkedOpenHashMap change = new Int2IntLinkedOpenHashMap();
+
+            for (int amount = value; amount > 0; amount -= worth[last[amount]]) {
+                change.addTo(last[amount], 1);
+            }
+
+            this.changeUnits[unit] = change.keySet().toIntArray();
+            this.changeCounts[unit] = change.values().toIntArray();
+        }
+
+        /**
+         * Sets the change of the given unit to the inverse of the cheapest exchange into it, being the price of
+         * whichever unit is exchanged into it for the fewest units. Units that no exchange produces have no change.
+         *
+         * @param unit The dense identifier of the unit.
+         *
+         * @since 2.3.0
+         */
+        private void inverseChange(int unit) {
+            int cheapest = -1;
+
+            for (int other = 0; other < this.units.length; other += 1) {
+                // Exchanges that were removed as part of a cycle have no price, and are never undone.
+                if (this.nextExact[other] != unit || this.prices[other] == 0) continue;
+
+                if (cheapest < 0 || this.prices[other] < this.prices[cheapest]) cheapest = other;
+            }
+
+            this.changeUnits[unit] = cheapest < 0 ? new int[0] : new int[] { cheapest };
+            this.changeCounts[unit] = cheapest < 0 ? new int[0] : new int[] { this.prices[cheapest] };
+        }
+
+        /**
+         * Resolves every unit that the given unit can be split into, following the change of each unit it splits into.
+         *
+         * @param unit The dense identifier of the unit.
+         *
+         * @since 2.3.0
+         */
+        private void compileReach(int unit) {
+            final BitSet reach = new BitSet(this.units.length);
+            final IntArrayList pending = new IntArrayList();
+
+            pending.add(unit);
+
+            while (!pending.isEmpty()) {
+                for (final int other : this.changeUnits[pending.popInt()]) {
+                    if (reach.get(other)) continue;
+
+                    reach.set(other);
+                    pending.add(other);
+                }
+            }
+
+            this.changeReach[unit] = reach;
+        }
+
+        /**
+         * Finds and removes any exchanges that form a cycle, which would otherwise allow currency to be exchanged
+         * indefinitely.
+         *
+         * @param ids The unit identifiers, used for logging.
+         *
+         * @since 2.3.0
+         */
+        private void removeCycles(Identifier[] ids) {
+            // 0 is unvisited, 1 is within the current path, and 2 is finished.
+            final byte[] states = new byte[this.units.length];
+
+            for (int start = 0; start < this.units.length; start += 1) {
+                int unit = start;
+
+                while (unit >= 0 && states[unit] == 0) {
+                    states[unit] = 1;
+                    unit = this.nextExact[unit];
+                }
+
+                // If the walk ended on a unit within the current path, then that unit starts a cycle.
+                if (unit >= 0 && states[unit] == 1) {
+                    final List<Identifier> cycle = new ObjectArrayList<>();
+                    int member = unit;
+
+                    do {
+                        final int next = this.nextExact[member];
+
+                        cycle.add(ids[member]);
+
+                        states[member] = 2;
+                        this.nextExact[member] = -1;
+                        this.prices[member] = 0;
+
+                        member = next;
+                    } while (member != unit);
+
+                    Astral.LOGGER.error("Currency units form an exchange cycle and will not be exchanged: {}", cycle);
+                }
+
+                // Mark the walked path as finished.
+                unit = start;
+
+                while (unit >= 0 && states[unit] == 1) {
+                    states[unit] = 2;
+                    unit = this.nextExact[unit];
+                }
+            }
+        }
+
+        /**
+         * Reports units that are neither the lowest denomination of their namespace, nor the result of any exchange.
+         *
+         * @param ids The unit identifiers, used for logging.
+         *
+         * @since 2.3.0
+         */
+        private void reportUnreachable(Identifier[] ids) {
+            final boolean[] reachable = new boolean[this.units.length];
+            final int[] lowest = new int[this.namespaceCount];
+
+            Arrays.fill(lowest, Integer.MAX_VALUE);
+
+            for (int unit = 0; unit < this.units.length; unit += 1) {
+                final int namespace = this.namespaces[unit];
+
+                lowest[namespace] = Math.min(lowest[namespace], this.values[unit]);
+
+                if (this.nextExact[unit] >= 0) reachable[this.nextExact[unit]] = true;
+            }
+
+            for (int unit = 0; unit < this.units.length; unit += 1) {
+                if (reachable[unit] || this.values[unit] == lowest[this.namespaces[unit]]) continue;
+
+                Astral.LOGGER.warn("Currency unit '{}' cannot be created through an exchange", ids[unit]);
+            }
+        }
+
+        /**
+         * Returns the number of distinct units that make up the change of the given unit, or {@code 0} if it cannot be
+         * split.
+         *
+         * @param index The dense identifier of the unit.
+         *
+         * @return The number of distinct units within the unit's change.
+         *
+         * @since 2.3.0
+         */
+        public int getChangeSize(int index) {
+            return this.changeUnits[index].length;
+        }
+
+        /**
+         * Returns the dense identifier of a unit within the change of the given unit.
+         *
+         * @param index The dense identifier of the unit.
+         * @param entry The index of the entry within the unit's change.
+         *
+         * @return The dense identifier of the unit within the change.
+         *
+         * @since 2.3.0
+         */
+        public int getChangeUnit(int index, int entry) {
+            return this.changeUnits[index][entry];
+        }
+
+        /**
+         * Returns the number of a unit within the change of the given unit.
+         *
+         * @param index The dense identifier of the unit.
+         * @param entry The index of the entry within the unit's change.
+         *
+         * @return The number of the unit within the change.
+         *
+         * @since 2.3.0
+         */
+        public int getChangeCount(int index, int entry) {
+            return this.changeCounts[index][entry];
+        }
+
+        /**
+         * Returns whether the given unit can be split into the target unit, either within its own change or within the
+         * change of any unit that it splits into.
+         * <p>
+         * This is resolved when the graph is compiled, so this only requires a single lookup.
+         *
+         * @param index The dense identifier of the unit.
+         * @param target The dense identifier of the target unit.
+         *
+         * @return Whether the given unit can be split into the target unit.
+         *
+         * @since 2.3.0
+         */
+        public boolean canChangeInto(int index, int target) {
+            return this.changeReach[index].get(target);
+        }
+
+        /**
+         * Returns the least valuable held unit that can be split into the target unit, or {@code -1} if there is none.
+         *
+         * @param counts The held unit counts, indexed by their dense identifier.
+         * @param target The dense identifier of the target unit.
+         *
+         * @return The dense identifier of the unit to split.
+         *
+         * @since 2.3.0
+         */
+        public int findSplittable(long[] counts, int target) {
+            int selected = -1;
+
+            for (int index = 0; index < counts.length; index += 1) {
+                if (counts[index] <= 0 || !this.canChangeInto(index, target)) continue;
+
+                if (selected < 0 || this.values[index] < this.values[selected]) selected = index;
+            }
+
+            return selected;
+        }
+
+        /**
+         * Returns the dense identifier of the given unit, or {@code -1} if it is not within this graph.
+         *
+         * @param unit The unit.
+         *
+         * @return The dense identifier of the given unit.
+         *
+         * @since 2.3.0
+         */
+        public int indexOf(Unit unit) {
+            return this.indexes.getInt(unit);
+        }
+
+        /**
+         * Returns the unit with the given dense identifier.
+         *
+         * @param index The dense identifier.
+         *
+         * @return The unit with the given dense identifier.
+         *
+         * @since 2.3.0
+         */
+        public Unit getUnit(int index) {
+            return this.units[index];
+        }
+
+        /**
+         * Returns the total number of units within this graph.
+         *
+         * @return The total number of units within this graph.
+         *
+         * @since 2.3.0
+         */
+        public int size() {
+            return this.units.length;
+        }
+
+        /**
+         * Returns the dense identifier of the next unit of the given unit, or {@code -1} if there is none.
+         *
+         * @param index The dense identifier of the unit.
+         * @param exactMultiple Whether the value of the unit returned should be an exact multiple of this unit's
+         * value.
+         *
+         * @return The dense identifier of the next unit.
+         *
+         * @since 2.3.0
+         */
+        public int getNext(int index, boolean exactMultiple) {
+            return exactMultiple ? this.nextExact[index] : this.nextAny[index];
+        }
+
+        /**
+         * Returns the entry of the next unit of the given unit.
+         *
+         * @param index The dense identifier of the unit.
+         * @param exactMultiple Whether the value of the unit returned should be an exact multiple of this unit's
+         * value.
+         *
+         * @return The entry of the next unit.
+         *
+         * @since 2.3.0
+         */
+        public Optional<Entry<Identifier, Unit>> getNextEntry(int index, boolean exactMultiple) {
+            final int next = this.getNext(index, exactMultiple);
+
+            return next < 0 ? Optional.empty() : Optional.of(this.entries.get(next));
+        }
+
+        /**
+         * Returns the number of the given unit required to create one of its exact next unit, or {@code 0} if the unit
+         * cannot be exchanged.
+         *
+         * @param index The dense identifier of the unit.
+         *
+         * @return The exchange price.
+         *
+         * @since 2.3.0
+         */
+        public int getPrice(int index) {
+            return this.prices[index];
+        }
+
+        /**
+         * Exchanges the given unit counts upwards until no further exchanges are possible.
+         * <p>
+         * If {@code exchanged} is provided, the number of next units created from each unit is added to it.
+         *
+         * @param counts The unit counts, indexed by their dense identifier.
+         * @param exchanged The number of exchanges performed from each unit, indexed by their dense identifier.
+         *
+         * @return Whether any exchanges were performed.
+         *
+         * @since 2.3.0
+         */
+        public boolean normalize(long[] counts, long @Nullable [] exchanged) {
+            boolean normalized = false;
+            boolean changed;
+
+            // Exchanges always move towards more valuable units and the graph is acyclic, so this terminates.
+            do {
+                changed = false;
+
+                for (int index = 0; index < counts.length; index += 1) {
+                    final int price = this.prices[index];
+
+                    if (price == 0 || counts[index] < price) continue;
+
+                    final long total = counts[index] / price;
+
+                    counts[this.getNext(index, true)] += total;
+                    counts[index] -= total * price;
+                    changed = true;
+
+                    if (exchanged != null) exchanged[index] += total;
+                }
+
+                normalized |= changed;
+            } while (changed);
+
+            return normalized;
+        }
+
+    }
+
+    /**
+     * An immutable, pre-compiled set of skeleton recipes.
+     * <p>
+     * Each skeleton's requirements are stored as a sparse vector of dense reward identifiers and counts, which allows
+     * the number of crafted skeletons to be solved for directly rather than crafting them one at a time.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class SkeletonSolver {
+
+        /**
+         * An empty skeleton solver.
+         *
+         * @since 2.3.0
+         */
+        public static final SkeletonSolver EMPTY = new SkeletonSolver(new Skeleton[0], new Reference2IntOpenHashMap<>());
+
+        /**
+         * The skeletons within this solver, indexed by their dense identifier.
+         *
+         * @since 2.3.0
+         */
+        private final Skeleton[] skeletons;
+        /**
+         * Maps each required reward reference to its dense identifier.
+         *
+         * @since 2.3.0
+         */
+        private final Reference2IntOpenHashMap<Reward> rewardIndexes;
+        /**
+         * The required rewards, indexed by their dense identifier.
+         *
+         * @since 2.3.0
+         */
+        private final List<Reward> rewards = new ObjectArrayList<>();
+        /**
+         * The dense identifiers of each skeleton's required rewards.
+         *
+         * @since 2.3.0
+         */
+        private final int[][] requiredRewards;
+        /**
+         * The number of each reward required by each skeleton, matching {@link #requiredRewards}.
+         *
+         * @since 2.3.0
+         */
+        private final int[][] requiredCounts;
+
+        /**
+         * Creates a new skeleton solver.
+         *
+         * @param skeletons The skeletons, indexed by their dense identifier.
+         * @param rewardIndexes Maps each required reward to its dense identifier.
+         *
+         * @since 2.3.0
+         */
+        private SkeletonSolver(Skeleton[] skeletons, Reference2IntOpenHashMap<Reward> rewardIndexes) {
+            this.skeletons = skeletons;
+            this.rewardIndexes = rewardIndexes;
+            this.rewardIndexes.defaultReturnValue(-1);
+            this.requiredRewards = new int[skeletons.length][];
+            this.requiredCounts = new int[skeletons.length][];
+        }
+
+        /**
+         * Returns the skeleton solver of the currently active snapshot.
+         *
+         * @return The currently active skeleton solver.
+         *
+         * @since 2.3.0
+         */
+        public static SkeletonSolver get() {
+            return CurrencySnapshot.get().getSolver();
+        }
+
+        /**
+         * Compiles the given skeletons into a new solver, resolving their requirements using the given rewards.
+         * <p>
+         * Skeletons are ordered by their identifiers, which decides the order that they are crafted in. Skeletons
+         * without any valid requirements are reported and are never crafted.
+         *
+         * @param map The skeleton map.
+         * @param rewards The reward map.
+         *
+         * @return A new skeleton solver.
+         *
+         * @since 2.3.0
+         */
+        public static SkeletonSolver compile(CurrencyMap<Skeleton> map, CurrencyMap<Reward> rewards) {
+            final List<Entry<Identifier, Skeleton>> entries = new ObjectArrayList<>(map.entrySet());
+
+            // Sorting keeps the crafting order independent of the map's iteration order.
+            entries.sort(Entry.comparingByKey());
+
+            final int size = entries.size();
+            final Skeleton[] skeletons = new Skeleton[size];
+            final Identifier[] ids = new Identifier[size];
+
+            for (int index = 0; index < size; index += 1) {
+                skeletons[index] = entries.get(index).getValue();
+                ids[index] = entries.get(index).getKey();
+            }
+
+            final SkeletonSolver solver = new SkeletonSolver(skeletons, new Reference2IntOpenHashMap<>());
 
-        final PlayerInventory inventory = player.getInventory();
-        boolean changed = false;
+            for (int skeleton = 0; skeleton < skeletons.length; skeleton += 1) {
+                // Calculate the total number of each requirement.
+                final Reference2IntOpenHashMap<Reward> counts = new Reference2IntOpenHashMap<>(2);
 
-        for (final Entry<Unit, Integer> entry : counts.entrySet()) {
-            final Unit unit = entry.getKey();
-            final int count = entry.getValue();
+                for (final Identifier identifier : skeletons[skeleton].requires()) {
+                    rewards.find(identifier).ifPresent(reward -> counts.addTo(reward, 1));
+                }
 
-            if (count == 0) continue;
+                if (counts.isEmpty()) {
+                    Astral.LOGGER.warn("Currency skeleton '{}' has no valid requirements", ids[skeleton]);
+                }
 
-            final Optional<Entry<Identifier, Unit>> maybeNext = unit.next(true);
+                solver.requiredRewards[skeleton] = new int[counts.size()];
+                solver.requiredCounts[skeleton] = new int[counts.size()];
 
-            if (maybeNext.isEmpty()) continue;
+                int requirement = 0;
 
-            // Calculate the price and total units crafted.
-            final String thisNamespace = Unit.UNITS.getId(unit).map(Identifier::getNamespace).orElse(Astral.MOD_ID);
-            final String nextNamespace = maybeNext.get().getKey().getNamespace();
-            final Unit next = maybeNext.get().getValue();
-            final int price;
+                for (final Reference2IntMap.Entry<Reward> entry : counts.reference2IntEntrySet()) {
+                    if (solver.rewardIndexes.putIfAbsent(entry.getKey(), solver.rewardIndexes.size()) == -1) {
+                        solver.rewards.add(entry.getKey());
+                    }
 
-            if (thisNamespace.equals(nextNamespace)) {
-                price = next.value() / unit.value();
-            } else if (unit.exchangeMap().containsKey(nextNamespace)) {
-                price = next.value() / unit.exchangeMap().get(nextNamespace);
-            } else {
-                continue;
+                    solver.requiredRewards[skeleton][requirement] = solver.rewardIndexes.getInt(entry.getKey());
+                    solver.requiredCounts[skeleton][requirement] = entry.getIntValue();
+                    requirement += 1;
+                }
             }
 
-            if (price == 0) continue;
+            return solver;
+        }
 
-            final int total = count / price;
+        /**
+         * Returns the dense identifier of the given reward, or {@code -1} if no skeleton requires it.
+         *
+         * @param reward The reward.
+         *
+         * @return The dense identifier of the given reward.
+         *
+         * @since 2.3.0
+         */
+        public int indexOf(Reward reward) {
+            return this.rewardIndexes.getInt(reward);
+        }
 
-            if (total == 0) continue;
+        /**
+         * Returns the required reward with the given dense identifier.
+         *
+         * @param index The dense identifier.
+         *
+         * @return The reward with the given dense identifier.
+         *
+         * @since 2.3.0
+         */
+        public Reward getReward(int index) {
+            return this.rewards.get(index);
+        }
 
-            final ItemStack stack = next.getItem().getDefaultStack();
+        /**
+         * Returns the total number of rewards required by any skeleton.
+         *
+         * @return The total number of required rewards.
+         *
+         * @since 2.3.0
+         */
+        public int getRewardCount() {
+            return this.rewardIndexes.size();
+        }
 
-            stack.setCount(total);
+        /**
+         * Returns the skeleton with the given dense identifier.
+         *
+         * @param index The dense identifier.
+         *
+         * @return The skeleton with the given dense identifier.
+         *
+         * @since 2.3.0
+         */
+        public Skeleton getSkeleton(int index) {
+            return this.skeletons[index];
+        }
 
-            // Remove consumed items.
-            inventory.remove(
-                s -> s.getItem().equals(unit.getItem()) && canExchange(s),
-                total * price,
-                player.playerScreenHandler.getCraftingInput()
-            );
+        /**
+         * Returns the total number of skeletons within this solver.
+         *
+         * @return The total number of skeletons.
+         *
+         * @since 2.3.0
+         */
+        public int size() {
+            return this.skeletons.length;
+        }
+
+        /**
+         * Returns whether the given skeleton may be crafted {@code times} times using the given reward counts.
+         *
+         * @param skeleton The dense identifier of the skeleton.
+         * @param counts The held reward counts, indexed by their dense identifier.
+         * @param times The number of times to craft.
+         *
+         * @return Whether the skeleton may be crafted.
+         *
+         * @since 2.3.0
+         */
+        private boolean canCraft(int skeleton, int[] counts, long times) {
+            final int[] rewards = this.requiredRewards[skeleton];
 
-            inventory.offerOrDrop(stack);
+            // Skeletons without requirements would otherwise be crafted forever.
+            if (rewards.length == 0) return false;
 
-            if (next.dropRewards()) dropRewards(player, total);
+            for (int requirement = 0; requirement < rewards.length; requirement += 1) {
+                if (counts[rewards[requirement]] < times * this.requiredCounts[skeleton][requirement]) return false;
+            }
 
-            changed = true;
+            return true;
         }
 
-        return changed;
-    }
+        /**
+         * Consumes the requirements of the given skeleton {@code times} times from the given reward counts.
+         *
+         * @param skeleton The dense identifier of the skeleton.
+         * @param counts The held reward counts, indexed by their dense identifier.
+         * @param times The number of times to craft.
+         *
+         * @since 2.3.0
+         */
+        private void consume(int skeleton, int[] counts, int times) {
+            final int[] rewards = this.requiredRewards[skeleton];
 
-    /**
-     * Automatically exchanges currency rewards within a player's inventory.
-     *
-     * @param player The target player entity.
-     * @param pairs Pairs of item stacks, and their associated rewards.
-     *
-     * @return Whether the player's inventory was modified.
-     *
-     * @since 2.0.0
-     */
-    static boolean tryExchangeRewards(PlayerEntity player, List<Pair<ItemStack, Reward>> pairs) {
-        final Map<Reward, Integer> counts = new Object2IntOpenHashMap<>(pairs.size());
-        final List<Skeleton> craftableSkeletons = new ObjectArrayList<>();
+            for (int requirement = 0; requirement < rewards.length; requirement += 1) {
+                counts[rewards[requirement]] -= times * this.requiredCounts[skeleton][requirement];
+            }
+        }
 
-        // Count all rewards, ignoring stacks that cannot be exchanged.
-        for (final Pair<ItemStack, Reward> pair : pairs) {
-            final ItemStack stack = pair.getLeft();
-            final Reward reward = pair.getRight();
+        /**
+         * Adds the rewards consumed by a single craft of the given skeleton to the given per-round consumption.
+         *
+         * @param skeleton The dense identifier of the skeleton.
+         * @param perRound The rewards consumed by a single round, indexed by their dense identifier.
+         * @param sign {@code 1} to add the skeleton's requirements, or {@code -1} to remove them.
+         *
+         * @since 2.3.0
+         */
+        private void addPerRound(int skeleton, long[] perRound, int sign) {
+            final int[] rewards = this.requiredRewards[skeleton];
 
-            if (canExchange(stack)) counts.merge(reward, stack.getCount(), Integer::sum);
+            for (int requirement = 0; requirement < rewards.length; requirement += 1) {
+                perRound[rewards[requirement]] += (long) sign * this.requiredCounts[skeleton][requirement];
+            }
         }
 
-        // Grab a list of all craftable skeletons.
-        for (final Skeleton skeleton : Skeleton.SKELETONS.values()) {
-            if (!skeleton.hasRequirements(counts)) continue;
+        /**
+         * Solves for the number of each skeleton that may be crafted using the given reward counts.
+         * <p>
+         * Skeletons are crafted round-robin, one of each craftable skeleton per round in order, and a skeleton stops
+         * being crafted as soon as it cannot afford a round. Rather than simulating each round, every round that all
+         * remaining skeletons can afford is applied at once, followed by the single round in which at least one
+         * skeleton drops out. The work done therefore depends only on the number of skeletons and their requirements,
+         * never on the number of held rewards.
+         * <p>
+         * This cannot be done in a single linear pass. Dropping a skeleton slows the consumption of every reward that
+         * it shares with other skeletons, which decides when the next skeleton drops, and the round in which a skeleton
+         * drops is decided by its position within that round. Each drop therefore requires a pass over the remaining
+         * skeletons, and if every pass only drops a single skeleton this is quadratic in the number of skeletons.
+         * Reward consumption is updated incrementally as skeletons drop, so each pass is linear in the remaining
+         * skeletons and the required rewards, and the worst case remains bounded by the square of the number of
+         * skeletons, however many rewards are held.
+         *
+         * @param counts The held reward counts, indexed by their dense identifier. This is updated in-place to contain
+         * the remaining counts.
+         *
+         * @return The number of each skeleton crafted, indexed by their dense identifier.
+         *
+         * @since 2.3.0
+         */
+        public int[] solve(int[] counts) {
+            final int[] crafted = new int[this.skeletons.length];
+            final int[] active = new int[this.skeletons.length];
+            final long[] perRound = new long[this.getRewardCount()];
+            int activeCount = 0;
+
+            for (int skeleton = 0; skeleton < this.skeletons.length; skeleton += 1) {
+                if (this.canCraft(skeleton, counts, 1)) active[activeCount++] = skeleton;
+            }
 
-            craftableSkeletons.add(skeleton);
-        }
+            // Sum the rewards consumed by a single round of every active skeleton.
+            for (int index = 0; index < activeCount; index += 1) {
+                this.addPerRound(active[index], perRound, 1);
+            }
 
-        final Map<Reward, Integer> removed = new Object2IntOpenHashMap<>(counts.size());
-        final Map<Skeleton, Integer> skeletons = new Object2IntOpenHashMap<>(craftableSkeletons.size());
+            while (activeCount > 0) {
+                // Determine how many complete rounds every active skeleton can afford.
+                long rounds = Long.MAX_VALUE;
 
-        while (!craftableSkeletons.isEmpty()) {
-            final List<Skeleton> uncraftable = new ObjectArrayList<>();
+                for (int reward = 0; reward < perRound.length; reward += 1) {
+                    if (perRound[reward] > 0) rounds = Math.min(rounds, counts[reward] / perRound[reward]);
+                }
 
-            for (final Skeleton skeleton : craftableSkeletons) {
-                if (skeleton.hasRequirements(counts)) {
-                    for (final Reward reward : skeleton.getRequirements()) {
-                        removed.merge(reward, 1, Integer::sum);
-                        counts.computeIfPresent(reward, (r, n) -> n - 1);
-                    }
+                if (rounds > 0) {
+                    for (int index = 0; index < activeCount; index += 1) {
+                        crafted[active[index]] += (int) rounds;
 
-                    skeletons.merge(skeleton, 1, Integer::sum);
-                } else {
-                    uncraftable.add(skeleton);
+                        this.consume(active[index], counts, (int) rounds);
+                    }
                 }
-            }
 
-            craftableSkeletons.removeAll(uncraftable);
-        }
+                // Run the next round one skeleton at a time. At least one skeleton cannot afford it and is dropped.
+                int kept = 0;
 
-        final PlayerInventory inventory = player.getInventory();
-        boolean modified = false;
+                for (int index = 0; index < activeCount; index += 1) {
+                    final int skeleton = active[index];
 
-        // Remove all consumed reward items.
-        for (final Entry<Reward, Integer> entry : removed.entrySet()) {
-            final Reward reward = entry.getKey();
-            final int count = entry.getValue();
-            final int n = inventory.remove(
-                s -> s.getItem().equals(reward.getItem()) && canExchange(s),
-                count,
-                player.playerScreenHandler.getCraftingInput()
-            );
+                    if (!this.canCraft(skeleton, counts, 1)) {
+                        this.addPerRound(skeleton, perRound, -1);
 
-            if (n > 0) modified = true;
-        }
+                        continue;
+                    }
 
-        // Give all produced skeleton items.
-        for (final Entry<Skeleton, Integer> entry : skeletons.entrySet()) {
-            final Skeleton skeleton = entry.getKey();
-            final int count = entry.getValue();
-            final ItemStack stack = skeleton.getItem().getDefaultStack();
+                    crafted[skeleton] += 1;
+
+                    this.consume(skeleton, counts, 1);
+
+                    active[kept++] = skeleton;
+                }
 
-            stack.setCount(count);
-            inventory.offerOrDrop(stack);
+                activeCount = kept;
+            }
 
-            modified = true;
+            return crafted;
         }
 
-        return modified;
     }
 
     /**
-     * A type that has an associated item representation.
+     * An immutable, pre-compiled sampler for weighted currency rewards.
+     * <p>
+     * Rewards are drawn in constant time using an alias table built with Vose's method, and large numbers of draws are
+     * split between rewards using binomial sampling, so that the cost of a drop does not depend on its size.
      *
      * @author Jaxydog
-     * @since 2.0.0
+     * @since 2.3.0
      */
-    sealed interface ItemRepresentable {
+    final class RewardSampler {
 
         /**
-         * Returns the associated item identifier, or {@code minecraft:air} if the referenced identifier is invalid.
-         *
-         * @return The associated item identifier, or {@code minecraft:air} if the referenced identifier is invalid.
+         * An empty reward sampler.
          *
-         * @since 2.0.0
+         * @since 2.3.0
          */
-        Identifier getItemId();
+        public static final RewardSampler EMPTY = new RewardSampler(new Reward[0]);
 
         /**
-         * Returns the associated item, or {@link net.minecraft.item.Items#AIR} if the referenced item is invalid.
+         * The mean below which binomial samples skip between successes, rather than using rejection sampling.
          *
-         * @return The associated item, or {@link net.minecraft.item.Items#AIR} if the referenced item is invalid.
+         * @since 2.3.0
+         */
+        private static final double SKIP_MEAN = 10D;
+        /**
+         * The Stirling series tail of {@code ln(k!)} for each {@code k} below ten, where the series is inaccurate.
          *
-         * @since 2.0.0
+         * @since 2.3.0
          */
-        default Item getItem() {
-            return Registries.ITEM.get(this.getItemId());
-        }
-
-    }
-
-    /**
-     * A map containing values of a specified currency type.
-     *
-     * @param <T> The currency type.
-     *
-     * @author Jaxydog
-     * @since 2.0.0
-     */
-    final class CurrencyMap<T extends ItemRepresentable> {
+        private static final double[] STIRLING_TAILS = {
+            0.0810614667953272D,
+            0.0413406959554092D,
+            0.0276779256849983D,
+            0.02079067210376509D,
+            0.0166446911898211D,
+            0.0138761288230707D,
+            0.0118967099458917D,
+            0.0104112652619720D,
+            0.00925546218271273D,
+            0.00833056343336287D,
+        };
 
         /**
-         * The inner identifier-to-object map.
+         * The rewards within this sampler, indexed by their dense identifier.
          *
-         * @since 2.0.0
+         * @since 2.3.0
          */
-        private final Map<Identifier, T> inner = new Object2ObjectOpenHashMap<>();
-
+        private final Reward[] rewards;
         /**
-         * Sets the value at the given identifier.
+         * The total weight of the rewards following each reward, inclusive, used when splitting draws.
          *
-         * @param identifier The identifier.
-         * @param value The currency value.
+         * @since 2.3.0
+         */
+        private final long[] remainingWeights;
+        /**
+         * The probability of keeping each column of the alias table.
          *
-         * @return The new size of the map.
+         * @since 2.3.0
+         */
+        private final double[] probabilities;
+        /**
+         * The alias of each column of the alias table.
          *
-         * @since 2.0.0
+         * @since 2.3.0
          */
-        public int set(Identifier identifier, T value) {
-            this.inner.put(identifier, value);
-
-            return this.inner.size();
-        }
+        private final int[] aliases;
 
         /**
-         * Sets the values at the given identifiers.
-         *
-         * @param values The value map.
+         * Creates a new reward sampler, building its alias table.
          *
-         * @return The new size of the map.
+         * @param rewards The rewards, indexed by their dense identifier.
          *
-         * @since 2.0.0
+         * @since 2.3.0
          */
-        public int set(Map<Identifier, T> values) {
-            this.inner.putAll(values);
+        private RewardSampler(Reward[] rewards) {
+            final int size = rewards.length;
+
+            this.rewards = rewards;
+            this.remainingWeights = new long[size];
+            this.probabilities = new double[size];
+            this.aliases = new int[size];
+
+            long total = 0L;
+
+            for (int index = size - 1; index >= 0; index -= 1) {
+                total += rewards[index].weight();
+
+                this.remainingWeights[index] = total;
+            }
+
+            // Scale each weight so that the average column has a probability of exactly one.
+            final double[] scaled = new double[size];
+            final int[] small = new int[size];
+            final int[] large = new int[size];
+            int smallCount = 0;
+            int largeCount = 0;
+
+            for (int index = 0; index < size; index += 1) {
+                scaled[index] = (double) rewards[index].weight() * size / total;
+
+                if (scaled[index] < 1D) {
+                    small[smallCount++] = index;
+                } else {
+                    large[largeCount++] = index;
+                }
+            }
+
+            while (smallCount > 0 && largeCount > 0) {
+                final int less = small[--smallCount];
+                final int more = large[--largeCount];
 
-            return this.inner.size();
+                this.probabilities[less] = scaled[less];
+                this.aliases[less] = more;
+
+                scaled[more] = (scaled[more] + scaled[less]) - 1D;
+
+                if (scaled[more] < 1D) {
+                    small[smallCount++] = more;
+                } else {
+                    large[largeCount++] = more;
+                }
+            }
+
+            // Any remaining columns are full, barring floating point error.
+            while (largeCount > 0) this.probabilities[large[--largeCount]] = 1D;
+            while (smallCount > 0) this.probabilities[small[--smallCount]] = 1D;
         }
 
         /**
-         * Clears the map.
+         * Returns the reward sampler of the currently active snapshot.
          *
-         * @since 2.0.0
+         * @return The currently active reward sampler.
+         *
+         * @since 2.3.0
          */
-        public void clear() {
-            this.inner.clear();
+        public static RewardSampler get() {
+            return CurrencySnapshot.get().getSampler();
         }
 
         /**
-         * Loads the given values into this map.
+         * Compiles the given rewards into a new sampler.
          *
-         * @param values The value map.
+         * @param map The reward map.
          *
-         * @return The new size of the map.
+         * @return A new reward sampler.
          *
-         * @since 2.0.0
+         * @since 2.3.0
          */
-        public int load(Map<Identifier, T> values) {
-            this.clear();
-
-            return this.set(values);
+        public static RewardSampler compile(CurrencyMap<Reward> map) {
+            return new RewardSampler(map.values().toArray(Reward[]::new));
         }
 
         /**
-         * Finds and returns the value associated with the provided item identifier.
+         * Returns the number of successes within the given number of trials, each succeeding with the given chance.
+         * <p>
+         * Samples are always exact. Distributions with a small mean skip directly between successes, which takes time
+         * proportional to the mean, and all other distributions use Hörmann's BTRS transformed rejection method, which
+         * accepts a sample after about 1.15 attempts on average regardless of the number of trials. Either way, the
+         * expected cost is constant.
          *
-         * @param identifier The item's identifier.
+         * @param random The random number generator.
+         * @param trials The number of trials.
+         * @param chance The chance of each trial succeeding.
          *
-         * @return The value associated with the provided item identifier.
+         * @return The number of successful trials.
          *
-         * @since 2.0.0
+         * @since 2.3.0
          */
-        public Optional<T> find(Identifier identifier) {
-            return this.inner.values().stream().filter(t -> t.getItemId().equals(identifier)).findFirst();
+        public static int sampleBinomial(Random random, int trials, double chance) {
+            if (trials <= 0 || chance <= 0D) return 0;
+            if (chance >= 1D) return trials;
+
+            // Sample the rarer outcome, which keeps the exact method cheap.
+            final boolean inverted = chance > 0.5D;
+            final double probability = inverted ? 1D - chance : chance;
+            final double mean = trials * probability;
+            final int successes = mean < SKIP_MEAN
+                ? sampleBinomialSkip(random, trials, probability)
+                : sampleBinomialRejection(random, trials, probability);
+
+            return inverted ? trials - successes : successes;
         }
 
         /**
-         * Finds and returns the value associated with the provided item.
+         * Samples a binomial distribution exactly by skipping between successes using geometrically distributed gaps.
          *
-         * @param item The item.
+         * @param random The random number generator.
+         * @param trials The number of trials.
+         * @param chance The chance of each trial succeeding, which must be between zero and one exclusive.
          *
-         * @return The value associated with the provided item.
+         * @return The number of successful trials.
          *
-         * @since 2.0.0
+         * @since 2.3.0
          */
-        public Optional<T> find(Item item) {
-            return this.find(Registries.ITEM.getId(item));
+        private static int sampleBinomialSkip(Random random, int trials, double chance) {
+            final double logFailure = Math.log1p(-chance);
+            int successes = 0;
+            long trial = 0L;
+
+            while (true) {
+                trial += (long) (Math.log(1D - random.nextDouble()) / logFailure) + 1L;
+
+                if (trial > trials) return successes;
+
+                successes += 1;
+            }
         }
 
         /**
-         * Finds and returns the value associated with the provided item stack.
+         * Samples a binomial distribution exactly using Hörmann's BTRS method, a transformed rejection method with a
+         * squeeze, from "The generation of binomial random variates" (1993).
+         * <p>
+         * This is only valid for a chance of at most one half and a mean of at least ten.
          *
-         * @param stack The item stack.
+         * @param random The random number generator.
+         * @param trials The number of trials.
+         * @param chance The chance of each trial succeeding.
          *
-         * @return The value associated with the provided item stack.
+         * @return The number of successful trials.
          *
-         * @since 2.0.0
+         * @since 2.3.0
          */
-        public Optional<T> find(ItemStack stack) {
-            return this.find(stack.getItem());
+        private static int sampleBinomialRejection(Random random, int trials, double chance) {
+            final double deviation = Math.sqrt(trials * chance * (1D - chance));
+            final double b = 1.15D + (2.53D * deviation);
+            final double a = -0.0873D + (0.0248D * b) + (0.01D * chance);
+            final double c = (trials * chance) + 0.5D;
+            final double squeeze = 0.92D - (4.2D / b);
+            final double ratio = chance / (1D - chance);
+            final double alpha = (2.83D + (5.1D / b)) * deviation;
+            final double mode = Math.floor((trials + 1D) * chance);
+
+            while (true) {
+                final double u = random.nextDouble() - 0.5D;
+                final double us = 0.5D - Math.abs(u);
+                double v = random.nextDouble();
+                final double k = Math.floor((((2D * a) / us) + b) * u + c);
+
+                if (k < 0D || k > trials) continue;
+                // Most samples fall within the squeeze, where the hat is known to be below the distribution.
+                if (us >= 0.07D && v <= squeeze) return (int) k;
+
+                v = Math.log((v * alpha) / ((a / (us * us)) + b));
+
+                final double bound = ((mode + 0.5D) * Math.log((mode + 1D) / (ratio * (trials - mode + 1D))))
+                    + ((trials + 1D) * Math.log((trials - mode + 1D) / (trials - k + 1D)))
+                    + ((k + 0.5D) * Math.log((ratio * (trials - k + 1D)) / (k + 1D)))
+                    + stirlingTail(mode)
+                    + stirlingTail(trials - mode)
+                    - stirlingTail(k)
+                    - stirlingTail(trials - k);
+
+                if (v <= bound) return (int) k;
+            }
         }
 
         /**
-         * Finds and returns the identifier of the provided value.
+         * Returns the tail of the Stirling series for {@code ln(k!)}, being the difference between {@code ln(k!)} and
+         * {@code ln(sqrt(2 * pi)) + (k + 0.5) * ln(k + 1) - (k + 1)}.
          *
-         * @param value The value.
+         * @param k The non-negative integer.
          *
-         * @return The identifier of the provided value.
+         * @return The series tail.
          *
-         * @since 2.0.0
+         * @since 2.3.0
          */
-        public Optional<Identifier> getId(T value) {
-            return this.inner.entrySet()
-                .stream()
-                .filter(e -> e.getValue().equals(value))
-                .findFirst()
-                .map(Entry::getKey);
+        private static double stirlingTail(double k) {
+            if (k < STIRLING_TAILS.length) return STIRLING_TAILS[(int) k];
+
+            final double squared = (k + 1D) * (k + 1D);
+
+            return ((1D / 12D) - (((1D / 360D) - ((1D / 1260D) / squared)) / squared)) / (k + 1D);
         }
 
         /**
-         * Returns the total number of entries within the map.
+         * Returns the total number of rewards within this sampler.
          *
-         * @return The total number of entries within the map.
+         * @return The total number of rewards.
          *
-         * @since 2.0.0
+         * @since 2.3.0
          */
         public int size() {
-            return this.inner.size();
+            return this.rewards.length;
         }
 
         /**
-         * Returns whether the map is empty.
-         *
-         * @return Whether the map is empty.
+         * Returns the reward with the given dense identifier.
          *
-         * @since 2.0.0
-         */
-        public boolean isEmpty() {
-            return this.inner.isEmpty();
-        }
-
-        /**
-         * Returns a set containing the registered values and their identifiers.
+         * @param index The dense identifier.
          *
-         * @return A set containing the registered values and their identifiers.
+         * @return The reward with the given dense identifier.
          *
-         * @since 2.0.0
+         * @since 2.3.0
          */
-        public Set<Entry<Identifier, T>> entrySet() {
-            return this.inner.entrySet();
+        public Reward getReward(int index) {
+            return this.rewards[index];
         }
 
         /**
-         * Returns a set containing the identifiers within this map.
+         * Returns the dense identifier of a random reward, chosen by weight.
          *
-         * @return A set containing the identifiers within this map.
+         * @param random The random number generator.
          *
-         * @since 2.0.0
+         * @return The dense identifier of a random reward.
+         *
+         * @since 2.3.0
          */
-        public Set<Identifier> keySet() {
-            return this.inner.keySet();
+        public int sample(Random random) {
+            final int column = random.nextInt(this.rewards.length);
+
+            return random.nextDouble() < this.probabilities[column] ? column : this.aliases[column];
         }
 
         /**
-         * Returns a collection containing the values within this map.
+         * Draws the given number of random rewards by weight, returning the number of times each reward was drawn.
+         * <p>
+         * Small draws use the alias table directly. Larger draws are split between rewards using a binomial sample for
+         * each reward, so the cost is bounded by the number of rewards rather than the number of draws.
          *
-         * @return A collection containing the values within this map.
+         * @param random The random number generator.
+         * @param count The number of draws.
          *
-         * @since 2.0.0
+         * @return The number of times each reward was drawn, indexed by their dense identifier.
+         *
+         * @since 2.3.0
          */
-        public Collection<T> values() {
-            return this.inner.values();
+        public int[] sampleCounts(Random random, int count) {
+            final int[] counts = new int[this.rewards.length];
+
+            if (this.rewards.length == 0 || count <= 0) return counts;
+
+            if (count <= this.rewards.length) {
+                for (int draw = 0; draw < count; draw += 1) {
+                    counts[this.sample(random)] += 1;
+                }
+
+                return counts;
+            }
+
+            int remaining = count;
+
+            for (int index = 0; index < this.rewards.length && remaining > 0; index += 1) {
+                final double chance = (double) this.rewards[index].weight() / this.remainingWeights[index];
+
+                counts[index] = sampleBinomial(random, remaining, chance);
+                remaining -= counts[index];
+            }
+
+            return counts;
         }
 
     }
@@ -541,7 +3094,7 @@ public interface CurrencyHelper {
          *
          * @since 2.0.0
          */
-        public static final CurrencyMap<Unit> UNITS = new CurrencyMap<>();
+        public static final CurrencyMap<Unit> UNITS = CurrencyMap.view(CurrencySnapshot::getUnits);
 
         /**
          * A comparator that compares by a unit's value.
@@ -597,67 +3150,17 @@ public interface CurrencyHelper {
          * @since 2.0.0
          */
         public Optional<Entry<Identifier, Unit>> next(boolean exactMultiple) {
-            final String thisNamespace = UNITS.getId(this).map(Identifier::getNamespace).orElse(Astral.MOD_ID);
-
-            return UNITS.entrySet().stream().flatMap(entry -> {
-                final Identifier identifier = entry.getKey();
-                final Unit unit = entry.getValue();
-                final String nextNamespace = identifier.getNamespace();
-
-                // If these are equal, we don't need to do any conversions.
-                if (thisNamespace.equals(nextNamespace)) {
-                    // Ignore values that are not "next".
-                    if (entry.getValue().value() <= this.value()) return Stream.empty();
-
-                    // Skip this check if an exact multiple is not required.
-                    if (!exactMultiple) return Stream.of(entry);
-
-                    // Ensure the returned entry's value is perfectly divisible.
-                    return Stream.of(entry).filter(e -> unit.value() % this.value() == 0);
-                }
-                // Make sure we use the converted value if this is from a different namespace.
-                if (this.exchangeMap().containsKey(nextNamespace)) {
-                    // Compute the actual value within this namespace.
-                    final int value = this.exchangeMap().get(nextNamespace) * unit.value();
-
-                    // Ignore values that are not "next".
-                    if (value <= this.value()) return Stream.empty();
-
-                    // Skip this check if an exact multiple is not required.
-                    if (!exactMultiple) return Stream.of(entry);
+            final ExchangeGraph graph = ExchangeGraph.get();
+            final int index = graph.indexOf(this);
 
-                    // Ensure the returned entry's value is perfectly divisible.
-                    return Stream.of(entry).filter(e -> value % this.value() == 0);
-                }
-
-                // Assume the currencies are incompatible.
-                return Stream.empty();
-            }).min(Comparator.comparingInt(entry -> {
-                final Identifier identifier = entry.getKey();
-                final Unit unit = entry.getValue();
-                final String nextNamespace = identifier.getNamespace();
-
-                // Make sure we use the converted value if this is from a different namespace.
-                if (this.exchangeMap().containsKey(nextNamespace)) {
-                    // Compute the actual value within this namespace.
-                    return this.exchangeMap().get(nextNamespace) * unit.value();
-                }
-
-                // If these are equal, we don't need to do any conversions.
-                if (thisNamespace.equals(nextNamespace)) return unit.value();
+            if (index < 0) return Optional.empty();
 
-                // Otherwise, something went wrong and this should be ignored.
-                return Integer.MAX_VALUE;
-            }));
+            return graph.getNextEntry(index, exactMultiple);
         }
 
         @Override
-        public Identifier getItemId() {
-            if (Registries.ITEM.containsId(this.itemId())) {
-                return this.itemId();
-            } else {
-                return Registries.ITEM.getDefaultId();
-            }
+        public Item getItem() {
+            return UNITS.getItem(this);
         }
 
         @Override
@@ -683,7 +3186,7 @@ public interface CurrencyHelper {
          *
          * @since 2.0.0
          */
-        public static final CurrencyMap<Reward> REWARDS = new CurrencyMap<>();
+        public static final CurrencyMap<Reward> REWARDS = CurrencyMap.view(CurrencySnapshot::getRewards);
 
         /**
          * Parses a JSON object and creates a new {@link Reward} from the resolved data.
@@ -714,27 +3217,37 @@ public interface CurrencyHelper {
          * @since 2.0.0
          */
         public static List<Reward> getRandom(int count) {
-            final int elements = Math.max(count, REWARDS.size());
-            final List<Reward> output = new ObjectArrayList<>(elements);
-            final WeightedList<Reward> rewards = new WeightedList<>();
+            return getRandom(Random.create(), count);
+        }
 
-            REWARDS.values().forEach(r -> rewards.add(r, r.weight()));
+        /**
+         * Returns a list of randomly generated rewards.
+         *
+         * @param random The random number generator.
+         * @param count The number of rewards to generate.
+         *
+         * @return A list of randomly generated rewards.
+         *
+         * @since 2.3.0
+         */
+        public static List<Reward> getRandom(Random random, int count) {
+            final RewardSampler sampler = RewardSampler.get();
 
-            // Allows for duplicate elements, unlike `.limit(elements).toList()`.
-            for (int iteration = 0; iteration < elements; iteration += 1) {
-                rewards.shuffle().stream().findFirst().ifPresent(output::add);
+            if (sampler.size() == 0 || count <= 0) return List.of();
+
+            final List<Reward> output = new ObjectArrayList<>(count);
+
+            // Allows for duplicate elements.
+            for (int iteration = 0; iteration < count; iteration += 1) {
+                output.add(sampler.getReward(sampler.sample(random)));
             }
 
             return output;
         }
 
         @Override
-        public Identifier getItemId() {
-            if (Registries.ITEM.containsId(this.itemId())) {
-                return this.itemId();
-            } else {
-                return Registries.ITEM.getDefaultId();
-            }
+        public Item getItem() {
+            return REWARDS.getItem(this);
         }
 
     }
@@ -755,7 +3268,7 @@ public interface CurrencyHelper {
          *
          * @since 2.0.0
          */
-        public static final CurrencyMap<Skeleton> SKELETONS = new CurrencyMap<>();
+        public static final CurrencyMap<Skeleton> SKELETONS = CurrencyMap.view(CurrencySnapshot::getSkeletons);
 
         /**
          * Parses a JSON object and creates a new {@link Skeleton} from the resolved data.
@@ -829,12 +3342,8 @@ public interface CurrencyHelper {
         }
 
         @Override
-        public Identifier getItemId() {
-            if (Registries.ITEM.containsId(this.itemId())) {
-                return this.itemId();
-            } else {
-                return Registries.ITEM.getDefaultId();
-            }
+        public Item getItem() {
+            return SKELETONS.getItem(this);
         }
 
     }
@@ -0,0 +1,213 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.utility.audit;
+
+import java.nio.file.Path;
+
+/**
+ * Describes the binary layout of exchange audit log segments.
+ * <p>
+ * Each segment begins with a {@link #HEADER_SIZE}-byte header, followed by a sequence of tagged records. An
+ * {@link #TAG_ITEM} record assigns a name to an item number the first time that it is used within the segment, so each
+ * segment can be read on its own. An {@link #TAG_EVENT} record describes a single exchange. Segments are pre-allocated
+ * and zero-filled, so the first {@link #TAG_END} tag marks the end of the written records.
+ * <p>
+ * This class, like the reader, intentionally does not depend on any game classes.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+public final class AuditFormat {
+
+    /**
+     * The magic number that begins every segment, which reads as {@code AXLG}.
+     *
+     * @since 2.3.0
+     */
+    public static final int MAGIC = 0x41584C47;
+    /**
+     * The current format version.
+     *
+     * @since 2.3.0
+     */
+    public static final short VERSION = 1;
+    /**
+     * The size of a segment header in bytes.
+     *
+     * @since 2.3.0
+     */
+    public static final int HEADER_SIZE = 8;
+
+    /**
+     * The tag that marks the end of a segment's records.
+     *
+     * @since 2.3.0
+     */
+    public static final byte TAG_END = 0;
+    /**
+     * The tag of an item name record.
+     *
+     * @since 2.3.0
+     */
+    public static final byte TAG_ITEM = 1;
+    /**
+     * The tag of an exchange event record.
+     *
+     * @since 2.3.0
+     */
+    public static final byte TAG_EVENT = 2;
+
+    /**
+     * The size of an exchange event record in bytes, including its tag.
+     * <p>
+     * This is the tag, the timestamp, the player's identifier, the kind, and two pairs of item numbers and counts.
+     *
+     * @since 2.3.0
+     */
+    public static final int EVENT_SIZE = 1 + Long.BYTES * 3 + 1 + Integer.BYTES * 4;
+    /**
+     * The largest possible size of an item name record in bytes, including its tag.
+     *
+     * @since 2.3.0
+     */
+    public static final int MAX_ITEM_SIZE = 1 + Integer.BYTES + Short.BYTES + Short.MAX_VALUE;
+
+    /**
+     * The item number used when an event has no item.
+     *
+     * @since 2.3.0
+     */
+    public static final int NO_ITEM = -1;
+
+    /**
+     * The prefix of every segment file name.
+     *
+     * @since 2.3.0
+     */
+    public static final String SEGMENT_PREFIX = "exchange-";
+    /**
+     * The suffix of every segment file name.
+     *
+     * @since 2.3.0
+     */
+    public static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * Prevents this class from being instantiated.
+     *
+     * @since 2.3.0
+     */
+    private AuditFormat() { }
+
+    /**
+     * Returns whether the given path names an audit log segment.
+     *
+     * @param path The path.
+     *
+     * @return Whether the path is a segment.
+     *
+     * @since 2.3.0
+     */
+    public static boolean isSegment(Path path) {
+        final String name = path.getFileName().toString();
+
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    /**
+     * The kinds of exchange events.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    public enum Kind {
+
+        /**
+         * Units were exchanged into their next unit.
+         *
+         * @since 2.3.0
+         */
+        EXCHANGE,
+        /**
+         * Rewards were consumed to craft skeletons.
+         *
+         * @since 2.3.0
+         */
+        CONSUME,
+        /**
+         * Skeletons were crafted.
+         *
+         * @since 2.3.0
+         */
+        CRAFT,
+        /**
+         * Rewards were dropped.
+         *
+         * @since 2.3.0
+         */
+        DROP,
+        /**
+         * A unit was split into change.
+         *
+         * @since 2.3.0
+         */
+        CHANGE,
+        /**
+         * Units or rewards were deposited into a currency pouch or vault.
+         *
+         * @since 2.3.0
+         */
+        DEPOSIT,
+        /**
+         * Units or rewards were withdrawn from a currency pouch or vault.
+         *
+         * @since 2.3.0
+         */
+        WITHDRAW;
+
+        /**
+         * Every kind, indexed by its ordinal.
+         *
+         * @since 2.3.0
+         */
+        private static final Kind[] VALUES = values();
+
+        /**
+         * Returns the kind with the given identifier, or {@code null} if it is unknown.
+         *
+         * @param id The identifier.
+         *
+         * @return The kind.
+         *
+         * @since 2.3.0
+         */
+        public static Kind byId(int id) {
+            return id >= 0 && id < VALUES.length ? VALUES[id] : null;
+        }
+
+        /**
+         * Returns the identifier that is written to the log.
+         *
+         * @return The identifier.
+         *
+         * @since 2.3.0
+         */
+        public byte getId() {
+            return (byte) this.ordinal();
+        }
+
+    }
+
+}
@@ -0,0 +1,297 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.utility.audit;
+
+import dev.jaxydog.astral.utility.audit.AuditFormat.Kind;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Reads exchange audit log segments without requiring the game to be running.
+ * <p>
+ * This may be used as a command-line tool by running this class directly with the mod's jar and its libraries on the
+ * class path:
+ *
+ * <pre>{@code
+ * java -cp <classpath> dev.jaxydog.astral.utility.audit.AuditLogReader <directory|segment> [options]
+ * }</pre>
+ * <p>
+ * The segments of a world are stored within its {@code astral/audit} directory. The supported options are:
+ * <ul>
+ *     <li>{@code --player <uuid>} only prints exchanges performed by the given player.</li>
+ *     <li>{@code --kind <kind>} only prints exchanges of the given {@link Kind}.</li>
+ *     <li>{@code --item <id>} only prints exchanges that consumed or produced the given item.</li>
+ *     <li>{@code --since <instant>} only prints exchanges at or after the given ISO-8601 instant.</li>
+ *     <li>{@code --until <instant>} only prints exchanges before the given ISO-8601 instant.</li>
+ * </ul>
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+public final class AuditLogReader {
+
+    /**
+     * Prevents this class from being instantiated.
+     *
+     * @since 2.3.0
+     */
+    private AuditLogReader() { }
+
+    /**
+     * Prints the exchanges within the given directory or segment.
+     *
+     * @param args The command-line arguments.
+     *
+     * @since 2.3.0
+     */
+    public static void main(String[] args) {
+        if (args.length == 0 || args.length % 2 == 0) {
+            printUsage(System.err);
+            System.exit(2);
+
+            return;
+        }
+
+        Predicate<Event> filter = event -> true;
+
+        try {
+            for (int index = 1; index < args.length; index += 2) {
+                filter = filter.and(parseFilter(args[index], args[index + 1]));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            System.err.println(exception.getMessage());
+            printUsage(System.err);
+            System.exit(2);
+
+            return;
+        }
+
+        final Predicate<Event> predicate = filter;
+
+        try {
+            read(Path.of(args[0]), event -> {
+                if (predicate.test(event)) System.out.println(event);
+            });
+        } catch (IOException exception) {
+            System.err.println("Unable to read exchange audit log: " + exception.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads every exchange within the given directory or segment, in the order that they were written.
+     *
+     * @param path The directory or segment.
+     * @param consumer The exchange consumer.
+     *
+     * @throws IOException If a segment could not be read.
+     *
+     * @since 2.3.0
+     */
+    public static void read(Path path, Consumer<Event> consumer) throws IOException {
+        if (!Files.isDirectory(path)) {
+            readSegment(path, consumer);
+
+            return;
+        }
+
+        final List<Path> segments;
+
+        try (final Stream<Path> stream = Files.list(path)) {
+            // Segment names begin with their creation time, so they sort chronologically.
+            segments = stream.filter(AuditFormat::isSegment).sorted().toList();
+        }
+
+        for (final Path segment : segments) readSegment(segment, consumer);
+    }
+
+    /**
+     * Reads every exchange within the given segment, in the order that they were written.
+     *
+     * @param path The segment.
+     * @param consumer The exchange consumer.
+     *
+     * @throws IOException If the segment could not be read.
+     *
+     * @since 2.3.0
+     */
+    public static void readSegment(Path path, Consumer<Event> consumer) throws IOException {
+        final MappedByteBuffer buffer;
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(MapMode.READ_ONLY, 0L, channel.size());
+        }
+
+        buffer.order(ByteOrder.BIG_ENDIAN);
+
+        if (buffer.remaining() < AuditFormat.HEADER_SIZE || buffer.getInt() != AuditFormat.MAGIC) {
+            throw new IOException("Not an exchange audit log segment: " + path);
+        }
+
+        final short version = buffer.getShort();
+
+        if (version != AuditFormat.VERSION) {
+            throw new IOException("Unsupported exchange audit log version %d: %s".formatted(version, path));
+        }
+
+        buffer.position(AuditFormat.HEADER_SIZE);
+
+        final Int2ObjectMap<String> names = new Int2ObjectOpenHashMap<>();
+
+        try {
+            while (buffer.hasRemaining()) {
+                final byte tag = buffer.get();
+
+                switch (tag) {
+                    case AuditFormat.TAG_END -> {
+                        return;
+                    }
+                    case AuditFormat.TAG_ITEM -> {
+                        final int item = buffer.getInt();
+                        final byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+
+                        buffer.get(name);
+                        names.put(item, new String(name, StandardCharsets.UTF_8));
+                    }
+                    case AuditFormat.TAG_EVENT -> {
+                        final long time = buffer.getLong();
+                        final UUID player = new UUID(buffer.getLong(), buffer.getLong());
+                        final Kind kind = Kind.byId(buffer.get());
+                        final String from = names.get(buffer.getInt());
+                        final int fromCount = buffer.getInt();
+                        final String to = names.get(buffer.getInt());
+                        final int toCount = buffer.getInt();
+
+                        if (kind == null) throw new IOException("Unknown exchange kind within segment: " + path);
+
+                        final Instant instant = Instant.ofEpochMilli(time);
+
+                        consumer.accept(new Event(instant, player, kind, from, fromCount, to, toCount));
+                    }
+                    default -> throw new IOException("Unknown record tag %d within segment: %s".formatted(tag, path));
+                }
+            }
+        } catch (BufferUnderflowException exception) {
+            throw new IOException("Truncated exchange audit log segment: " + path, exception);
+        }
+    }
+
+    /**
+     * Parses a single command-line filter.
+     *
+     * @param option The option name.
+     * @param value The option value.
+     *
+     * @return The filter.
+     *
+     * @throws IllegalArgumentException If the option is unknown or its value is invalid.
+     * @throws DateTimeParseException If an instant could not be parsed.
+     *
+     * @since 2.3.0
+     */
+    private static Predicate<Event> parseFilter(String option, String value) {
+        return switch (option) {
+            case "--player" -> {
+                final UUID player = UUID.fromString(value);
+
+                yield event -> event.player().equals(player);
+            }
+            case "--kind" -> {
+                final Kind kind = Kind.valueOf(value.toUpperCase(Locale.ROOT));
+
+                yield event -> event.kind() == kind;
+            }
+            case "--item" -> event -> value.equals(event.from()) || value.equals(event.to());
+            case "--since" -> {
+                final Instant since = Instant.parse(value);
+
+                yield event -> !event.time().isBefore(since);
+            }
+            case "--until" -> {
+                final Instant until = Instant.parse(value);
+
+                yield event -> event.time().isBefore(until);
+            }
+            default -> throw new IllegalArgumentException("Unknown option: " + option);
+        };
+    }
+
+    /**
+     * Prints the command-line usage.
+     *
+     * @param stream The output stream.
+     *
+     * @since 2.3.0
+     */
+    private static void printUsage(PrintStream stream) {
+        stream.println("Usage: AuditLogReader <directory|segment> [--player <uuid>] [--kind <kind>] [--item <id>]"
+                       + " [--since <instant>] [--until <instant>]");
+    }
+
+    /**
+     * A single recorded exchange.
+     *
+     * @param time The time of the exchange.
+     * @param player The identifier of the player that performed the exchange.
+     * @param kind The kind of exchange.
+     * @param from The name of the consumed item, if any.
+     * @param fromCount The consumed item count.
+     * @param to The name of the produced item, if any.
+     * @param toCount The produced item count.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    public record Event(
+        Instant time, UUID player, Kind kind, @Nullable String from, int fromCount, @Nullable String to, int toCount
+    ) {
+
+        @Override
+        public String toString() {
+            final StringBuilder builder = new StringBuilder();
+
+            builder.append(this.time()).append(' ').append(this.player()).append(' ').append(this.kind());
+
+            if (this.from() != null) builder.append(' ').append(this.fromCount()).append("x ").append(this.from());
+            if (this.from() != null && this.to() != null) builder.append(" ->");
+            if (this.to() != null) builder.append(' ').append(this.toCount()).append("x ").append(this.to());
+
+            return builder.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,279 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.utility.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free queue of exchange events that are stored within pre-allocated primitive arrays.
+ * <p>
+ * Any number of threads may offer events, although only one thread may drain them. Each slot carries a sequence
+ * number that tells producers when it is free and the consumer when it has been published, so neither side ever
+ * blocks. Offering an event never allocates, and when the queue is full, the event is counted and discarded rather
+ * than stalling the caller.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+final class AuditRingBuffer {
+
+    /**
+     * The slot sequence numbers.
+     *
+     * @since 2.3.0
+     */
+    private final AtomicLongArray sequences;
+    /**
+     * The index mask, which is one less than the capacity.
+     *
+     * @since 2.3.0
+     */
+    private final int mask;
+
+    /**
+     * The event timestamps, in milliseconds since the epoch.
+     *
+     * @since 2.3.0
+     */
+    private final long[] times;
+    /**
+     * The most significant bits of each player's identifier.
+     *
+     * @since 2.3.0
+     */
+    private final long[] playerMost;
+    /**
+     * The least significant bits of each player's identifier.
+     *
+     * @since 2.3.0
+     */
+    private final long[] playerLeast;
+    /**
+     * The event kinds.
+     *
+     * @since 2.3.0
+     */
+    private final byte[] kinds;
+    /**
+     * The consumed item numbers.
+     *
+     * @since 2.3.0
+     */
+    private final int[] fromItems;
+    /**
+     * The consumed item counts.
+     *
+     * @since 2.3.0
+     */
+    private final int[] fromCounts;
+    /**
+     * The produced item numbers.
+     *
+     * @since 2.3.0
+     */
+    private final int[] toItems;
+    /**
+     * The produced item counts.
+     *
+     * @since 2.3.0
+     */
+    private final int[] toCounts;
+
+    /**
+     * The next position to be claimed by a producer.
+     *
+     * @since 2.3.0
+     */
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * The number of events that were discarded because the queue was full.
+     *
+     * @since 2.3.0
+     */
+    private final AtomicLong dropped = new AtomicLong();
+    /**
+     * The next position to be drained, which is only accessed by the consumer.
+     *
+     * @since 2.3.0
+     */
+    private long head;
+
+    /**
+     * Creates a new ring buffer.
+     *
+     * @param capacity The capacity, which must be a power of two.
+     *
+     * @since 2.3.0
+     */
+    AuditRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, got " + capacity);
+        }
+
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        this.times = new long[capacity];
+        this.playerMost = new long[capacity];
+        this.playerLeast = new long[capacity];
+        this.kinds = new byte[capacity];
+        this.fromItems = new int[capacity];
+        this.fromCounts = new int[capacity];
+        this.toItems = new int[capacity];
+        this.toCounts = new int[capacity];
+
+        for (int index = 0; index < capacity; index += 1) {
+            this.sequences.set(index, index);
+        }
+    }
+
+    /**
+     * Offers an event to the queue.
+     *
+     * @param time The timestamp, in milliseconds since the epoch.
+     * @param playerMost The most significant bits of the player's identifier.
+     * @param playerLeast The least significant bits of the player's identifier.
+     * @param kind The event kind.
+     * @param fromItem The consumed item number.
+     * @param fromCount The consumed item count.
+     * @param toItem The produced item number.
+     * @param toCount The produced item count.
+     *
+     * @return Whether the event was queued.
+     *
+     * @since 2.3.0
+     */
+    boolean offer(
+        long time, long playerMost, long playerLeast, byte kind, int fromItem, int fromCount, int toItem, int toCount
+    ) {
+        long position;
+        int index;
+
+        while (true) {
+            position = this.tail.get();
+            index = (int) position & this.mask;
+
+            final long difference = this.sequences.get(index) - position;
+
+            if (difference == 0L) {
+                if (this.tail.compareAndSet(position, position + 1L)) break;
+            } else if (difference < 0L) {
+                // The consumer has not yet freed this slot, so the queue is full.
+                this.dropped.incrementAndGet();
+
+                return false;
+            }
+        }
+
+        this.times[index] = time;
+        this.playerMost[index] = playerMost;
+        this.playerLeast[index] = playerLeast;
+        this.kinds[index] = kind;
+        this.fromItems[index] = fromItem;
+        this.fromCounts[index] = fromCount;
+        this.toItems[index] = toItem;
+        this.toCounts[index] = toCount;
+        // Publishes the slot's contents to the consumer.
+        this.sequences.lazySet(index, position + 1L);
+
+        return true;
+    }
+
+    /**
+     * Drains every published event into the given sink.
+     * <p>
+     * This must only ever be called by a single thread.
+     *
+     * @param sink The event sink.
+     *
+     * @return The number of drained events.
+     *
+     * @since 2.3.0
+     */
+    int drain(Sink sink) {
+        int drained = 0;
+
+        while (true) {
+            final long position = this.head;
+            final int index = (int) position & this.mask;
+
+            if (this.sequences.get(index) != position + 1L) return drained;
+
+            sink.accept(
+                this.times[index],
+                this.playerMost[index],
+                this.playerLeast[index],
+                this.kinds[index],
+                this.fromItems[index],
+                this.fromCounts[index],
+                this.toItems[index],
+                this.toCounts[index]
+            );
+
+            // Frees the slot for the producer that wraps around to it next.
+            this.sequences.lazySet(index, position + this.mask + 1L);
+            this.head = position + 1L;
+            drained += 1;
+        }
+    }
+
+    /**
+     * Returns and resets the number of discarded events.
+     *
+     * @return The number of discarded events.
+     *
+     * @since 2.3.0
+     */
+    long takeDropped() {
+        return this.dropped.getAndSet(0L);
+    }
+
+    /**
+     * Receives drained events.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    @FunctionalInterface
+    interface Sink {
+
+        /**
+         * Receives a single event.
+         *
+         * @param time The timestamp, in milliseconds since the epoch.
+         * @param playerMost The most significant bits of the player's identifier.
+         * @param playerLeast The least significant bits of the player's identifier.
+         * @param kind The event kind.
+         * @param fromItem The consumed item number.
+         * @param fromCount The consumed item count.
+         * @param toItem The produced item number.
+         * @param toCount The produced item count.
+         *
+         * @since 2.3.0
+         */
+        void accept(
+            long time,
+            long playerMost,
+            long playerLeast,
+            byte kind,
+            int fromItem,
+            int fromCount,
+            int toItem,
+            int toCount
+        );
+
+    }
+
+}
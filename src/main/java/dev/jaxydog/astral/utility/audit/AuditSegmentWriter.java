@@ -0,0 +1,347 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.utility.audit;
+
+import dev.jaxydog.astral.Astral;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Appends exchange events to memory-mapped, fixed-size log segments.
+ * <p>
+ * Each segment is mapped in full when it is created, so appending a record is a plain memory write. Once a record no
+ * longer fits, the segment is flushed and a new one is started, and the oldest segments are deleted once there are
+ * more than the configured limit.
+ * <p>
+ * This is only ever used by a single writer thread.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+final class AuditSegmentWriter implements AuditRingBuffer.Sink, Closeable {
+
+    /**
+     * The directory that contains the segments.
+     *
+     * @since 2.3.0
+     */
+    private final Path directory;
+    /**
+     * The size of each segment in bytes.
+     *
+     * @since 2.3.0
+     */
+    private final int segmentSize;
+    /**
+     * The maximum number of retained segments.
+     *
+     * @since 2.3.0
+     */
+    private final int maxSegments;
+    /**
+     * Resolves item numbers into their names.
+     *
+     * @since 2.3.0
+     */
+    private final IntFunction<String> names;
+    /**
+     * The encoded names of every item that has been written, which are shared between segments.
+     *
+     * @since 2.3.0
+     */
+    private final Int2ObjectMap<byte[]> encodedNames = new Int2ObjectOpenHashMap<>();
+    /**
+     * The item numbers whose names have been written to the current segment.
+     *
+     * @since 2.3.0
+     */
+    private final IntSet written = new IntOpenHashSet();
+
+    /**
+     * The channel of the current segment.
+     *
+     * @since 2.3.0
+     */
+    private @Nullable FileChannel channel;
+    /**
+     * The mapped contents of the current segment.
+     *
+     * @since 2.3.0
+     */
+    private @Nullable MappedByteBuffer buffer;
+    /**
+     * The number of segments created by this writer, used to keep segment names unique.
+     *
+     * @since 2.3.0
+     */
+    private int created;
+
+    /**
+     * Creates a new segment writer.
+     *
+     * @param directory The directory that contains the segments.
+     * @param segmentSize The size of each segment in bytes.
+     * @param maxSegments The maximum number of retained segments.
+     * @param names Resolves item numbers into their names.
+     *
+     * @throws IOException If the directory could not be created.
+     *
+     * @since 2.3.0
+     */
+    AuditSegmentWriter(Path directory, int segmentSize, int maxSegments, IntFunction<String> names)
+        throws IOException
+    {
+        if (segmentSize < AuditFormat.HEADER_SIZE + AuditFormat.MAX_ITEM_SIZE * 2 + AuditFormat.EVENT_SIZE) {
+            throw new IllegalArgumentException("Segment size is too small to fit a single event");
+        }
+
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.maxSegments = Math.max(1, maxSegments);
+        this.names = names;
+    }
+
+    @Override
+    public void accept(
+        long time, long playerMost, long playerLeast, byte kind, int fromItem, int fromCount, int toItem, int toCount
+    ) {
+        try {
+            this.ensureCapacity(fromItem, toItem);
+
+            this.writeItem(fromItem);
+            this.writeItem(toItem);
+
+            final MappedByteBuffer buffer = this.getBuffer();
+            final int start = buffer.position();
+
+            buffer.position(start + 1);
+            buffer.putLong(time);
+            buffer.putLong(playerMost);
+            buffer.putLong(playerLeast);
+            buffer.put(kind);
+            buffer.putInt(fromItem);
+            buffer.putInt(fromCount);
+            buffer.putInt(toItem);
+            buffer.putInt(toCount);
+            // The tag is written last so that a concurrent reader never observes a partially written record.
+            buffer.put(start, AuditFormat.TAG_EVENT);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Unable to write exchange audit segment", exception);
+        }
+    }
+
+    /**
+     * Flushes the current segment to the storage device.
+     *
+     * @since 2.3.0
+     */
+    void flush() {
+        if (this.buffer != null) this.buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.flush();
+
+        if (this.channel != null) this.channel.close();
+
+        this.channel = null;
+        this.buffer = null;
+    }
+
+    /**
+     * Returns the mapped contents of the current segment.
+     *
+     * @return The mapped contents.
+     *
+     * @since 2.3.0
+     */
+    private MappedByteBuffer getBuffer() {
+        if (this.buffer == null) throw new IllegalStateException("No segment is open");
+
+        return this.buffer;
+    }
+
+    /**
+     * Rotates the current segment if the next event and any new item names would not fit within it.
+     *
+     * @param fromItem The consumed item number.
+     * @param toItem The produced item number.
+     *
+     * @throws IOException If a new segment could not be created.
+     *
+     * @since 2.3.0
+     */
+    private void ensureCapacity(int fromItem, int toItem) throws IOException {
+        if (this.buffer != null) {
+            int required = AuditFormat.EVENT_SIZE;
+
+            if (this.isUnwritten(fromItem)) required += getItemSize(this.getName(fromItem));
+            if (this.isUnwritten(toItem) && toItem != fromItem) required += getItemSize(this.getName(toItem));
+
+            if (this.buffer.remaining() >= required) return;
+        }
+
+        this.rotate();
+    }
+
+    /**
+     * Returns the size of an item name record in bytes, including its tag.
+     *
+     * @param name The encoded name.
+     *
+     * @return The record size.
+     *
+     * @since 2.3.0
+     */
+    private static int getItemSize(byte[] name) {
+        return 1 + Integer.BYTES + Short.BYTES + name.length;
+    }
+
+    /**
+     * Returns the encoded name of the given item, truncated to fit within an item name record.
+     *
+     * @param item The item number.
+     *
+     * @return The encoded name.
+     *
+     * @since 2.3.0
+     */
+    private byte[] getName(int item) {
+        return this.encodedNames.computeIfAbsent(item, (int key) -> {
+            final byte[] name = this.names.apply(key).getBytes(StandardCharsets.UTF_8);
+
+            return name.length > Short.MAX_VALUE ? Arrays.copyOf(name, Short.MAX_VALUE) : name;
+        });
+    }
+
+    /**
+     * Returns whether the given item's name has yet to be written to the current segment.
+     *
+     * @param item The item number.
+     *
+     * @return Whether the name must be written.
+     *
+     * @since 2.3.0
+     */
+    private boolean isUnwritten(int item) {
+        return item != AuditFormat.NO_ITEM && !this.written.contains(item);
+    }
+
+    /**
+     * Writes the given item's name to the current segment, if it has not been written already.
+     *
+     * @param item The item number.
+     *
+     * @since 2.3.0
+     */
+    private void writeItem(int item) {
+        if (!this.isUnwritten(item)) return;
+
+        final byte[] name = this.getName(item);
+        final MappedByteBuffer buffer = this.getBuffer();
+        final int start = buffer.position();
+
+        buffer.position(start + 1);
+        buffer.putInt(item);
+        buffer.putShort((short) name.length);
+        buffer.put(name);
+        buffer.put(start, AuditFormat.TAG_ITEM);
+
+        this.written.add(item);
+    }
+
+    /**
+     * Closes the current segment and opens a new one.
+     *
+     * @throws IOException If the new segment could not be created.
+     *
+     * @since 2.3.0
+     */
+    private void rotate() throws IOException {
+        this.close();
+
+        final String name = "%s%013d-%04d%s".formatted(
+            AuditFormat.SEGMENT_PREFIX,
+            System.currentTimeMillis(),
+            this.created % 10_000,
+            AuditFormat.SEGMENT_SUFFIX
+        );
+        final Path path = this.directory.resolve(name);
+
+        this.channel = FileChannel.open(
+            path,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        );
+        this.buffer = this.channel.map(MapMode.READ_WRITE, 0L, this.segmentSize);
+        this.buffer.order(ByteOrder.BIG_ENDIAN);
+        this.buffer.putInt(AuditFormat.MAGIC);
+        this.buffer.putShort(AuditFormat.VERSION);
+        this.buffer.putShort((short) 0);
+        this.written.clear();
+        this.created += 1;
+
+        this.prune();
+    }
+
+    /**
+     * Deletes the oldest segments until no more than the configured limit remain.
+     * <p>
+     * Segments that cannot be deleted, such as those still mapped by a reader on Windows, are logged and skipped, to be
+     * retried the next time a segment is created, rather than stopping the writer.
+     *
+     * @throws IOException If the directory could not be listed.
+     *
+     * @since 2.3.0
+     */
+    private void prune() throws IOException {
+        final List<Path> segments;
+
+        try (final Stream<Path> stream = Files.list(this.directory)) {
+            segments = stream.filter(AuditFormat::isSegment).sorted().toList();
+        }
+
+        for (int index = 0; index < segments.size() - this.maxSegments; index += 1) {
+            final Path segment = segments.get(index);
+
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException exception) {
+                Astral.LOGGER.warn("Unable to delete exchange audit segment {}", segment, exception);
+            }
+        }
+    }
+
+}
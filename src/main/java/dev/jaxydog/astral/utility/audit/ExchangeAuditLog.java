@@ -0,0 +1,376 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.utility.audit;
+
+import dev.jaxydog.astral.Astral;
+import dev.jaxydog.astral.utility.audit.AuditFormat.Kind;
+import net.minecraft.item.Item;
+import net.minecraft.registry.Registries;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An asynchronous, append-only log of every currency exchange performed by players.
+ * <p>
+ * Recording an event only copies its fields into a pre-allocated ring buffer, so the server thread never waits on
+ * storage. A daemon thread drains the buffer into memory-mapped segments, which can later be inspected with
+ * {@link AuditLogReader}. If the writer falls behind far enough for the buffer to fill, new events are discarded and a
+ * warning is logged instead.
+ * <p>
+ * If the segment writer fails, events recorded afterwards are counted as discarded, and the writer thread reopens
+ * its segments once enough time has passed. Recording an event never waits on this.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+public final class ExchangeAuditLog implements Runnable {
+
+    /**
+     * The number of events that may be queued before new events are discarded.
+     *
+     * @since 2.3.0
+     */
+    public static final int CAPACITY = 1 << 14;
+    /**
+     * The size of each log segment in bytes.
+     *
+     * @since 2.3.0
+     */
+    public static final int SEGMENT_SIZE = 16 << 20;
+    /**
+     * The maximum number of retained log segments.
+     *
+     * @since 2.3.0
+     */
+    public static final int MAX_SEGMENTS = 64;
+
+    /**
+     * The time that the writer waits between drains while the buffer is empty, in nanoseconds.
+     *
+     * @since 2.3.0
+     */
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(50L);
+    /**
+     * The time between segment flushes, in nanoseconds.
+     *
+     * @since 2.3.0
+     */
+    private static final long FLUSH_NANOS = TimeUnit.SECONDS.toNanos(5L);
+    /**
+     * The time between attempts to reopen a failed segment writer, in nanoseconds.
+     *
+     * @since 2.3.0
+     */
+    private static final long RETRY_NANOS = TimeUnit.SECONDS.toNanos(30L);
+
+    /**
+     * The currently running log, if any.
+     *
+     * @since 2.3.0
+     */
+    private static volatile @Nullable ExchangeAuditLog active;
+
+    /**
+     * The queued events.
+     *
+     * @since 2.3.0
+     */
+    private final AuditRingBuffer buffer = new AuditRingBuffer(CAPACITY);
+    /**
+     * The number of events discarded while the segment writer had failed.
+     *
+     * @since 2.3.0
+     */
+    private final AtomicLong discarded = new AtomicLong();
+    /**
+     * The directory that contains the log segments.
+     *
+     * @since 2.3.0
+     */
+    private final Path directory;
+    /**
+     * The current segment writer, which is only accessed by the writer thread once started.
+     *
+     * @since 2.3.0
+     */
+    private AuditSegmentWriter writer;
+    /**
+     * The writer thread.
+     *
+     * @since 2.3.0
+     */
+    private final Thread thread;
+
+    /**
+     * Whether the log is still accepting events.
+     *
+     * @since 2.3.0
+     */
+    private volatile boolean running = true;
+    /**
+     * Whether the segment writer failed and has not yet been reopened.
+     *
+     * @since 2.3.0
+     */
+    private volatile boolean failed;
+
+    /**
+     * Creates a new exchange audit log.
+     *
+     * @param directory The directory that contains the log segments.
+     *
+     * @throws IOException If the directory could not be created.
+     *
+     * @since 2.3.0
+     */
+    private ExchangeAuditLog(Path directory) throws IOException {
+        this.directory = directory;
+        this.writer = this.createWriter();
+        this.thread = new Thread(this, "Astral Exchange Audit");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts logging exchanges into the given directory, stopping any previously running log.
+     *
+     * @param directory The directory that contains the log segments.
+     *
+     * @since 2.3.0
+     */
+    public static synchronized void start(Path directory) {
+        stop();
+
+        try {
+            final ExchangeAuditLog log = new ExchangeAuditLog(directory);
+
+            log.thread.start();
+
+            active = log;
+        } catch (IOException exception) {
+            Astral.LOGGER.error("Unable to start exchange audit log; exchanges will not be recorded", exception);
+        }
+    }
+
+    /**
+     * Stops logging exchanges, writing any queued events before returning.
+     *
+     * @since 2.3.0
+     */
+    public static synchronized void stop() {
+        final ExchangeAuditLog log = active;
+
+        if (log == null) return;
+
+        active = null;
+        log.running = false;
+
+        LockSupport.unpark(log.thread);
+
+        try {
+            log.thread.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (log.failed) {
+            Astral.LOGGER.warn("Exchange audit log discarded {} events after its writer failed", log.discarded.get());
+        }
+    }
+
+    /**
+     * Records an exchange performed by the given player.
+     * <p>
+     * This does nothing if the log is not running.
+     *
+     * @param player The player's identifier.
+     * @param kind The kind of exchange.
+     * @param from The consumed item, if any.
+     * @param fromCount The consumed item count.
+     * @param to The produced item, if any.
+     * @param toCount The produced item count.
+     *
+     * @since 2.3.0
+     */
+    public static void record(
+        UUID player, Kind kind, @Nullable Item from, int fromCount, @Nullable Item to, int toCount
+    ) {
+        record(player, kind, getItemId(from), fromCount, getItemId(to), toCount);
+    }
+
+    /**
+     * Records an exchange performed by the given player.
+     * <p>
+     * This does nothing if the log is not running.
+     *
+     * @param player The player's identifier.
+     * @param kind The kind of exchange.
+     * @param fromItem The consumed item's raw identifier, or {@link AuditFormat#NO_ITEM}.
+     * @param fromCount The consumed item count.
+     * @param toItem The produced item's raw identifier, or {@link AuditFormat#NO_ITEM}.
+     * @param toCount The produced item count.
+     *
+     * @since 2.3.0
+     */
+    public static void record(UUID player, Kind kind, int fromItem, int fromCount, int toItem, int toCount) {
+        final ExchangeAuditLog log = active;
+
+        if (log == null || !log.running) return;
+
+        // The writer thread reopens its segments in the background, so events are only counted until it does.
+        if (log.failed) {
+            log.discarded.incrementAndGet();
+
+            return;
+        }
+
+        log.buffer.offer(
+            System.currentTimeMillis(),
+            player.getMostSignificantBits(),
+            player.getLeastSignificantBits(),
+            kind.getId(),
+            fromItem,
+            fromCount,
+            toItem,
+            toCount
+        );
+    }
+
+    /**
+     * Returns the raw identifier of the given item.
+     *
+     * @param item The item, if any.
+     *
+     * @return The raw identifier, or {@link AuditFormat#NO_ITEM}.
+     *
+     * @since 2.3.0
+     */
+    public static int getItemId(@Nullable Item item) {
+        return item == null ? AuditFormat.NO_ITEM : Registries.ITEM.getRawId(item);
+    }
+
+    /**
+     * Returns the name of the item with the given raw identifier.
+     *
+     * @param item The raw identifier.
+     *
+     * @return The item's name.
+     *
+     * @since 2.3.0
+     */
+    private static String getItemName(int item) {
+        return Registries.ITEM.getId(Registries.ITEM.get(item)).toString();
+    }
+
+    /**
+     * Creates a new segment writer for this log's directory.
+     *
+     * @return The segment writer.
+     *
+     * @throws IOException If the directory could not be created.
+     *
+     * @since 2.3.0
+     */
+    private AuditSegmentWriter createWriter() throws IOException {
+        return new AuditSegmentWriter(this.directory, SEGMENT_SIZE, MAX_SEGMENTS, ExchangeAuditLog::getItemName);
+    }
+
+    @Override
+    public void run() {
+        do {
+            try (final AuditSegmentWriter writer = this.writer) {
+                this.drain(writer);
+
+                return;
+            } catch (IOException | RuntimeException exception) {
+                Astral.LOGGER.error("Exchange audit log stopped unexpectedly", exception);
+
+                this.failed = true;
+            }
+        } while (this.reopen());
+    }
+
+    /**
+     * Drains the buffer into the given segment writer until the log is stopped.
+     *
+     * @param writer The segment writer.
+     *
+     * @throws IOException If the segments could not be written.
+     *
+     * @since 2.3.0
+     */
+    private void drain(AuditSegmentWriter writer) throws IOException {
+        long lastFlush = System.nanoTime();
+
+        while (true) {
+            // Read the flag before draining, so that events queued before stopping are always written.
+            final boolean running = this.running;
+            final int drained = this.buffer.drain(writer);
+            final long dropped = this.buffer.takeDropped();
+
+            if (dropped > 0L) {
+                Astral.LOGGER.warn("Exchange audit log fell behind and discarded {} events", dropped);
+            }
+
+            if (System.nanoTime() - lastFlush >= FLUSH_NANOS) {
+                writer.flush();
+
+                lastFlush = System.nanoTime();
+            }
+
+            if (!running) break;
+            if (drained == 0) LockSupport.parkNanos(this, IDLE_NANOS);
+        }
+    }
+
+    /**
+     * Waits between attempts to reopen the segment writer until it is reopened or the log is stopped.
+     *
+     * @return Whether the segment writer was reopened.
+     *
+     * @since 2.3.0
+     */
+    private boolean reopen() {
+        while (this.running) {
+            final long deadline = System.nanoTime() + RETRY_NANOS;
+
+            // Stopping the log unparks this thread, so the remaining wait is skipped.
+            for (long now = System.nanoTime(); this.running && now - deadline < 0L; now = System.nanoTime()) {
+                LockSupport.parkNanos(this, deadline - now);
+            }
+
+            if (!this.running) return false;
+
+            try {
+                this.writer = this.createWriter();
+                this.failed = false;
+
+                Astral.LOGGER.warn("Reopened exchange audit log, {} events were discarded", this.discarded.get());
+
+                return true;
+            } catch (IOException exception) {
+                Astral.LOGGER.error("Unable to reopen exchange audit log", exception);
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -14,6 +14,12 @@
 
 package dev.jaxydog.astral.utility.injected;
 
+import dev.jaxydog.astral.utility.ChallengeHelper;
+import dev.jaxydog.astral.utility.ChallengeHelper.ScalingZone;
+import dev.jaxydog.astral.utility.ChallengeHelper.ScalingZones;
+import net.minecraft.entity.Entity;
+import org.jetbrains.annotations.Nullable;
+
 /**
  * Extends the {@link net.minecraft.entity.LivingEntity} class.
  *
@@ -44,4 +50,33 @@ public interface AstralLivingEntity {
         return false;
     }
 
+    /**
+     * Returns this entity's challenge scale factor, which is multiplied by an additive to scale it.
+     * <p>
+     * Implementations may cache this value for as long as the entity's horizontal block position, the world's spawn,
+     * the world's gamerules, and the loaded scaling zones remain unchanged.
+     *
+     * @return The challenge scale factor.
+     *
+     * @since 2.3.0
+     */
+    default double astral$getChallengeScale() {
+        return ChallengeHelper.getScaleFactor((Entity) this);
+    }
+
+    /**
+     * Returns the scaling zone that contains this entity, if any.
+     * <p>
+     * Implementations may cache this value under the same conditions as {@link #astral$getChallengeScale()}.
+     *
+     * @return The containing zone, or {@code null} if the entity is not within any zone.
+     *
+     * @since 2.3.0
+     */
+    default @Nullable ScalingZone astral$getChallengeZone() {
+        final Entity entity = (Entity) this;
+
+        return ScalingZones.get().find(entity.getWorld(), entity.getBlockX(), entity.getBlockZ());
+    }
+
 }
@@ -0,0 +1,63 @@
+/*
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ *
+ * Copyright © 2024 Jaxydog
+ *
+ * This file is part of Astral.
+ *
+ * Astral is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * Astral is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with Astral. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package dev.jaxydog.astral.utility.injected;
+
+import dev.jaxydog.astral.content.AstralGamerules;
+import dev.jaxydog.astral.utility.ChallengeHelper.PlayerGrid;
+import dev.jaxydog.astral.utility.injected.SprayableEntity.SprayScheduler;
+
+/**
+ * Extends the {@link net.minecraft.world.World} class.
+ *
+ * @author Jaxydog
+ * @since 2.3.0
+ */
+public interface AstralWorld {
+
+    /**
+     * Returns the cached snapshot of this world's Astral gamerules.
+     *
+     * @return The gamerule snapshot.
+     *
+     * @since 2.3.0
+     */
+    AstralGamerules.Snapshot astral$getGamerules();
+
+    /**
+     * Discards the cached snapshot of this world's Astral gamerules, causing it to be re-read on next access.
+     *
+     * @since 2.3.0
+     */
+    void astral$refreshGamerules();
+
+    /**
+     * Returns this world's player grid, which is used when scaling by player progression.
+     *
+     * @return The player grid.
+     *
+     * @since 2.3.0
+     */
+    PlayerGrid astral$getPlayerGrid();
+
+    /**
+     * Returns this world's spray scheduler, which ticks the currently sprayed entities.
+     *
+     * @return The spray scheduler.
+     *
+     * @since 2.3.0
+     */
+    SprayScheduler astral$getSprayScheduler();
+
+}
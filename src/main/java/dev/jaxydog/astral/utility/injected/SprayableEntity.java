@@ -14,24 +14,64 @@
 
 package dev.jaxydog.astral.utility.injected;
 
+import dev.jaxydog.astral.Astral;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.ai.NoPenaltyTargeting;
 import net.minecraft.entity.ai.goal.Goal;
 import net.minecraft.entity.ai.pathing.Path;
 import net.minecraft.entity.mob.PathAwareEntity;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.EnumSet;
 
 /**
  * An entity that can be sprayed.
+ * <p>
+ * Entities become sprayable either by implementing this interface through a mixin, which allows for custom reactions,
+ * or by being added to the {@link #SPRAYABLE_ENTITIES} tag, in which case they are sprayed through a
+ * {@link TaggedSprayable} and will run away from their sprayer if they are able to.
+ * <p>
+ * Sprayed entities are ticked by their world's {@link SprayScheduler}, so entities that are not sprayed are never
+ * ticked.
  *
  * @author Jaxydog
  * @since 1.6.0
  */
 public interface SprayableEntity {
 
+    /**
+     * Entity types within this tag may be sprayed without implementing this interface.
+     *
+     * @since 2.3.0
+     */
+    TagKey<EntityType<?>> SPRAYABLE_ENTITIES = TagKey.of(RegistryKeys.ENTITY_TYPE, Astral.getId("sprayable"));
+
+    /**
+     * Returns the given entity as a sprayable entity, or {@code null} if it may not be sprayed.
+     *
+     * @param entity The entity.
+     *
+     * @return The sprayable entity.
+     *
+     * @since 2.3.0
+     */
+    static @Nullable SprayableEntity of(Entity entity) {
+        if (entity instanceof final SprayableEntity sprayable) return sprayable;
+        if (!entity.getType().isIn(SPRAYABLE_ENTITIES)) return null;
+
+        return SprayScheduler.get(entity.getWorld()).getTagged(entity);
+    }
+
     /**
      * Sprays this entity.
      *
@@ -44,7 +84,7 @@ public interface SprayableEntity {
     void astral$setSprayed(@Nullable LivingEntity source, int ticks, boolean initialSpray);
 
     /**
-     * Sprays this entity.
+     * Sprays this entity, scheduling it to be ticked until the spray ends.
      *
      * @param source The source entity, if applicable.
      * @param ticks The amount of ticks to be sprayed for.
@@ -53,6 +93,19 @@ public interface SprayableEntity {
      */
     default void astral$setSprayed(@Nullable LivingEntity source, int ticks) {
         this.astral$setSprayed(source, ticks, !this.astral$isSprayed());
+
+        if (this.astral$isSprayed()) SprayScheduler.schedule(this);
+    }
+
+    /**
+     * Returns the entity that is sprayed.
+     *
+     * @return The sprayed entity.
+     *
+     * @since 2.3.0
+     */
+    default Entity astral$getSprayedEntity() {
+        return (Entity) this;
     }
 
     /**
@@ -131,6 +184,79 @@ public interface SprayableEntity {
         }
     }
 
+    /**
+     * The spray status of a sprayed entity.
+     * <p>
+     * Implementations should only allocate this while the entity is sprayed, so that the vast majority of entities,
+     * which are never sprayed, do not store any spray fields.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class SprayState {
+
+        /**
+         * The entity that sprayed this entity.
+         *
+         * @since 2.3.0
+         */
+        private @Nullable LivingEntity source;
+        /**
+         * The remaining spray duration.
+         *
+         * @since 2.3.0
+         */
+        private int ticks;
+
+        /**
+         * Creates a new spray state.
+         *
+         * @param source The entity that sprayed this entity.
+         * @param ticks The spray duration.
+         *
+         * @since 2.3.0
+         */
+        public SprayState(@Nullable LivingEntity source, int ticks) {
+            this.set(source, ticks);
+        }
+
+        /**
+         * Updates this spray state.
+         *
+         * @param source The entity that sprayed this entity.
+         * @param ticks The remaining spray duration.
+         *
+         * @since 2.3.0
+         */
+        public void set(@Nullable LivingEntity source, int ticks) {
+            this.source = source;
+            this.ticks = ticks;
+        }
+
+        /**
+         * Returns the entity that sprayed this entity.
+         *
+         * @return The spray source.
+         *
+         * @since 2.3.0
+         */
+        public @Nullable LivingEntity getSource() {
+            return this.source;
+        }
+
+        /**
+         * Returns the remaining spray duration.
+         *
+         * @return The remaining ticks.
+         *
+         * @since 2.3.0
+         */
+        public int getTicks() {
+            return this.ticks;
+        }
+
+    }
+
     /**
      * A goal that causes a sprayed entity to run away from its sprayer.
      *
@@ -176,26 +302,38 @@ public interface SprayableEntity {
         }
 
         /**
-         * Attempts to find a location to run towards.
+         * Returns a path that leads the given entity away from its sprayer.
          *
-         * @return Whether a target path was found.
+         * @param entity The sprayed entity.
+         * @param source The entity's sprayer.
          *
-         * @since 1.6.0
+         * @return The escape path, or {@code null} if none was found.
+         *
+         * @since 2.3.0
          */
-        protected boolean findTarget() {
-            final LivingEntity source = this.entity.astral$getSpraySource();
+        public static @Nullable Path findEscapePath(PathAwareEntity entity, @Nullable LivingEntity source) {
+            if (source == null) return null;
 
-            if (source == null) return false;
+            final Vec3d target = NoPenaltyTargeting.findFrom(entity, 16, 7, source.getPos());
 
-            final Vec3d target = NoPenaltyTargeting.findFrom(this.entity, 16, 7, source.getPos());
+            if (target == null) return null;
 
-            if (target == null) return false;
-
-            if ((source).squaredDistanceTo(target.x, target.y, target.z) < source.squaredDistanceTo(this.entity)) {
-                return false;
+            if ((source).squaredDistanceTo(target.x, target.y, target.z) < source.squaredDistanceTo(entity)) {
+                return null;
             }
 
-            this.path = this.entity.getNavigation().findPathTo(target.getX(), target.getY(), target.getZ(), 0);
+            return entity.getNavigation().findPathTo(target.getX(), target.getY(), target.getZ(), 0);
+        }
+
+        /**
+         * Attempts to find a location to run towards.
+         *
+         * @return Whether a target path was found.
+         *
+         * @since 1.6.0
+         */
+        protected boolean findTarget() {
+            this.path = findEscapePath(this.entity, this.entity.astral$getSpraySource());
 
             return this.path != null;
         }
@@ -222,4 +360,226 @@ public interface SprayableEntity {
 
     }
 
+    /**
+     * Sprays an entity that is only sprayable because its type is within the {@link #SPRAYABLE_ENTITIES} tag.
+     * <p>
+     * Instances are only retained by their world's {@link SprayScheduler} while their entity is sprayed, so tagged
+     * entities that are not sprayed do not store anything.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class TaggedSprayable implements SprayableEntity {
+
+        /**
+         * The speed at which sprayed entities run away.
+         *
+         * @since 2.3.0
+         */
+        public static final double ESCAPE_SPEED = 1.5D;
+
+        /**
+         * The sprayed entity.
+         *
+         * @since 2.3.0
+         */
+        private final Entity entity;
+
+        /**
+         * The entity's spray status, which is only allocated while it is sprayed.
+         *
+         * @since 2.3.0
+         */
+        private @Nullable SprayState state;
+
+        /**
+         * Creates a new tagged sprayable entity.
+         *
+         * @param entity The sprayed entity.
+         *
+         * @since 2.3.0
+         */
+        public TaggedSprayable(Entity entity) {
+            this.entity = entity;
+        }
+
+        @Override
+        public void astral$setSprayed(@Nullable LivingEntity source, int ticks, boolean initialSpray) {
+            if (source == null) return;
+
+            if (ticks <= 0) {
+                this.state = null;
+            } else if (this.state == null) {
+                this.state = new SprayState(source, ticks);
+            } else {
+                this.state.set(source, ticks);
+            }
+
+            if (initialSpray && this.astral$isSprayed()) this.escape();
+        }
+
+        @Override
+        public @Nullable LivingEntity astral$getSpraySource() {
+            return this.state == null ? null : this.state.getSource();
+        }
+
+        @Override
+        public int astral$getSprayTicks() {
+            return this.state == null ? 0 : this.state.getTicks();
+        }
+
+        @Override
+        public Entity astral$getSprayedEntity() {
+            return this.entity;
+        }
+
+        @Override
+        public void astral$sprayTick() {
+            SprayableEntity.super.astral$sprayTick();
+
+            if (this.astral$isSprayed()) this.escape();
+        }
+
+        /**
+         * Causes the entity to run away from its sprayer, if it is able to and is not already moving.
+         *
+         * @since 2.3.0
+         */
+        private void escape() {
+            if (!(this.entity instanceof final PathAwareEntity mob) || !mob.getNavigation().isIdle()) return;
+
+            final Path path = EscapeSprayGoal.findEscapePath(mob, this.astral$getSpraySource());
+
+            if (path != null) mob.getNavigation().startMovingAlong(path, ESCAPE_SPEED);
+        }
+
+    }
+
+    /**
+     * Ticks the sprayed entities within a world.
+     * <p>
+     * Entities are added once they are sprayed, ticked once per server tick, and removed once their spray ends or they
+     * are removed from the world, so entities that are not sprayed are never visited.
+     *
+     * @author Jaxydog
+     * @since 2.3.0
+     */
+    final class SprayScheduler {
+
+        /**
+         * The currently sprayed entities, in the order that they were sprayed.
+         *
+         * @since 2.3.0
+         */
+        private final ReferenceLinkedOpenHashSet<SprayableEntity> active = new ReferenceLinkedOpenHashSet<>();
+        /**
+         * The currently sprayed tagged entities, keyed by their entity.
+         *
+         * @since 2.3.0
+         */
+        private final Reference2ObjectOpenHashMap<Entity, TaggedSprayable> tagged = new Reference2ObjectOpenHashMap<>();
+
+        /**
+         * Returns the given world's spray scheduler.
+         *
+         * @param world The world.
+         *
+         * @return The spray scheduler.
+         *
+         * @since 2.3.0
+         */
+        public static SprayScheduler get(World world) {
+            return ((AstralWorld) world).astral$getSprayScheduler();
+        }
+
+        /**
+         * Schedules the given sprayed entity within its world, if the world is server-side.
+         *
+         * @param sprayable The sprayed entity.
+         *
+         * @since 2.3.0
+         */
+        public static void schedule(SprayableEntity sprayable) {
+            final World world = sprayable.astral$getSprayedEntity().getWorld();
+
+            if (!world.isClient()) get(world).add(sprayable);
+        }
+
+        /**
+         * Ticks every sprayed entity within the given world.
+         *
+         * @param world The world.
+         *
+         * @since 2.3.0
+         */
+        public static void tick(ServerWorld world) {
+            final SprayScheduler scheduler = get(world);
+
+            if (scheduler.active.isEmpty()) return;
+
+            final ObjectIterator<SprayableEntity> iterator = scheduler.active.iterator();
+
+            while (iterator.hasNext()) {
+                final SprayableEntity sprayable = iterator.next();
+                final Entity entity = sprayable.astral$getSprayedEntity();
+
+                if (!entity.isRemoved()) {
+                    // Entities are only ticked within ticking chunks, so their spray is paused elsewhere.
+                    if (!world.shouldTickEntity(entity.getBlockPos())) continue;
+
+                    sprayable.astral$sprayTick();
+
+                    if (sprayable.astral$isSprayed()) continue;
+                }
+
+                iterator.remove();
+                scheduler.tagged.remove(entity);
+            }
+        }
+
+        /**
+         * Returns the tagged sprayable wrapping the given entity.
+         * <p>
+         * If the entity is not currently sprayed, a new instance is returned, which is only retained once sprayed.
+         *
+         * @param entity The entity.
+         *
+         * @return The tagged sprayable entity.
+         *
+         * @since 2.3.0
+         */
+        public TaggedSprayable getTagged(Entity entity) {
+            final TaggedSprayable sprayable = this.tagged.get(entity);
+
+            return sprayable == null ? new TaggedSprayable(entity) : sprayable;
+        }
+
+        /**
+         * Adds the given sprayed entity to this scheduler.
+         *
+         * @param sprayable The sprayed entity.
+         *
+         * @since 2.3.0
+         */
+        public void add(SprayableEntity sprayable) {
+            if (!this.active.add(sprayable)) return;
+
+            if (sprayable instanceof final TaggedSprayable tagged) {
+                this.tagged.put(tagged.astral$getSprayedEntity(), tagged);
+            }
+        }
+
+        /**
+         * Returns the number of currently sprayed entities.
+         *
+         * @return The number of sprayed entities.
+         *
+         * @since 2.3.0
+         */
+        public int size() {
+            return this.active.size();
+        }
+
+    }
+
 }